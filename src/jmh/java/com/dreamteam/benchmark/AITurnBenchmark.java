@@ -0,0 +1,69 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.core.GameSession;
+import com.dreamteam.core.GameSimulator;
+import com.dreamteam.core.WorldMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures whole AI turns: placing the bonus units, attacking and the end of turn move.
+ * A game is replaced by a new one once it is over, so the measurement covers every stage of a game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AITurnBenchmark {
+
+    /**
+     * The world file that the games are played on.
+     */
+    @Param({"worlds/world_maps/default.world", "worlds/world_maps/sinnoh.world"})
+    private String world;
+    /**
+     * The world that every game is played on a copy of.
+     */
+    private WorldMap template;
+    /**
+     * The game being played.
+     */
+    private GameSession session;
+    /**
+     * The seed of the next game.
+     */
+    private long seed;
+
+    /**
+     * Reads the world and starts the first game.
+     *
+     * @throws IOException When the world file could not be read
+     */
+    @Setup
+    public void setUp() throws IOException {
+        template = GameSimulator.readWorld(new File(world));
+        session = EngineBenchmark.newSession(template, seed++);
+    }
+
+    /**
+     * Plays the phases of the current player until the turn passes to the next player.
+     *
+     * @return The number of turns played in the game
+     */
+    @Benchmark
+    public int aiTurn() {
+        if (session.isGameOver() || session.getTurnCount() >= GameSimulator.DEFAULT_MAX_TURNS) {
+            session = EngineBenchmark.newSession(template, seed++);
+        }
+        int turn = session.getTurnCount();
+        while (!session.isGameOver() && session.getTurnCount() == turn) {
+            session.playAIPhase();
+        }
+        return session.getTurnCount();
+    }
+}
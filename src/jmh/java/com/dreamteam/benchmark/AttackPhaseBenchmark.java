@@ -0,0 +1,92 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.core.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole AI attack phase on large synthetic worlds, picking every attack with the
+ * incrementally updated {@link AttackIndex} against rescanning every border with
+ * {@link AIPlayer#territoryToAttack()} after every battle.
+ * <p>
+ * Both start from the same position and the same seed before every invocation, so they
+ * fight the very same battles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttackPhaseBenchmark {
+
+    /**
+     * The number of territories along each side of the grid world.
+     */
+    @Param({"30", "60"})
+    private int side;
+    /**
+     * The session of the game.
+     */
+    private GameSession session;
+    /**
+     * The AI player whose attack phase is measured.
+     */
+    private AIPlayer player;
+    /**
+     * The position before the attack phase.
+     */
+    private GameState position;
+
+    /**
+     * Generates the world and plays the opening turns of a seeded game, up to the
+     * attack phase of a player.
+     */
+    @Setup
+    public void setUp() {
+        session = EngineBenchmark.newSession(SyntheticWorld.grid(side, side, 10), 3110);
+        while (session.getTurnCount() < 8 || session.getGamePhase() != GamePhase.ATTACK) {
+            session.playAIPhase();
+        }
+        player = (AIPlayer) session.getCurrentPlayer();
+        position = new GameState(session.getWorld().getState());
+    }
+
+    /**
+     * Restores the position and the dice before every attack phase.
+     */
+    @Setup(Level.Invocation)
+    public void restore() {
+        session.getWorld().getState().copyFrom(position);
+        session.setSeed(17);
+    }
+
+    /**
+     * Plays the attack phase with the attack index.
+     *
+     * @return The battles fought in the game
+     */
+    @Benchmark
+    public int indexed() {
+        player.doAttack(session);
+        return session.getBattleCount();
+    }
+
+    /**
+     * Plays the attack phase rescanning every border after every battle.
+     *
+     * @return The battles fought in the game
+     */
+    @Benchmark
+    public int rescan() {
+        Territory[] territories = player.territoryToAttack();
+        while (territories[0] != null) {
+            if (session.blitz(territories[0], territories[1], 0.5)) {
+                session.moveUnits(territories[0], territories[1], territories[0].getUnits() - 1);
+            }
+            territories = player.territoryToAttack();
+        }
+        return session.getBattleCount();
+    }
+}
@@ -0,0 +1,77 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.core.AIPlayer;
+import com.dreamteam.core.BattleKernel;
+import com.dreamteam.core.GameSession;
+import com.dreamteam.core.Territory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single round of a battle, in the kernel alone and through a session without handlers.
+ * Run with {@code -prof gc}: both should report (close to) zero bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BattleKernelBenchmark {
+
+    /**
+     * The random variable acting as the dice.
+     */
+    private SplittableRandom random;
+    /**
+     * The session that fights the battles, without any handlers.
+     */
+    private GameSession session;
+    /**
+     * The territory that supplies the attacking units.
+     */
+    private Territory attacking;
+    /**
+     * The territory that is being attacked.
+     */
+    private Territory defending;
+
+    /**
+     * Creates the random variable, the session and two neighbouring territories owned by AI players.
+     */
+    @Setup
+    public void setUp() {
+        random = new SplittableRandom(5);
+        session = new GameSession();
+        session.setSeed(5);
+        attacking = new Territory("Attacking");
+        attacking.setOwner(new AIPlayer("AI 1"));
+        defending = new Territory("Defending");
+        defending.setOwner(new AIPlayer("AI 2"));
+    }
+
+    /**
+     * Rolls a round of three attacking and two defending dice.
+     *
+     * @return The packed result of the round
+     */
+    @Benchmark
+    public int roll() {
+        return BattleKernel.roll(3, 2, random);
+    }
+
+    /**
+     * Fights a round of three attacking and two defending dice between two territories,
+     * topping the territories up so that the battle never ends.
+     *
+     * @return Whether the defending territory was conquered
+     */
+    @Benchmark
+    public boolean battle() {
+        if (attacking.getUnits() < 4) attacking.setUnits(1000);
+        if (defending.getUnits() < 2) defending.setUnits(1000);
+        return session.battle(attacking, defending, 3, 2);
+    }
+}
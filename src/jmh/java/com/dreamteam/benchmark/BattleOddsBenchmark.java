@@ -0,0 +1,64 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.core.BattleOdds;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures looking up the odds of a battle in the precomputed table, and computing the whole table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BattleOddsBenchmark {
+
+    /**
+     * The shared table of odds.
+     */
+    private BattleOdds odds;
+    /**
+     * The units on the attacking territory of the next look up.
+     */
+    private int attackers;
+    /**
+     * The units on the defending territory of the next look up.
+     */
+    private int defenders;
+
+    /**
+     * Waits for the shared table to be computed.
+     */
+    @Setup
+    public void setUp() {
+        odds = BattleOdds.getDefault();
+        odds.precompute().join();
+    }
+
+    /**
+     * Looks up the odds of a battle, walking through the table so the look ups are not constant.
+     *
+     * @return The probability of winning the battle
+     */
+    @Benchmark
+    public double lookup() {
+        attackers = (attackers + 7) % BattleOdds.DEFAULT_MAX_UNITS;
+        defenders = (defenders + 3) % BattleOdds.DEFAULT_MAX_UNITS;
+        return odds.winProbability(attackers, defenders);
+    }
+
+    /**
+     * Computes a whole table of 500 by 500 battles.
+     *
+     * @return The probability of winning the largest battle
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double computeTable() {
+        BattleOdds table = new BattleOdds(BattleOdds.DEFAULT_MAX_UNITS, BattleOdds.DEFAULT_MAX_UNITS);
+        return table.winProbability(BattleOdds.DEFAULT_MAX_UNITS, BattleOdds.DEFAULT_MAX_UNITS);
+    }
+}
@@ -0,0 +1,183 @@
+package com.dreamteam.benchmark;
+
+import com.github.cliftonlabs.json_simple.JsonArray;
+import com.github.cliftonlabs.json_simple.JsonException;
+import com.github.cliftonlabs.json_simple.JsonObject;
+import com.github.cliftonlabs.json_simple.Jsoner;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares the JSON results of a JMH run against the results of a baseline run and reports
+ * every benchmark that got slower, or allocates more, than the allowed tolerance.
+ * <p>
+ * Benchmarks are matched by name and parameters. The score of a benchmark is compared in the
+ * direction of its mode (lower is better for times, higher for throughput), and the bytes
+ * allocated per operation are compared when both runs used the gc profiler.
+ */
+public class BenchmarkComparison {
+
+    /**
+     * The name of the secondary metric of the gc profiler holding the bytes allocated per operation
+     * (JMH prefixes the names of profiler metrics with a middle dot).
+     */
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    /**
+     * Allocations below this many bytes per operation are considered noise.
+     */
+    private static final double ALLOCATION_NOISE = 16;
+
+    /**
+     * The results of the baseline run, by benchmark key.
+     */
+    private final Map<String, JsonObject> baseline;
+    /**
+     * The results of the run being compared, by benchmark key.
+     */
+    private final Map<String, JsonObject> results;
+    /**
+     * The allowed regression, as a fraction of the baseline.
+     */
+    private final double tolerance;
+
+    /**
+     * Constructor for instances of BenchmarkComparison.
+     *
+     * @param baseline  The results of the baseline run
+     * @param results   The results of the run being compared
+     * @param tolerance The allowed regression, as a fraction of the baseline
+     */
+    public BenchmarkComparison(JsonArray baseline, JsonArray results, double tolerance) {
+        this.baseline = index(baseline);
+        this.results = index(results);
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Reads the JSON results of a JMH run.
+     *
+     * @param path The results file
+     * @return The results of every benchmark
+     * @throws IOException   When the file could not be read
+     * @throws JsonException When the file is not valid JSON
+     */
+    public static JsonArray read(String path) throws IOException, JsonException {
+        try (Reader reader = new FileReader(path)) {
+            return (JsonArray) Jsoner.deserialize(reader);
+        }
+    }
+
+    /**
+     * Indexes results by the name and parameters of their benchmark.
+     *
+     * @param run The results of a run
+     * @return The results by benchmark key
+     */
+    private static Map<String, JsonObject> index(JsonArray run) {
+        Map<String, JsonObject> indexed = new LinkedHashMap<>();
+        for (Object entry : run) {
+            JsonObject result = (JsonObject) entry;
+            String key = (String) result.get("benchmark");
+            JsonObject params = (JsonObject) result.get("params");
+            if (params != null && !params.isEmpty()) key += " " + params;
+            indexed.put(key, result);
+        }
+        return indexed;
+    }
+
+    /**
+     * Retrieves a score out of a metric of a result.
+     *
+     * @param metric The metric
+     * @return The score, NaN if JMH could not compute it
+     */
+    private static double score(JsonObject metric) {
+        Object score = metric.get("score");
+        return (score instanceof Number) ? ((Number) score).doubleValue() : Double.NaN;
+    }
+
+    /**
+     * Retrieves the bytes allocated per operation of a result.
+     *
+     * @param result The result of a benchmark
+     * @return The bytes allocated per operation, -1 if the gc profiler was not used
+     */
+    private static double allocation(JsonObject result) {
+        JsonObject secondary = (JsonObject) result.get("secondaryMetrics");
+        if (secondary == null) return -1;
+        for (Map.Entry<String, Object> metric : secondary.entrySet()) {
+            if (metric.getKey().endsWith(ALLOCATION_METRIC)) return score((JsonObject) metric.getValue());
+        }
+        return -1;
+    }
+
+    /**
+     * Prints the comparison of every benchmark found in both runs.
+     *
+     * @return The number of regressions
+     */
+    public int compare() {
+        int regressions = 0;
+        for (Map.Entry<String, JsonObject> entry : results.entrySet()) {
+            JsonObject before = baseline.get(entry.getKey());
+            JsonObject after = entry.getValue();
+            if (before == null) {
+                System.out.println(String.format("  NEW        %s", entry.getKey()));
+                continue;
+            }
+            JsonObject beforeMetric = (JsonObject) before.get("primaryMetric");
+            JsonObject afterMetric = (JsonObject) after.get("primaryMetric");
+            double change = score(afterMetric) / score(beforeMetric) - 1;
+            boolean higherIsBetter = "thrpt".equals(after.get("mode"));
+            double regression = higherIsBetter ? -change : change;
+
+            double allocatedBefore = allocation(before);
+            double allocatedAfter = allocation(after);
+            boolean allocates = allocatedBefore >= 0 && allocatedAfter >= 0
+                    && allocatedAfter > Math.max(allocatedBefore * (1 + tolerance), allocatedBefore + ALLOCATION_NOISE);
+
+            boolean regressed = regression > tolerance || allocates;
+            if (regressed) regressions++;
+            String allocated = (allocatedAfter < 0) ? "" : String.format("  %.0f -> %.0f B/op",
+                    allocatedBefore, allocatedAfter);
+            System.out.println(String.format("  %-10s %s: %.3f -> %.3f %s (%+.1f%%)%s",
+                    regressed ? "REGRESSED" : "ok", entry.getKey(), score(beforeMetric), score(afterMetric),
+                    afterMetric.get("scoreUnit"), 100 * change, allocated));
+        }
+        return regressions;
+    }
+
+    /**
+     * Compares a run against a baseline from the command line and exits with a failure
+     * when any benchmark regressed.
+     * Arguments: baseline results file, results file, allowed regression in percent (default 10).
+     *
+     * @param args The command line arguments
+     * @throws IOException   When a results file could not be read
+     * @throws JsonException When a results file is not valid JSON
+     */
+    public static void main(String[] args) throws IOException, JsonException {
+        if (args.length < 2) {
+            System.out.println("Usage: BenchmarkComparison <baseline.json> <results.json> [tolerance %]");
+            System.exit(2);
+        }
+        if (!new File(args[0]).exists()) {
+            System.out.println("There is no baseline at " + args[0] + ", keep a run as the baseline first.");
+            return;
+        }
+        double tolerance = (args.length > 2) ? Double.parseDouble(args[2]) / 100 : 0.10;
+        System.out.println(String.format("Comparing %s against the baseline %s (tolerance %.0f%%)",
+                args[1], args[0], 100 * tolerance));
+        int regressions = new BenchmarkComparison(read(args[0]), read(args[1]), tolerance).compare();
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed.");
+            System.exit(1);
+        }
+        System.out.println("No benchmark regressed.");
+    }
+}
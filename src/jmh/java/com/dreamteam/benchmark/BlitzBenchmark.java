@@ -0,0 +1,88 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.core.AIPlayer;
+import com.dreamteam.core.BattleOdds;
+import com.dreamteam.core.GameSession;
+import com.dreamteam.core.Territory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures resolving a whole attack between two AI players, round by round through
+ * {@link GameSession#performBattle(Territory, Territory)} and at once through
+ * {@link GameSession#blitz(Territory, Territory, double)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlitzBenchmark {
+
+    /**
+     * The units on the attacking territory at the start of every attack.
+     */
+    @Param({"10", "50"})
+    private int attackers;
+    /**
+     * The session that resolves the attacks, without any handlers.
+     */
+    private GameSession session;
+    /**
+     * The territory that supplies the attacking units.
+     */
+    private Territory attacking;
+    /**
+     * The territory that is being attacked.
+     */
+    private Territory defending;
+
+    /**
+     * Creates the session and two neighbouring territories owned by AI players.
+     */
+    @Setup
+    public void setUp() {
+        BattleOdds.getDefault().precompute().join();
+        session = new GameSession();
+        session.setSeed(11);
+        attacking = new Territory("Attacking");
+        attacking.setOwner(new AIPlayer("AI 1"));
+        defending = new Territory("Defending");
+        defending.setOwner(new AIPlayer("AI 2"));
+    }
+
+    /**
+     * Resets the units of both territories before every attack.
+     */
+    @Setup(Level.Invocation)
+    public void resetUnits() {
+        attacking.setUnits(attackers);
+        defending.setUnits(attackers * 4 / 5);
+    }
+
+    /**
+     * Attacks until the end one round of dice at a time.
+     *
+     * @return Whether the territory was conquered
+     */
+    @Benchmark
+    public boolean roundByRound() {
+        boolean won = false;
+        while (!won && attacking.getUnits() > 1) {
+            won = session.performBattle(attacking, defending);
+        }
+        return won;
+    }
+
+    /**
+     * Attacks until the end in a single blitz.
+     *
+     * @return Whether the territory was conquered
+     */
+    @Benchmark
+    public boolean blitz() {
+        return session.blitz(attacking, defending, 0);
+    }
+}
@@ -0,0 +1,245 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.core.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the hot paths of the game engine on the worlds shipped with the game: reading a world,
+ * the decisions of an AI player, the queries of the model and saving a game.
+ * Whole AI turns are measured by {@link AITurnBenchmark}.
+ * <p>
+ * Every benchmark but reading a world starts from the same mid game position, reached by letting
+ * AI players play the first turns of a seeded game. Benchmarks that change the position restore it
+ * before every invocation. Run with {@code -prof gc} for the bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    /**
+     * The number of AI players in the game.
+     */
+    private static final int PLAYERS = 4;
+    /**
+     * The number of turns played before the position is measured.
+     */
+    private static final int OPENING_TURNS = 12;
+    /**
+     * The number of units in a large army to place.
+     */
+    private static final int LARGE_ARMY = 1000;
+
+    /**
+     * The world file that the game is played on.
+     */
+    @Param({"worlds/world_maps/default.world", "worlds/world_maps/sinnoh.world"})
+    private String world;
+    /**
+     * The map data of the world file.
+     */
+    private byte[] mapData;
+    /**
+     * The session of the game.
+     */
+    private GameSession session;
+    /**
+     * The AI player whose turn it is in the measured position.
+     */
+    private AIPlayer player;
+    /**
+     * The territory of the player with the most units.
+     */
+    private Territory stronghold;
+    /**
+     * The measured position.
+     */
+    private GameState position;
+    /**
+     * The file that games are saved to.
+     */
+    private File saveFile;
+
+    /**
+     * Reads the world and plays the opening turns of a seeded game.
+     *
+     * @throws IOException When the world file could not be read
+     */
+    @Setup
+    public void setUp() throws IOException {
+        mapData = GameSimulator.readMapData(new File(world));
+        session = newSession(GameSimulator.readWorld(new File(world)), 3110);
+        while (!session.isGameOver() && session.getTurnCount() < OPENING_TURNS) {
+            session.playAIPhase();
+        }
+        player = (AIPlayer) session.getCurrentPlayer();
+        for (Territory territory : player.getOwnedTerritories()) {
+            if (stronghold == null || territory.getUnits() > stronghold.getUnits()) stronghold = territory;
+        }
+        position = new GameState(session.getWorld().getState());
+        saveFile = File.createTempFile("benchmark", ".save");
+        saveFile.deleteOnExit();
+    }
+
+    /**
+     * Restores the measured position.
+     */
+    @Setup(Level.Invocation)
+    public void restore() {
+        session.getWorld().getState().copyFrom(position);
+    }
+
+    /**
+     * Creates a headless session of AI players on a copy of the given world.
+     *
+     * @param template The world to play on
+     * @param seed     The seed of the game
+     * @return The session, with the game started
+     */
+    public static GameSession newSession(WorldMap template, long seed) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            players.add(new AIPlayer("AI " + (i + 1)));
+        }
+        GameSession session = new GameSession();
+        session.setSeed(seed);
+        session.setPlayers(players);
+        session.setAutoPlayAI(false);
+        session.setBlitzMode(true);
+        session.newGame(new WorldMap(template));
+        return session;
+    }
+
+    /**
+     * Reads the map data of the world.
+     *
+     * @return The world that was read
+     */
+    @Benchmark
+    public WorldMap readMap() {
+        WorldMap map = new WorldMap();
+        map.readMap(new ByteArrayInputStream(mapData));
+        return map;
+    }
+
+    /**
+     * Lets the AI player place its bonus units.
+     *
+     * @return The bonus units that were placed
+     */
+    @Benchmark
+    public int placeUnits() {
+        int bonus = session.getBonusUnits(player);
+        player.placeUnits(bonus, session);
+        return bonus;
+    }
+
+    /**
+     * Plans the placement of a large army with the heap of placement utilities.
+     *
+     * @return The units to place on each territory
+     */
+    @Benchmark
+    public int[] planLargePlacement() {
+        return player.planPlacement(LARGE_ARMY);
+    }
+
+    /**
+     * Places a large army one unit at a time, re-evaluating the utility of every owned
+     * territory for every unit (the placement before the heap was introduced).
+     *
+     * @return The territory that received the last unit
+     */
+    @Benchmark
+    public Territory placeLargeArmyOneByOne() {
+        Territory best = null;
+        for (int unit = 0; unit < LARGE_ARMY; unit++) {
+            best = null;
+            double highestUtility = -1;
+            for (Territory territory : player.getOwnedTerritories()) {
+                double utility = player.placeUnitsUtilityFunction(territory);
+                if (utility > highestUtility) {
+                    highestUtility = utility;
+                    best = territory;
+                }
+            }
+            best.addUnits(1);
+        }
+        return best;
+    }
+
+    /**
+     * Lets the AI player pick the best attack.
+     *
+     * @return The attacking and defending territories
+     */
+    @Benchmark
+    public Territory[] territoryToAttack() {
+        return player.territoryToAttack();
+    }
+
+    /**
+     * Lets the AI player make its end of turn move.
+     *
+     * @return The player
+     */
+    @Benchmark
+    public AIPlayer moveTroops() {
+        player.moveTroops(session);
+        return player;
+    }
+
+    /**
+     * Finds the territories the units of the player's stronghold may be moved to.
+     *
+     * @return The territories and their coordinates
+     */
+    @Benchmark
+    public Map<Territory, Point> validTroupeMovementTerritories() {
+        return session.getValidTroupeMovementTerritories(stronghold);
+    }
+
+    /**
+     * Computes the bonus units of the player.
+     *
+     * @return The bonus units
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int bonusUnits() {
+        return session.getBonusUnits(player);
+    }
+
+    /**
+     * Serializes the game.
+     *
+     * @return The game as json
+     */
+    @Benchmark
+    public String toJson() {
+        return session.toJson();
+    }
+
+    /**
+     * Saves the game (without a map image) to a file.
+     *
+     * @return The saved file
+     */
+    @Benchmark
+    public File export() {
+        session.export(saveFile, null, 0);
+        return saveFile;
+    }
+}
@@ -0,0 +1,122 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.view.RiskEvent;
+import com.dreamteam.view.RiskEventBus;
+import com.dreamteam.view.RiskEventType;
+import com.dreamteam.view.RiskGameHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures publishing an event to handlers that are called on the publishing thread: every handler receives
+ * every event and ignores the types it does not handle, against handlers that subscribed to the one type they
+ * handle so that the event only reaches the handlers of its type. The handlers handle the types in turn, so
+ * that about one in nineteen handles the published type.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    /**
+     * The number of handlers.
+     */
+    @Param({"1", "10", "100"})
+    private int handlers;
+    /**
+     * The bus whose handlers receive every event.
+     */
+    private RiskEventBus broadcast;
+    /**
+     * The bus whose handlers subscribed to the type they handle.
+     */
+    private RiskEventBus filtered;
+    /**
+     * The events published in turn, one of each type.
+     */
+    private RiskEvent[] events;
+    /**
+     * The index of the next event to publish.
+     */
+    private int next;
+
+    /**
+     * A handler that handles a single type of event, as the views handle a few types out of all of them.
+     */
+    private static final class TypedHandler implements RiskGameHandler {
+        /**
+         * The type handled.
+         */
+        private final RiskEventType type;
+        /**
+         * Consumes the events handled.
+         */
+        private final Blackhole blackhole;
+
+        /**
+         * Constructor for instances of TypedHandler.
+         *
+         * @param type      The type handled
+         * @param blackhole Consumes the events handled
+         */
+        private TypedHandler(RiskEventType type, Blackhole blackhole) {
+            this.type = type;
+            this.blackhole = blackhole;
+        }
+
+        /**
+         * Handles an event if it is of the handled type.
+         *
+         * @param e The event
+         */
+        @Override
+        public void handleRiskUpdate(RiskEvent e) {
+            if (e.getType() == type) blackhole.consume(e.getEventInfo());
+        }
+    }
+
+    /**
+     * Subscribes the handlers to both buses and creates the events.
+     *
+     * @param blackhole Consumes the events handled
+     */
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        RiskEventType[] types = RiskEventType.values();
+        broadcast = new RiskEventBus();
+        filtered = new RiskEventBus();
+        for (int i = 0; i < handlers; i++) {
+            TypedHandler handler = new TypedHandler(types[i % types.length], blackhole);
+            broadcast.subscribe(handler, null, EnumSet.allOf(RiskEventType.class));
+            filtered.subscribe(handler, null, EnumSet.of(handler.type));
+        }
+        events = new RiskEvent[types.length];
+        for (int i = 0; i < types.length; i++) {
+            events[i] = new RiskEvent(this, types[i], i);
+        }
+    }
+
+    /**
+     * Publishes the next event to every handler.
+     */
+    @Benchmark
+    public void publishToAll() {
+        next = (next + 1) % events.length;
+        broadcast.publish(events[next]);
+    }
+
+    /**
+     * Publishes the next event to the handlers of its type.
+     */
+    @Benchmark
+    public void publishByType() {
+        next = (next + 1) % events.length;
+        filtered.publish(events[next]);
+    }
+}
@@ -0,0 +1,153 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.core.*;
+import com.dreamteam.view.BattleEvent;
+import com.dreamteam.view.DiceRolledEvent;
+import com.dreamteam.view.RiskEvent;
+import com.dreamteam.view.RiskEventType;
+import com.dreamteam.view.RiskGameHandler;
+import com.dreamteam.view.UnitsMovedEvent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a headless game between AI players that fight every round of dice, with a handler that logs the
+ * battles, dice and movements on the thread of the game, as a simulation with event logging would. The events
+ * are created for every occurrence, against reused from the pool of the session. Run with {@code -prof gc} for
+ * the bytes allocated per game.
+ * <p>
+ * The events reach a few handlers of different classes, as with a logger and the views of a game; with a single
+ * handler the JIT compiler can often avoid allocating the events at all.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventPoolingBenchmark {
+
+    /**
+     * The number of AI players in the game.
+     */
+    private static final int PLAYERS = 4;
+    /**
+     * The maximum amount of turns a game may last.
+     */
+    private static final int MAX_TURNS = 500;
+
+    /**
+     * Whether the session reuses its events.
+     */
+    @Param({"false", "true"})
+    private boolean pooled;
+    /**
+     * The world the games are played on, every game is played on a copy.
+     */
+    private WorldMap template;
+    /**
+     * The seed of the next game.
+     */
+    private long seed;
+
+    /**
+     * A handler that logs the primitive fields of the frequent events.
+     */
+    private static final class LoggingHandler implements RiskGameHandler {
+        /**
+         * The types of events logged.
+         */
+        private static final Set<RiskEventType> LOGGED = EnumSet.of(RiskEventType.ATTACK_COMMENCED,
+                RiskEventType.ATTACK_COMPLETED, RiskEventType.DIE_ROLLED, RiskEventType.TERRITORY_DEFENDED,
+                RiskEventType.TERRITORY_DOMINATED, RiskEventType.UNITS_MOVED, RiskEventType.TURN_BEGAN,
+                RiskEventType.TURN_ENDED);
+        /**
+         * Consumes the logged fields.
+         */
+        private final Blackhole blackhole;
+
+        /**
+         * Constructor for instances of LoggingHandler.
+         *
+         * @param blackhole Consumes the logged fields
+         */
+        private LoggingHandler(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        /**
+         * Logs an event.
+         *
+         * @param e The event
+         */
+        @Override
+        public void handleRiskUpdate(RiskEvent e) {
+            if (e instanceof BattleEvent) {
+                BattleEvent battle = (BattleEvent) e;
+                blackhole.consume(battle.getAttackLost() + battle.getDefendLost());
+            } else if (e instanceof DiceRolledEvent) {
+                blackhole.consume(((DiceRolledEvent) e).getDie(0));
+            } else if (e instanceof UnitsMovedEvent) {
+                blackhole.consume(((UnitsMovedEvent) e).getUnits());
+            } else {
+                blackhole.consume(e.getType());
+            }
+        }
+
+        /**
+         * Retrieves the types of events logged.
+         *
+         * @return The types
+         */
+        @Override
+        public Set<RiskEventType> getHandledTypes() {
+            return LOGGED;
+        }
+    }
+
+    /**
+     * Reads the world.
+     *
+     * @throws IOException When the world file could not be read
+     */
+    @Setup
+    public void setUp() throws IOException {
+        template = GameSimulator.readWorld(new File("worlds/world_maps/default.world"));
+    }
+
+    /**
+     * Plays a seeded game, a new one each time, with the logging handler.
+     *
+     * @param blackhole Consumes the logged fields
+     * @return The number of turns played
+     */
+    @Benchmark
+    public int playLoggedGame(Blackhole blackhole) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            players.add(new AIPlayer("AI " + (i + 1)));
+        }
+        GameSession session = new GameSession();
+        session.setSeed(seed++);
+        session.setPlayers(players);
+        session.setAutoPlayAI(false);
+        session.setEventPooling(pooled);
+        //several kinds of handlers, so that the events are not optimized away as they would be with a single one
+        session.addHandler(new LoggingHandler(blackhole));
+        session.getEventBus().subscribe(blackhole::consume, null, LoggingHandler.LOGGED);
+        session.getEventBus().subscribe(e -> blackhole.consume(e.getSource()), null, LoggingHandler.LOGGED);
+        session.newGame(new WorldMap(template));
+        while (!session.isGameOver() && session.getTurnCount() < MAX_TURNS) {
+            session.playAIPhase();
+        }
+        return session.getTurnCount();
+    }
+}
@@ -0,0 +1,93 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.core.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures forking the state of a game for a lookahead, on synthetic worlds of about a thousand
+ * and about ten thousand territories, against copying the whole world of territory objects.
+ * Run with {@code -prof gc} for the bytes allocated per fork.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForkBenchmark {
+
+    /**
+     * The number of territories along the side of the grid world.
+     */
+    @Param({"32", "100"})
+    private int side;
+    /**
+     * The world, with a game of four players assigned.
+     */
+    private WorldMap world;
+    /**
+     * A fork that is overwritten with the live state.
+     */
+    private GameState reused;
+
+    /**
+     * Generates the world and assigns its territories to four players.
+     */
+    @Setup
+    public void setUp() {
+        world = SyntheticWorld.grid(side, side, 8);
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            players.add(new Player("Player " + (i + 1)));
+        }
+        world.assignNewMap(players);
+        reused = world.getState().fork();
+    }
+
+    /**
+     * Forks the state of the game.
+     *
+     * @return The fork
+     */
+    @Benchmark
+    public GameState fork() {
+        return world.getState().fork();
+    }
+
+    /**
+     * Overwrites an earlier fork with the state of the game.
+     *
+     * @return The fork
+     */
+    @Benchmark
+    public GameState copyIntoFork() {
+        reused.copyFrom(world.getState());
+        return reused;
+    }
+
+    /**
+     * Forks the state of the game and plays a hypothetical capture on the fork.
+     *
+     * @return The fork
+     */
+    @Benchmark
+    public GameState forkAndCapture() {
+        GameState lookahead = world.getState().fork();
+        lookahead.capture(0, 1, 1);
+        return lookahead;
+    }
+
+    /**
+     * Copies the whole world with its territory, continent and player objects.
+     *
+     * @return The copy
+     */
+    @Benchmark
+    public WorldMap copyWorld() {
+        return new WorldMap(world);
+    }
+}
@@ -0,0 +1,115 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.core.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures identifying a position on a synthetic world of about ten thousand territories: playing a
+ * move and reading the incrementally updated Zobrist hash, against hashing every territory again,
+ * and the lookups and updates of a transposition table shared by the threads of the benchmark.
+ * Run with {@code -t} for several threads to see the table scale without a lock.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashBenchmark {
+
+    /**
+     * The table shared by the threads of the benchmark.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedTable {
+        /**
+         * The table, of a million entries.
+         */
+        private final TranspositionTable table = new TranspositionTable(1 << 20);
+    }
+
+    /**
+     * The fork the moves are played on.
+     */
+    private GameState state;
+    /**
+     * The territory units are moved to and from.
+     */
+    private int territory;
+    /**
+     * The key of the next lookup or update.
+     */
+    private long key;
+
+    /**
+     * Generates the world and assigns its territories to four players.
+     */
+    @Setup
+    public void setUp() {
+        WorldMap world = SyntheticWorld.grid(100, 100, 8);
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            players.add(new Player("Player " + (i + 1)));
+        }
+        world.assignNewMap(players);
+        state = world.getState().fork();
+    }
+
+    /**
+     * Adds units to a territory (enough to change its bucket) and reads the hash of the position.
+     *
+     * @return The hash
+     */
+    @Benchmark
+    public long incrementalHash() {
+        territory = (territory + 1) % state.size();
+        state.addUnits(territory, 8);
+        long hash = state.getHash(GamePhase.ATTACK, 0);
+        state.addUnits(territory, -8);
+        return hash;
+    }
+
+    /**
+     * Adds units to a territory and hashes every territory of the position again.
+     *
+     * @return The hash
+     */
+    @Benchmark
+    public long recomputedHash() {
+        territory = (territory + 1) % state.size();
+        state.addUnits(territory, 8);
+        long hash = Zobrist.phase(GamePhase.ATTACK) ^ Zobrist.turn(0);
+        for (int t = 0; t < state.size(); t++) {
+            hash ^= Zobrist.territory(t, state.getOwner(t), state.getUnits(t));
+        }
+        state.addUnits(territory, -8);
+        return hash;
+    }
+
+    /**
+     * Adds an evaluation to the shared table.
+     *
+     * @param shared The shared table
+     */
+    @Benchmark
+    public void tableUpdate(SharedTable shared) {
+        key += 0x9E3779B97F4A7C15L;
+        shared.table.update(key & 0xFFFFF, 0.5);
+    }
+
+    /**
+     * Looks up an evaluation in the shared table.
+     *
+     * @param shared The shared table
+     * @return The entry
+     */
+    @Benchmark
+    public long tableProbe(SharedTable shared) {
+        key += 0x9E3779B97F4A7C15L;
+        return shared.table.probe(key & 0xFFFFF);
+    }
+}
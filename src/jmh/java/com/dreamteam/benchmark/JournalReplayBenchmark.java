@@ -0,0 +1,104 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.core.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replaying a journal of AI games that fight every round of dice (see {@link GameJournal}), one
+ * record per operation: the score is the number of records replayed per microsecond, in millions of records
+ * per second. The replay starts over once the journal is done.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalReplayBenchmark {
+
+    /**
+     * The number of games recorded to the journal.
+     */
+    private static final int GAMES = 20;
+    /**
+     * The number of AI players in each game.
+     */
+    private static final int PLAYERS = 4;
+
+    /**
+     * The world file that the games are played on.
+     */
+    @Param({"worlds/world_maps/default.world", "worlds/world_maps/sinnoh.world"})
+    private String world;
+    /**
+     * The journal file.
+     */
+    private File file;
+    /**
+     * The replayer of the journal.
+     */
+    private JournalReplayer replayer;
+    /**
+     * The state the journal is replayed on.
+     */
+    private GameState state;
+
+    /**
+     * Plays and records the games, then maps the journal.
+     *
+     * @throws IOException When the world could not be read or the journal written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        WorldMap template = GameSimulator.readWorld(new File(world));
+        file = File.createTempFile("benchmark", ".journal");
+        file.delete();
+        try (GameJournal journal = new GameJournal(file)) {
+            for (int game = 0; game < GAMES; game++) {
+                List<Player> players = new ArrayList<>();
+                for (int i = 0; i < PLAYERS; i++) {
+                    players.add(new AIPlayer("AI " + (i + 1)));
+                }
+                GameSession session = new GameSession();
+                session.setSeed(game);
+                session.setPlayers(players);
+                session.setAutoPlayAI(false);
+                session.setJournal(journal);
+                session.newGame(new WorldMap(template));
+                while (!session.isGameOver() && session.getTurnCount() < GameSimulator.DEFAULT_MAX_TURNS) {
+                    session.playAIPhase();
+                }
+            }
+        }
+        replayer = new JournalReplayer(file);
+        state = new GameState(new WorldMap(template));
+    }
+
+    /**
+     * Deletes the journal file.
+     */
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    /**
+     * Replays the next record of the journal.
+     *
+     * @return The number of records replayed so far
+     */
+    @Benchmark
+    public long replayRecord() {
+        if (!replayer.next(state)) {
+            replayer.rewind();
+            replayer.next(state);
+        }
+        return replayer.getRecordCount();
+    }
+}
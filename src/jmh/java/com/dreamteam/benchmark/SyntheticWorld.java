@@ -0,0 +1,84 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.core.WorldMap;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Generates worlds far larger than the worlds shipped with the game, for the benchmarks.
+ * <p>
+ * A synthetic world is a grid in which every territory borders the territories next to it
+ * horizontally and vertically, split into square continents worth one unit per territory.
+ */
+final class SyntheticWorld {
+
+    /**
+     * The benchmarks only use the static methods.
+     */
+    private SyntheticWorld() {
+    }
+
+    /**
+     * Generates the map data of a grid world and reads it, as a world file would be read.
+     *
+     * @param width         The number of territories in a row
+     * @param height        The number of rows
+     * @param continentSide The number of territories along the side of a continent
+     * @return The world
+     */
+    static WorldMap grid(int width, int height, int continentSide) {
+        StringBuilder json = new StringBuilder("{\"name\":\"Grid\",\"territories\":[");
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (x > 0 || y > 0) json.append(',');
+                json.append("{\"name\":\"").append(name(x, y)).append("\",\"coordinates\":\"")
+                        .append(10 * x).append(',').append(10 * y).append("\",\"neighbours\":[");
+                boolean first = true;
+                int[][] steps = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+                for (int[] step : steps) {
+                    int nx = x + step[0];
+                    int ny = y + step[1];
+                    if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                    if (!first) json.append(',');
+                    json.append('"').append(name(nx, ny)).append('"');
+                    first = false;
+                }
+                json.append("]}");
+            }
+        }
+        json.append("],\"continents\":[");
+        boolean firstContinent = true;
+        for (int cy = 0; cy < height; cy += continentSide) {
+            for (int cx = 0; cx < width; cx += continentSide) {
+                if (!firstContinent) json.append(',');
+                firstContinent = false;
+                StringBuilder members = new StringBuilder();
+                int count = 0;
+                for (int y = cy; y < Math.min(height, cy + continentSide); y++) {
+                    for (int x = cx; x < Math.min(width, cx + continentSide); x++) {
+                        if (count++ > 0) members.append(',');
+                        members.append('"').append(name(x, y)).append('"');
+                    }
+                }
+                json.append("{\"name\":\"C").append(cx).append('_').append(cy).append("\",\"value\":\"")
+                        .append(count).append("\",\"territories\":[").append(members).append("]}");
+            }
+        }
+        json.append("]}");
+        WorldMap world = new WorldMap();
+        world.readMap(new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)));
+        return world;
+    }
+
+    /**
+     * Names the territory at a position of the grid.
+     *
+     * @param x The column
+     * @param y The row
+     * @return The name of the territory
+     */
+    private static String name(int x, int y) {
+        return "T" + x + "_" + y;
+    }
+}
@@ -0,0 +1,167 @@
+package com.dreamteam.benchmark;
+
+import com.dreamteam.core.Territory;
+import com.dreamteam.core.WorldTopology;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares iterating the neighbours of every territory, and a breadth first search over the
+ * whole map, through the hash sets of {@link Territory} against the compiled CSR arrays of
+ * {@link WorldTopology}, on a synthetic map of 100 000 territories.
+ * <p>
+ * The synthetic map is a grid in which every territory borders the territories to its right
+ * and below it, plus one territory picked at random, so that every territory has about six neighbours.
+ * Run with {@code -prof gc} to see that a search with the workspace of the topology does not allocate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopologyBenchmark {
+
+    /**
+     * The number of territories in a row of the synthetic map.
+     */
+    private static final int WIDTH = 400;
+    /**
+     * The number of rows of the synthetic map.
+     */
+    private static final int HEIGHT = 250;
+
+    /**
+     * The territories of the synthetic map, by id.
+     */
+    private List<Territory> territories;
+    /**
+     * The compiled topology of the synthetic map.
+     */
+    private WorldTopology topology;
+    /**
+     * The units on each territory, by id.
+     */
+    private int[] units;
+
+    /**
+     * Builds the synthetic map out of territories and compiles its topology.
+     */
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(3110);
+        int size = WIDTH * HEIGHT;
+        territories = new ArrayList<>(size);
+        units = new int[size];
+        for (int t = 0; t < size; t++) {
+            Territory territory = new Territory("T" + t);
+            territory.setUnits(1 + t % 7);
+            units[t] = territory.getUnits();
+            territories.add(territory);
+        }
+        for (int t = 0; t < size; t++) {
+            Territory territory = territories.get(t);
+            if (t % WIDTH != WIDTH - 1) territory.addNeighbour(territories.get(t + 1));
+            if (t + WIDTH < size) territory.addNeighbour(territories.get(t + WIDTH));
+            int other = random.nextInt(size);
+            if (other != t) territory.addNeighbour(territories.get(other));
+        }
+        topology = WorldTopology.compile(territories, new HashMap<Territory, Point>(), Collections.emptyList());
+    }
+
+    /**
+     * Sums the units on the neighbours of every territory by walking the neighbour sets.
+     *
+     * @return The sum of all neighbouring units
+     */
+    @Benchmark
+    public long neighbourUnitsHashSet() {
+        long sum = 0;
+        for (Territory territory : territories) {
+            for (Territory neighbour : territory.getNeighbours()) {
+                sum += neighbour.getUnits();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Sums the units on the neighbours of every territory by walking the CSR arrays.
+     *
+     * @return The sum of all neighbouring units
+     */
+    @Benchmark
+    public long neighbourUnitsCsr() {
+        int[] offsets = topology.getOffsets();
+        int[] adjacency = topology.getAdjacency();
+        long sum = 0;
+        for (int t = 0; t < topology.size(); t++) {
+            for (int i = offsets[t]; i < offsets[t + 1]; i++) {
+                sum += units[adjacency[i]];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Searches the whole map breadth first with a linked list queue and a visited hash set.
+     *
+     * @return Whether the map is connected
+     */
+    @Benchmark
+    public boolean connectedHashSet() {
+        Queue<Territory> queue = new LinkedList<>();
+        Set<Territory> visited = new HashSet<>();
+        queue.add(territories.get(0));
+        visited.add(territories.get(0));
+        while (!queue.isEmpty()) {
+            for (Territory adj : queue.remove().getNeighbours()) {
+                if (visited.add(adj)) queue.add(adj);
+            }
+        }
+        return visited.size() == territories.size();
+    }
+
+    /**
+     * Searches the whole map breadth first over the CSR arrays, with a queue and visited
+     * marks allocated for the search (the search before the workspace was introduced).
+     *
+     * @return Whether the map is connected
+     */
+    @Benchmark
+    public boolean connectedCsrFreshArrays() {
+        int[] offsets = topology.getOffsets();
+        int[] adjacency = topology.getAdjacency();
+        int[] queue = new int[topology.size()];
+        boolean[] visited = new boolean[topology.size()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 0;
+        visited[0] = true;
+        while (head < tail) {
+            int t = queue[head++];
+            for (int i = offsets[t]; i < offsets[t + 1]; i++) {
+                int adj = adjacency[i];
+                if (!visited[adj]) {
+                    visited[adj] = true;
+                    queue[tail++] = adj;
+                }
+            }
+        }
+        return tail == topology.size();
+    }
+
+    /**
+     * Searches the whole map breadth first over the CSR arrays, with the workspace of the topology.
+     *
+     * @return Whether the map is connected
+     */
+    @Benchmark
+    public boolean connectedCsr() {
+        return topology.isConnected();
+    }
+}
@@ -1,6 +1,7 @@
 package com.dreamteam.controller;
 
 import com.dreamteam.core.AIPlayer;
+import com.dreamteam.core.AITurnExecutor;
 import com.dreamteam.core.AudioPlayer;
 import com.dreamteam.core.GameSingleton;
 import com.dreamteam.core.Player;
@@ -168,6 +169,8 @@ public class HomeScreenController implements ActionListener {
         }
         GameSingleton gs = GameSingleton.getGameInstance();
         gs.clean();
+        //AI players think off the event thread, their turns are applied on it
+        gs.setAITurnExecutor(new AITurnExecutor(SwingUtilities::invokeLater));
         gs.setPlayers(players);
         RiskFrame rf = new RiskFrame(gs,file);
         gs.newGame(file);
@@ -177,6 +180,7 @@ public class HomeScreenController implements ActionListener {
     private void loadGame(ZipFile file) throws Exception {
         GameSingleton gs = GameSingleton.getGameInstance();
         gs.clean();
+        gs.setAITurnExecutor(new AITurnExecutor(SwingUtilities::invokeLater));
         RiskFrame rf = new RiskFrame(gs,file);
         gs.importGame(file);
         homeView.dispose();
@@ -23,7 +23,7 @@ import java.util.Map;
  * @author Anthony Dooley
  * @author Kyler Verge
  * @author Tony Zeidan
- * @see GameSingleton
+ * @see GameSession
  * <p>
  * The thought process behind its implementation is that two types GUI events
  * (i.e. buttons being pressed and specific points on the map board being clicked)
@@ -33,9 +33,9 @@ import java.util.Map;
 public class RiskController extends MouseAdapter implements ActionListener {
 
     /**
-     * GameSingleton is the model of the MVC pattern
+     * GameSession is the model of the MVC pattern
      */
-    private GameSingleton riskModel;
+    private GameSession riskModel;
     /**
      * RiskFrame is the com.dreamteam.view of the MVC pattern
      */
@@ -57,7 +57,7 @@ public class RiskController extends MouseAdapter implements ActionListener {
      * @param riskModel The model to get data from and update
      * @param riskView  The com.dreamteam.view to obtain
      */
-    public RiskController(GameSingleton riskModel, RiskFrame riskView) {
+    public RiskController(GameSession riskModel, RiskFrame riskView) {
         this.riskView = riskView;
         this.riskModel = riskModel;
         selectedAction = null;
@@ -89,6 +89,8 @@ public class RiskController extends MouseAdapter implements ActionListener {
         AudioPlayer.playSound("btnPress");
         Object o = e.getSource();
         if (o instanceof JButton) {
+            //the game must not change while an AI player thinks about its turn
+            if (riskModel.isAITurnPending()) return;
             JButton jb = (JButton) o;
             selectedAction = jb.getActionCommand();
             GamePhase phase = riskView.getPhase();
@@ -173,6 +175,8 @@ public class RiskController extends MouseAdapter implements ActionListener {
      */
     @Override
     public void mouseClicked(MouseEvent e) {
+        //the game must not change while an AI player thinks about its turn
+        if (riskModel.isAITurnPending()) return;
 
         //Make a point right where the user clicked
         Point clicked = new Point(e.getX(), e.getY());
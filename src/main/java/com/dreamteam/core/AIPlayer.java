@@ -1,13 +1,17 @@
 package com.dreamteam.core;
 
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Set;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
 
 /**
  * A subclass of Player that has the AIs parameters as well as functions to calculate the
  * placing of units, attacking and movement of troops.
+ * <p>
+ * The AI plays its turns on the live game, or plans a whole turn on a fork of the game
+ * (see {@link #planTurn}) for the turn to be applied to the live game later. Planned turns make
+ * their decisions through {@link #choosePlacement}, {@link #chooseAttack} and {@link #chooseMove},
+ * which subclasses override to decide differently.
  *
  * @author Anthony
  * @author Eathan Chase
@@ -16,6 +20,15 @@ import java.util.Set;
  */
 public class AIPlayer extends Player {
 
+    /**
+     * The heap of placement utilities, kept between turns so that it is only allocated once.
+     */
+    private IndexedMaxHeap placementHeap;
+    /**
+     * The candidate attacks of the player, kept between turns so that it is only allocated once.
+     */
+    private AttackIndex attackIndex;
+
     /**
      * Constructor for instances of Player class with name.
      *
@@ -37,24 +50,76 @@ public class AIPlayer extends Player {
 
     /**
      * places the number of units specified by the model, on the territories of the AI.
+     * The whole placement is planned first (see {@link #planPlacement(int)}) and then
+     * placed on the map in one batch.
      *
      * @param numUnits The number of units to be added to the territories of the AI
-     * @param model    The GameSingleton that contains more general game logic
+     * @param model    The GameSession that contains more general game logic
      */
-    public void placeUnits(int numUnits, GameSingleton model) {
-        while (numUnits > 0) {
-            Territory terrToAddUnit = null;
-            double highestUtility = -1;
-            for (Territory territory : getOwnedTerritories()) {
-                double utility = placeUnitsUtilityFunction(territory);
-                if (utility > highestUtility) {
-                    highestUtility = utility;
-                    terrToAddUnit = territory;
-                }
-            }
-            model.moveBonus(terrToAddUnit);
-            numUnits--;
+    public void placeUnits(int numUnits, GameSession model) {
+        model.placeBonus(this, planPlacement(numUnits));
+    }
+
+    /**
+     * Plans where to place the given number of units, one unit at a time on the territory
+     * with the highest placement utility, exactly as if the units were placed one by one.
+     * <p>
+     * The utilities of the owned territories are kept in an indexed max-heap. A unit only
+     * changes the troops of the territory it is placed on (the other terms of the utility are
+     * about enemy territories), so after each unit only that territory is updated in the heap,
+     * in O(log n) instead of re-evaluating every owned territory.
+     *
+     * @param numUnits The number of units to place
+     * @return The units to place on each territory, by territory id
+     */
+    public int[] planPlacement(int numUnits) {
+        GameState state = getState();
+        int size = state.getWorld().getTopology().size();
+        if (placementHeap == null || placementHeap.capacity() != size) {
+            placementHeap = new IndexedMaxHeap(size);
         }
+        return planPlacement(state, getSeat(), numUnits, placementHeap);
+    }
+
+    /**
+     * Plans where a seat places the given number of units on a state, as {@link #planPlacement(int)} does
+     * for the player. Searches use it to place units on forks of the game for any seat.
+     *
+     * @param state    The state of the game
+     * @param seat     The seat placing the units
+     * @param numUnits The number of units to place
+     * @param heap     The heap to rank the territories in, with a capacity of the number of territories
+     * @return The units to place on each territory, by territory id
+     */
+    static int[] planPlacement(GameState state, int seat, int numUnits, IndexedMaxHeap heap) {
+        int[] units = state.getUnitArray();
+        int[] plan = new int[state.size()];
+        if (numUnits <= 0) return plan;
+        heap.clear();
+        BitSet owned = state.getOwned(seat);
+        for (int t = owned.nextSetBit(0); t >= 0; t = owned.nextSetBit(t + 1)) {
+            heap.set(t, placementUtility(state, t, units[t]));
+        }
+        if (heap.isEmpty()) return plan;
+        for (int unit = 0; unit < numUnits; unit++) {
+            int t = heap.peek();
+            plan[t]++;
+            heap.set(t, placementUtility(state, t, units[t] + plan[t]));
+        }
+        return plan;
+    }
+
+    /**
+     * Computes the placement utility of an owned territory as if it held the given troops.
+     *
+     * @param state     The state of the game
+     * @param territory The id of the territory
+     * @param numTroops The troops on the territory
+     * @return The placement utility
+     */
+    static double placementUtility(GameState state, int territory, int numTroops) {
+        return placeUnitsUtility(state.getFriendlyNeighbours(territory), state.getWorld().getTopology().degree(territory),
+                state.getEnemyNeighbourUnits(territory), numTroops);
     }
 
     /**
@@ -64,16 +129,29 @@ public class AIPlayer extends Player {
      * @return double the utility of placing a unit on that territory.
      */
     public double placeUnitsUtilityFunction(Territory territory) {
+        return placementUtility(getState(), territory.getId(), territory.getUnits());
+    }
+
+    /**
+     * The placement utility of a territory from the counts it depends on.
+     *
+     * @param friendlyNeighbouringTerrs The number of neighbours owned by the AI
+     * @param numNeighbours             The number of neighbours
+     * @param numEnemyTroops            The units on the neighbours owned by other players
+     * @param numTroops                 The units on the territory
+     * @return double the utility of placing a unit on that territory.
+     */
+    private static double placeUnitsUtility(int friendlyNeighbouringTerrs, int numNeighbours,
+                                            int numEnemyTroops, int numTroops) {
         //arbitrary percentages, just want to put more emphasis on troop difference
         //25 percent how many neighbouring are owned terr, if all neighbour owned make that part 0 percent
-        int friendlyNeighbouringTerrs = numOwnedNeighbouringTerritories(territory);
-        if (friendlyNeighbouringTerrs == territory.getNeighbours().size()) {
+        if (friendlyNeighbouringTerrs == numNeighbours) {
             return 0;
         }
-        double neighbouringPercentage = .25 * (numOwnedNeighbouringTerritories(territory)) / (territory.getNeighbours().size() - 1);
+        //a territory with a single (enemy) neighbour has no other neighbours to share with
+        double neighbouringPercentage = (numNeighbours == 1) ? 0 :
+                .25 * friendlyNeighbouringTerrs / (numNeighbours - 1);
         //75 percent difference of surrounding troops there are to its troops
-        int numEnemyTroops = numNeighbouringEnemyTroops(territory);
-        int numTroops = territory.getUnits();
         double lessTroopsPercentage;
         if (numTroops - numEnemyTroops > 5)
             lessTroopsPercentage = 0;
@@ -86,18 +164,29 @@ public class AIPlayer extends Player {
 
     /**
      * performs all the attacks that the AI computes as optimal, with randomness caused by dice.
+     * The attacks are those {@link #territoryToAttack()} would pick one after another, but the
+     * candidate attacks are kept in an {@link AttackIndex} that is only updated for the two
+     * territories of each battle, rather than rescanning every border after every battle.
      *
-     * @param model The GameSingleton that contains general game logic.
+     * @param model The GameSession that contains general game logic.
      */
-    public void doAttack(GameSingleton model) {
-        Territory[] territories = territoryToAttack();
-        while (territories[0] != null) {
-            boolean won = model.performBattle(territories[0], territories[1]);
+    public void doAttack(GameSession model) {
+        WorldMap world = getState().getWorld();
+        if (attackIndex == null || attackIndex.getTopology() != world.getTopology()) {
+            attackIndex = new AttackIndex(this, world.getTopology());
+        }
+        attackIndex.rebuild();
+        for (int edge = attackIndex.best(); edge >= 0; edge = attackIndex.best()) {
+            Territory attacking = world.getTerritory(attackIndex.getAttacking(edge));
+            Territory defending = world.getTerritory(attackIndex.getDefending(edge));
+            //blitzing stops where the utility of the attack would no longer be positive
+            boolean won = model.isBlitzMode() ? model.blitz(attacking, defending, 0.5)
+                    : model.performBattle(attacking, defending);
             if (won) {
-                int numTroopsToMove = territories[0].getUnits() - 1;
-                model.moveUnits(territories[0], territories[1], numTroopsToMove);
+                model.moveUnits(attacking, defending, attacking.getUnits() - 1);
             }
-            territories = territoryToAttack();
+            attackIndex.update(attacking.getId());
+            attackIndex.update(defending.getId());
         }
     }
 
@@ -108,17 +197,25 @@ public class AIPlayer extends Player {
      * when no attack is good enough for the AI.
      */
     public Territory[] territoryToAttack() {
+        GameState state = getState();
+        WorldMap world = state.getWorld();
+        int[] offsets = world.getTopology().getOffsets();
+        int[] adjacency = world.getTopology().getAdjacency();
+        int[] owners = state.getOwnerArray();
+        int[] units = state.getUnitArray();
+        BitSet owned = state.getOwned(getSeat());
         Territory attacking = null;
         Territory defending = null;
         double mostUtility = 0;
-        for (Territory attackingTerr : getOwnedTerritories()) {
-            for (Territory defendingTerr : attackingTerr.getNeighbours()) {
-                if (defendingTerr.getOwner() != this) {
-                    double utility = attackUtilityFunction(attackingTerr.getUnits(), defendingTerr.getUnits());
+        for (int id = owned.nextSetBit(0); id >= 0; id = owned.nextSetBit(id + 1)) {
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                int adj = adjacency[i];
+                if (owners[adj] != getSeat()) {
+                    double utility = attackUtilityFunction(units[id], units[adj]);
                     if (utility > mostUtility) {
                         mostUtility = utility;
-                        attacking = attackingTerr;
-                        defending = defendingTerr;
+                        attacking = world.getTerritory(id);
+                        defending = world.getTerritory(adj);
                     }
                 }
             }
@@ -127,45 +224,32 @@ public class AIPlayer extends Player {
     }
 
     /**
-     * returns the utility of an amount of units attacking another amount of units.
+     * returns the utility of an amount of units attacking another amount of units,
+     * the expected outcome of attacking until the territory is conquered (+1) or the
+     * attack is driven off (-1), using the exact odds of the whole battle.
      *
      * @param attackers int the amount of units on the attacking territory.
      * @param defenders in the amount of units on the defneding territory.
      * @return The expected utility of this attack
+     * @see BattleOdds
      */
     public double attackUtilityFunction(int attackers, int defenders) {
-        int numAttackersDice = (attackers > 4) ? 3 : attackers - 1;
-        double utility = 0;
-        if (numAttackersDice == 0)
+        if (attackers < 2)
             return 0;
-        if (defenders == 1) {
-            double probabilityOf1Loss = Math.pow(1, numAttackersDice) + Math.pow(2, numAttackersDice) + Math.pow(3, numAttackersDice) + Math.pow(4, numAttackersDice) + Math.pow(5, numAttackersDice) + Math.pow(6, numAttackersDice);
-            double probabilityOf1Win = 1 - probabilityOf1Loss;
-            utility = 1 * probabilityOf1Win - 1 * probabilityOf1Loss;
-        } else {
-            if (numAttackersDice == 1) {
-                utility = 1 * .2546 - 1 * 74.54;
-            } else if (numAttackersDice == 2) {
-                utility = 2 * 0.2276 + 1 * 0.3241 - 1 * 0.3241 - 2 * 0.4483;
-            } else {
-                utility = 2 * 0.3717 + 1 * 0.3358 - 1 * 0.3358 - 2 * 0.2926;
-            }
-        }
-        return utility;
+        return 2 * BattleOdds.getDefault().winProbability(attackers, defenders) - 1;
     }
 
     /**
-     * performs the end of turn move for the AI.
+     * performs the end of turn move for the AI, through the model as the moves of the other players are.
+     *
+     * @param model The GameSession that contains general game logic.
      */
-    public void moveTroops() {
-        //territoryMovingUnitsAway null if no owned territory with no neighbouring enemy territories, and units more than 1
-        Territory terrUnitsMoveAwayFrom = territoryMovingUnitsAway();
-        if (terrUnitsMoveAwayFrom != null) {
-            Territory terrUnitsMoveTo = territoryMovingUnitsTo(terrUnitsMoveAwayFrom);
-            int unitsToMove = terrUnitsMoveAwayFrom.getUnits() - 1;
-            terrUnitsMoveAwayFrom.removeUnits(unitsToMove);
-            terrUnitsMoveTo.addUnits(unitsToMove);
-        }
+    public void moveTroops(GameSession model) {
+        int[] move = chooseMove(getState());
+        if (move == null) return;
+        WorldMap world = getState().getWorld();
+        Territory from = world.getTerritory(move[0]);
+        model.moveUnits(from, world.getTerritory(move[1]), from.getUnits() - 1);
     }
 
     /**
@@ -174,96 +258,167 @@ public class AIPlayer extends Player {
      * @return Territory where the end of turn move will start at
      */
     public Territory territoryMovingUnitsAway() {
-        //no neighbouring enemy territories
-        //most units, must have more than 1 unit to move unit(s)
-        int mostTroops = 1;
-        Territory terrUnitsMoveAwayFrom = null;
-        Set<Territory> territories = getOwnedTerritories();
-        for (Territory territory : getOwnedTerritories()) {
-            if (ownsAllNeighbouringTerritories(territory)) {
-                int terrTroops = territory.getUnits();
-                if (terrTroops > mostTroops) {
-                    mostTroops = terrTroops;
-                    terrUnitsMoveAwayFrom = territory;
-                }
-            }
-        }
-        return terrUnitsMoveAwayFrom;
+        int from = moveSource(getState(), getSeat());
+        return (from < 0) ? null : getState().getWorld().getTerritory(from);
     }
 
     /**
-     * Determines the best territory to move the units of another territory to.
+     * Plans the rest of the turn of the player on a fork of the game, from the given phase, so that it
+     * can be applied to the live game in one step (see {@link AITurnExecutor}). Every attack on another
+     * AI player is blitzed on the fork with the given dice, as long as its utility stays positive. An attack
+     * on a human player ends the plan instead (see {@link AITurn#getLiveAttacking()}), as the human player
+     * picks the dice of their defence.
+     * <p>
+     * The units are always placed and moved, but the attacks stop at the deadline or as soon as the
+     * turn is cancelled, so that a player that thinks too long only misses attacks.
      *
-     * @param territory The territory that the end of turn starts at.
-     * @return Territory that the units will be moved to.
+     * @param state      The fork to plan on, which is changed as the turn is played
+     * @param phase      The phase to plan from: {@link GamePhase#BONUS_TROUPE}, {@link GamePhase#ATTACK}
+     *                   or {@link GamePhase#MOVE_UNITS}
+     * @param bonusUnits The bonus units to place
+     * @param dice       The random variable acting as the dice
+     * @param deadline   The time the attacks must stop, as given by {@link System#nanoTime()}
+     * @param cancelled  Whether the turn was cancelled
+     * @return The planned turn
      */
-    public Territory territoryMovingUnitsTo(Territory territory) {
-        //pick the territory with the most enemy units
-        //firstbreadth search
-        int mostEnemyTroops = 0;
-        Territory terrUnitsMoveTo = territory;
-        Queue<Territory> territories = new LinkedList<>();
-        Set<Territory> visited = new HashSet<>();
-        territories.add(territory);
-        while (!territories.isEmpty()) {
-            Territory terr = territories.remove();
-            for (Territory adjTerr : terr.getNeighbours()) {
-                if (adjTerr.getOwner() == this && !visited.contains(adjTerr)) {
-                    territories.add(adjTerr);
-                }
+    public AITurn planTurn(GameState state, GamePhase phase, int bonusUnits, SplittableRandom dice,
+                           long deadline, BooleanSupplier cancelled) {
+        AITurn turn = new AITurn(this, phase);
+        if (phase == GamePhase.BONUS_TROUPE) {
+            int[] plan = choosePlacement(state, bonusUnits);
+            for (int t = 0; t < plan.length; t++) {
+                if (plan[t] > 0) state.addUnits(t, plan[t]);
             }
-            visited.add(terr);
-            int numEnemyTroops = numNeighbouringEnemyTroops(terr);
-            if (numEnemyTroops > mostEnemyTroops) {
-                mostEnemyTroops = numEnemyTroops;
-                terrUnitsMoveTo = terr;
+            turn.setPlacement(plan);
+        }
+        if (phase == GamePhase.BONUS_TROUPE || phase == GamePhase.ATTACK) {
+            WorldTopology topology = state.getWorld().getTopology();
+            int[] armies = new int[2];
+            int attacking = -1;
+            int defending = -1;
+            for (int edge = chooseAttack(state, attacking, defending); edge >= 0;
+                 edge = chooseAttack(state, attacking, defending)) {
+                if (cancelled.getAsBoolean() || System.nanoTime() - deadline > 0) {
+                    turn.truncate();
+                    break;
+                }
+                attacking = topology.getEdgeSources()[edge];
+                defending = topology.getAdjacency()[edge];
+                int attackers = state.getUnits(attacking);
+                int defenders = state.getUnits(defending);
+                if (!(state.getPlayer(state.getOwner(defending)) instanceof AIPlayer)) {
+                    //the defender picks their dice, so the attack is fought on the live game
+                    if (attackers > 1 && BattleOdds.getDefault().winProbability(attackers, defenders) > 0.5) {
+                        turn.setLiveAttack(attacking, defending);
+                        return turn;
+                    }
+                    break;
+                }
+                //blitzing stops where the utility of the attack would no longer be positive
+                int rounds = GameSession.blitzRounds(attackers, defenders, 0.5, dice, armies);
+                if (rounds == 0) break;
+                state.applyBattle(attacking, defending, attackers - armies[0], defenders - armies[1]);
+                int moved = -1;
+                if (armies[1] == 0) {
+                    moved = armies[0] - 1;
+                    state.capture(attacking, defending, moved);
+                }
+                turn.addAttack(attacking, defending, attackers - armies[0], defenders - armies[1], rounds, moved);
+                if (state.getOwnedCount(getSeat()) == state.size()) return turn;
             }
         }
-        for (Territory terr : getOwnedTerritories()) {
-            visited.remove(terr);
+        int[] move = chooseMove(state);
+        if (move != null) {
+            int units = state.getUnits(move[0]) - 1;
+            state.moveUnits(move[0], move[1], units);
+            turn.setMove(move[0], move[1], units);
         }
-        return terrUnitsMoveTo;
+        return turn;
     }
 
     /**
-     * Determines the number of owned territories that neighbour that territory
+     * Chooses where to place bonus units in a planned turn: as {@link #planPlacement(int)} does.
      *
-     * @param territory the Territory that is finding out the number of owned neighbours
-     * @return int of the number of neighbouring territories it owns.
+     * @param state    The fork the turn is planned on
+     * @param numUnits The number of units to place
+     * @return The units to place on each territory, by territory id
      */
-    private int numOwnedNeighbouringTerritories(Territory territory) {
-        int counter = 0;
-        for (Territory neighbourTerr : territory.getNeighbours()) {
-            if (this == neighbourTerr.getOwner()) {
-                counter++;
-            }
+    protected int[] choosePlacement(GameState state, int numUnits) {
+        if (placementHeap == null || placementHeap.capacity() != state.size()) {
+            placementHeap = new IndexedMaxHeap(state.size());
         }
-        return counter;
+        return planPlacement(state, getSeat(), numUnits, placementHeap);
     }
 
     /**
-     * Determines if the territory owns all the territories it neighbours
+     * Chooses the next attack of a planned turn: the attack with the highest utility, as in {@link #doAttack}.
      *
-     * @param territory the Territory finding out if it owns all its neighbouring territories
-     * @return boolean if it owns all the neighbouring territories returns true, else false.
+     * @param state     The fork the turn is planned on
+     * @param attacking The id of the attacking territory of the previous attack, -1 for the first attack
+     * @param defending The id of the defending territory of the previous attack, -1 for the first attack
+     * @return The edge of the attack in the topology, -1 to end the attack phase
      */
-    private boolean ownsAllNeighbouringTerritories(Territory territory) {
-        return (numOwnedNeighbouringTerritories(territory) == territory.getNeighbours().size());
+    protected int chooseAttack(GameState state, int attacking, int defending) {
+        WorldTopology topology = state.getWorld().getTopology();
+        if (attackIndex == null || attackIndex.getTopology() != topology) {
+            attackIndex = new AttackIndex(this, topology);
+            attacking = -1;
+        }
+        if (attacking < 0) {
+            attackIndex.rebuild(state);
+        } else {
+            //only the territories of the previous attack changed
+            attackIndex.update(attacking);
+            attackIndex.update(defending);
+        }
+        return attackIndex.best();
+    }
+
+    /**
+     * Chooses the end of turn move, of the live game or of a planned turn.
+     *
+     * @param state The fork the turn is planned on
+     * @return The ids of the territory the units leave and of the territory they go to, null for no move
+     */
+    protected int[] chooseMove(GameState state) {
+        int from = moveSource(state, getSeat());
+        if (from < 0) return null;
+        int to = Rollout.mostThreatened(state, from);
+        return (to == from) ? null : new int[]{from, to};
     }
 
     /**
-     * determines the number of enemy troops that border the territory.
+     * Finds the territory a seat moves units away from at the end of its turn: the territory with the most
+     * units (more than one) that only borders territories of the seat, the first by id of those.
      *
-     * @param territory The territory that finds the number of enemy units bordering it.
-     * @return int the number of enemy troops bordering it.
+     * @param state The state of the game
+     * @param seat  The seat
+     * @return The id of the territory, -1 if there is none
      */
-    private int numNeighbouringEnemyTroops(Territory territory) {
-        int numUnits = 0;
-        for (Territory terr : territory.getNeighbours()) {
-            if (terr.getOwner() != this) {
-                numUnits += terr.getUnits();
+    static int moveSource(GameState state, int seat) {
+        BitSet owned = state.getOwned(seat);
+        int from = -1;
+        int mostTroops = 1;
+        for (int t = owned.nextSetBit(0); t >= 0; t = owned.nextSetBit(t + 1)) {
+            if (!state.isFrontier(t) && state.getUnits(t) > mostTroops) {
+                mostTroops = state.getUnits(t);
+                from = t;
             }
         }
-        return numUnits;
+        return from;
+    }
+
+    /**
+     * Determines the best territory to move the units of another territory to: the territory
+     * its units can reach that faces the most enemy units.
+     *
+     * @param territory The territory that the end of turn starts at.
+     * @return Territory that the units will be moved to, the territory itself if it is not owned by the AI.
+     */
+    public Territory territoryMovingUnitsTo(Territory territory) {
+        GameState state = getState();
+        //the units of a territory of another player cannot be moved anywhere
+        if (state.getOwner(territory.getId()) != getSeat()) return territory;
+        return state.getWorld().getTerritory(Rollout.mostThreatened(state, territory.getId()));
     }
 }
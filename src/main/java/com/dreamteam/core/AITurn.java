@@ -0,0 +1,296 @@
+package com.dreamteam.core;
+
+import java.util.Arrays;
+
+/**
+ * The turn of an AI player, planned on a fork of the game (see {@link AIPlayer#planTurn}) so that it
+ * can be computed on another thread and then applied to the live game in one step.
+ * <p>
+ * A turn holds the bonus units placed on every territory, the attacks made in order with the dice
+ * already rolled (the units each side lost, the rounds fought and the units moved into the territory
+ * if it was conquered), and the end of turn move. The attacks are kept in a single int array,
+ * {@value #ATTACK_FIELDS} ints per attack.
+ * <p>
+ * Only the attacks between AI players have their dice rolled ahead. A human player picks the dice of
+ * their defence, so the plan ends at the first attack on a territory of a human player: that attack is
+ * fought on the live game, and the rest of the turn is planned again once it is over.
+ */
+public final class AITurn {
+
+    /**
+     * The number of ints that describe an attack.
+     */
+    private static final int ATTACK_FIELDS = 6;
+
+    /**
+     * The player whose turn it is.
+     */
+    private final AIPlayer player;
+    /**
+     * The phase the turn was planned from.
+     */
+    private final GamePhase phase;
+    /**
+     * The bonus units placed on each territory, by id, null if the turn was planned after the placement.
+     */
+    private int[] placement;
+    /**
+     * The attacking territory, defending territory, units lost by the attacker, units lost by the defender,
+     * rounds fought and units moved into the defending territory (-1 if it was not conquered) of every attack.
+     */
+    private int[] attacks;
+    /**
+     * The number of attacks.
+     */
+    private int attackCount;
+    /**
+     * The territory the end of turn move leaves, -1 if there is no move.
+     */
+    private int moveFrom;
+    /**
+     * The territory the end of turn move goes to.
+     */
+    private int moveTo;
+    /**
+     * The units moved at the end of the turn.
+     */
+    private int moveUnits;
+    /**
+     * Whether the attacks were cut short by the deadline of the turn or its cancellation.
+     */
+    private boolean truncated;
+    /**
+     * The attacking territory of the attack to fight on the live game, -1 if there is none.
+     */
+    private int liveAttacking;
+    /**
+     * The defending territory of the attack to fight on the live game.
+     */
+    private int liveDefending;
+
+    /**
+     * Constructor for instances of AITurn, a turn without placements, attacks or move.
+     *
+     * @param player The player whose turn it is
+     * @param phase  The phase the turn is planned from
+     */
+    AITurn(AIPlayer player, GamePhase phase) {
+        this.player = player;
+        this.phase = phase;
+        attacks = new int[4 * ATTACK_FIELDS];
+        moveFrom = -1;
+        liveAttacking = -1;
+    }
+
+    /**
+     * Sets the bonus units placed on each territory.
+     *
+     * @param placement The units placed on each territory, by id
+     */
+    void setPlacement(int[] placement) {
+        this.placement = placement;
+    }
+
+    /**
+     * Adds an attack that was made.
+     *
+     * @param attacking  The id of the attacking territory
+     * @param defending  The id of the defending territory
+     * @param attackLost The units lost by the attacker
+     * @param defendLost The units lost by the defender
+     * @param rounds     The rounds fought
+     * @param moved      The units moved into the defending territory, -1 if it was not conquered
+     */
+    void addAttack(int attacking, int defending, int attackLost, int defendLost, int rounds, int moved) {
+        int at = attackCount * ATTACK_FIELDS;
+        if (at == attacks.length) attacks = Arrays.copyOf(attacks, 2 * attacks.length);
+        attacks[at] = attacking;
+        attacks[at + 1] = defending;
+        attacks[at + 2] = attackLost;
+        attacks[at + 3] = defendLost;
+        attacks[at + 4] = rounds;
+        attacks[at + 5] = moved;
+        attackCount++;
+    }
+
+    /**
+     * Sets the end of turn move.
+     *
+     * @param from  The id of the territory the units leave
+     * @param to    The id of the territory the units go to
+     * @param units The units moved
+     */
+    void setMove(int from, int to, int units) {
+        moveFrom = from;
+        moveTo = to;
+        moveUnits = units;
+    }
+
+    /**
+     * Sets the attack that ends the plan, to be fought on the live game.
+     *
+     * @param attacking The id of the attacking territory
+     * @param defending The id of the defending territory
+     */
+    void setLiveAttack(int attacking, int defending) {
+        liveAttacking = attacking;
+        liveDefending = defending;
+    }
+
+    /**
+     * Marks the attacks as cut short by the deadline of the turn or its cancellation.
+     */
+    void truncate() {
+        truncated = true;
+    }
+
+    /**
+     * Retrieves the player whose turn it is.
+     *
+     * @return The player
+     */
+    public AIPlayer getPlayer() {
+        return player;
+    }
+
+    /**
+     * Retrieves the phase the turn was planned from.
+     *
+     * @return The phase
+     */
+    public GamePhase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Retrieves the bonus units placed on each territory.
+     *
+     * @return The units placed on each territory by id, null if the turn was planned after the placement
+     */
+    public int[] getPlacement() {
+        return placement;
+    }
+
+    /**
+     * Retrieves the number of attacks made.
+     *
+     * @return The number of attacks
+     */
+    public int getAttackCount() {
+        return attackCount;
+    }
+
+    /**
+     * Retrieves the attacking territory of an attack.
+     *
+     * @param attack The index of the attack
+     * @return The id of the territory
+     */
+    public int getAttacking(int attack) {
+        return attacks[attack * ATTACK_FIELDS];
+    }
+
+    /**
+     * Retrieves the defending territory of an attack.
+     *
+     * @param attack The index of the attack
+     * @return The id of the territory
+     */
+    public int getDefending(int attack) {
+        return attacks[attack * ATTACK_FIELDS + 1];
+    }
+
+    /**
+     * Retrieves the units the attacker lost in an attack.
+     *
+     * @param attack The index of the attack
+     * @return The units lost
+     */
+    public int getAttackLost(int attack) {
+        return attacks[attack * ATTACK_FIELDS + 2];
+    }
+
+    /**
+     * Retrieves the units the defender lost in an attack.
+     *
+     * @param attack The index of the attack
+     * @return The units lost
+     */
+    public int getDefendLost(int attack) {
+        return attacks[attack * ATTACK_FIELDS + 3];
+    }
+
+    /**
+     * Retrieves the rounds fought in an attack.
+     *
+     * @param attack The index of the attack
+     * @return The rounds
+     */
+    public int getRounds(int attack) {
+        return attacks[attack * ATTACK_FIELDS + 4];
+    }
+
+    /**
+     * Retrieves the units moved into the defending territory of an attack.
+     *
+     * @param attack The index of the attack
+     * @return The units moved, -1 if the territory was not conquered
+     */
+    public int getMoved(int attack) {
+        return attacks[attack * ATTACK_FIELDS + 5];
+    }
+
+    /**
+     * Retrieves the territory the end of turn move leaves.
+     *
+     * @return The id of the territory, -1 if there is no move
+     */
+    public int getMoveFrom() {
+        return moveFrom;
+    }
+
+    /**
+     * Retrieves the territory the end of turn move goes to.
+     *
+     * @return The id of the territory
+     */
+    public int getMoveTo() {
+        return moveTo;
+    }
+
+    /**
+     * Retrieves the units moved at the end of the turn.
+     *
+     * @return The units
+     */
+    public int getMoveUnits() {
+        return moveUnits;
+    }
+
+    /**
+     * Retrieves the attacking territory of the attack to fight on the live game.
+     *
+     * @return The id of the territory, -1 if the plan does not end with such an attack
+     */
+    public int getLiveAttacking() {
+        return liveAttacking;
+    }
+
+    /**
+     * Retrieves the defending territory of the attack to fight on the live game.
+     *
+     * @return The id of the territory
+     */
+    public int getLiveDefending() {
+        return liveDefending;
+    }
+
+    /**
+     * Determines whether the attacks were cut short by the deadline of the turn or its cancellation.
+     *
+     * @return true if the turn was cut short
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
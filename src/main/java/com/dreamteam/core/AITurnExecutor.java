@@ -0,0 +1,318 @@
+package com.dreamteam.core;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Plays the turns of AI players off the thread that drives the game, so that a GUI stays responsive
+ * while the AI players think.
+ * <p>
+ * When the game reaches the turn of an AI player, the turn is planned on a fork of the game on the
+ * thinking executor (see {@link AIPlayer#planTurn}), with its own dice split from the dice of the game.
+ * The planned turn is then handed to the applying executor (the Swing event thread in the GUI), which
+ * applies the whole turn to the live game in one step and starts the next AI turn, if any. A turn
+ * that attacks a human player is applied up to that attack, which is fought on the live game so the
+ * human player picks the dice of their defence, and the rest of the turn is planned again. The live
+ * game is only ever changed by the applying executor, and is not changed while a turn is planned.
+ * <p>
+ * Every turn has a deadline, after which the player stops attacking, and pending turns can be
+ * cancelled (e.g. when the game is closed), in which case they are never applied.
+ * <p>
+ * While a human player attacks or moves, the turn of the AI player who follows is planned ahead on
+ * the position the human player would leave by ending the phase now (see {@link #speculate}). When the
+ * turn of the AI player begins on that very position the turn planned ahead is applied at once,
+ * otherwise it is discarded and the turn is planned on the position the game actually reached.
+ */
+public class AITurnExecutor {
+
+    /**
+     * The default time an AI player may think about its turn, in milliseconds.
+     */
+    public static final long DEFAULT_TURN_MILLIS = 5000;
+
+    /**
+     * The executor the turns are planned on.
+     */
+    private final ExecutorService thinking;
+    /**
+     * The executor the turns are applied to the game on.
+     */
+    private final Executor applying;
+    /**
+     * The time an AI player may think about its turn, in nanoseconds.
+     */
+    private final long turnNanos;
+    /**
+     * The generation of the turns, changed on cancellation so that the turns planned before are dropped.
+     */
+    private final AtomicInteger generation;
+    /**
+     * The planning of the pending turn, null if no turn was planned yet.
+     */
+    private volatile Future<?> planning;
+    /**
+     * Whether a turn is being planned or waits to be applied.
+     */
+    private volatile boolean pending;
+    /**
+     * The turn planned ahead for the next AI player, null if there is none.
+     */
+    private Speculation speculation;
+    /**
+     * The number of turns planned ahead that were applied.
+     */
+    private int speculationHits;
+    /**
+     * The number of turns planned ahead that were discarded.
+     */
+    private int speculationMisses;
+
+    /**
+     * Constructor for instances of AITurnExecutor that plan on a shared thread with the default deadline.
+     *
+     * @param applying The executor the turns are applied to the game on, e.g. the Swing event thread
+     */
+    public AITurnExecutor(Executor applying) {
+        this(SharedThread.THREAD, applying, DEFAULT_TURN_MILLIS);
+    }
+
+    /**
+     * Constructor for instances of AITurnExecutor.
+     *
+     * @param thinking   The executor the turns are planned on
+     * @param applying   The executor the turns are applied to the game on, e.g. the Swing event thread
+     * @param turnMillis The time an AI player may think about its turn, in milliseconds
+     */
+    public AITurnExecutor(ExecutorService thinking, Executor applying, long turnMillis) {
+        this.thinking = thinking;
+        this.applying = applying;
+        this.turnNanos = turnMillis * 1_000_000;
+        generation = new AtomicInteger();
+    }
+
+    /**
+     * The thread shared by the executors that were not given one, created when first needed.
+     */
+    private static class SharedThread {
+        /**
+         * The thread, a daemon so that it never keeps the application alive.
+         */
+        private static final ExecutorService THREAD = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-turns");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A turn planned ahead for an AI player, on the position it was planned from.
+     */
+    private static final class Speculation {
+        /**
+         * The player whose turn is planned.
+         */
+        private final AIPlayer player;
+        /**
+         * The position the turn is planned from, which the game must reach for the turn to be applied.
+         */
+        private final GameState position;
+        /**
+         * The planning of the turn.
+         */
+        private Future<AITurn> result;
+        /**
+         * Whether the turn was discarded, which stops its planning.
+         */
+        private volatile boolean discarded;
+
+        /**
+         * Constructor for instances of Speculation.
+         *
+         * @param player   The player whose turn is planned
+         * @param position The position the turn is planned from, not to be changed
+         */
+        private Speculation(AIPlayer player, GameState position) {
+            this.player = player;
+            this.position = position;
+        }
+    }
+
+    /**
+     * Starts planning the turn of the current player of a game, who must be an AI player.
+     * The turn planned ahead for the player is used instead if the game reached its position.
+     * Called on the applying executor.
+     *
+     * @param session The game
+     */
+    void schedule(GameSession session) {
+        AIPlayer player = (AIPlayer) session.getCurrentPlayer();
+        GamePhase phase = session.getGamePhase();
+        Speculation ahead = speculation;
+        speculation = null;
+        Callable<AITurn> plan;
+        if (ahead != null && ahead.player == player && phase == GamePhase.BONUS_TROUPE
+                && ahead.position.samePosition(session.getWorld().getState())) {
+            speculationHits++;
+            plan = () -> await(ahead.result);
+        } else {
+            discard(ahead);
+            plan = planner(session, player, phase, ahead, () -> false);
+        }
+        int turnGeneration = generation.get();
+        BooleanSupplier cancelled = () -> generation.get() != turnGeneration;
+        pending = true;
+        planning = thinking.submit(() -> {
+            try {
+                AITurn turn = plan.call();
+                applying.execute(() -> {
+                    if (cancelled.getAsBoolean()) return;
+                    pending = false;
+                    session.applyTurn(turn);
+                });
+            } catch (Exception e) {
+                //a cancelled search may fail on its interruption, anything else is reported where the game runs
+                if (cancelled.getAsBoolean()) return;
+                RuntimeException failure = (e instanceof RuntimeException) ? (RuntimeException) e
+                        : new IllegalStateException("The AI turn could not be planned.", e);
+                applying.execute(() -> {
+                    pending = false;
+                    throw failure;
+                });
+            }
+        });
+    }
+
+    /**
+     * Starts planning the turn of the AI player who follows the current player of a game, on the position
+     * the current player would leave by ending the phase now, if the current player is attacking or moving.
+     * A turn already planned ahead on that position is kept, any other is discarded.
+     * Called on the applying executor.
+     *
+     * @param session The game, on the turn of a human player
+     */
+    void speculate(GameSession session) {
+        GamePhase phase = session.getGamePhase();
+        if (phase != GamePhase.ATTACK && phase != GamePhase.MOVE_UNITS) return;
+        Player next = session.getNextPlayer();
+        GameState live = session.getWorld().getState();
+        Speculation previous = speculation;
+        if (previous != null && previous.player == next && previous.position.samePosition(live)) return;
+        discard(previous);
+        speculation = null;
+        if (!(next instanceof AIPlayer)) return;
+        AIPlayer player = (AIPlayer) next;
+        Speculation ahead = new Speculation(player, live.fork());
+        Callable<AITurn> plan = planner(session, player, GamePhase.BONUS_TROUPE, previous, () -> ahead.discarded);
+        ahead.result = thinking.submit(plan);
+        speculation = ahead;
+    }
+
+    /**
+     * Prepares the planning of a turn on a fork of the current position of a game.
+     * Called on the applying executor, the planning itself runs on the thinking executor.
+     *
+     * @param session   The game
+     * @param player    The player whose turn is planned
+     * @param phase     The phase the turn is planned from
+     * @param previous  A turn planned ahead that was discarded, waited for so that a player never plans
+     *                  two turns at once, null if there is none
+     * @param discarded Whether the turn was discarded before it was planned, on top of its cancellation
+     * @return The planning of the turn
+     */
+    private Callable<AITurn> planner(GameSession session, AIPlayer player, GamePhase phase,
+                                     Speculation previous, BooleanSupplier discarded) {
+        int bonusUnits = (phase == GamePhase.BONUS_TROUPE) ? session.getBonusUnits(player) : 0;
+        GameState fork = session.getWorld().getState().fork();
+        SplittableRandom dice = session.splitRandom();
+        long deadline = System.nanoTime() + turnNanos;
+        int turnGeneration = generation.get();
+        BooleanSupplier cancelled = () -> generation.get() != turnGeneration || discarded.getAsBoolean();
+        return () -> {
+            if (previous != null && previous.player == player) {
+                try {
+                    previous.result.get();
+                } catch (ExecutionException | CancellationException ignored) {
+                    //how the discarded turn ended does not matter
+                }
+            }
+            return player.planTurn(fork, phase, bonusUnits, dice, deadline, cancelled);
+        };
+    }
+
+    /**
+     * Waits for a turn planned ahead.
+     *
+     * @param result The planning of the turn
+     * @return The turn
+     * @throws InterruptedException When the wait was interrupted
+     */
+    private static AITurn await(Future<AITurn> result) throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The AI turn planned ahead failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Discards a turn planned ahead, which stops its planning.
+     *
+     * @param ahead The turn, null if there is none
+     */
+    private void discard(Speculation ahead) {
+        if (ahead == null) return;
+        ahead.discarded = true;
+        speculationMisses++;
+    }
+
+    /**
+     * Cancels the pending turn and the turn planned ahead, if any: their planning is interrupted and
+     * they are never applied.
+     */
+    public void cancel() {
+        generation.incrementAndGet();
+        pending = false;
+        if (speculation != null) {
+            speculation.discarded = true;
+            speculation.result.cancel(true);
+            speculation = null;
+        }
+        Future<?> current = planning;
+        if (current != null) current.cancel(true);
+    }
+
+    /**
+     * Determines whether an AI turn is being planned or waits to be applied.
+     *
+     * @return true if an AI turn is pending
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    /**
+     * Retrieves the number of turns planned ahead that were applied when the turn of their player began.
+     *
+     * @return The number of turns
+     */
+    public int getSpeculationHits() {
+        return speculationHits;
+    }
+
+    /**
+     * Retrieves the number of turns planned ahead that were discarded because the game left their position.
+     *
+     * @return The number of turns
+     */
+    public int getSpeculationMisses() {
+        return speculationMisses;
+    }
+}
@@ -0,0 +1,159 @@
+package com.dreamteam.core;
+
+import java.util.BitSet;
+
+/**
+ * The attacks an AI player is considering, kept in a heap so that the best attack is found
+ * in O(1) and the index is brought up to date in O(degree * log n) after a battle.
+ * <p>
+ * Every candidate attack is an edge of the topology (see {@link WorldTopology#getEdgeSources()})
+ * from a territory of the player to a territory of another player, keyed by its edge id with the
+ * attack utility of the player as its priority. Only attacks with a positive utility are kept.
+ * A battle or a capture only changes the units and owners of the two territories involved, so
+ * only the edges leaving or entering those territories are re-evaluated.
+ * <p>
+ * The index is built from the state at the start of the player's attack phase (the live state of the
+ * player, or a fork of it that the player plans its turn on), and must be told about every territory
+ * that changes afterwards through {@link #update(int)}.
+ */
+public final class AttackIndex {
+
+    /**
+     * The player that the attacks are considered for.
+     */
+    private final AIPlayer player;
+    /**
+     * The topology of the world the player is playing on.
+     */
+    private final WorldTopology topology;
+    /**
+     * The candidate attacks, by edge id.
+     */
+    private final IndexedMaxHeap candidates;
+    /**
+     * The state the attacks are considered on.
+     */
+    private GameState state;
+
+    /**
+     * Constructor for instances of AttackIndex.
+     *
+     * @param player   The player that the attacks are considered for
+     * @param topology The topology of the world the player is playing on
+     */
+    public AttackIndex(AIPlayer player, WorldTopology topology) {
+        this.player = player;
+        this.topology = topology;
+        candidates = new IndexedMaxHeap(topology.edgeCount());
+    }
+
+    /**
+     * Retrieves the topology that the index was built for.
+     *
+     * @return The topology
+     */
+    public WorldTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Rebuilds the index from every border of the territories of the player, on the live state of the player.
+     */
+    public void rebuild() {
+        rebuild(player.getState());
+    }
+
+    /**
+     * Rebuilds the index from every border of the territories of the player, on the given state.
+     *
+     * @param state The live state of the player or a fork of it
+     */
+    public void rebuild(GameState state) {
+        this.state = state;
+        candidates.clear();
+        int[] offsets = topology.getOffsets();
+        BitSet owned = state.getOwned(player.getSeat());
+        for (int t = owned.nextSetBit(0); t >= 0; t = owned.nextSetBit(t + 1)) {
+            for (int edge = offsets[t]; edge < offsets[t + 1]; edge++) {
+                evaluate(edge);
+            }
+        }
+    }
+
+    /**
+     * Re-evaluates every attack from or on a territory, after its units or owner changed.
+     *
+     * @param territory The id of the territory
+     */
+    public void update(int territory) {
+        int[] offsets = topology.getOffsets();
+        for (int edge = offsets[territory]; edge < offsets[territory + 1]; edge++) {
+            evaluate(edge);
+        }
+        int[] incomingOffsets = topology.getIncomingOffsets();
+        int[] incomingEdges = topology.getIncomingEdges();
+        for (int i = incomingOffsets[territory]; i < incomingOffsets[territory + 1]; i++) {
+            evaluate(incomingEdges[i]);
+        }
+    }
+
+    /**
+     * Adds, updates or removes the attack along an edge.
+     *
+     * @param edge The id of the edge
+     */
+    private void evaluate(int edge) {
+        int[] owners = state.getOwnerArray();
+        int[] units = state.getUnitArray();
+        int attacking = topology.getEdgeSources()[edge];
+        int defending = topology.getAdjacency()[edge];
+        int seat = player.getSeat();
+        if (owners[attacking] == seat && owners[defending] != seat) {
+            double utility = player.attackUtilityFunction(units[attacking], units[defending]);
+            if (utility > 0) {
+                candidates.set(edge, utility);
+                return;
+            }
+        }
+        candidates.remove(edge);
+    }
+
+    /**
+     * Retrieves the best attack: the one with the highest utility, and of those the one
+     * found first when scanning the territories of the player in order of id.
+     *
+     * @return The id of the edge of the attack, -1 if no attack has a positive utility
+     */
+    public int best() {
+        return candidates.peek();
+    }
+
+    /**
+     * Retrieves the attacking territory of an attack.
+     *
+     * @param edge The id of the edge of the attack
+     * @return The id of the attacking territory
+     */
+    public int getAttacking(int edge) {
+        return topology.getEdgeSources()[edge];
+    }
+
+    /**
+     * Retrieves the defending territory of an attack.
+     *
+     * @param edge The id of the edge of the attack
+     * @return The id of the defending territory
+     */
+    public int getDefending(int edge) {
+        return topology.getAdjacency()[edge];
+    }
+
+    /**
+     * Retrieves the number of attacks with a positive utility.
+     *
+     * @return The number of candidate attacks
+     */
+    public int size() {
+        return candidates.size();
+    }
+}
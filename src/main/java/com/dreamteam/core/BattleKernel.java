@@ -0,0 +1,164 @@
+package com.dreamteam.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * The core of a single round of a battle: rolls the dice of both sides, compares the
+ * highest dice in pairs (ties go to the defender) and counts the units each side loses.
+ * <p>
+ * A round never allocates. All dice are drawn from a single random number, sorted in
+ * local variables, and the result is packed into one int:
+ * <ul>
+ *     <li>bits 0-1: the units lost by the attacker</li>
+ *     <li>bits 2-3: the units lost by the defender</li>
+ *     <li>bits 4-12: the attacking dice from highest to lowest, 3 bits each (0 if not rolled)</li>
+ *     <li>bits 13-18: the defending dice from highest to lowest, 3 bits each (0 if not rolled)</li>
+ * </ul>
+ * The random variable is given by the caller, so a round is reproduced by seeding it.
+ */
+public final class BattleKernel {
+
+    /**
+     * The number of possible rolls of 0 to 5 dice (6 to the power of the number of dice).
+     */
+    private static final int[] OUTCOMES = {1, 6, 36, 216, 1296, 7776};
+
+    /**
+     * The kernel only has static methods.
+     */
+    private BattleKernel() {
+    }
+
+    /**
+     * Plays a single round of a battle.
+     *
+     * @param attackDice The number of dice the attacker rolls (1 to 3)
+     * @param defendDice The number of dice the defender rolls (1 to 2)
+     * @param random     The random variable acting as the dice
+     * @return The packed result of the round, 0 (nothing lost) if either side rolls no dice
+     */
+    public static int roll(int attackDice, int defendDice, SplittableRandom random) {
+        if (attackDice < 1 || defendDice < 1) return 0;
+        int rest = random.nextInt(OUTCOMES[attackDice + defendDice]);
+        int a0 = rest % 6 + 1;
+        rest /= 6;
+        int a1 = 0;
+        int a2 = 0;
+        if (attackDice > 1) {
+            a1 = rest % 6 + 1;
+            rest /= 6;
+        }
+        if (attackDice > 2) {
+            a2 = rest % 6 + 1;
+            rest /= 6;
+        }
+        int d0 = rest % 6 + 1;
+        rest /= 6;
+        int d1 = (defendDice > 1) ? rest % 6 + 1 : 0;
+
+        //sorting network, highest die first
+        int swap;
+        if (a1 > a0) {
+            swap = a0;
+            a0 = a1;
+            a1 = swap;
+        }
+        if (a2 > a1) {
+            swap = a1;
+            a1 = a2;
+            a2 = swap;
+        }
+        if (a1 > a0) {
+            swap = a0;
+            a0 = a1;
+            a1 = swap;
+        }
+        if (d1 > d0) {
+            swap = d0;
+            d0 = d1;
+            d1 = swap;
+        }
+
+        int attackLost = 0;
+        int defendLost = 0;
+        if (a0 > d0) defendLost++;
+        else attackLost++;
+        if (attackDice > 1 && defendDice > 1) {
+            if (a1 > d1) defendLost++;
+            else attackLost++;
+        }
+        return attackLost | defendLost << 2 | a0 << 4 | a1 << 7 | a2 << 10 | d0 << 13 | d1 << 16;
+    }
+
+    /**
+     * Retrieves the units lost by the attacker in a round.
+     *
+     * @param result The packed result of the round
+     * @return The units lost by the attacker
+     */
+    public static int getAttackLost(int result) {
+        return result & 3;
+    }
+
+    /**
+     * Retrieves the units lost by the defender in a round.
+     *
+     * @param result The packed result of the round
+     * @return The units lost by the defender
+     */
+    public static int getDefendLost(int result) {
+        return (result >>> 2) & 3;
+    }
+
+    /**
+     * Retrieves one of the dice rolled by the attacker in a round.
+     *
+     * @param result The packed result of the round
+     * @param rank   The rank of the die, 0 for the highest
+     * @return The value of the die, 0 if it was not rolled
+     */
+    public static int getAttackDie(int result, int rank) {
+        return (result >>> (4 + 3 * rank)) & 7;
+    }
+
+    /**
+     * Retrieves one of the dice rolled by the defender in a round.
+     *
+     * @param result The packed result of the round
+     * @param rank   The rank of the die, 0 for the highest
+     * @return The value of the die, 0 if it was not rolled
+     */
+    public static int getDefendDie(int result, int rank) {
+        return (result >>> (13 + 3 * rank)) & 7;
+    }
+
+    /**
+     * Unpacks the dice rolled by the attacker in a round, for the views.
+     *
+     * @param result The packed result of the round
+     * @param dice   The number of dice the attacker rolled
+     * @return The dice, from highest to lowest
+     */
+    public static int[] getAttackRolls(int result, int dice) {
+        int[] rolls = new int[dice];
+        for (int i = 0; i < dice; i++) {
+            rolls[i] = getAttackDie(result, i);
+        }
+        return rolls;
+    }
+
+    /**
+     * Unpacks the dice rolled by the defender in a round, for the views.
+     *
+     * @param result The packed result of the round
+     * @param dice   The number of dice the defender rolled
+     * @return The dice, from highest to lowest
+     */
+    public static int[] getDefendRolls(int result, int dice) {
+        int[] rolls = new int[dice];
+        for (int i = 0; i < dice; i++) {
+            rolls[i] = getDefendDie(result, i);
+        }
+        return rolls;
+    }
+}
@@ -0,0 +1,323 @@
+package com.dreamteam.core;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The exact odds of attacking a territory until it is conquered or the attacker can no
+ * longer attack (one unit left), for every number of attacking and defending units up to a bound.
+ * <p>
+ * A battle is a Markov chain over the units left on both territories: each round the attacker
+ * rolls up to three dice (one less than its units) and the defender up to two, the highest dice
+ * are compared in pairs and ties go to the defender. The odds of every state follow from the odds
+ * of the states a round can lead to, so the whole table is filled in a single pass and memoized
+ * in dense primitive arrays. Looking up the odds is then a single array access.
+ * <p>
+ * The table is computed once, in the background if {@link #precompute()} is called early,
+ * and is read only afterwards, so it may be queried from any thread. Battles beyond the bounds of
+ * the table are scaled down to fit it, keeping the ratio of the armies, rather than computing a
+ * larger table for them: the odds of large armies depend on little but their ratio.
+ */
+public final class BattleOdds {
+
+    /**
+     * The default bound on the number of attacking and defending units in the table.
+     */
+    public static final int DEFAULT_MAX_UNITS = 500;
+
+    /**
+     * The probability of the attacker losing 0, 1 or 2 units in a single round,
+     * by the number of attacking dice (1 to 3) and defending dice (1 to 2).
+     */
+    private static final double[][][] ROUND_ODDS = new double[4][3][];
+
+    static {
+        for (int attackDice = 1; attackDice <= 3; attackDice++) {
+            for (int defendDice = 1; defendDice <= 2; defendDice++) {
+                ROUND_ODDS[attackDice][defendDice] = enumerateRound(attackDice, defendDice);
+            }
+        }
+    }
+
+    /**
+     * The largest number of attacking units in the table.
+     */
+    private final int maxAttackers;
+    /**
+     * The largest number of defending units in the table.
+     */
+    private final int maxDefenders;
+    /**
+     * The probability of conquering the territory, by attackers * (maxDefenders + 1) + defenders.
+     */
+    private double[] win;
+    /**
+     * The expected units left on the attacking territory when the battle ends, by the same index.
+     */
+    private double[] attackersLeft;
+    /**
+     * The expected units left on the defending territory when the battle ends, by the same index.
+     */
+    private double[] defendersLeft;
+    /**
+     * Whether the table has been computed, written after the arrays so that they are
+     * visible to every thread that sees it set.
+     */
+    private volatile boolean ready;
+    /**
+     * The computation of the table, null until it is started.
+     */
+    private CompletableFuture<BattleOdds> computation;
+
+    /**
+     * Constructor for instances of BattleOdds.
+     * The table is not computed until it is first needed or {@link #precompute()} is called.
+     *
+     * @param maxAttackers The largest number of attacking units in the table
+     * @param maxDefenders The largest number of defending units in the table
+     */
+    public BattleOdds(int maxAttackers, int maxDefenders) {
+        if (maxAttackers < 1 || maxDefenders < 1) {
+            throw new IllegalArgumentException("The table needs at least one attacker and one defender.");
+        }
+        this.maxAttackers = maxAttackers;
+        this.maxDefenders = maxDefenders;
+    }
+
+    /**
+     * Holder of the shared table, created (and precomputed in the background) when it is first used.
+     */
+    private static class DefaultHolder {
+        /**
+         * The shared table.
+         */
+        private static final BattleOdds INSTANCE = new BattleOdds(DEFAULT_MAX_UNITS, DEFAULT_MAX_UNITS);
+
+        static {
+            INSTANCE.precompute();
+        }
+    }
+
+    /**
+     * Retrieves the shared table of odds for up to {@link #DEFAULT_MAX_UNITS} units on each side.
+     * The first call starts computing the table in the background.
+     *
+     * @return The shared table
+     */
+    public static BattleOdds getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Starts computing the table in the background, if it has not been started yet.
+     *
+     * @return The computation, which completes with this table
+     */
+    public synchronized CompletableFuture<BattleOdds> precompute() {
+        if (computation == null) {
+            computation = CompletableFuture.supplyAsync(() -> {
+                compute();
+                return this;
+            });
+        }
+        return computation;
+    }
+
+    /**
+     * Determines whether the table has been computed.
+     *
+     * @return true if the odds can be looked up without waiting
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Waits for the table to be computed, starting the computation if needed.
+     */
+    private void awaitReady() {
+        if (!ready) precompute().join();
+    }
+
+    /**
+     * Fills the table, from the smallest battles up, as every round of a battle
+     * leads to a battle with fewer units.
+     */
+    private void compute() {
+        int width = maxDefenders + 1;
+        int size = (maxAttackers + 1) * width;
+        double[] winTable = new double[size];
+        double[] attackersTable = new double[size];
+        double[] defendersTable = new double[size];
+        for (int a = 0; a <= maxAttackers; a++) {
+            for (int d = 0; d <= maxDefenders; d++) {
+                int index = a * width + d;
+                if (d == 0) {
+                    winTable[index] = 1;
+                    attackersTable[index] = a;
+                } else if (a <= 1) {
+                    attackersTable[index] = a;
+                    defendersTable[index] = d;
+                } else {
+                    int attackDice = Math.min(3, a - 1);
+                    int defendDice = Math.min(2, d);
+                    int rolled = Math.min(attackDice, defendDice);
+                    double[] odds = ROUND_ODDS[attackDice][defendDice];
+                    for (int attackLost = 0; attackLost <= rolled; attackLost++) {
+                        int next = (a - attackLost) * width + (d - (rolled - attackLost));
+                        winTable[index] += odds[attackLost] * winTable[next];
+                        attackersTable[index] += odds[attackLost] * attackersTable[next];
+                        defendersTable[index] += odds[attackLost] * defendersTable[next];
+                    }
+                }
+            }
+        }
+        win = winTable;
+        attackersLeft = attackersTable;
+        defendersLeft = defendersTable;
+        ready = true;
+    }
+
+    /**
+     * Retrieves the probability of conquering a territory by attacking until it is
+     * conquered or the attacker has a single unit left.
+     *
+     * @param attackers The units on the attacking territory
+     * @param defenders The units on the defending territory
+     * @return The probability of conquering the territory
+     */
+    public double winProbability(int attackers, int defenders) {
+        awaitReady();
+        return win[index(attackers, defenders)];
+    }
+
+    /**
+     * Retrieves the expected units left on the attacking territory once the battle is over.
+     *
+     * @param attackers The units on the attacking territory
+     * @param defenders The units on the defending territory
+     * @return The expected units left on the attacking territory
+     */
+    public double expectedAttackersLeft(int attackers, int defenders) {
+        awaitReady();
+        return attackersLeft[index(attackers, defenders)] * scale(attackers, defenders);
+    }
+
+    /**
+     * Retrieves the expected units left on the defending territory once the battle is over.
+     *
+     * @param attackers The units on the attacking territory
+     * @param defenders The units on the defending territory
+     * @return The expected units left on the defending territory
+     */
+    public double expectedDefendersLeft(int attackers, int defenders) {
+        awaitReady();
+        return defendersLeft[index(attackers, defenders)] * scale(attackers, defenders);
+    }
+
+    /**
+     * Finds the entry of the table for a battle, scaling the armies down to fit the table
+     * if either is beyond its bound.
+     *
+     * @param attackers The units on the attacking territory
+     * @param defenders The units on the defending territory
+     * @return The index of the battle in the table
+     */
+    private int index(int attackers, int defenders) {
+        if (attackers > maxAttackers || defenders > maxDefenders) {
+            if ((long) attackers * maxDefenders >= (long) defenders * maxAttackers) {
+                defenders = scaleDown(defenders, maxAttackers, attackers);
+                attackers = maxAttackers;
+            } else {
+                attackers = scaleDown(attackers, maxDefenders, defenders);
+                defenders = maxDefenders;
+            }
+        }
+        return attackers * (maxDefenders + 1) + defenders;
+    }
+
+    /**
+     * Scales an army down by the ratio of a bound of the table to the army furthest beyond its bound.
+     *
+     * @param units   The units of the army
+     * @param bound   The bound of the table
+     * @param largest The units of the army furthest beyond its bound
+     * @return The scaled units, at least one unless there were none
+     */
+    private static int scaleDown(int units, int bound, int largest) {
+        return (units == 0) ? 0 : Math.max(1, (int) ((long) units * bound / largest));
+    }
+
+    /**
+     * Computes the factor the units left in a battle scaled down by {@link #index(int, int)} are scaled back up by.
+     *
+     * @param attackers The units on the attacking territory
+     * @param defenders The units on the defending territory
+     * @return The factor, 1 for a battle within the table
+     */
+    private double scale(int attackers, int defenders) {
+        return Math.max(1, Math.max((double) attackers / maxAttackers, (double) defenders / maxDefenders));
+    }
+
+    /**
+     * Retrieves the largest number of attacking units in the table.
+     *
+     * @return The bound on the attacking units
+     */
+    public int getMaxAttackers() {
+        return maxAttackers;
+    }
+
+    /**
+     * Retrieves the largest number of defending units in the table.
+     *
+     * @return The bound on the defending units
+     */
+    public int getMaxDefenders() {
+        return maxDefenders;
+    }
+
+    /**
+     * Retrieves the probability of the attacker losing 0, 1 or 2 units in a single round.
+     *
+     * @param attackDice The number of attacking dice (1 to 3)
+     * @param defendDice The number of defending dice (1 to 2)
+     * @return The probabilities, indexed by the units lost by the attacker (not to be modified)
+     */
+    public static double[] getRoundOdds(int attackDice, int defendDice) {
+        return ROUND_ODDS[attackDice][defendDice];
+    }
+
+    /**
+     * Computes the odds of a single round by enumerating every possible roll of the dice.
+     *
+     * @param attackDice The number of attacking dice
+     * @param defendDice The number of defending dice
+     * @return The probability of the attacker losing each number of units
+     */
+    private static double[] enumerateRound(int attackDice, int defendDice) {
+        int rolled = Math.min(attackDice, defendDice);
+        long[] counts = new long[rolled + 1];
+        int dice = attackDice + defendDice;
+        int outcomes = (int) Math.pow(6, dice);
+        int[] attack = new int[attackDice];
+        int[] defend = new int[defendDice];
+        for (int outcome = 0; outcome < outcomes; outcome++) {
+            int rest = outcome;
+            for (int i = 0; i < attackDice; i++, rest /= 6) attack[i] = rest % 6;
+            for (int i = 0; i < defendDice; i++, rest /= 6) defend[i] = rest % 6;
+            Arrays.sort(attack);
+            Arrays.sort(defend);
+            int attackLost = 0;
+            for (int i = 0; i < rolled; i++) {
+                if (attack[attackDice - 1 - i] <= defend[defendDice - 1 - i]) attackLost++;
+            }
+            counts[attackLost]++;
+        }
+        double[] odds = new double[rolled + 1];
+        for (int lost = 0; lost <= rolled; lost++) {
+            odds[lost] = (double) counts[lost] / outcomes;
+        }
+        return odds;
+    }
+}
@@ -22,7 +22,8 @@ public class Continent implements Jsonable {
      */
     private String name;
     /**
-     * player that holds the continent, null if no player holds all territories in continent
+     * player that holds the continent, null if no player holds all territories in continent,
+     * when the continent does not belong to a compiled world
      */
     private Player ruler;
     /**
@@ -33,6 +34,14 @@ public class Continent implements Jsonable {
      * set of all the Territories that the continent holds.
      */
     private Set<Territory> territories;
+    /**
+     * the state of the game on the world, which tracks the ruler of this continent
+     */
+    private GameState state;
+    /**
+     * the id of this continent in the topology of its world, -1 if it does not belong to one
+     */
+    private int id;
 
     /**
      * constructor for the continent class
@@ -44,6 +53,27 @@ public class Continent implements Jsonable {
         this.name = name;
         this.bonusAmount = bonusAmount;
         territories = new HashSet<>();
+        id = -1;
+    }
+
+    /**
+     * Binds this continent to its id in the compiled topology of a world.
+     *
+     * @param state The state of the game on the world
+     * @param id    The id of the continent in the world's topology
+     */
+    void attach(GameState state, int id) {
+        this.state = state;
+        this.id = id;
+    }
+
+    /**
+     * Getter for the id of the continent in the topology of its world
+     *
+     * @return The id, or -1 if the continent does not belong to a compiled world
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -73,20 +103,32 @@ public class Continent implements Jsonable {
         territories.add(territory);
     }
 
+    /**
+     * Retrieves the territories that the continent contains.
+     *
+     * @return The territories of the continent
+     */
+    public Set<Territory> getTerritories() {
+        return territories;
+    }
+
     /**
      * getter for the current owner of the territory
      *
      * @return The Player that owns the continent
      */
     public Player getRuler() {
-        return ruler;
+        return (state == null) ? ruler : state.getPlayer(state.getRuler(id));
     }
 
     /**
      * checks to see if a Player now owns the continent, by owning all its
      * territories, and makes the Player equal to its ruler if it does own the continent.
+     * The ruler of a continent of a compiled world is tracked by its {@link GameState} as
+     * territories change hands, so nothing needs to be checked.
      */
     public void updateRuler() {
+        if (state != null) return;
         Iterator<Territory> it = territories.iterator();
         Player firstOwner = it.next().getOwner();
         while (it.hasNext()) {
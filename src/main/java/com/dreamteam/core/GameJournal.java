@@ -0,0 +1,354 @@
+package com.dreamteam.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only journal of every change a game makes to its position, written as compact binary records to a
+ * memory-mapped file, so that a game can be recovered after a crash without exporting it, audited afterwards,
+ * or replayed (see {@link JournalReplayer}).
+ * <p>
+ * The file starts with a header (the magic number, the version and the length of the committed records),
+ * followed by the records. A record is a tag byte and a fixed payload: territories as shorts, units and packed
+ * battle results as ints, phases and seats as bytes. A game starts with a {@link #START} record holding the
+ * whole position, and every change after it is a record. The committed length in the header is only updated
+ * once a record is complete, so a record torn by a crash is ignored, and a journal that is opened again is
+ * appended to after its last complete record.
+ * <p>
+ * The records are written to the mapped memory, which the operating system writes to the file even if the
+ * game crashes; {@link #sync()} also forces them to the disk.
+ */
+public class GameJournal implements Closeable {
+
+    /**
+     * The magic number a journal file starts with, "RJNL".
+     */
+    public static final int MAGIC = 0x524A4E4C;
+    /**
+     * The version of the format of the records.
+     */
+    public static final int VERSION = 1;
+    /**
+     * The size of the header: the magic number, the version and the committed length.
+     */
+    static final int HEADER_SIZE = 16;
+    /**
+     * The offset of the committed length in the header.
+     */
+    static final int LENGTH_OFFSET = 8;
+    /**
+     * A game started: the number of territories (short), the number of seats (byte), then the seat of the
+     * owner (byte) and the units (int) of every territory.
+     */
+    static final byte START = 1;
+    /**
+     * Units were placed: the territory (short) and the units (int).
+     */
+    static final byte PLACE = 2;
+    /**
+     * A round of dice was fought: the attacking and defending territories (shorts) and the packed result of
+     * the round (int, see {@link BattleKernel}), which holds the dice and the losses.
+     */
+    static final byte BATTLE = 3;
+    /**
+     * A blitz was fought: the attacking and defending territories (shorts), the units lost by the attacker
+     * and the defender and the number of rounds (ints).
+     */
+    static final byte BLITZ = 4;
+    /**
+     * A territory was captured: the attacking and captured territories (shorts) and the units moved (int).
+     */
+    static final byte CAPTURE = 5;
+    /**
+     * Units were moved between two territories of a player: the territories (shorts) and the units (int).
+     */
+    static final byte FORTIFY = 6;
+    /**
+     * The phase changed: the ordinal of the new phase (byte).
+     */
+    static final byte PHASE = 7;
+    /**
+     * The turn passed: the seat of the player whose turn began (byte).
+     */
+    static final byte TURN = 8;
+    /**
+     * The game is over: the seat of the winner (byte).
+     */
+    static final byte GAME_OVER = 9;
+    /**
+     * The size the file is mapped with at first, grown by doubling.
+     */
+    private static final int INITIAL_CAPACITY = 1 << 20;
+
+    /**
+     * The channel of the file.
+     */
+    private final FileChannel channel;
+    /**
+     * The mapped file, positioned after the last committed record.
+     */
+    private MappedByteBuffer buffer;
+    /**
+     * The number of records written since the journal was opened.
+     */
+    private long records;
+
+    /**
+     * Constructor for instances of GameJournal.
+     * Opens a journal file, creating it if it does not exist, to append records after its last complete record.
+     *
+     * @param file The journal file
+     * @throws IOException When the file could not be opened, or is not a journal
+     */
+    public GameJournal(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            map((int) Math.max(INITIAL_CAPACITY, Math.min(size, Integer.MAX_VALUE)));
+            if (size == 0) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putLong(LENGTH_OFFSET, HEADER_SIZE);
+            } else if (size < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(file + " is not a game journal.");
+            }
+            buffer.position((int) buffer.getLong(LENGTH_OFFSET));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps the file with a given capacity, keeping the position of the previous mapping.
+     *
+     * @param capacity The number of bytes to map
+     * @throws IOException When the file could not be mapped
+     */
+    private void map(int capacity) throws IOException {
+        int position = (buffer == null) ? 0 : buffer.position();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(position);
+    }
+
+    /**
+     * Makes room for a record, growing the mapping if needed.
+     *
+     * @param bytes The size of the record
+     */
+    private void ensure(int bytes) {
+        if (buffer.remaining() >= bytes) return;
+        long capacity = Math.max(2L * buffer.capacity(), (long) buffer.position() + bytes);
+        if (capacity > Integer.MAX_VALUE) throw new IllegalStateException("The game journal is full.");
+        try {
+            map((int) capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Commits the record that was just written.
+     */
+    private void commit() {
+        buffer.putLong(LENGTH_OFFSET, buffer.position());
+        records++;
+    }
+
+    /**
+     * Checks that a territory id fits the short it is written as, before anything of its record is written.
+     *
+     * @param territory The id of the territory
+     * @return The id as a short
+     */
+    private static short id(int territory) {
+        if (territory < 0 || territory > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("The territory " + territory + " cannot be journaled.");
+        }
+        return (short) territory;
+    }
+
+    /**
+     * Writes a record that involves two territories and a value.
+     *
+     * @param tag   The tag of the record
+     * @param from  The first territory
+     * @param to    The second territory
+     * @param value The value
+     */
+    private void write(byte tag, int from, int to, int value) {
+        short first = id(from);
+        short second = id(to);
+        ensure(9);
+        buffer.put(tag).putShort(first).putShort(second).putInt(value);
+        commit();
+    }
+
+    /**
+     * Writes a record that holds a single byte.
+     *
+     * @param tag   The tag of the record
+     * @param value The value
+     */
+    private void write(byte tag, int value) {
+        ensure(2);
+        buffer.put(tag).put((byte) value);
+        commit();
+    }
+
+    /**
+     * Records the start of a game.
+     *
+     * @param state The position the game starts from
+     * @throws IllegalArgumentException When the world has too many territories or seats for the records
+     */
+    public void start(GameState state) {
+        int size = state.size();
+        if (size > Short.MAX_VALUE || state.getNumSeats() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("A game of " + size + " territories and " + state.getNumSeats()
+                    + " seats cannot be journaled.");
+        }
+        ensure(4 + 5 * size);
+        buffer.put(START).putShort((short) size).put((byte) state.getNumSeats());
+        for (int t = 0; t < size; t++) {
+            buffer.put((byte) state.getOwner(t)).putInt(state.getUnits(t));
+        }
+        commit();
+    }
+
+    /**
+     * Records units placed on a territory.
+     *
+     * @param territory The id of the territory
+     * @param units     The units placed
+     */
+    public void place(int territory, int units) {
+        short id = id(territory);
+        ensure(7);
+        buffer.put(PLACE).putShort(id).putInt(units);
+        commit();
+    }
+
+    /**
+     * Records a round of dice.
+     *
+     * @param attacking The id of the attacking territory
+     * @param defending The id of the defending territory
+     * @param result    The packed result of the round (see {@link BattleKernel})
+     */
+    public void battle(int attacking, int defending, int result) {
+        write(BATTLE, attacking, defending, result);
+    }
+
+    /**
+     * Records a blitz.
+     *
+     * @param attacking  The id of the attacking territory
+     * @param defending  The id of the defending territory
+     * @param attackLost The units lost by the attacker
+     * @param defendLost The units lost by the defender
+     * @param rounds     The number of rounds fought
+     */
+    public void blitz(int attacking, int defending, int attackLost, int defendLost, int rounds) {
+        short first = id(attacking);
+        short second = id(defending);
+        ensure(17);
+        buffer.put(BLITZ).putShort(first).putShort(second)
+                .putInt(attackLost).putInt(defendLost).putInt(rounds);
+        commit();
+    }
+
+    /**
+     * Records the capture of a territory.
+     *
+     * @param attacking The id of the attacking territory
+     * @param defending The id of the captured territory
+     * @param moved     The units moved into the captured territory
+     */
+    public void capture(int attacking, int defending, int moved) {
+        write(CAPTURE, attacking, defending, moved);
+    }
+
+    /**
+     * Records units moved between two territories of a player.
+     *
+     * @param from  The id of the territory the units left
+     * @param to    The id of the territory the units moved to
+     * @param units The units moved
+     */
+    public void fortify(int from, int to, int units) {
+        write(FORTIFY, from, to, units);
+    }
+
+    /**
+     * Records a change of phase.
+     *
+     * @param phase The new phase
+     */
+    public void phase(GamePhase phase) {
+        write(PHASE, phase.ordinal());
+    }
+
+    /**
+     * Records the start of the turn of a player.
+     *
+     * @param seat The seat of the player
+     */
+    public void turn(int seat) {
+        write(TURN, seat);
+    }
+
+    /**
+     * Records the end of a game.
+     *
+     * @param seat The seat of the winner
+     */
+    public void gameOver(int seat) {
+        write(GAME_OVER, seat);
+    }
+
+    /**
+     * Retrieves the number of records written since the journal was opened.
+     *
+     * @return The number of records
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Retrieves the length of the committed records, header included.
+     *
+     * @return The length in bytes
+     */
+    public long getLength() {
+        return buffer.position();
+    }
+
+    /**
+     * Forces the records written so far to the disk.
+     */
+    public void sync() {
+        buffer.force();
+    }
+
+    /**
+     * Forces the records to the disk and closes the file. The file keeps the size it was mapped with, as a
+     * mapped file cannot be truncated on every platform; only the committed records are read from it.
+     *
+     * @throws IOException When the file could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
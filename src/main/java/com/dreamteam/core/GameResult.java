@@ -0,0 +1,113 @@
+package com.dreamteam.core;
+
+/**
+ * The result of a single simulated game between AI players.
+ *
+ * @see GameSimulator
+ * @see TournamentRunner
+ */
+public class GameResult {
+
+    /**
+     * The seed that the game was played with.
+     */
+    private final long seed;
+    /**
+     * The name of the player who won, null if the game did not finish.
+     */
+    private final String winner;
+    /**
+     * The number of turns that were played.
+     */
+    private final int turns;
+    /**
+     * The number of battles that were fought.
+     */
+    private final int battles;
+    /**
+     * The wall time it took to play the game, in nanoseconds.
+     */
+    private final long wallNanos;
+
+    /**
+     * Constructor for instances of GameResult.
+     *
+     * @param seed      The seed that the game was played with
+     * @param winner    The name of the winning player, null if the game did not finish
+     * @param turns     The number of turns played
+     * @param battles   The number of battles fought
+     * @param wallNanos The wall time of the game in nanoseconds
+     */
+    public GameResult(long seed, String winner, int turns, int battles, long wallNanos) {
+        this.seed = seed;
+        this.winner = winner;
+        this.turns = turns;
+        this.battles = battles;
+        this.wallNanos = wallNanos;
+    }
+
+    /**
+     * Retrieves the seed that the game was played with.
+     *
+     * @return The seed of the game
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retrieves the name of the player who won the game.
+     *
+     * @return The winner's name, or null if the game did not finish
+     */
+    public String getWinner() {
+        return winner;
+    }
+
+    /**
+     * Determines whether the game was played until a player won.
+     *
+     * @return true if the game finished
+     */
+    public boolean isFinished() {
+        return winner != null;
+    }
+
+    /**
+     * Retrieves the number of turns that were played.
+     *
+     * @return The number of turns
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Retrieves the number of battles that were fought.
+     *
+     * @return The number of battles
+     */
+    public int getBattles() {
+        return battles;
+    }
+
+    /**
+     * Retrieves the wall time it took to play the game.
+     *
+     * @return The wall time in nanoseconds
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Retrieves a string representation of the result.
+     *
+     * @return A string representation of the result
+     */
+    @Override
+    public String toString() {
+        return String.format("seed %d: %s after %d turns and %d battles (%.2f ms)", seed,
+                isFinished() ? winner + " won" : "unfinished", turns, battles, wallNanos / 1e6);
+    }
+}
@@ -0,0 +1,1455 @@
+package com.dreamteam.core;
+
+import com.dreamteam.view.RiskEvent;
+import com.dreamteam.view.RiskEventBus;
+import com.dreamteam.view.RiskEventPool;
+import com.dreamteam.view.RiskEventType;
+import com.dreamteam.view.RiskGameHandler;
+import com.github.cliftonlabs.json_simple.*;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.RenderedImage;
+import java.io.*;
+import java.util.List;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * This class represents the model for a single game, notifies
+ * the com.dreamteam.view of changes made to the game, is responsible
+ * for the com.dreamteam.core functionality of the game.
+ * <p>
+ * The model now works with phases and as it progresses through the phases,
+ * it notifies any views. The phases are:
+ * Bonus Troupe Phase, Attack Phase, Move Units Phase
+ * <p>
+ * A session holds all of the state of one game, any number of sessions may
+ * exist at once (see {@link GameSessionRegistry}).
+ * <p>
+ * AI turns are played on the thread that moves the game on, unless the session has an
+ * {@link AITurnExecutor}, which plans them on another thread and applies them in one step.
+ * The views are notified through a {@link RiskEventBus}, on the thread that changes the game or,
+ * for views added with an executor, later and in batches on that executor.
+ *
+ * @author Kyler Verge
+ * @author Ethan Chase
+ * @author Anthony Dooley
+ * @author Tony Zeidan
+ */
+public class GameSession implements Jsonable {
+
+    /**
+     * The list of players that may or may not be active throughout the game.
+     *
+     * @see Player
+     */
+    private List<Player> players;
+    /**
+     * The world that the players will be playing on.
+     *
+     * @see WorldMap
+     */
+    private WorldMap world;
+    /**
+     * Contains the current number of active players.
+     */
+    private int numActivePlayer;
+    /**
+     * Stores the location of the current player in the list of players.
+     */
+    private int currentPlayerInd;
+    /**
+     * Stores the current phase of the game.
+     */
+    private GamePhase gamePhase;
+    /**
+     * The bus that delivers the events of this model to the handlers that listen to it.
+     */
+    private final RiskEventBus eventBus;
+    /**
+     * Creates the events published most often, reused in pooled mode (see {@link #setEventPooling(boolean)}).
+     */
+    private final RiskEventPool events;
+    /**
+     * Contains the bonus troops of the current player.
+     */
+    private int bonusTroops;
+    /**
+     * Whether AI players take their turns automatically as soon as the game
+     * reaches them (true for the GUI, false when the caller drives the AI).
+     */
+    private boolean autoPlayAI;
+    /**
+     * The number of turns that have been completed in the current game.
+     */
+    private int turnCount;
+    /**
+     * The player who won the game, null while the game is still in progress.
+     * Volatile so that other threads, such as one evicting finished sessions, see the end of the game.
+     */
+    private volatile Player winner;
+    /**
+     * The number of battles that have been fought in the current game.
+     */
+    private int battleCount;
+    /**
+     * Whether AI players resolve their attacks as a blitz (see {@link #blitz(Territory, Territory, double)})
+     * rather than one round of dice at a time.
+     */
+    private boolean blitzMode;
+    /**
+     * Random variable used for the setup of the game and for the rolling of dice.
+     */
+    private SplittableRandom random;
+    /**
+     * The units left on both sides of the last blitz, kept so that a blitz does not allocate.
+     */
+    private final int[] blitzArmies;
+    /**
+     * The executor of AI turns off the calling thread, null to play AI turns on the calling thread.
+     */
+    private AITurnExecutor aiTurns;
+    /**
+     * The territories the views were last told to highlight, null if they were never told.
+     */
+    private BitSet highlight;
+    /**
+     * The journal the changes of the games of this session are recorded to, null if they are not recorded.
+     */
+    private GameJournal journal;
+
+    /**
+     * Default constructor for instances of GameSession.
+     * Creates a new game without any players or map, every session has its own
+     * players, world, phase, turn and handlers so that many games can be hosted at once.
+     */
+    public GameSession() {
+        //initialize map, player list, and scanner
+        players = new ArrayList<>();
+        world = new WorldMap();
+        currentPlayerInd = 0;
+        gamePhase = null;
+        eventBus = new RiskEventBus();
+        events = new RiskEventPool(eventBus);
+        bonusTroops = 0;
+        autoPlayAI = true;
+        turnCount = 0;
+        winner = null;
+        battleCount = 0;
+        blitzMode = false;
+        random = new SplittableRandom();
+        blitzArmies = new int[2];
+        //start computing the odds of battles in the background, for the AI players and the attack dialog
+        BattleOdds.getDefault();
+    }
+
+    /**
+     * Sets the list of players to be assigned to the current game.
+     *
+     * @param players The list of players in the game.
+     */
+    public void setPlayers(List<Player> players) {
+        this.players = players;
+    }
+
+    /**
+     * Start a new game from contents in a saved zipfile (.world only).
+     *
+     * @param zf Zipfile containing contents to start new game
+     */
+    public void newGame(ZipFile zf) {
+        try {
+            ZipEntry mapData = zf.getEntry("map.json");
+            InputStream mapStream = zf.getInputStream(mapData);
+            newGame(mapStream);
+            mapStream.close();
+            zf.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("There was a fatal IO exception.");
+        }
+    }
+
+    /**
+     * Start a new game from the map data of a world (the map.json of a .world file).
+     *
+     * @param mapStream The stream containing the map data
+     */
+    public void newGame(InputStream mapStream) {
+        try {
+            world.readMap(mapStream);
+        } catch (RiskGameException e) {
+            e.printStackTrace();
+            notifyHandlers(new RiskEvent(this, RiskEventType.INVALID_MAP_LOAD));
+            return;
+        }
+        startGame();
+    }
+
+    /**
+     * Start a new game on a world that has already been read, such as a copy of a
+     * template world. The world must not have any owners or units yet.
+     *
+     * @param map The world to play the game on
+     * @see WorldMap#WorldMap(WorldMap)
+     */
+    public void newGame(WorldMap map) {
+        world = map;
+        highlight = null;
+        startGame();
+    }
+
+    /**
+     * Sets up the players and the world that has been read, then begins the game.
+     */
+    private void startGame() {
+        //six random colors for players
+        List<RiskColour> randomColors = new LinkedList<>();
+        randomColors.add(RiskColour.RED);
+        randomColors.add(RiskColour.GRAY);
+        randomColors.add(RiskColour.BLUE);
+        randomColors.add(RiskColour.YELLOW);
+        randomColors.add(RiskColour.BLACK);
+        randomColors.add(RiskColour.GREEN);
+
+            /*We must get all player names and generate colours.
+            Loop through players and obtain names through user input.
+            Randomly assign colours.
+            */
+        for (Player p : players) {
+            //get this players name
+
+            int randIndex = random.nextInt(randomColors.size());
+            //generate and assign random colours
+            RiskColour colour = randomColors.get(randIndex);
+            p.setColour(colour);
+            randomColors.remove(randIndex);
+        }
+
+        world.setRandom(random);
+        world.assignNewMap(players);
+
+        //set the initial amount of active players accordingly
+        setNumActivePlayer(players.size());
+        turnCount = 0;
+        battleCount = 0;
+        winner = null;
+
+        //shuffle the order of the players
+        shufflePlayers();
+        if (journal != null) {
+            journal.start(world.getState());
+            journal.turn(world.getState().getSeat(getCurrentPlayer()));
+        }
+        //gamePhase = GamePhase.START_GAME;
+
+        notifyHandlers(new RiskEvent(this, RiskEventType.GAME_BEGAN,
+                world.getName()));
+
+        gamePhase = GamePhase.START_GAME;
+
+        if (eventBus.hasSubscribers(RiskEventType.TURN_BEGAN)) {
+            notifyHandlers(events.turn(this, RiskEventType.TURN_BEGAN, getCurrentPlayer(),
+                    getBonusUnits(getCurrentPlayer())));
+        }
+
+        nextPhase();    //beginning should be bonus troupe
+    }
+
+    /**
+     * Sets the seed of the random variable used for the setup of the game and the
+     * rolling of dice, so that games can be reproduced.
+     *
+     * @param seed The seed of the game
+     */
+    public void setSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Sets the random variable used for the setup of the game and the rolling of dice,
+     * e.g. a generator split from the generator of a whole simulation.
+     *
+     * @param random The random variable of the game
+     */
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Splits a random variable off the random variable of the game, e.g. for the dice of an AI turn
+     * that is planned on another thread.
+     *
+     * @return The new random variable
+     */
+    SplittableRandom splitRandom() {
+        return random.split();
+    }
+
+    /**
+     * Sets the executor that plays AI turns off the thread that moves the game on. The executor applies
+     * the turns on its own applying thread, which must then be the only thread that changes the game.
+     *
+     * @param aiTurns The executor, null to play AI turns on the thread that moves the game on
+     */
+    public void setAITurnExecutor(AITurnExecutor aiTurns) {
+        this.aiTurns = aiTurns;
+    }
+
+    /**
+     * Determines whether an AI turn is being played off the thread that moves the game on, during which
+     * the game must not be changed.
+     *
+     * @return true if an AI turn is pending
+     */
+    public boolean isAITurnPending() {
+        return aiTurns != null && aiTurns.isPending();
+    }
+
+    /**
+     * Imports the contents of a saved game and updates the worldmap and game
+     * accordingly.
+     *
+     * @param zf The zipfile containing the contents of the game to be imported
+     */
+    public void importGame(ZipFile zf) {
+
+        try {
+            ZipEntry mapData = zf.getEntry("map.json");
+            InputStream mapStream = zf.getInputStream(mapData);
+            ZipEntry gameData = zf.getEntry("game.json");
+            InputStream gameStream = zf.getInputStream(gameData);
+            highlight = null;
+            world.readMap(mapStream);
+            readGame(gameStream);
+            mapStream.close();
+            gameStream.close();
+        } catch (RiskGameException e) {
+            e.printStackTrace();
+            notifyHandlers(new RiskEvent(this, RiskEventType.INVALID_MAP_LOAD));
+            System.exit(0); //may not be necessary
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("There was a fatal IO exception during import of game.");
+        }
+    }
+
+    /**
+     * Deserializes the JSON representing game data.
+     *
+     * @param gameStream The stream of the .json file representing the game data
+     */
+    private void readGame(InputStream gameStream) {
+        try {
+            BufferedReader buf = new BufferedReader(new InputStreamReader(gameStream));
+            JsonObject parser = (JsonObject) Jsoner.deserialize(buf);
+            gamePhase = GamePhase.valueOf((String) (parser).get("phase"));
+            numActivePlayer = Integer.parseInt((String) (parser).get("activeNum"));
+            if (gamePhase == GamePhase.BONUS_TROUPE)
+                bonusTroops = Integer.parseInt((String) (parser).get("bonusTroops"));
+            JsonArray players = (JsonArray) (parser).get("players");
+            for (Object player : players) {
+                JsonObject playerInfo = (JsonObject) ((JsonObject) player).get("player");
+                RiskColour colour = RiskColour.valueOf((String) (playerInfo).get("colour"));
+                String name = (String) (playerInfo).get("name");
+                String isAI = (String) (playerInfo).get("isAI");
+                Player playerObj = (isAI.equals("true")) ? new AIPlayer(name, colour) : new Player(name, colour);
+                this.players.add(playerObj);
+                int dieRoll = Integer.parseInt((String) (playerInfo.get("selectedDie")));
+                playerObj.setDiceRoll(dieRoll);
+                JsonArray territories = (JsonArray) (playerInfo.get("owned"));
+                for (Object terr : territories) {
+                    String terrName = (String) ((JsonObject) terr).get("name");
+                    int numUnits = Integer.parseInt((String) ((JsonObject) terr).get("units"));
+                    Territory territory = world.getTerritory(terrName);
+                    territory.setOwner(playerObj);
+                    territory.setUnits(numUnits);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        if (journal != null) {
+            journal.start(world.getState());
+            journal.turn(world.getState().getSeat(getCurrentPlayer()));
+            journal.phase(gamePhase);
+        }
+        notifyHandlers(new RiskEvent(this, RiskEventType.GAME_BEGAN, world.getName()));
+        notifyHandlers(new RiskEvent(this, RiskEventType.PHASE_CHANGE, gamePhase));
+        if (gamePhase == GamePhase.BONUS_TROUPE) {
+            notifyHandlers(events.turn(this, RiskEventType.TURN_BEGAN, getCurrentPlayer(), bonusTroops));
+        } else {
+            notifyHandlers(events.turn(this, RiskEventType.TURN_BEGAN, getCurrentPlayer(), 0));
+        }
+        notifyMapUpdateAllCoordinates();
+    }
+
+    /**
+     * Exports the file to our custom save game format (.save).
+     * This format is actually a ZIP folder containing a JSON and map image.
+     * <p>
+     * Note: We thought about using bonus troops as a field of every Player,
+     * but this would be meaningless because only one player can have bonus troops
+     * as a time.
+     *
+     * @param file     The file to export to (new or not)
+     * @param mapImage The image representing the map
+     * @param bonus    The number of bonus troops placed (retrieved from view)
+     */
+    public void export(File file, Image mapImage, int bonus) {
+        if (file != null) {
+            bonusTroops = bonus;
+            try {
+                ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file));
+
+                zos.putNextEntry(new ZipEntry("game.json"));
+                zos.write(toJson().getBytes());
+                zos.closeEntry();
+                zos.putNextEntry(new ZipEntry("map.json"));
+                zos.write(world.toJson().getBytes());
+                zos.closeEntry();
+                if (mapImage != null) {
+                    zos.putNextEntry(new ZipEntry("map.png"));
+                    ImageIO.write((RenderedImage) mapImage, "png", zos);
+                    zos.closeEntry();
+                }
+                zos.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Set the number of currently active players
+     *
+     * @param numActivePlayer Number of active players
+     */
+    public void setNumActivePlayer(int numActivePlayer) {
+        this.numActivePlayer = numActivePlayer;
+    }
+
+    /**
+     * Notify all views to reset displayable coordinates/territories.
+     */
+    public void notifyMapUpdateAllCoordinates() {
+        if (!eventBus.hasSubscribers(RiskEventType.UPDATE_MAP)) return;
+        int size = world.getState().size();
+        if (highlight != null && highlight.cardinality() == size) {
+            notifyMapUpdate(null);
+            return;
+        }
+        BitSet all = new BitSet(size);
+        all.set(0, size);
+        notifyMapUpdate(all);
+    }
+
+    /**
+     * Notify all views to set displayable coordinates/territories.
+     *
+     * @param territory The territory that determines the other displayable territories
+     */
+    public void notifyMapUpdateAttackingNeighbourCoordinates(Territory territory) {
+        notifyMapUpdate(toHighlight(getValidAttackNeighboursOwned(getCurrentPlayer(), territory)));
+    }
+
+    /**
+     * notify all views to set the displayable coordinates/territories to be only those
+     * owned by the current player
+     */
+    public void notifyMapUpdateOwnedCoordinates() {
+        GameState state = world.getState();
+        notifyMapUpdate((BitSet) state.getOwned(state.getSeat(getCurrentPlayer())).clone());
+    }
+
+    /**
+     * notify all com.dreamteam.view to set the displayable coordinates/territories to be only those
+     * that are in the same path as the given territory
+     *
+     * @param territory the territory that the other owned territories must be connected to
+     */
+    public void notifyMapUpdateTroupeMoveCoordinate(Territory territory) {
+        notifyMapUpdate(toHighlight(getValidTroupeMovementTerritories(territory)));
+    }
+
+    /**
+     * Collects the ids of the territories of a map of displayable territories.
+     *
+     * @param territories The displayable territories, null if there are none
+     * @return The ids of the territories
+     */
+    private static BitSet toHighlight(Map<Territory, Point> territories) {
+        BitSet ids = new BitSet();
+        if (territories != null) {
+            for (Territory t : territories.keySet()) {
+                ids.set(t.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Tells the views about the territories whose owner or units changed since the last update, and the
+     * territories they should now highlight (see {@link MapUpdate}). Nothing is sent if nothing changed.
+     *
+     * @param shown The territories to highlight, null to keep the current ones
+     */
+    private void notifyMapUpdate(BitSet shown) {
+        if (!eventBus.hasSubscribers(RiskEventType.UPDATE_MAP)) return;
+        GameState state = world.getState();
+        //the first update after the tracking starts holds every territory
+        state.trackChanges();
+        if (shown != null && shown.equals(highlight)) shown = null;
+        if (shown != null) highlight = shown;
+        int[] changed = state.takeChanges();
+        if (changed.length == 0 && shown == null) return;
+        notifyHandlers(new RiskEvent(this, RiskEventType.UPDATE_MAP, MapUpdate.of(state, changed, shown)));
+    }
+
+    /**
+     * Add a listener to this model, which is notified on the thread that changes the model.
+     *
+     * @param rgv The handler to add
+     */
+    public void addHandler(RiskGameHandler rgv) {
+        eventBus.subscribe(rgv);
+    }
+
+    /**
+     * Add a listener to this model, which is notified on an executor (see {@link RiskEventBus}).
+     *
+     * @param rgv      The handler to add
+     * @param executor The executor the handler is notified on, e.g. {@code SwingUtilities::invokeLater}
+     */
+    public void addHandler(RiskGameHandler rgv, Executor executor) {
+        eventBus.subscribe(rgv, executor);
+    }
+
+    /**
+     * Remove a listener from this model.
+     *
+     * @param rgv The handler to remove
+     */
+    public void removeHandler(RiskGameHandler rgv) {
+        eventBus.unsubscribe(rgv);
+    }
+
+    /**
+     * Sets whether the events this model publishes most often (battles, dice, movements, turns and bonuses)
+     * are reused once they are delivered, so that a headless game with handlers allocates no events.
+     * The events are only reused while every handler is notified on the thread that changes the model,
+     * and those handlers must not keep the events they are notified of.
+     *
+     * @param pooling true to reuse the events
+     */
+    public void setEventPooling(boolean pooling) {
+        events.setPooling(pooling);
+    }
+
+    /**
+     * Sets the journal every change of the games of this session is recorded to (see {@link GameJournal}).
+     * It is set before a game is started or imported, which records the position the game starts from.
+     *
+     * @param journal The journal, null to stop recording
+     */
+    public void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Retrieves the journal the changes of the games of this session are recorded to.
+     *
+     * @return The journal, null if the changes are not recorded
+     */
+    public GameJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Retrieves the bus that delivers the events of this model.
+     *
+     * @return The event bus
+     */
+    public RiskEventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Generates a random order for the players.
+     */
+    private void shufflePlayers() {
+        for (int i = players.size(); i > 0; i--) {
+            Player holder = players.get(players.size() - i);
+            int chosen = random.nextInt(i);
+            players.set(players.size() - i, players.get(chosen));
+            players.set(chosen, holder);
+        }
+    }
+
+    /**
+     * Switches the current phase of the game.
+     * Goes through phases in a cyclical fashion.
+     * <p>
+     * If AI players are played automatically, every AI phase that follows is
+     * played before returning, until a human player is reached or the game ends,
+     * or handed to the {@link AITurnExecutor} of the session if it has one. The executor
+     * also starts planning the turn of the next AI player while a human player decides.
+     */
+    public void nextPhase() {
+        advancePhase();
+        if (!autoPlayAI) return;
+        if (aiTurns != null) {
+            scheduleAITurn();
+            if (!isGameOver() && !(getCurrentPlayer() instanceof AIPlayer)) aiTurns.speculate(this);
+            return;
+        }
+        while (!isGameOver() && getCurrentPlayer() instanceof AIPlayer) {
+            playAIPhase();
+        }
+    }
+
+    /**
+     * Fights an attack of an AI player on a human player on the live game, as {@link AIPlayer#doAttack} would:
+     * round by round unless the game is in blitz mode, so that the defender picks their dice and the views
+     * show every roll, for as long as the attack is likely to conquer the territory.
+     *
+     * @param attacking The territory that supplies the attacking units
+     * @param defending The territory that is being attacked
+     */
+    private void attackLive(Territory attacking, Territory defending) {
+        boolean won;
+        if (blitzMode) {
+            won = blitz(attacking, defending, 0.5);
+        } else {
+            won = false;
+            BattleOdds odds = BattleOdds.getDefault();
+            while (!won && attacking.getUnits() > 1 && defending.getUnits() > 0
+                    && odds.winProbability(attacking.getUnits(), defending.getUnits()) > 0.5) {
+                won = performBattle(attacking, defending);
+            }
+        }
+        if (won) moveUnits(attacking, defending, attacking.getUnits() - 1);
+    }
+
+    /**
+     * Hands the turn of the current player to the AI turn executor if the player is an AI.
+     */
+    private void scheduleAITurn() {
+        if (!isGameOver() && getCurrentPlayer() instanceof AIPlayer) aiTurns.schedule(this);
+    }
+
+    /**
+     * Applies an AI turn that was planned on a fork of the game (see {@link AIPlayer#planTurn}) in one step,
+     * as if the player had played it: the views are told about the placements, attacks and phases of the
+     * turn in order, and the turn of the next player begins. The next AI turn, if any, is scheduled.
+     * A turn that ends with an attack on a human player has that attack fought on the live game (see
+     * {@link #attackLive}), then the rest of the turn is scheduled to be planned again.
+     * A turn that was planned for another player or phase than the current ones is ignored.
+     *
+     * @param turn The planned turn
+     */
+    void applyTurn(AITurn turn) {
+        AIPlayer player = turn.getPlayer();
+        if (isGameOver() || player != getCurrentPlayer() || gamePhase != turn.getPhase()) return;
+        if (gamePhase == GamePhase.BONUS_TROUPE) {
+            placeBonus(player, turn.getPlacement());
+            advancePhase();
+        }
+        if (gamePhase == GamePhase.ATTACK) {
+            for (int i = 0; i < turn.getAttackCount(); i++) {
+                Territory attacking = world.getTerritory(turn.getAttacking(i));
+                Territory defending = world.getTerritory(turn.getDefending(i));
+                applyBlitz(attacking, defending, turn.getAttackLost(i), turn.getDefendLost(i), turn.getRounds(i));
+                if (turn.getMoved(i) >= 0) moveUnits(attacking, defending, turn.getMoved(i));
+                if (isGameOver()) return;
+            }
+            if (turn.getLiveAttacking() >= 0) {
+                attackLive(world.getTerritory(turn.getLiveAttacking()), world.getTerritory(turn.getLiveDefending()));
+                //the player stays in the attack phase, and the rest of the turn is planned again
+                scheduleAITurn();
+                return;
+            }
+            advancePhase();
+        }
+        if (turn.getMoveFrom() >= 0) {
+            moveUnits(world.getTerritory(turn.getMoveFrom()), world.getTerritory(turn.getMoveTo()),
+                    turn.getMoveUnits());
+        }
+        endTurn();
+        advancePhase();
+        scheduleAITurn();
+    }
+
+    /**
+     * Moves the game into the phase that follows the current one and
+     * notifies the views of the change.
+     */
+    private void advancePhase() {
+        switch (gamePhase) {
+            case START_GAME:
+            case MOVE_UNITS:
+                this.gamePhase = GamePhase.BONUS_TROUPE;
+                //notifyMapUpdateOwnedCoordinates();
+                notifyMapUpdateAllCoordinates();
+                break;
+            case BONUS_TROUPE:
+                this.gamePhase = GamePhase.ATTACK;
+                notifyMapUpdateAllCoordinates();
+                break;
+            case ATTACK:
+                this.gamePhase = GamePhase.MOVE_UNITS;
+                notifyMapUpdateOwnedCoordinates();
+                break;
+        }
+        if (journal != null) journal.phase(gamePhase);
+        notifyHandlers(new RiskEvent(this, RiskEventType.PHASE_CHANGE, gamePhase));
+    }
+
+    /**
+     * Plays the current phase for the current player if it is an AI, then moves
+     * the game on to the following phase (or the next player's turn).
+     * AI turns are played iteratively so that long all AI games do not grow the stack.
+     *
+     * @return true if an AI phase was played, false if the current player is not an AI
+     * or the game is over
+     */
+    public boolean playAIPhase() {
+        Player currentPlayer = getCurrentPlayer();
+        if (isGameOver() || !(currentPlayer instanceof AIPlayer)) return false;
+        AIPlayer ai = (AIPlayer) currentPlayer;
+        switch (gamePhase) {
+            case START_GAME:
+                advancePhase();
+                break;
+            case BONUS_TROUPE:
+                ai.placeUnits(getBonusUnits(ai), this);
+                advancePhase();
+                break;
+            case ATTACK:
+                ai.doAttack(this);
+                advancePhase();
+                break;
+            case MOVE_UNITS:
+                ai.moveTroops(this);
+                endTurn();
+                advancePhase();
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Get the next player who has not yet been eliminated from the game.
+     */
+    public void nextPlayer() {
+        endTurn();
+        nextPhase();
+    }
+
+    /**
+     * Retrieves the player whose turn follows the turn of the current player, if no player is
+     * eliminated before then.
+     *
+     * @return The next player who has not yet been eliminated
+     */
+    Player getNextPlayer() {
+        int next = (currentPlayerInd + 1) % players.size();
+        while (!(players.get(next).isActive())) {
+            next = (next + 1) % players.size();
+        }
+        return players.get(next);
+    }
+
+    /**
+     * Ends the turn of the current player and passes the turn on to the
+     * next player who has not yet been eliminated.
+     */
+    private void endTurn() {
+        if (eventBus.hasSubscribers(RiskEventType.TURN_ENDED)) {
+            notifyHandlers(events.turn(this, RiskEventType.TURN_ENDED, getCurrentPlayer(), 0));
+        }
+
+        turnCount++;
+        currentPlayerInd = (currentPlayerInd + 1) % players.size();
+        while (!(players.get(currentPlayerInd).isActive())) {
+            currentPlayerInd = (currentPlayerInd + 1) % players.size();
+        }
+        if (journal != null) journal.turn(world.getState().getSeat(getCurrentPlayer()));
+
+        if (eventBus.hasSubscribers(RiskEventType.TURN_BEGAN)) {
+            notifyHandlers(events.turn(this, RiskEventType.TURN_BEGAN, getCurrentPlayer(),
+                    getBonusUnits(getCurrentPlayer())));
+        }
+    }
+
+    /**
+     * Sets whether AI players take their turns automatically when the game reaches them.
+     * When disabled the caller is responsible for driving AI turns through {@link #playAIPhase()}.
+     *
+     * @param autoPlayAI Whether AI turns should be played automatically
+     */
+    public void setAutoPlayAI(boolean autoPlayAI) {
+        this.autoPlayAI = autoPlayAI;
+    }
+
+    /**
+     * Retrieves the number of turns that have been completed in the current game.
+     *
+     * @return The number of completed turns
+     */
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * Determines whether the current game has ended.
+     *
+     * @return true if a player has won the game
+     */
+    public boolean isGameOver() {
+        return winner != null;
+    }
+
+    /**
+     * Retrieves the winner of the current game.
+     *
+     * @return The player who won, or null if the game is not over
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+    /**
+     * Retrieves the phase of the current player's turn.
+     *
+     * @return The current phase, null before the game has started
+     */
+    public GamePhase getGamePhase() {
+        return gamePhase;
+    }
+
+    /**
+     * Get the player who is currently on their turn.
+     *
+     * @return the player who is currently on their turn
+     */
+    public Player getCurrentPlayer() {
+        return players.get(currentPlayerInd);
+    }
+
+    /**
+     * Retrieves the Zobrist hash of the position of the game: the owners and units of the territories,
+     * the phase and the player whose turn it is (see {@link GameState#getHash(GamePhase, int)}).
+     *
+     * @return The hash of the position
+     */
+    public long getPositionHash() {
+        GameState state = world.getState();
+        GamePhase phase = (gamePhase == null) ? GamePhase.START_GAME : gamePhase;
+        return state.getHash(phase, state.getSeat(getCurrentPlayer()));
+    }
+
+    /**
+     * Game has finished and determine the player who won.
+     */
+    private void endGame() {
+        for (Player p : players) {
+            if (p.isActive()) winner = p;
+        }
+        if (journal != null) journal.gameOver(world.getState().getSeat(winner));
+
+        //notify all views that the game is over
+        notifyHandlers(new RiskEvent(this,
+                RiskEventType.GAME_OVER, winner, world.getName()));
+    }
+
+    /**
+     * Gets the number of bonus units a player receives at the start of their turn
+     *
+     * @param current The current Player
+     * @return The amount of bonus units that the player receives
+     */
+    public int getBonusUnits(Player current) {
+        int territoryBonus = current.getOwnedTerritories().size() / 3;
+        int continentBonus = world.getRuledBonus(current);
+
+        return (Math.max(territoryBonus, 3)) + continentBonus;
+    }
+
+    /**
+     * gets all territories/coordinates the that player owns
+     *
+     * @param player that nodes should be gotten
+     * @return mapping of the territory to its coordinate
+     */
+    public Map<Territory, Point> getAllOwnedNodes(Player player) {
+        Map<Territory, Point> owned = new HashMap<>();
+        for (Territory t : player.getOwnedTerritories()) {
+            Point p = world.getAllCoordinates().get(t);
+            owned.put(t, p);
+        }
+        return owned;
+    }
+
+    /**
+     * Retrieves a map of all the neighbours around the given territory that can
+     * attack the given territory.
+     *
+     * @param attacker  The player who is currently attacking
+     * @param defending The territory being defended
+     * @return A map of valid attacking territories owned by the attacker
+     */
+    public Map<Territory, Point> getValidAttackNeighboursOwned(Player attacker, Territory defending) {
+
+        if (attacker.ownsTerritory(defending)) {
+            notifyHandlers(new RiskEvent(this, RiskEventType.UPDATE_ATTACKABLE, false));
+            return null;
+        }
+        Map<Territory, Point> neighboursOwned = world.getNeighbourNodesOwned(attacker, defending);
+        List<Territory> invalid = new ArrayList<>();
+        for (Territory t : neighboursOwned.keySet()) {
+            if (t.getUnits() == 1) invalid.add(t);
+        }
+        for (Territory t : invalid) {
+            neighboursOwned.remove(t);
+        }
+        if (neighboursOwned.size() == 0) {
+            notifyHandlers(new RiskEvent(this, RiskEventType.UPDATE_ATTACKABLE, false));
+            return null;
+        } else {
+            notifyHandlers(new RiskEvent(this, RiskEventType.UPDATE_ATTACKABLE, true));
+            return neighboursOwned;
+        }
+    }
+
+    /**
+     * Determines the territories/coordinates that are connected to the provided territory and same owner.
+     *
+     * @param initial The inital territory that the end of turn move starts at
+     * @return mapping of territories and coordinates.
+     */
+    public Map<Territory, Point> getValidTroupeMovementTerritories(Territory initial) {
+        //the other territories in the component of the initial territory, looked up in the cached components
+        Map<Territory, Point> visited = new HashMap<>();
+        int id = initial.getId();
+        int seat = world.getState().getOwner(id);
+        if (seat != GameState.NO_OWNER) {
+            OwnedComponents components = world.getState().getComponents();
+            int component = components.getComponent(id);
+            int[] members = components.getMembers(seat);
+            int[] offsets = components.getOffsets(seat);
+            for (int i = offsets[component]; i < offsets[component + 1]; i++) {
+                Territory t = world.getTerritory(members[i]);
+                if (members[i] != id && t.getUnits() != 1) visited.put(t, world.getAllCoordinates().get(t));
+            }
+        }
+
+        if (visited.size() == 0) {
+            notifyHandlers(new RiskEvent(this, RiskEventType.UPDATE_ATTACKABLE, false));
+            return null;
+        } else {
+            notifyHandlers(new RiskEvent(this, RiskEventType.UPDATE_ATTACKABLE, true));
+            return visited;
+        }
+    }
+
+    /**
+     * performs the battle, notifying views for user input if needed
+     * for the attacking and defending of the two territories.
+     *
+     * @param attacking the attacking territory
+     * @param defending the defending territory
+     * @return true if the attacking territory has eliminated all troops in defending territory, otherwise false.
+     */
+    public boolean performBattle(Territory attacking, Territory defending) {
+
+        Player attacker = attacking.getOwner();
+        Player defender = defending.getOwner();
+
+        int attDice = 0;
+        int defDice = 0;
+
+        if (attacker instanceof AIPlayer) {
+            attDice = getMaxBattleDie(attacking.getUnits(), true);
+        } else {
+            int maxAttack = getMaxBattleDie(attacking.getUnits(), true);
+            //the dice are only known once the view has asked the player
+            eventBus.publishNow(new RiskEvent(this, RiskEventType.SELECT_ATTACK_DIE, attacking, defending, maxAttack));
+            attDice = selectedDie(attacker, maxAttack);
+        }
+
+        if (defender instanceof AIPlayer) {
+            defDice = getMaxBattleDie(defending.getUnits(), false);
+        } else {
+            int maxDefend = getMaxBattleDie(defending.getUnits(), false);
+            eventBus.publishNow(new RiskEvent(this, RiskEventType.SELECT_DEFEND_DIE, attacking, defending, maxDefend));
+            defDice = selectedDie(defender, maxDefend);
+        }
+        boolean battleWon = battle(attacking, defending, attDice, defDice);
+        notifyMapUpdateAllCoordinates();
+        return battleWon;
+    }
+
+    /**
+     * Retrieves the number of dice a human player selected for a battle.
+     * When no view answered the selection (e.g. a game without a GUI) the player
+     * rolls the maximum number of dice, otherwise the battle could never progress.
+     *
+     * @param player  The player that selected the dice
+     * @param maxDice The maximum number of dice the player may roll
+     * @return The number of dice to roll
+     */
+    private int selectedDie(Player player, int maxDice) {
+        int selected = player.getDiceRoll();
+        return (selected < 1 || selected > maxDice) ? maxDice : selected;
+    }
+
+    /**
+     * Represents a battle sequence between a territory owned by the current player and
+     * an adjacent territory owned by another player.
+     * <p>
+     * Completes a single attack and removes units from the territories according to the result of
+     * the attack. If, after the attack, the territory owned by a current player loses all but one
+     * unit, then declare the attack a victory for the defender and return true. If, after the
+     * attack, the territory being attacked contains no more units, then declare the attack a victory
+     * for the attacker and return true.
+     *
+     * @param attacking The territory that supplies the attacking units
+     * @param defending The territory that is being attacked
+     * @param attackDie The number of dice that the attacker has chosen to roll
+     * @param defendDie The number of dice that the defender has chosen to roll
+     * @return true if the attacker dominated the defender
+     */
+    public boolean battle(Territory attacking, Territory defending, int attackDie, int defendDie) {
+
+        Player attacker = attacking.getOwner();
+        Player defender = defending.getOwner();
+
+        battleCount++;
+        boolean notify = eventBus.hasSubscribers();
+        if (notify) notifyHandlers(events.battle(this, RiskEventType.ATTACK_COMMENCED,
+                attacker, defender, attacking, defending, 0, 0, 0, false));
+
+        int result = rollBattle(attackDie, defendDie);
+        int attackLost = BattleKernel.getAttackLost(result);
+        int defendLost = BattleKernel.getDefendLost(result);
+        if (journal != null) journal.battle(attacking.getId(), defending.getId(), result);
+        attacking.removeUnits(attackLost);
+        defending.removeUnits(defendLost);
+
+        boolean conquered = defending.getUnits() == 0;
+        if (notify) notifyHandlers(events.battle(this, RiskEventType.ATTACK_COMPLETED,
+                attacker, defender, attacking, defending, attackLost, defendLost, 1, conquered));
+
+        if (attacking.getUnits() == 1) {
+            if (notify) notifyHandlers(events.battle(this, RiskEventType.TERRITORY_DEFENDED,
+                    attacker, defender, attacking, defending, attackLost, defendLost, 1, conquered));
+
+        } else if (conquered) {
+            if (notify) notifyHandlers(events.battle(this, RiskEventType.TERRITORY_DOMINATED,
+                    attacker, defender, attacking, defending, attackLost, defendLost, 1, true));
+            notifyMapUpdateAllCoordinates();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Resolves a whole attack in a single call: rounds are fought until the territory is conquered,
+     * the attacker has a single unit left, or the odds of conquering the territory drop to the given threshold.
+     * <p>
+     * Both players roll the maximum number of dice. Rather than rolling and sorting dice, the outcome of each
+     * round is drawn from the exact distribution of its outcomes (see {@link BattleOdds#getRoundOdds(int, int)})
+     * with a single random number, so the loop does not allocate anything. The units are only updated, and
+     * a single {@link RiskEventType#BLITZ_COMPLETED} event is sent, once the attack is over.
+     * Conquering the territory still has to be followed by {@link #moveUnits(Territory, Territory, int)}.
+     *
+     * @param attacking         The territory that supplies the attacking units
+     * @param defending         The territory that is being attacked
+     * @param minWinProbability The attack stops as soon as the probability of conquering the territory
+     *                          is no longer above this threshold, 0 to attack until the end
+     * @return true if the attacker conquered the territory
+     */
+    public boolean blitz(Territory attacking, Territory defending, double minWinProbability) {
+        int rounds = blitzRounds(attacking.getUnits(), defending.getUnits(), minWinProbability, random, blitzArmies);
+        if (rounds == 0) return false;
+        applyBlitz(attacking, defending, attacking.getUnits() - blitzArmies[0],
+                defending.getUnits() - blitzArmies[1], rounds);
+        return blitzArmies[1] == 0;
+    }
+
+    /**
+     * Fights the rounds of a blitz (see {@link #blitz(Territory, Territory, double)}) without applying them,
+     * so that a blitz can also be fought on a fork of the game.
+     *
+     * @param attackers         The units on the attacking territory
+     * @param defenders         The units on the defending territory
+     * @param minWinProbability The attack stops as soon as the probability of conquering the territory
+     *                          is no longer above this threshold, 0 to attack until the end
+     * @param random            The random variable acting as the dice
+     * @param armies            Receives the attacking then the defending units left
+     * @return The number of rounds fought
+     */
+    static int blitzRounds(int attackers, int defenders, double minWinProbability, SplittableRandom random,
+                           int[] armies) {
+        //the table is waited for once, so that the odds of every round are a single lookup, whatever the armies
+        BattleOdds odds = (minWinProbability > 0) ? BattleOdds.getDefault().precompute().join() : null;
+        int rounds = 0;
+        while (attackers > 1 && defenders > 0
+                && (odds == null || odds.winProbability(attackers, defenders) > minWinProbability)) {
+            int attackDice = Math.min(3, attackers - 1);
+            int defendDice = Math.min(2, defenders);
+            int rolled = Math.min(attackDice, defendDice);
+            double[] roundOdds = BattleOdds.getRoundOdds(attackDice, defendDice);
+            double roll = random.nextDouble();
+            int attackLost = 0;
+            while (attackLost < rolled && roll >= roundOdds[attackLost]) {
+                roll -= roundOdds[attackLost];
+                attackLost++;
+            }
+            attackers -= attackLost;
+            defenders -= rolled - attackLost;
+            rounds++;
+        }
+        armies[0] = attackers;
+        armies[1] = defenders;
+        return rounds;
+    }
+
+    /**
+     * Applies the losses of a blitz that was already fought, and reports it to the views.
+     *
+     * @param attacking  The territory that supplied the attacking units
+     * @param defending  The territory that was attacked
+     * @param attackLost The units lost by the attacker
+     * @param defendLost The units lost by the defender
+     * @param rounds     The number of rounds fought
+     */
+    private void applyBlitz(Territory attacking, Territory defending, int attackLost, int defendLost, int rounds) {
+        Player attacker = attacking.getOwner();
+        Player defender = defending.getOwner();
+        if (journal != null) journal.blitz(attacking.getId(), defending.getId(), attackLost, defendLost, rounds);
+        attacking.removeUnits(attackLost);
+        defending.removeUnits(defendLost);
+        battleCount += rounds;
+        if (eventBus.hasSubscribers(RiskEventType.BLITZ_COMPLETED)) {
+            notifyHandlers(events.battle(this, RiskEventType.BLITZ_COMPLETED, attacker, defender,
+                    attacking, defending, attackLost, defendLost, rounds, defending.getUnits() == 0));
+        }
+        notifyMapUpdateAllCoordinates();
+    }
+
+    /**
+     * Sets whether AI players resolve their attacks as a blitz. A blitz is much faster, as
+     * only the summary of every attack is reported, so it suits headless games. Out of blitz
+     * mode, the attacks of AI players on human players are fought round by round, so the
+     * defender picks their dice and every roll is shown, but the attacks between AI players
+     * planned by an {@link AITurnExecutor} are still blitzed on the fork of the game.
+     *
+     * @param blitzMode Whether AI players should blitz
+     */
+    public void setBlitzMode(boolean blitzMode) {
+        this.blitzMode = blitzMode;
+    }
+
+    /**
+     * Determines whether AI players resolve their attacks as a blitz.
+     *
+     * @return true if AI players blitz
+     */
+    public boolean isBlitzMode() {
+        return blitzMode;
+    }
+
+    /**
+     * Represents one smaller conflict between two territories.
+     * This method represents the rolling of dice on both parties and the outcome of those rolls.
+     *
+     * @param attackRolls The number of dice the attacker is using for this attack
+     * @param defendRolls The number of dice the defender is using for this defence
+     * @return A pair of integers (position 0: how many units attacker lost, position 1: how many units defender lost)
+     */
+    public int[] attack(int attackRolls, int defendRolls) {
+        int result = rollBattle(attackRolls, defendRolls);
+        return new int[]{BattleKernel.getAttackLost(result), BattleKernel.getDefendLost(result)};
+    }
+
+    /**
+     * Rolls the dice of a single round with the random variable of this game and shows
+     * the rolls to the views, if there are any.
+     *
+     * @param attackRolls The number of dice the attacker is using for this attack
+     * @param defendRolls The number of dice the defender is using for this defence
+     * @return The packed result of the round (see {@link BattleKernel})
+     */
+    private int rollBattle(int attackRolls, int defendRolls) {
+        int result = BattleKernel.roll(attackRolls, defendRolls, random);
+        if (eventBus.hasSubscribers(RiskEventType.DIE_ROLLED)) {
+            notifyHandlers(events.diceRolled(this, result, attackRolls, true));
+            notifyHandlers(events.diceRolled(this, result, defendRolls, false));
+        }
+        return result;
+    }
+
+    /**
+     * Simulates the rolling of a given amount of die with the dice of the game, so that the rolls follow its seed.
+     *
+     * @param rolls The amount of die to roll
+     * @return The results of each roll
+     */
+    public int[] rollDice(int rolls) {
+        int[] rollers = new int[rolls];
+        for (int i = 0; i < rolls; i++) {
+            rollers[i] = random.nextInt(6) + 1;
+        }
+        return rollers;
+    }
+
+    /**
+     * Gets the max amount of dice the attacker/defender can roll
+     *
+     * @param numUnits  The number of units on the territory
+     * @param attacking Whether the player is attacking or defending
+     * @return The max number of dice the player can roll
+     */
+    public int getMaxBattleDie(int numUnits, boolean attacking) {
+        //The Player is Attacking
+        if (attacking) {
+            //Determines Number of Die by the Number of Units on Attacking Territory
+            switch (numUnits) {
+                case (1):
+                    return 0;
+                case (2):
+                    return 1;
+                case (3):
+                    return 2;
+                default:
+                    return 3;
+            }
+            //The Player is Defending
+        } else {
+            //Determines Number of Die by the Number of Units on Defending Territory
+            switch (numUnits) {
+                case (0):
+                    return 0;
+                case (1):
+                    return 1;
+                default:
+                    return 2;
+            }
+        }
+    }
+
+    /**
+     * Move units into one territory from an adjacent territory, such
+     * that the current player owns both territories after the movement sequence. At least one unit must
+     * be left behind in the initial territory. If the owners of the two territories are different for
+     * the movement sequence, then it is occurring after a victory for the attacker in a battle sequence.
+     * If the owners of the two territories are the same, then the movement sequence is occurring just before
+     * the end of the current player's turn.
+     *
+     * @param initialT The territory that will move units out
+     * @param finalT   The territory that will add units
+     * @param numUnits The number of units that the attacker/current player wants to move
+     */
+    public void moveUnits(Territory initialT, Territory finalT, int numUnits) {
+        if (journal != null) {
+            if (initialT.getOwner() != finalT.getOwner()) {
+                journal.capture(initialT.getId(), finalT.getId(), numUnits);
+            } else {
+                journal.fortify(initialT.getId(), finalT.getId(), numUnits);
+            }
+        }
+
+        //Move the units from the fortifying territory to the fortified territory
+        initialT.removeUnits(numUnits);
+        finalT.addUnits(numUnits);
+
+        //Check if the movement of units occurs after a battle sequence as a result of a victory for the attacker
+        if (initialT.getOwner() != finalT.getOwner()) {
+            Player attacker = initialT.getOwner();
+            Player defender = finalT.getOwner();
+            Continent continent = world.getContinentOf(finalT);
+            Player previousRuler = (continent == null) ? null : continent.getRuler();
+
+            //Gives the victor the claimed territory, the ruler of its continent follows
+            finalT.setOwner(attacker);
+            //attacker.addTerritory(finalT);
+            defender.removeTerritory(finalT);
+            //Print a message to confirm the fortify after an attack
+            if (eventBus.hasSubscribers(RiskEventType.UNITS_MOVED)) {
+                notifyHandlers(events.unitsMoved(this, initialT, finalT, numUnits));
+            }
+            if (continent != null && continent.getRuler() != previousRuler) {
+                notifyHandlers(new RiskEvent(this, RiskEventType.CONTINENT_RULER_CHANGED,
+                        continent, continent.getRuler(), previousRuler));
+            }
+            //Check to see if their is only one player remaining
+            updateNumActivePlayers();
+            if (this.getNumActivePlayer() == 1) {
+                endGame();
+            }
+        } else {
+            //Print a message to confirm the movement of units before end of current player's turn
+            if (eventBus.hasSubscribers(RiskEventType.UNITS_MOVED)) {
+                notifyHandlers(events.unitsMoved(this, initialT, finalT, numUnits));
+            }
+        }
+        notifyMapUpdateAllCoordinates();
+    }
+
+    /**
+     * Moves exactly one unit from the players bonus supply.
+     * The unit is placed as a plan of a single unit (see {@link #placeBonus(Player, int[])}).
+     *
+     * @param bonusTerritory The territory the units will be moved to
+     */
+    public void moveBonus(Territory bonusTerritory) {
+        int[] plan = new int[world.getState().size()];
+        plan[bonusTerritory.getId()] = 1;
+        placeBonus(bonusTerritory.getOwner(), plan);
+    }
+
+    /**
+     * Places a whole plan of bonus units at once: the units are added straight to the
+     * territories and the views are notified a single time.
+     *
+     * @param player The player placing the units, who owns every territory in the plan
+     * @param plan   The units to place on each territory, by territory id
+     */
+    public void placeBonus(Player player, int[] plan) {
+        GameState state = world.getState();
+        int placed = 0;
+        for (int t = 0; t < plan.length; t++) {
+            if (plan[t] > 0) {
+                state.addUnits(t, plan[t]);
+                placed += plan[t];
+                if (journal != null) journal.place(t, plan[t]);
+            }
+        }
+        if (eventBus.hasSubscribers(RiskEventType.BONUS_PLACED)) {
+            notifyHandlers(events.bonusPlaced(this, player, plan, placed));
+        }
+        notifyMapUpdateAllCoordinates();
+    }
+
+    /**
+     * Update the number of players active.
+     */
+    public void updateNumActivePlayers() {
+        //Check to see if each player has at least one territory of their own, if not they are removed from the game
+        int numActive = 0;
+        for (Player player : players) {
+            if (player.isActive()) {
+                if (player.getOwnedTerritories().size() > 0) {
+                    numActive += 1;
+                } else {
+                    //update
+                    player.setActive(false);
+                }
+            }
+        }
+        numActivePlayer = numActive;
+    }
+
+    /**
+     * Retrieves the number of battles that have been fought in the current game.
+     *
+     * @return The number of battles fought
+     */
+    public int getBattleCount() {
+        return battleCount;
+    }
+
+    /**
+     * Returns the number of players who have not yet been eliminated.
+     *
+     * @return The number of active players
+     */
+    public int getNumActivePlayer() {
+        return numActivePlayer;
+    }
+
+    /**
+     * Notifies the event handlers
+     *
+     * @param e RiskEvent
+     */
+    private void notifyHandlers(RiskEvent e) {
+        eventBus.publish(e);
+        events.release(e);
+    }
+
+    /**
+     * Retrieves the world map of the current game.
+     *
+     * @return The map associated to this current game
+     */
+    public WorldMap getWorld() {
+        return world;
+    }
+
+    /**
+     * Serialize to a JSON formatted string.
+     *
+     * @return a string, formatted in JSON, that represents the Jsonable.
+     */
+    @Override
+    public String toJson() {
+        JsonObject json = new JsonObject();
+        JsonArray playersJson = new JsonArray();
+        ArrayList<JsonObject> playersJsonList = new ArrayList<>();
+        int i = 0;
+        while (i < players.size()) {
+            int currentIndex = (currentPlayerInd + i) % players.size();
+            JsonObject playerObj = new JsonObject();
+            playerObj.put("player", players.get(currentIndex));
+            playersJsonList.add(playerObj);
+            i++;
+        }
+        playersJson.addAll(playersJsonList);
+        json.put("players", playersJson);
+        json.put("activeNum", numActivePlayer + "");
+        if (gamePhase == GamePhase.BONUS_TROUPE)
+            json.put("bonusTroops", bonusTroops + "");
+        json.put("phase", gamePhase.name());
+        return json.toJson();
+    }
+
+    /**
+     * Serialize to a JSON formatted stream.
+     *
+     * @param writable where the resulting JSON text should be sent.
+     * @throws IOException when the writable encounters an I/O error.
+     */
+    @Override
+    public void toJson(Writer writable) throws IOException {
+        try {
+            writable.write(this.toJson());
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * Resets the information/status of the current game.
+     */
+    public void clean() {
+        if (aiTurns != null) aiTurns.cancel();
+        aiTurns = null;
+        players.clear();
+        world.clean();
+        currentPlayerInd = 0;
+        numActivePlayer = 0;
+        gamePhase = null;
+        eventBus.unsubscribeAll();
+        highlight = null;
+        bonusTroops = 0;
+        turnCount = 0;
+        battleCount = 0;
+        winner = null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.dreamteam.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * A registry of all the game sessions hosted by the program.
+ * Sessions may be created, looked up and evicted concurrently from any thread,
+ * each session itself should only be used by one thread at a time.
+ * <p>
+ * Evicting a session only removes it from the registry: the session is returned to be
+ * cleaned (see {@link GameSession#clean()}) by the thread that uses it, as its game may
+ * still be running on that thread.
+ */
+public class GameSessionRegistry {
+
+    /**
+     * All of the sessions currently registered, by their id.
+     */
+    private final Map<Long, GameSession> sessions;
+    /**
+     * The id that will be given to the next session created.
+     */
+    private final AtomicLong nextId;
+
+    /**
+     * Constructor for instances of GameSessionRegistry.
+     * Creates a registry without any sessions.
+     */
+    public GameSessionRegistry() {
+        sessions = new ConcurrentHashMap<>();
+        nextId = new AtomicLong(1);
+    }
+
+    /**
+     * Creates a new session and registers it.
+     *
+     * @return The id of the new session
+     */
+    public long create() {
+        return register(new GameSession());
+    }
+
+    /**
+     * Registers an existing session under a new id.
+     *
+     * @param session The session to register
+     * @return The id of the session
+     */
+    public long register(GameSession session) {
+        long id = nextId.getAndIncrement();
+        sessions.put(id, session);
+        return id;
+    }
+
+    /**
+     * Retrieves the session registered with the given id.
+     *
+     * @param id The id of the session
+     * @return The session, or null if no session has this id
+     */
+    public GameSession get(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Removes the session with the given id from the registry, without cleaning it.
+     *
+     * @param id The id of the session
+     * @return The evicted session, or null if no session has this id
+     */
+    public GameSession evict(long id) {
+        return sessions.remove(id);
+    }
+
+    /**
+     * Removes all sessions that match the given condition from the registry, without cleaning them.
+     * The condition is tested on the evicting thread, so it must only read what the sessions
+     * publish safely to other threads, such as {@link GameSession#isGameOver()}.
+     *
+     * @param condition The condition an evicted session meets
+     * @return The evicted sessions
+     */
+    public List<GameSession> evictIf(Predicate<GameSession> condition) {
+        List<GameSession> evicted = new ArrayList<>();
+        for (Map.Entry<Long, GameSession> entry : sessions.entrySet()) {
+            if (condition.test(entry.getValue()) && sessions.remove(entry.getKey(), entry.getValue())) {
+                evicted.add(entry.getValue());
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes all sessions whose game is over from the registry, without cleaning them.
+     *
+     * @return The evicted sessions
+     */
+    public List<GameSession> evictFinished() {
+        return evictIf(GameSession::isGameOver);
+    }
+
+    /**
+     * Retrieves the number of sessions currently registered.
+     *
+     * @return The number of sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Retrieves a view of the sessions currently registered.
+     *
+     * @return The registered sessions
+     */
+    public Collection<GameSession> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+}
@@ -0,0 +1,273 @@
+package com.dreamteam.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A headless simulation of the game that plays complete games between AI players only.
+ * No handlers are attached to the model, so no GUI is created and nothing is printed
+ * while the games are played. Only the results of the simulation are reported.
+ * <p>
+ * The world is read once and every game is played on a copy of it.
+ * A game that has not finished after the maximum amount of turns is abandoned,
+ * as the AI players may stall each other forever.
+ */
+public class GameSimulator {
+
+    /**
+     * The default number of AI players in each simulated game.
+     */
+    public static final int DEFAULT_PLAYERS = 4;
+    /**
+     * The default maximum amount of turns a game may last before being abandoned.
+     */
+    public static final int DEFAULT_MAX_TURNS = 2000;
+
+    /**
+     * The world that the games are played on, every game is played on a copy.
+     */
+    private final WorldMap template;
+    /**
+     * The number of AI players in each game.
+     */
+    private final int numPlayers;
+    /**
+     * The maximum amount of turns a game may last.
+     */
+    private final int maxTurns;
+    /**
+     * The number of games that have been played.
+     */
+    private int gamesPlayed;
+    /**
+     * The number of games that reached the end of the game.
+     */
+    private int gamesFinished;
+    /**
+     * The total number of turns played in all games.
+     */
+    private long turnsPlayed;
+    /**
+     * The total time spent playing games, in nanoseconds.
+     */
+    private long elapsedNanos;
+    /**
+     * Random variable that generates the seed of each game.
+     */
+    private final SplittableRandom seeds;
+
+    /**
+     * Constructor for instances of GameSimulator.
+     * Reads the given world once so that it can be copied for every game.
+     *
+     * @param worldFile  The .world file to play the games on
+     * @param numPlayers The number of AI players in each game (2 to 6)
+     * @param maxTurns   The maximum amount of turns a game may last
+     * @throws IOException When the world file could not be read
+     */
+    public GameSimulator(File worldFile, int numPlayers, int maxTurns) throws IOException {
+        if (numPlayers < 2 || numPlayers > RiskColour.values().length) {
+            throw new IllegalArgumentException("A game needs between 2 and 6 players.");
+        }
+        this.template = readWorld(worldFile);
+        this.numPlayers = numPlayers;
+        this.maxTurns = maxTurns;
+        this.seeds = new SplittableRandom();
+    }
+
+    /**
+     * Reads a .world file into a world that games can be played on.
+     *
+     * @param worldFile The .world file to read
+     * @return The world that was read
+     * @throws IOException When the world file could not be read
+     */
+    public static WorldMap readWorld(File worldFile) throws IOException {
+        WorldMap world = new WorldMap();
+        world.readMap(new ByteArrayInputStream(readMapData(worldFile)));
+        return world;
+    }
+
+    /**
+     * Reads the map data (map.json) out of a .world file.
+     *
+     * @param worldFile The .world file to read
+     * @return The contents of the map data
+     * @throws IOException When the world file could not be read
+     */
+    public static byte[] readMapData(File worldFile) throws IOException {
+        try (ZipFile zf = new ZipFile(worldFile)) {
+            ZipEntry mapEntry = zf.getEntry("map.json");
+            if (mapEntry == null) {
+                throw new IOException("The world " + worldFile + " does not contain any map data.");
+            }
+            try (InputStream in = zf.getInputStream(mapEntry)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                return out.toByteArray();
+            }
+        }
+    }
+
+    /**
+     * Plays a single game between AI players until the game is over or
+     * the maximum amount of turns has been played.
+     *
+     * @return The number of turns that were played
+     */
+    public int playGame() {
+        GameResult result = playGame(template, numPlayers, maxTurns, seeds.nextLong());
+        elapsedNanos += result.getWallNanos();
+        gamesPlayed++;
+        if (result.isFinished()) gamesFinished++;
+        turnsPlayed += result.getTurns();
+        return result.getTurns();
+    }
+
+    /**
+     * Plays a single game between AI players on a copy of the given world until the
+     * game is over or the maximum amount of turns has been played.
+     * The template is only read, so games may be played on it from many threads at once.
+     *
+     * @param template   The world to play a copy of
+     * @param numPlayers The number of AI players in the game
+     * @param maxTurns   The maximum amount of turns the game may last
+     * @param seed       The seed of the game
+     * @return The result of the game
+     */
+    public static GameResult playGame(WorldMap template, int numPlayers, int maxTurns, long seed) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < numPlayers; i++) {
+            players.add(new AIPlayer("AI " + (i + 1)));
+        }
+        return playGame(template, players, maxTurns, seed);
+    }
+
+    /**
+     * Plays a single game between the given AI players on a copy of the given world until the
+     * game is over or the maximum amount of turns has been played.
+     *
+     * @param template The world to play a copy of
+     * @param players  The AI players of the game, in the order they take their turns
+     * @param maxTurns The maximum amount of turns the game may last
+     * @param seed     The seed of the game
+     * @return The result of the game
+     */
+    public static GameResult playGame(WorldMap template, List<Player> players, int maxTurns, long seed) {
+        long start = System.nanoTime();
+        GameSession game = new GameSession();
+        game.setSeed(seed);
+        game.setPlayers(players);
+        game.setAutoPlayAI(false);
+        game.setBlitzMode(true);
+        game.newGame(new WorldMap(template));
+        while (!game.isGameOver() && game.getTurnCount() < maxTurns) {
+            game.playAIPhase();
+        }
+        long wallNanos = System.nanoTime() - start;
+
+        Player winner = game.getWinner();
+        return new GameResult(seed, (winner == null) ? null : winner.getName(),
+                game.getTurnCount(), game.getBattleCount(), wallNanos);
+    }
+
+    /**
+     * Plays the given number of games.
+     *
+     * @param games The number of games to play
+     */
+    public void run(int games) {
+        for (int i = 0; i < games; i++) {
+            playGame();
+        }
+    }
+
+    /**
+     * Retrieves the number of games played so far.
+     *
+     * @return The number of games played
+     */
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * Retrieves the number of games played so far that reached the end of the game.
+     *
+     * @return The number of finished games
+     */
+    public int getGamesFinished() {
+        return gamesFinished;
+    }
+
+    /**
+     * Retrieves the total number of turns played so far.
+     *
+     * @return The number of turns played
+     */
+    public long getTurnsPlayed() {
+        return turnsPlayed;
+    }
+
+    /**
+     * Retrieves the number of games played per second of simulation.
+     *
+     * @return The games per second
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : gamesPlayed / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Retrieves the number of turns played per second of simulation.
+     *
+     * @return The turns per second
+     */
+    public double getTurnsPerSecond() {
+        return elapsedNanos == 0 ? 0 : turnsPlayed / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Retrieves a string representation of the results of the simulation.
+     *
+     * @return A report of the simulation results
+     */
+    @Override
+    public String toString() {
+        return String.format("%d games (%d finished, %d turns) in %.3f s: %.2f games/s, %.1f turns/s",
+                gamesPlayed, gamesFinished, turnsPlayed, elapsedNanos / 1e9,
+                getGamesPerSecond(), getTurnsPerSecond());
+    }
+
+    /**
+     * Runs the headless simulation from the command line.
+     * Arguments: world file, number of games, number of players, maximum turns per game.
+     * A handful of games are played first to warm up the JVM and are not reported.
+     *
+     * @param args The command line arguments
+     * @throws IOException When the world file could not be read
+     */
+    public static void main(String[] args) throws IOException {
+        String world = (args.length > 0) ? args[0] : "worlds/world_maps/default.world";
+        int games = (args.length > 1) ? Integer.parseInt(args[1]) : 100;
+        int players = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_PLAYERS;
+        int maxTurns = (args.length > 3) ? Integer.parseInt(args[3]) : DEFAULT_MAX_TURNS;
+
+        new GameSimulator(new File(world), players, maxTurns).run(Math.max(1, games / 10));
+        GameSimulator simulator = new GameSimulator(new File(world), players, maxTurns);
+        simulator.run(games);
+        System.out.println(world + ": " + simulator);
+    }
+}
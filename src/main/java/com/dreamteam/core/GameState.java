@@ -0,0 +1,827 @@
+package com.dreamteam.core;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The mutable state of a game on a world, stored as a struct of arrays: the owner and the
+ * units of every territory are kept in primitive arrays indexed by the territory's id in the
+ * {@link WorldTopology}, and the territories of each player are kept in a bit set.
+ * <p>
+ * Players are identified by their seat, the order in which they took part in the game.
+ * The {@link Territory}, {@link Continent} and {@link Player} objects of a world are views over
+ * this state, so copying the state of a game (e.g. for a search by an AI) is a couple of array copies.
+ * <p>
+ * The number of territories each seat owns in each continent is counted as territories change
+ * hands, so the ruler of a continent is known in constant time when a territory is captured.
+ * <p>
+ * The borders of every territory are counted as well: the neighbours that share its owner and the
+ * units on the neighbours that do not. They are updated in O(degree) whenever a territory changes
+ * hands or units, along with the frontier of each seat (its territories that border another seat),
+ * so that the heuristics of the AI players are constant time lookups.
+ * <p>
+ * Every seat has an ownership version that changes whenever the seat gains or loses a territory,
+ * which tells caches of the territories of a seat (such as its {@link OwnedComponents}) when to rebuild.
+ * <p>
+ * The Zobrist hash of the territories (see {@link Zobrist}) is updated with every change of owner or
+ * units, so a search can identify a position in constant time.
+ * <p>
+ * The live state of a game can also track the territories whose owner or units changed (see
+ * {@link #trackChanges()}), so that the views are only told about those. Forks never track changes.
+ * <p>
+ * A search can look ahead by {@link #fork() forking} the state and applying hypothetical placements,
+ * battles, captures and moves to the fork, which never touches the live game. A fork only copies
+ * the arrays of the state, which takes a few microseconds even for worlds of thousands of territories,
+ * and can be overwritten with another position through {@link #copyFrom(GameState)} without allocating.
+ * A state is not thread safe, but any number of threads may fork the same state at once as long as
+ * nobody changes it meanwhile, and every fork may then be used by its own thread.
+ * The territories, continents and players of the world remain views over the live state.
+ */
+public class GameState {
+
+    /**
+     * The seat that marks a territory without an owner.
+     */
+    public static final int NO_OWNER = -1;
+
+    /**
+     * The world whose territories this state belongs to.
+     */
+    private final WorldMap world;
+    /**
+     * The topology of the world.
+     */
+    private final WorldTopology topology;
+    /**
+     * The seat of the owner of each territory, by id.
+     */
+    private final int[] owners;
+    /**
+     * The units on each territory, by id.
+     */
+    private final int[] units;
+    /**
+     * The players in their seats.
+     */
+    private Player[] seats;
+    /**
+     * The territories owned by each seat.
+     */
+    private BitSet[] owned;
+    /**
+     * The number of territories owned by each seat.
+     */
+    private int[] ownedCount;
+    /**
+     * The view of the territories owned by each seat.
+     */
+    private OwnedTerritories[] views;
+    /**
+     * The number of territories owned by each seat in each continent, by seat then continent.
+     */
+    private int[][] continentCounts;
+    /**
+     * The continents ruled by each seat.
+     */
+    private BitSet[] ruled;
+    /**
+     * The sum of the bonus units of the continents ruled by each seat.
+     */
+    private int[] continentBonus;
+    /**
+     * The seat ruling each continent, by continent id.
+     */
+    private final int[] rulers;
+    /**
+     * The number of neighbours of each territory with the same owner as the territory, by id.
+     */
+    private final int[] friendlyNeighbours;
+    /**
+     * The units on the neighbours of each territory with another owner than the territory, by id.
+     */
+    private final int[] enemyUnits;
+    /**
+     * The territories of each seat that border a territory of another owner.
+     */
+    private BitSet[] frontier;
+    /**
+     * The ownership version of each seat, changed whenever the seat gains or loses a territory.
+     */
+    private int[] ownershipVersions;
+    /**
+     * The Zobrist hash of the owners and units of all territories.
+     */
+    private long hash;
+    /**
+     * The connected components of the territories of each seat, created when first needed.
+     */
+    private OwnedComponents components;
+    /**
+     * The number of seats taken.
+     */
+    private int numSeats;
+    /**
+     * The territories whose owner or units changed since the changes were last taken, null if the changes
+     * of this state are not tracked (e.g. for forks).
+     */
+    private BitSet changed;
+
+    /**
+     * Constructor for instances of GameState.
+     * Creates a state where no territory has an owner or units.
+     *
+     * @param world The world the state belongs to, its topology must already be compiled
+     */
+    public GameState(WorldMap world) {
+        this.world = world;
+        topology = world.getTopology();
+        owners = new int[topology.size()];
+        units = new int[topology.size()];
+        rulers = new int[topology.getContinentCount()];
+        friendlyNeighbours = new int[topology.size()];
+        enemyUnits = new int[topology.size()];
+        Arrays.fill(owners, NO_OWNER);
+        Arrays.fill(rulers, NO_OWNER);
+        resetBorders();
+        resetHash();
+        seats = new Player[0];
+        owned = new BitSet[0];
+        ownedCount = new int[0];
+        views = new OwnedTerritories[0];
+        continentCounts = new int[0][];
+        ruled = new BitSet[0];
+        continentBonus = new int[0];
+        frontier = new BitSet[0];
+        ownershipVersions = new int[0];
+    }
+
+    /**
+     * Copy constructor for GameState.
+     * The copy has the same players in the same seats, but is not bound to them.
+     *
+     * @param other The state to copy
+     */
+    public GameState(GameState other) {
+        this(other.world);
+        copyFrom(other);
+    }
+
+    /**
+     * Forks the state, for a search to apply hypothetical moves to.
+     *
+     * @return A copy of this state, with the same players in the same seats but not bound to them
+     */
+    public GameState fork() {
+        return new GameState(this);
+    }
+
+    /**
+     * Overwrites this state with the given state of the same world.
+     *
+     * @param other The state to copy
+     */
+    public void copyFrom(GameState other) {
+        System.arraycopy(other.owners, 0, owners, 0, owners.length);
+        System.arraycopy(other.units, 0, units, 0, units.length);
+        System.arraycopy(other.rulers, 0, rulers, 0, rulers.length);
+        System.arraycopy(other.friendlyNeighbours, 0, friendlyNeighbours, 0, friendlyNeighbours.length);
+        System.arraycopy(other.enemyUnits, 0, enemyUnits, 0, enemyUnits.length);
+        hash = other.hash;
+        ensureSeats(other.numSeats);
+        for (int seat = 0; seat < other.numSeats; seat++) {
+            seats[seat] = other.seats[seat];
+            owned[seat].clear();
+            owned[seat].or(other.owned[seat]);
+            ownedCount[seat] = other.ownedCount[seat];
+            System.arraycopy(other.continentCounts[seat], 0, continentCounts[seat], 0, rulers.length);
+            ruled[seat].clear();
+            ruled[seat].or(other.ruled[seat]);
+            continentBonus[seat] = other.continentBonus[seat];
+            frontier[seat].clear();
+            frontier[seat].or(other.frontier[seat]);
+            ownershipVersions[seat]++;
+        }
+        for (int seat = other.numSeats; seat < numSeats; seat++) {
+            clearSeat(seat);
+        }
+        numSeats = other.numSeats;
+        if (changed != null) changed.set(0, owners.length);
+    }
+
+    /**
+     * Removes all players, owners and units from the state.
+     * Players that were seated are no longer bound to it.
+     */
+    public void clear() {
+        for (int seat = 0; seat < numSeats; seat++) {
+            if (seats[seat].getState() == this) seats[seat].bind(null, NO_OWNER);
+            clearSeat(seat);
+        }
+        numSeats = 0;
+        Arrays.fill(owners, NO_OWNER);
+        Arrays.fill(units, 0);
+        Arrays.fill(rulers, NO_OWNER);
+        resetBorders();
+        resetHash();
+        if (changed != null) changed.set(0, owners.length);
+    }
+
+    /**
+     * Resets the border counts to those of a world without owners or units,
+     * where every neighbour shares the (missing) owner of a territory.
+     */
+    private void resetBorders() {
+        for (int t = 0; t < owners.length; t++) {
+            friendlyNeighbours[t] = topology.degree(t);
+        }
+        Arrays.fill(enemyUnits, 0);
+    }
+
+    /**
+     * Computes the hash of the territories from scratch.
+     */
+    private void resetHash() {
+        hash = 0;
+        for (int t = 0; t < owners.length; t++) {
+            hash ^= Zobrist.territory(t, owners[t], units[t]);
+        }
+    }
+
+    /**
+     * Empties a seat, removing its player and all of its territories and continents.
+     *
+     * @param seat The seat
+     */
+    private void clearSeat(int seat) {
+        seats[seat] = null;
+        owned[seat].clear();
+        ownedCount[seat] = 0;
+        Arrays.fill(continentCounts[seat], 0);
+        ruled[seat].clear();
+        continentBonus[seat] = 0;
+        frontier[seat].clear();
+        ownershipVersions[seat]++;
+    }
+
+    /**
+     * Makes sure there is room for the given number of seats.
+     *
+     * @param count The number of seats needed
+     */
+    private void ensureSeats(int count) {
+        if (count <= seats.length) return;
+        int oldLength = seats.length;
+        seats = Arrays.copyOf(seats, count);
+        owned = Arrays.copyOf(owned, count);
+        ownedCount = Arrays.copyOf(ownedCount, count);
+        views = Arrays.copyOf(views, count);
+        continentCounts = Arrays.copyOf(continentCounts, count);
+        ruled = Arrays.copyOf(ruled, count);
+        continentBonus = Arrays.copyOf(continentBonus, count);
+        frontier = Arrays.copyOf(frontier, count);
+        ownershipVersions = Arrays.copyOf(ownershipVersions, count);
+        for (int seat = oldLength; seat < count; seat++) {
+            owned[seat] = new BitSet(owners.length);
+            views[seat] = new OwnedTerritories(seat);
+            continentCounts[seat] = new int[rulers.length];
+            ruled[seat] = new BitSet(rulers.length);
+            frontier[seat] = new BitSet(owners.length);
+        }
+    }
+
+    /**
+     * Retrieves the seat of a player, seating and binding the player if it has no seat yet.
+     *
+     * @param player The player
+     * @return The seat of the player
+     */
+    public int seat(Player player) {
+        int seat = getSeat(player);
+        if (seat != NO_OWNER) return seat;
+        ensureSeats(numSeats + 1);
+        seat = numSeats++;
+        seats[seat] = player;
+        player.bind(this, seat);
+        return seat;
+    }
+
+    /**
+     * Retrieves the seat of a player.
+     *
+     * @param player The player
+     * @return The seat of the player, or {@link #NO_OWNER} if the player has no seat
+     */
+    public int getSeat(Player player) {
+        if (player != null && player.getState() == this) return player.getSeat();
+        for (int seat = 0; seat < numSeats; seat++) {
+            if (seats[seat] == player) return seat;
+        }
+        return NO_OWNER;
+    }
+
+    /**
+     * Retrieves the player in a seat.
+     *
+     * @param seat The seat
+     * @return The player, or null for {@link #NO_OWNER}
+     */
+    public Player getPlayer(int seat) {
+        return (seat == NO_OWNER) ? null : seats[seat];
+    }
+
+    /**
+     * Retrieves the number of seats taken.
+     *
+     * @return The number of seats
+     */
+    public int getNumSeats() {
+        return numSeats;
+    }
+
+    /**
+     * Retrieves the number of territories in the state.
+     *
+     * @return The number of territories
+     */
+    public int size() {
+        return owners.length;
+    }
+
+    /**
+     * Retrieves the world whose territories this state belongs to.
+     *
+     * @return The world
+     */
+    public WorldMap getWorld() {
+        return world;
+    }
+
+    /**
+     * Retrieves the seat of the owner of a territory.
+     *
+     * @param territory The id of the territory
+     * @return The seat of the owner, or {@link #NO_OWNER}
+     */
+    public int getOwner(int territory) {
+        return owners[territory];
+    }
+
+    /**
+     * Changes the owner of a territory, and the ruler of its continent if needed.
+     *
+     * @param territory The id of the territory
+     * @param seat      The seat of the new owner
+     */
+    public void setOwner(int territory, int seat) {
+        int previous = owners[territory];
+        if (previous == seat) return;
+        int continent = topology.getContinentOf(territory);
+        if (previous != NO_OWNER) {
+            ownershipVersions[previous]++;
+            owned[previous].clear(territory);
+            ownedCount[previous]--;
+            if (continent != NO_OWNER) {
+                continentCounts[previous][continent]--;
+                if (rulers[continent] == previous) {
+                    rulers[continent] = NO_OWNER;
+                    ruled[previous].clear(continent);
+                    continentBonus[previous] -= topology.getContinentBonus(continent);
+                }
+            }
+        }
+        owners[territory] = seat;
+        if (changed != null) changed.set(territory);
+        hash ^= Zobrist.territory(territory, previous, units[territory])
+                ^ Zobrist.territory(territory, seat, units[territory]);
+        if (seat != NO_OWNER) {
+            ownershipVersions[seat]++;
+            owned[seat].set(territory);
+            ownedCount[seat]++;
+            if (continent != NO_OWNER && ++continentCounts[seat][continent] == topology.getContinentSize(continent)) {
+                rulers[continent] = seat;
+                ruled[seat].set(continent);
+                continentBonus[seat] += topology.getContinentBonus(continent);
+            }
+        }
+        updateBorders(territory, previous, seat);
+    }
+
+    /**
+     * Updates the border counts of a territory that changed hands and of the territories bordering it.
+     *
+     * @param territory The id of the territory
+     * @param previous  The seat of the previous owner
+     * @param seat      The seat of the new owner
+     */
+    private void updateBorders(int territory, int previous, int seat) {
+        int[] offsets = topology.getOffsets();
+        int[] adjacency = topology.getAdjacency();
+        int friendly = 0;
+        int enemy = 0;
+        for (int i = offsets[territory]; i < offsets[territory + 1]; i++) {
+            int adj = adjacency[i];
+            if (owners[adj] == seat) friendly++;
+            else enemy += units[adj];
+        }
+        friendlyNeighbours[territory] = friendly;
+        enemyUnits[territory] = enemy;
+        if (previous != NO_OWNER) frontier[previous].clear(territory);
+        updateFrontier(territory);
+
+        int[] incomingOffsets = topology.getIncomingOffsets();
+        int[] incomingEdges = topology.getIncomingEdges();
+        int[] edgeSources = topology.getEdgeSources();
+        for (int i = incomingOffsets[territory]; i < incomingOffsets[territory + 1]; i++) {
+            int source = edgeSources[incomingEdges[i]];
+            //a territory that neighbours itself was counted above
+            if (source == territory) continue;
+            if (owners[source] == previous) {
+                friendlyNeighbours[source]--;
+                enemyUnits[source] += units[territory];
+                updateFrontier(source);
+            } else if (owners[source] == seat) {
+                friendlyNeighbours[source]++;
+                enemyUnits[source] -= units[territory];
+                updateFrontier(source);
+            }
+        }
+    }
+
+    /**
+     * Updates whether a territory is on the frontier of its owner.
+     *
+     * @param territory The id of the territory
+     */
+    private void updateFrontier(int territory) {
+        int seat = owners[territory];
+        if (seat != NO_OWNER) {
+            frontier[seat].set(territory, friendlyNeighbours[territory] < topology.degree(territory));
+        }
+    }
+
+    /**
+     * Retrieves the seat ruling a continent, i.e. owning all of its territories.
+     *
+     * @param continent The id of the continent
+     * @return The seat of the ruler, or {@link #NO_OWNER} if no seat rules the continent
+     */
+    public int getRuler(int continent) {
+        return rulers[continent];
+    }
+
+    /**
+     * Retrieves the continents ruled by a seat as a mask of continent ids.
+     *
+     * @param seat The seat
+     * @return The mask of ruled continents (not to be modified)
+     */
+    public BitSet getRuled(int seat) {
+        return ruled[seat];
+    }
+
+    /**
+     * Retrieves the sum of the bonus units of the continents ruled by a seat.
+     *
+     * @param seat The seat
+     * @return The continent bonus of the seat
+     */
+    public int getContinentBonus(int seat) {
+        return continentBonus[seat];
+    }
+
+    /**
+     * Retrieves the number of territories a seat owns in a continent.
+     *
+     * @param seat      The seat
+     * @param continent The id of the continent
+     * @return The number of territories
+     */
+    public int getContinentOwnedCount(int seat, int continent) {
+        return continentCounts[seat][continent];
+    }
+
+    /**
+     * Retrieves the units on a territory.
+     *
+     * @param territory The id of the territory
+     * @return The units
+     */
+    public int getUnits(int territory) {
+        return units[territory];
+    }
+
+    /**
+     * Sets the units on a territory.
+     *
+     * @param territory The id of the territory
+     * @param amount    The units
+     */
+    public void setUnits(int territory, int amount) {
+        addUnits(territory, amount - units[territory]);
+    }
+
+    /**
+     * Adds units to a territory, negative amounts remove units.
+     *
+     * @param territory The id of the territory
+     * @param amount    The units to add
+     */
+    public void addUnits(int territory, int amount) {
+        int bucket = Zobrist.bucket(units[territory]);
+        units[territory] += amount;
+        if (changed != null) changed.set(territory);
+        int owner = owners[territory];
+        if (Zobrist.bucket(units[territory]) != bucket) {
+            hash ^= Zobrist.territoryBucket(territory, owner, bucket)
+                    ^ Zobrist.territory(territory, owner, units[territory]);
+        }
+        int[] incomingOffsets = topology.getIncomingOffsets();
+        int[] incomingEdges = topology.getIncomingEdges();
+        int[] edgeSources = topology.getEdgeSources();
+        for (int i = incomingOffsets[territory]; i < incomingOffsets[territory + 1]; i++) {
+            int source = edgeSources[incomingEdges[i]];
+            if (owners[source] != owner) enemyUnits[source] += amount;
+        }
+    }
+
+    /**
+     * Applies the losses of a battle between two territories.
+     *
+     * @param attacking  The id of the attacking territory
+     * @param defending  The id of the defending territory
+     * @param attackLost The units lost by the attacker
+     * @param defendLost The units lost by the defender
+     */
+    public void applyBattle(int attacking, int defending, int attackLost, int defendLost) {
+        addUnits(attacking, -attackLost);
+        addUnits(defending, -defendLost);
+    }
+
+    /**
+     * Captures a territory, moving units into it from the territory that attacked it.
+     *
+     * @param attacking The id of the attacking territory
+     * @param defending The id of the captured territory
+     * @param moved     The units moved into the captured territory
+     */
+    public void capture(int attacking, int defending, int moved) {
+        setOwner(defending, owners[attacking]);
+        setUnits(defending, moved);
+        addUnits(attacking, -moved);
+    }
+
+    /**
+     * Moves units from one territory to another.
+     *
+     * @param from   The id of the territory the units leave
+     * @param to     The id of the territory the units arrive at
+     * @param amount The units to move
+     */
+    public void moveUnits(int from, int to, int amount) {
+        addUnits(from, -amount);
+        addUnits(to, amount);
+    }
+
+    /**
+     * Retrieves the number of neighbours of a territory that have the same owner as the territory.
+     *
+     * @param territory The id of the territory
+     * @return The number of friendly neighbours
+     */
+    public int getFriendlyNeighbours(int territory) {
+        return friendlyNeighbours[territory];
+    }
+
+    /**
+     * Retrieves the units on the neighbours of a territory that have another owner than the territory.
+     *
+     * @param territory The id of the territory
+     * @return The enemy units bordering the territory
+     */
+    public int getEnemyNeighbourUnits(int territory) {
+        return enemyUnits[territory];
+    }
+
+    /**
+     * Determines whether a territory borders a territory of another owner.
+     *
+     * @param territory The id of the territory
+     * @return true if the territory is on the frontier of its owner
+     */
+    public boolean isFrontier(int territory) {
+        return friendlyNeighbours[territory] < topology.degree(territory);
+    }
+
+    /**
+     * Retrieves the ownership version of a seat, which changes whenever the seat gains or loses a territory.
+     *
+     * @param seat The seat
+     * @return The ownership version
+     */
+    public int getOwnershipVersion(int seat) {
+        return ownershipVersions[seat];
+    }
+
+    /**
+     * Retrieves the Zobrist hash of the owners and units of all territories.
+     *
+     * @return The hash
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Retrieves the Zobrist hash of the position of a game in this state: its territories,
+     * the phase and the seat whose turn it is.
+     *
+     * @param phase The phase of the game
+     * @param seat  The seat whose turn it is
+     * @return The hash
+     */
+    public long getHash(GamePhase phase, int seat) {
+        return hash ^ Zobrist.phase(phase) ^ Zobrist.turn(seat);
+    }
+
+    /**
+     * Determines whether another state of the same world has the same owners and units on every territory.
+     * The hashes are compared first, so that states that differ are usually told apart at once.
+     *
+     * @param other The other state
+     * @return true if both states hold the same position
+     */
+    public boolean samePosition(GameState other) {
+        return hash == other.hash && Arrays.equals(owners, other.owners) && Arrays.equals(units, other.units);
+    }
+
+    /**
+     * Starts tracking the territories whose owner or units change, so that views can be told only about
+     * those (see {@link #takeChanges()}). Every territory counts as changed when the tracking starts.
+     */
+    public void trackChanges() {
+        if (changed != null) return;
+        changed = new BitSet(owners.length);
+        changed.set(0, owners.length);
+    }
+
+    /**
+     * Determines whether the territories whose owner or units change are tracked.
+     *
+     * @return true if the changes are tracked
+     */
+    public boolean isTrackingChanges() {
+        return changed != null;
+    }
+
+    /**
+     * Takes the territories whose owner or units changed since the changes were last taken, if they are tracked.
+     *
+     * @return The ids of the changed territories in increasing order, empty if none changed or they are not tracked
+     */
+    public int[] takeChanges() {
+        if (changed == null || changed.isEmpty()) return new int[0];
+        int[] ids = changed.stream().toArray();
+        changed.clear();
+        return ids;
+    }
+
+    /**
+     * Retrieves the connected components of the territories of each seat.
+     *
+     * @return The components, kept up to date with this state
+     */
+    public OwnedComponents getComponents() {
+        if (components == null) components = new OwnedComponents(this);
+        return components;
+    }
+
+    /**
+     * Retrieves the territories of a seat that border a territory of another owner, as a mask of territory ids.
+     *
+     * @param seat The seat
+     * @return The frontier mask (not to be modified)
+     */
+    public BitSet getFrontier(int seat) {
+        return frontier[seat];
+    }
+
+    /**
+     * Retrieves the seat of the owner of each territory, by id.
+     *
+     * @return The owner array (not to be modified)
+     */
+    public int[] getOwnerArray() {
+        return owners;
+    }
+
+    /**
+     * Retrieves the units on each territory, by id.
+     *
+     * @return The unit array (not to be modified)
+     */
+    public int[] getUnitArray() {
+        return units;
+    }
+
+    /**
+     * Retrieves the territories owned by a seat as a mask of territory ids.
+     *
+     * @param seat The seat
+     * @return The ownership mask (not to be modified)
+     */
+    public BitSet getOwned(int seat) {
+        return owned[seat];
+    }
+
+    /**
+     * Retrieves the number of territories owned by a seat.
+     *
+     * @param seat The seat
+     * @return The number of territories
+     */
+    public int getOwnedCount(int seat) {
+        return ownedCount[seat];
+    }
+
+    /**
+     * Retrieves a read only view of the territories owned by a seat, in order of their ids.
+     *
+     * @param seat The seat
+     * @return The territories owned by the seat
+     */
+    public Set<Territory> getTerritories(int seat) {
+        return views[seat];
+    }
+
+    /**
+     * A read only view of the territories owned by a seat.
+     */
+    private class OwnedTerritories extends AbstractSet<Territory> {
+
+        /**
+         * The seat that owns the territories.
+         */
+        private final int seat;
+
+        /**
+         * Constructor for a view of the territories owned by a seat.
+         *
+         * @param seat The seat
+         */
+        OwnedTerritories(int seat) {
+            this.seat = seat;
+        }
+
+        /**
+         * Iterates the territories owned by the seat in order of their ids.
+         *
+         * @return An iterator over the territories
+         */
+        @Override
+        public Iterator<Territory> iterator() {
+            return new Iterator<Territory>() {
+                private int next = owned[seat].nextSetBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public Territory next() {
+                    if (next < 0) throw new NoSuchElementException();
+                    Territory territory = world.getTerritory(next);
+                    next = owned[seat].nextSetBit(next + 1);
+                    return territory;
+                }
+            };
+        }
+
+        /**
+         * Retrieves the number of territories owned by the seat.
+         *
+         * @return The number of territories
+         */
+        @Override
+        public int size() {
+            return ownedCount[seat];
+        }
+
+        /**
+         * Determines whether the seat owns the given territory.
+         *
+         * @param o The territory
+         * @return true if the seat owns the territory
+         */
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Territory)) return false;
+            Territory territory = (Territory) o;
+            return territory.getWorld() == world && owners[territory.getId()] == seat;
+        }
+    }
+}
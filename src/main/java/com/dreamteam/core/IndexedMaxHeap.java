@@ -0,0 +1,218 @@
+package com.dreamteam.core;
+
+import java.util.Arrays;
+
+/**
+ * A binary max-heap of the keys 0..capacity-1, each with a priority, that knows where every
+ * key is in the heap. The priority of a key can therefore be changed, and a key removed,
+ * in O(log n) without searching for it.
+ * <p>
+ * Of two keys with the same priority the smaller key comes first, so the order in which
+ * keys are taken out of the heap does not depend on the order they were put in.
+ */
+public final class IndexedMaxHeap {
+
+    /**
+     * The keys in heap order.
+     */
+    private final int[] heap;
+    /**
+     * The position of each key in the heap, -1 if the key is not in the heap.
+     */
+    private final int[] positions;
+    /**
+     * The priority of each key.
+     */
+    private final double[] priorities;
+    /**
+     * The number of keys in the heap.
+     */
+    private int size;
+
+    /**
+     * Constructor for instances of IndexedMaxHeap.
+     *
+     * @param capacity The number of keys (keys are 0 up to capacity - 1)
+     */
+    public IndexedMaxHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        priorities = new double[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Retrieves the number of keys the heap can hold.
+     *
+     * @return The capacity of the heap
+     */
+    public int capacity() {
+        return heap.length;
+    }
+
+    /**
+     * Retrieves the number of keys in the heap.
+     *
+     * @return The number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines whether the heap is empty.
+     *
+     * @return true if there are no keys in the heap
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Determines whether a key is in the heap.
+     *
+     * @param key The key
+     * @return true if the key is in the heap
+     */
+    public boolean contains(int key) {
+        return positions[key] >= 0;
+    }
+
+    /**
+     * Retrieves the priority of a key in the heap.
+     *
+     * @param key The key
+     * @return The priority of the key (undefined if the key is not in the heap)
+     */
+    public double getPriority(int key) {
+        return priorities[key];
+    }
+
+    /**
+     * Inserts a key, or changes its priority if it is in the heap already.
+     *
+     * @param key      The key
+     * @param priority The priority of the key
+     */
+    public void set(int key, double priority) {
+        int position = positions[key];
+        if (position < 0) {
+            priorities[key] = priority;
+            heap[size] = key;
+            positions[key] = size;
+            siftUp(size++);
+            return;
+        }
+        double previous = priorities[key];
+        priorities[key] = priority;
+        if (priority > previous) siftUp(position);
+        else siftDown(position);
+    }
+
+    /**
+     * Removes a key from the heap, if it is in the heap.
+     *
+     * @param key The key
+     */
+    public void remove(int key) {
+        int position = positions[key];
+        if (position < 0) return;
+        positions[key] = -1;
+        size--;
+        if (position == size) return;
+        int last = heap[size];
+        heap[position] = last;
+        positions[last] = position;
+        siftUp(position);
+        siftDown(positions[last]);
+    }
+
+    /**
+     * Retrieves the key with the highest priority.
+     *
+     * @return The key, -1 if the heap is empty
+     */
+    public int peek() {
+        return (size == 0) ? -1 : heap[0];
+    }
+
+    /**
+     * Removes and retrieves the key with the highest priority.
+     *
+     * @return The key, -1 if the heap is empty
+     */
+    public int poll() {
+        int top = peek();
+        if (top >= 0) remove(top);
+        return top;
+    }
+
+    /**
+     * Removes every key from the heap.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Determines whether the key at one position must come before the key at another.
+     *
+     * @param a The first position
+     * @param b The second position
+     * @return true if the key at a comes first
+     */
+    private boolean before(int a, int b) {
+        int keyA = heap[a];
+        int keyB = heap[b];
+        double priorityA = priorities[keyA];
+        double priorityB = priorities[keyB];
+        return priorityA > priorityB || (priorityA == priorityB && keyA < keyB);
+    }
+
+    /**
+     * Swaps the keys at two positions.
+     *
+     * @param a The first position
+     * @param b The second position
+     */
+    private void swap(int a, int b) {
+        int key = heap[a];
+        heap[a] = heap[b];
+        heap[b] = key;
+        positions[heap[a]] = a;
+        positions[heap[b]] = b;
+    }
+
+    /**
+     * Moves the key at a position up until its parent comes before it.
+     *
+     * @param position The position
+     */
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!before(position, parent)) return;
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    /**
+     * Moves the key at a position down until it comes before both of its children.
+     *
+     * @param position The position
+     */
+    private void siftDown(int position) {
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) return;
+            if (child + 1 < size && before(child + 1, child)) child++;
+            if (!before(child, position)) return;
+            swap(position, child);
+            position = child;
+        }
+    }
+}
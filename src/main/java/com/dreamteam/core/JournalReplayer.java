@@ -0,0 +1,328 @@
+package com.dreamteam.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replays the records of a {@link GameJournal} onto the state of a game, so that the position of any game of
+ * the journal can be rebuilt after any record. The records are applied straight to the arrays of the state,
+ * without the rules or the views of a session, and without rolling any dice, so a replay is deterministic.
+ * <p>
+ * The state must be of the world the journal was written for. Seats the state does not have yet are taken
+ * by placeholder players. Only the committed records are read: a record torn by a crash is ignored.
+ */
+public class JournalReplayer {
+
+    /**
+     * The committed records of the journal, positioned at the next record.
+     */
+    private final ByteBuffer buffer;
+    /**
+     * The current phase, null before the first phase record.
+     */
+    private GamePhase phase;
+    /**
+     * The seat of the current player, {@link GameState#NO_OWNER} before the first turn record.
+     */
+    private int seat;
+    /**
+     * The seat of the winner, {@link GameState#NO_OWNER} while the game is not over.
+     */
+    private int winner;
+    /**
+     * The number of turns that began in the current game, the first one included.
+     */
+    private int turns;
+    /**
+     * The number of games started so far.
+     */
+    private int games;
+    /**
+     * The number of records applied so far.
+     */
+    private long records;
+
+    /**
+     * Constructor for instances of JournalReplayer.
+     * Maps the committed records of a journal file.
+     *
+     * @param file The journal file
+     * @throws IOException When the file could not be read, or is not a journal
+     */
+    public JournalReplayer(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            this.buffer = validate(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file.toString());
+        }
+        rewind();
+    }
+
+    /**
+     * Constructor for instances of JournalReplayer.
+     * Reads the records of a journal already in memory.
+     *
+     * @param journal The bytes of the journal, from its header on
+     * @throws IOException When the bytes are not a journal
+     */
+    public JournalReplayer(ByteBuffer journal) throws IOException {
+        this.buffer = validate(journal.duplicate(), "The buffer");
+        rewind();
+    }
+
+    /**
+     * Checks the header of a journal and limits its buffer to the committed records.
+     *
+     * @param journal The bytes of the journal
+     * @param name    The name of the journal, for the error message
+     * @return The buffer of the records
+     * @throws IOException When the bytes are not a journal
+     */
+    private static ByteBuffer validate(ByteBuffer journal, String name) throws IOException {
+        journal.order(ByteOrder.LITTLE_ENDIAN);
+        if (journal.limit() < GameJournal.HEADER_SIZE || journal.getInt(0) != GameJournal.MAGIC
+                || journal.getInt(4) != GameJournal.VERSION) {
+            throw new IOException(name + " is not a game journal.");
+        }
+        long length = journal.getLong(GameJournal.LENGTH_OFFSET);
+        if (length < GameJournal.HEADER_SIZE || length > journal.limit()) {
+            throw new IOException(name + " has a damaged header.");
+        }
+        journal.limit((int) length);
+        return journal;
+    }
+
+    /**
+     * Goes back to the first record of the journal.
+     */
+    public void rewind() {
+        buffer.position(GameJournal.HEADER_SIZE);
+        phase = null;
+        seat = GameState.NO_OWNER;
+        winner = GameState.NO_OWNER;
+        turns = 0;
+        games = 0;
+        records = 0;
+    }
+
+    /**
+     * Determines whether records are left to replay.
+     *
+     * @return true if a record is left
+     */
+    public boolean hasNext() {
+        return buffer.hasRemaining();
+    }
+
+    /**
+     * Applies the next record to a state.
+     *
+     * @param state The state of a game of the world of the journal
+     * @return false if no record was left
+     */
+    public boolean next(GameState state) {
+        if (!buffer.hasRemaining()) return false;
+        byte tag = buffer.get();
+        switch (tag) {
+            case GameJournal.START:
+                start(state);
+                break;
+            case GameJournal.PLACE:
+                state.addUnits(buffer.getShort(), buffer.getInt());
+                break;
+            case GameJournal.BATTLE: {
+                int attacking = buffer.getShort();
+                int defending = buffer.getShort();
+                int result = buffer.getInt();
+                state.applyBattle(attacking, defending, BattleKernel.getAttackLost(result),
+                        BattleKernel.getDefendLost(result));
+                break;
+            }
+            case GameJournal.BLITZ: {
+                int attacking = buffer.getShort();
+                int defending = buffer.getShort();
+                int attackLost = buffer.getInt();
+                int defendLost = buffer.getInt();
+                buffer.getInt();
+                state.applyBattle(attacking, defending, attackLost, defendLost);
+                break;
+            }
+            case GameJournal.CAPTURE:
+                state.capture(buffer.getShort(), buffer.getShort(), buffer.getInt());
+                break;
+            case GameJournal.FORTIFY:
+                state.moveUnits(buffer.getShort(), buffer.getShort(), buffer.getInt());
+                break;
+            case GameJournal.PHASE:
+                phase = GamePhase.values()[buffer.get()];
+                break;
+            case GameJournal.TURN:
+                seat = buffer.get();
+                turns++;
+                break;
+            case GameJournal.GAME_OVER:
+                winner = buffer.get();
+                break;
+            default:
+                throw new IllegalStateException("Unknown journal record " + tag + " at "
+                        + (buffer.position() - 1) + ".");
+        }
+        records++;
+        return true;
+    }
+
+    /**
+     * Sets a state to the position a game starts from.
+     *
+     * @param state The state
+     */
+    private void start(GameState state) {
+        int size = buffer.getShort();
+        int numSeats = buffer.get();
+        if (size != state.size()) {
+            throw new IllegalArgumentException("The journal is of a world of " + size + " territories, not "
+                    + state.size() + ".");
+        }
+        while (state.getNumSeats() < numSeats) {
+            state.seat(new Player("Seat " + (state.getNumSeats() + 1)));
+        }
+        for (int t = 0; t < size; t++) {
+            state.setOwner(t, buffer.get());
+            state.setUnits(t, buffer.getInt());
+        }
+        phase = null;
+        seat = GameState.NO_OWNER;
+        winner = GameState.NO_OWNER;
+        turns = 0;
+        games++;
+    }
+
+    /**
+     * Applies every record left to a state.
+     *
+     * @param state The state of a game of the world of the journal
+     * @return The number of records applied
+     */
+    public long replay(GameState state) {
+        long applied = 0;
+        while (next(state)) {
+            applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * Rebuilds the position at the end of a game of the journal.
+     *
+     * @param game  The index of the game, 0 for the first one
+     * @param state The state of a game of the world of the journal
+     * @return false if the journal has no such game
+     */
+    public boolean replayGame(int game, GameState state) {
+        rewind();
+        //the records of the earlier games are skipped without being applied
+        while (buffer.hasRemaining()) {
+            if (games == game && buffer.get(buffer.position()) == GameJournal.START) {
+                next(state);
+                break;
+            }
+            skip();
+        }
+        if (games != game + 1) return false;
+        while (buffer.hasRemaining() && buffer.get(buffer.position()) != GameJournal.START) {
+            next(state);
+        }
+        return true;
+    }
+
+    /**
+     * Skips the next record without applying it.
+     */
+    private void skip() {
+        byte tag = buffer.get();
+        int size;
+        switch (tag) {
+            case GameJournal.START:
+                size = 3 + 5 * buffer.getShort(buffer.position());
+                games++;
+                break;
+            case GameJournal.PLACE:
+                size = 6;
+                break;
+            case GameJournal.BLITZ:
+                size = 16;
+                break;
+            case GameJournal.BATTLE:
+            case GameJournal.CAPTURE:
+            case GameJournal.FORTIFY:
+                size = 8;
+                break;
+            case GameJournal.PHASE:
+            case GameJournal.TURN:
+            case GameJournal.GAME_OVER:
+                size = 1;
+                break;
+            default:
+                throw new IllegalStateException("Unknown journal record " + tag + " at "
+                        + (buffer.position() - 1) + ".");
+        }
+        buffer.position(buffer.position() + size);
+        records++;
+    }
+
+    /**
+     * Retrieves the current phase of the game replayed.
+     *
+     * @return The phase, null before the first phase record of the game
+     */
+    public GamePhase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Retrieves the seat of the current player of the game replayed.
+     *
+     * @return The seat, {@link GameState#NO_OWNER} before the first turn of the game
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Retrieves the seat of the winner of the game replayed.
+     *
+     * @return The seat, {@link GameState#NO_OWNER} while the game is not over
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Retrieves the number of turns that began in the game replayed.
+     *
+     * @return The number of turns, the first one included
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Retrieves the number of games started so far.
+     *
+     * @return The number of games
+     */
+    public int getGameCount() {
+        return games;
+    }
+
+    /**
+     * Retrieves the number of records read so far.
+     *
+     * @return The number of records
+     */
+    public long getRecordCount() {
+        return records;
+    }
+}
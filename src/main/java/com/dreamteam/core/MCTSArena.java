@@ -0,0 +1,83 @@
+package com.dreamteam.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plays headless games between one {@link MCTSPlayer} and AI players, and reports how often the
+ * search player wins and how many rollouts it plays per second per core.
+ * <p>
+ * The search player takes every seat in turn, so that the order of play does not favour either kind
+ * of player; with n players in a game, an even match wins 1/n of the games.
+ */
+public class MCTSArena {
+
+    /**
+     * The name of the search player.
+     */
+    private static final String MCTS_NAME = "MCTS";
+
+    /**
+     * The arena only has a command line.
+     */
+    private MCTSArena() {
+    }
+
+    /**
+     * Plays the games from the command line.
+     * Arguments: number of games, time budget of a decision in milliseconds, number of search threads, world file,
+     * entries of the transposition table shared by the search threads (0 to search without one).
+     *
+     * @param args The command line arguments
+     * @throws IOException When the world file could not be read
+     */
+    public static void main(String[] args) throws IOException {
+        int numGames = (args.length > 0) ? Integer.parseInt(args[0]) : 20;
+        long budgetMillis = (args.length > 1) ? Long.parseLong(args[1]) : MCTSPlayer.DEFAULT_BUDGET_MILLIS;
+        int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        String worldFile = (args.length > 3) ? args[3] : "worlds/world_maps/default.world";
+        int tableEntries = (args.length > 4) ? Integer.parseInt(args[4]) : 0;
+        int numPlayers = GameSimulator.DEFAULT_PLAYERS;
+
+        WorldMap template = GameSimulator.readWorld(new File(worldFile));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        SplittableRandom seeds = new SplittableRandom(3110);
+        int wins = 0;
+        int finished = 0;
+        long rollouts = 0;
+        double rolloutsPerCore = 0;
+        try {
+            for (int game = 0; game < numGames; game++) {
+                MCTSPlayer search = new MCTSPlayer(MCTS_NAME, pool, threads, budgetMillis);
+                search.setSeed(seeds.nextLong());
+                if (tableEntries > 0) search.setTranspositionTable(new TranspositionTable(tableEntries));
+                List<Player> players = new ArrayList<>();
+                for (int i = 1; i < numPlayers; i++) {
+                    players.add(new AIPlayer("AI " + i));
+                }
+                players.add(game % numPlayers, search);
+
+                GameResult result = GameSimulator.playGame(template, players, GameSimulator.DEFAULT_MAX_TURNS,
+                        seeds.nextLong());
+                if (result.isFinished()) finished++;
+                if (MCTS_NAME.equals(result.getWinner())) wins++;
+                rollouts += search.getRollouts();
+                rolloutsPerCore += search.getRolloutsPerSecondPerCore() / numGames;
+                System.out.println(String.format("  game %3d: seat %d, winner %-5s %5d turns, %8.2f s, %9d rollouts",
+                        game + 1, game % numPlayers + 1, result.getWinner(), result.getTurns(),
+                        result.getWallNanos() / 1e9, search.getRollouts()));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        System.out.println(String.format("%s: MCTS (%d ms per decision, %d threads) won %d of %d games (%.1f%%, "
+                        + "even would be %.1f%%), %d finished; %d rollouts, %.0f rollouts/s per core",
+                worldFile, budgetMillis, threads, wins, numGames, 100.0 * wins / numGames, 100.0 / numPlayers,
+                finished, rollouts, rolloutsPerCore));
+    }
+}
@@ -0,0 +1,626 @@
+package com.dreamteam.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An AI player that chooses its placements, attacks and end of turn moves with a Monte Carlo
+ * tree search, rather than taking the move its heuristics rate best.
+ * <p>
+ * Every decision is searched on its own: the heuristics of {@link AIPlayer} propose a handful of
+ * candidate moves, and each candidate is played on forks of the game (see {@link GameState#fork()})
+ * followed by a rollout in which every seat plays on with the same heuristics (see {@link Rollout}).
+ * The candidates to try are picked with the UCB1 rule, so the search spends its rollouts on the
+ * candidates that look best while still trying the others. The move of the heuristics is played
+ * unless the candidate tried most did better than it by a clear margin: a single move changes the
+ * value of a short rollout very little, and the search should not trade a sound move for noise.
+ * <p>
+ * The search is root parallel: every worker thread searches the decision on its own fork with its
+ * own random variable until the time budget of the decision runs out, and the visits and values of
+ * the workers are added up at the end. The workers share nothing but the live state, which is only
+ * read (the game waits for the search).
+ * <p>
+ * With a {@link TranspositionTable}, the workers share the evaluations of the candidates instead:
+ * every candidate is identified by the Zobrist hash of the position it leads to (or, for an attack,
+ * of the position it is made from and its edge), every rollout is added to the table, and the
+ * workers pick the candidates to try by the evaluations in the table. Candidates that lead to the
+ * same position share their evaluations, and so do later decisions that reach a position again.
+ * The table can be shared by any number of players. A search with a table no longer plays the same
+ * game for a seed, since the workers see each other's rollouts as they happen.
+ * <p>
+ * When the player is not attached to a game state it plays as a plain AI player.
+ */
+public class MCTSPlayer extends AIPlayer {
+
+    /**
+     * The default time budget of a decision, in milliseconds.
+     */
+    public static final long DEFAULT_BUDGET_MILLIS = 20;
+    /**
+     * The default number of rounds of turns in a rollout after the turn of the player.
+     */
+    public static final int DEFAULT_ROLLOUT_ROUNDS = 2;
+    /**
+     * The number of candidate moves of each kind that a decision considers.
+     */
+    private static final int CANDIDATES = 5;
+    /**
+     * The weight of exploration in the UCB1 rule.
+     */
+    private static final double EXPLORATION = 0.5;
+    /**
+     * How much better than the move of the heuristics the mean value of another candidate must be for it to be played.
+     */
+    private static final double MARGIN = 0.005;
+
+    /**
+     * The threads the searches run on.
+     */
+    private final ExecutorService pool;
+    /**
+     * The number of workers that search every decision.
+     */
+    private final int parallelism;
+    /**
+     * The time budget of a decision, in nanoseconds.
+     */
+    private final long budgetNanos;
+    /**
+     * The number of rounds of turns in a rollout after the turn of the player.
+     */
+    private int rolloutRounds;
+    /**
+     * The most rollouts a worker plays for a decision, 0 for as many as the time budget allows.
+     */
+    private int rolloutLimit;
+    /**
+     * The random variable that the random variables of the workers are split from.
+     */
+    private SplittableRandom random;
+    /**
+     * The table the workers share the evaluations of candidates in, null to search without one.
+     */
+    private TranspositionTable table;
+    /**
+     * The number of rollouts played by all searches.
+     */
+    private final LongAdder rollouts;
+    /**
+     * The time the workers of all searches spent searching, in nanoseconds.
+     */
+    private final LongAdder workerNanos;
+
+    /**
+     * Constructor for instances of MCTSPlayer that search on a shared pool with a worker per core.
+     *
+     * @param name The name of the player
+     */
+    public MCTSPlayer(String name) {
+        this(name, SharedPool.POOL, SharedPool.THREADS, DEFAULT_BUDGET_MILLIS);
+    }
+
+    /**
+     * Constructor for instances of MCTSPlayer.
+     *
+     * @param name         The name of the player
+     * @param pool         The threads the searches run on
+     * @param parallelism  The number of workers that search every decision, 1 to search on the game's thread
+     * @param budgetMillis The time budget of a decision, in milliseconds
+     */
+    public MCTSPlayer(String name, ExecutorService pool, int parallelism, long budgetMillis) {
+        super(name);
+        this.pool = pool;
+        this.parallelism = Math.max(1, parallelism);
+        this.budgetNanos = budgetMillis * 1_000_000;
+        rolloutRounds = DEFAULT_ROLLOUT_ROUNDS;
+        random = new SplittableRandom();
+        rollouts = new LongAdder();
+        workerNanos = new LongAdder();
+    }
+
+    /**
+     * The pool shared by the players that were not given one, created when first needed.
+     */
+    private static class SharedPool {
+        /**
+         * The number of threads of the pool, one per core.
+         */
+        private static final int THREADS = Runtime.getRuntime().availableProcessors();
+        /**
+         * The pool, of daemon threads so that it never keeps the application alive.
+         */
+        private static final ExecutorService POOL = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Seeds the random variables of the searches. With a rollout limit, a seeded player makes
+     * the same decisions in the same positions.
+     *
+     * @param seed The seed
+     */
+    public void setSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Sets the table the workers share the evaluations of candidates in.
+     *
+     * @param table The table, null to search without one
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Retrieves the table the workers share the evaluations of candidates in.
+     *
+     * @return The table, null if the player searches without one
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Sets the number of rounds of turns in a rollout after the turn of the player.
+     *
+     * @param rolloutRounds The number of rounds
+     */
+    public void setRolloutRounds(int rolloutRounds) {
+        this.rolloutRounds = rolloutRounds;
+    }
+
+    /**
+     * Sets the most rollouts a worker plays for a decision, regardless of the time budget.
+     *
+     * @param rolloutLimit The most rollouts, 0 for as many as the time budget allows
+     */
+    public void setRolloutLimit(int rolloutLimit) {
+        this.rolloutLimit = rolloutLimit;
+    }
+
+    /**
+     * Retrieves the number of rollouts played by all searches of the player.
+     *
+     * @return The number of rollouts
+     */
+    public long getRollouts() {
+        return rollouts.sum();
+    }
+
+    /**
+     * Retrieves the number of rollouts played per second by a single worker (core).
+     *
+     * @return The rollouts per second per core
+     */
+    public double getRolloutsPerSecondPerCore() {
+        long nanos = workerNanos.sum();
+        return (nanos == 0) ? 0 : rollouts.sum() / (nanos / 1e9);
+    }
+
+    /**
+     * A decision of the player, the candidates of which are played on forks of the game.
+     */
+    private interface Decision {
+        /**
+         * Plays a candidate on a fork, followed by a rollout.
+         *
+         * @param state     The fork, in the position of the decision
+         * @param candidate The index of the candidate
+         * @param rollout   The rollout of the worker
+         * @return The value of the position the rollout ends in
+         */
+        double simulate(GameState state, int candidate, Rollout rollout);
+
+        /**
+         * Computes the hash that identifies a candidate in a transposition table.
+         *
+         * @param state     A fork in the position of the decision, which the candidate may be played on
+         * @param candidate The index of the candidate
+         * @return The hash of the position the candidate leads to
+         */
+        long key(GameState state, int candidate);
+    }
+
+    /**
+     * Places the bonus units on the territory that the search picks, or as planned by the heuristics.
+     *
+     * @param numUnits The number of units to be added to the territories of the AI
+     * @param model    The GameSession that contains more general game logic
+     */
+    @Override
+    public void placeUnits(int numUnits, GameSession model) {
+        model.placeBonus(this, choosePlacement(getState(), numUnits));
+    }
+
+    /**
+     * Chooses where to place bonus units: on the territory that the search picks, or as planned by the heuristics.
+     *
+     * @param position The position of the game, only read
+     * @param numUnits The number of units to place
+     * @return The units to place on each territory, by territory id
+     */
+    @Override
+    protected int[] choosePlacement(GameState position, int numUnits) {
+        int[] planned = super.choosePlacement(position, numUnits);
+        //candidate 0 is the plan of the heuristics, the others put every unit on one of the best territories
+        int[] territories = bestPlacements(position, CANDIDATES - 1);
+        int seat = getSeat();
+        int chosen = search(position, territories.length + 1, 0, new Decision() {
+            @Override
+            public double simulate(GameState state, int candidate, Rollout rollout) {
+                place(state, candidate);
+                return rollout.finish(state, seat, GamePhase.ATTACK, rolloutRounds);
+            }
+
+            @Override
+            public long key(GameState state, int candidate) {
+                place(state, candidate);
+                return state.getHash(GamePhase.ATTACK, seat);
+            }
+
+            private void place(GameState state, int candidate) {
+                if (candidate == 0) {
+                    for (int t = 0; t < planned.length; t++) {
+                        if (planned[t] > 0) state.addUnits(t, planned[t]);
+                    }
+                } else {
+                    state.addUnits(territories[candidate - 1], numUnits);
+                }
+            }
+        });
+        if (chosen == 0) return planned;
+        int[] plan = new int[planned.length];
+        plan[territories[chosen - 1]] = numUnits;
+        return plan;
+    }
+
+    /**
+     * Finds the territories of the player with the highest placement utility.
+     *
+     * @param state The position of the game
+     * @param count The most territories to find
+     * @return The territories, best first
+     */
+    private int[] bestPlacements(GameState state, int count) {
+        BitSet frontier = state.getFrontier(getSeat());
+        int[] best = new int[count];
+        double[] utilities = new double[count];
+        int found = 0;
+        for (int t = frontier.nextSetBit(0); t >= 0; t = frontier.nextSetBit(t + 1)) {
+            double utility = placementUtility(state, t, state.getUnits(t));
+            found = insert(best, utilities, found, t, utility);
+        }
+        return Arrays.copyOf(best, found);
+    }
+
+    /**
+     * Inserts a candidate into a list of the best candidates, kept in order of decreasing score.
+     *
+     * @param best      The best candidates
+     * @param scores    The scores of the best candidates
+     * @param found     The number of candidates in the list
+     * @param candidate The candidate to insert
+     * @param score     The score of the candidate
+     * @return The number of candidates in the list after the insertion
+     */
+    private static int insert(int[] best, double[] scores, int found, int candidate, double score) {
+        int position = found;
+        while (position > 0 && scores[position - 1] < score) position--;
+        if (position >= best.length) return found;
+        int moved = Math.min(found, best.length - 1) - position;
+        System.arraycopy(best, position, best, position + 1, moved);
+        System.arraycopy(scores, position, scores, position + 1, moved);
+        best[position] = candidate;
+        scores[position] = score;
+        return Math.min(found + 1, best.length);
+    }
+
+    /**
+     * Attacks as long as the search prefers one of the best attacks over ending the attack phase.
+     *
+     * @param model The GameSession that contains general game logic.
+     */
+    @Override
+    public void doAttack(GameSession model) {
+        WorldMap world = getState().getWorld();
+        WorldTopology topology = world.getTopology();
+        while (!model.isGameOver()) {
+            int edge = chooseAttack(getState(), -1, -1);
+            if (edge < 0) return;
+            Territory attacking = world.getTerritory(topology.getEdgeSources()[edge]);
+            Territory defending = world.getTerritory(topology.getAdjacency()[edge]);
+            int unitsBefore = attacking.getUnits() + defending.getUnits();
+            boolean won = model.isBlitzMode() ? model.blitz(attacking, defending, 0.5)
+                    : model.performBattle(attacking, defending);
+            if (won) {
+                model.moveUnits(attacking, defending, attacking.getUnits() - 1);
+            } else if (attacking.getUnits() + defending.getUnits() == unitsBefore) {
+                //the exact odds of a large battle did not favour the attack after all
+                return;
+            }
+        }
+    }
+
+    /**
+     * Chooses the next attack: the one of the best attacks that the search picks, or none.
+     *
+     * @param position  The position of the game, only read
+     * @param attacking The id of the attacking territory of the previous attack, unused
+     * @param defending The id of the defending territory of the previous attack, unused
+     * @return The edge of the attack in the topology, -1 to end the attack phase
+     */
+    @Override
+    protected int chooseAttack(GameState position, int attacking, int defending) {
+        WorldTopology topology = position.getWorld().getTopology();
+        int seat = getSeat();
+        //the candidates are the attacks with the highest utility, best first, then ending the attack phase
+        int[] edges = bestAttacks(position, CANDIDATES);
+        if (edges.length == 0) return -1;
+        int chosen = search(position, edges.length + 1, 0, new Decision() {
+            @Override
+            public double simulate(GameState state, int candidate, Rollout rollout) {
+                if (candidate == edges.length) return rollout.finish(state, seat, GamePhase.MOVE_UNITS, rolloutRounds);
+                int edge = edges[candidate];
+                rollout.attack(state, topology.getEdgeSources()[edge], topology.getAdjacency()[edge]);
+                return rollout.finish(state, seat, GamePhase.ATTACK, rolloutRounds);
+            }
+
+            @Override
+            public long key(GameState state, int candidate) {
+                if (candidate == edges.length) return state.getHash(GamePhase.MOVE_UNITS, seat);
+                return state.getHash(GamePhase.ATTACK, seat) ^ Zobrist.attack(edges[candidate]);
+            }
+        });
+        return (chosen == edges.length) ? -1 : edges[chosen];
+    }
+
+    /**
+     * Finds the attacks of the player with the highest (positive) utility.
+     *
+     * @param state The position of the game
+     * @param count The most attacks to find
+     * @return The edges of the attacks, best first
+     */
+    private int[] bestAttacks(GameState state, int count) {
+        WorldTopology topology = state.getWorld().getTopology();
+        int[] offsets = topology.getOffsets();
+        int[] adjacency = topology.getAdjacency();
+        int[] owners = state.getOwnerArray();
+        int[] units = state.getUnitArray();
+        BitSet frontier = state.getFrontier(getSeat());
+        int[] best = new int[count];
+        double[] utilities = new double[count];
+        int found = 0;
+        for (int t = frontier.nextSetBit(0); t >= 0; t = frontier.nextSetBit(t + 1)) {
+            for (int edge = offsets[t]; edge < offsets[t + 1]; edge++) {
+                if (owners[adjacency[edge]] == getSeat()) continue;
+                double utility = Rollout.attackUtility(units[t], units[adjacency[edge]]);
+                if (utility > 0) found = insert(best, utilities, found, edge, utility);
+            }
+        }
+        return Arrays.copyOf(best, found);
+    }
+
+    /**
+     * Chooses the end of turn move: the move the search picks, or none.
+     *
+     * @param position The position of the game, only read
+     * @return The ids of the territory the units leave and of the territory they go to, null for no move
+     */
+    @Override
+    protected int[] chooseMove(GameState position) {
+        int seat = getSeat();
+        if (position.size() > 0xFFFF) return super.chooseMove(position);
+        //the candidates are the move of the heuristics (if any), the moves of the largest territories, then no move
+        int heuristic = Rollout.fortifyMove(position, seat);
+        int[] moves = bestMoves(position, CANDIDATES, heuristic);
+        if (moves.length == 0) return null;
+        int chosen = search(position, moves.length + 1, (heuristic >= 0) ? 0 : moves.length, new Decision() {
+            @Override
+            public double simulate(GameState state, int candidate, Rollout rollout) {
+                move(state, candidate);
+                return rollout.finish(state, seat, GamePhase.BONUS_TROUPE, rolloutRounds);
+            }
+
+            @Override
+            public long key(GameState state, int candidate) {
+                move(state, candidate);
+                return state.getHash(GamePhase.BONUS_TROUPE, Rollout.nextSeat(state, seat));
+            }
+
+            private void move(GameState state, int candidate) {
+                if (candidate < moves.length) {
+                    int from = moves[candidate] >>> 16;
+                    state.moveUnits(from, moves[candidate] & 0xFFFF, state.getUnits(from) - 1);
+                }
+            }
+        });
+        return (chosen == moves.length) ? null : new int[]{moves[chosen] >>> 16, moves[chosen] & 0xFFFF};
+    }
+
+    /**
+     * Finds the end of turn moves of the player from its largest territories, each to the territory
+     * of its component that faces the most enemy units.
+     *
+     * @param state     The position of the game
+     * @param count     The most moves to find
+     * @param heuristic The move of the heuristics, put first, -1 if there is none
+     * @return The moves, packed as the territory moved from (upper 16 bits) and to (lower 16 bits)
+     */
+    private int[] bestMoves(GameState state, int count, int heuristic) {
+        BitSet owned = state.getOwned(getSeat());
+        int[] best = new int[count];
+        double[] troops = new double[count];
+        int found = 0;
+        if (heuristic >= 0) found = insert(best, troops, found, heuristic, Double.POSITIVE_INFINITY);
+        for (int t = owned.nextSetBit(0); t >= 0; t = owned.nextSetBit(t + 1)) {
+            if (state.getUnits(t) < 2 || (heuristic >= 0 && t == heuristic >>> 16)) continue;
+            int to = Rollout.mostThreatened(state, t);
+            if (to != t) found = insert(best, troops, found, t << 16 | to, state.getUnits(t));
+        }
+        return Arrays.copyOf(best, found);
+    }
+
+    /**
+     * Searches a decision with every worker and picks the candidate that was tried the most,
+     * if it did clearly better than the move of the heuristics.
+     *
+     * @param live       The position of the decision, only read
+     * @param candidates The number of candidates
+     * @param heuristic  The index of the move of the heuristics
+     * @param decision   The decision
+     * @return The index of the candidate to play
+     */
+    private int search(GameState live, int candidates, int heuristic, Decision decision) {
+        if (candidates == 1) return 0;
+        long deadline = System.nanoTime() + budgetNanos;
+        long[] keys = null;
+        if (table != null) {
+            table.newSearch();
+            keys = new long[candidates];
+            GameState scratch = live.fork();
+            for (int candidate = 0; candidate < candidates; candidate++) {
+                scratch.copyFrom(live);
+                keys[candidate] = decision.key(scratch, candidate);
+            }
+        }
+        long[] candidateKeys = keys;
+        double[] totals = new double[2 * candidates];
+        if (parallelism == 1) {
+            add(totals, searchWorker(live, candidates, decision, candidateKeys, random.split(), deadline));
+        } else {
+            List<Future<double[]>> workers = new ArrayList<>();
+            for (int worker = 0; worker < parallelism; worker++) {
+                SplittableRandom workerRandom = random.split();
+                workers.add(pool.submit(() -> searchWorker(live, candidates, decision, candidateKeys, workerRandom,
+                        deadline)));
+            }
+            try {
+                for (Future<double[]> worker : workers) {
+                    add(totals, worker.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("The search was interrupted.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("The search failed.", e.getCause());
+            }
+        }
+        if (candidateKeys != null) shared(totals, candidates, candidateKeys);
+        int chosen = heuristic;
+        for (int candidate = 0; candidate < candidates; candidate++) {
+            if (totals[candidate] > totals[chosen]) chosen = candidate;
+        }
+        double chosenMean = totals[candidates + chosen] / totals[chosen];
+        double heuristicMean = totals[candidates + heuristic] / Math.max(1, totals[heuristic]);
+        return (chosenMean > heuristicMean + MARGIN) ? chosen : heuristic;
+    }
+
+    /**
+     * Adds the visits and values found by a worker to the totals of a search.
+     *
+     * @param totals The visits then the values of every candidate
+     * @param found  The visits then the values found by the worker
+     */
+    private static void add(double[] totals, double[] found) {
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] += found[i];
+        }
+    }
+
+    /**
+     * Replaces the visits and values of the candidates with their evaluations in the transposition
+     * table, where the table knows more of them.
+     *
+     * @param found      The visits then the values of every candidate
+     * @param candidates The number of candidates
+     * @param keys       The hash of every candidate
+     */
+    private void shared(double[] found, int candidates, long[] keys) {
+        for (int candidate = 0; candidate < candidates; candidate++) {
+            long entry = table.probe(keys[candidate]);
+            int visits = TranspositionTable.getVisits(entry);
+            if (visits > found[candidate]) {
+                found[candidate] = visits;
+                found[candidates + candidate] = visits * TranspositionTable.getMean(entry);
+            }
+        }
+    }
+
+    /**
+     * Searches a decision on a fork of the game until the deadline (or the rollout limit).
+     *
+     * @param live       The live state of the game, only read
+     * @param candidates The number of candidates
+     * @param decision   The decision
+     * @param keys       The hash of every candidate, null to search without the transposition table
+     * @param random     The random variable of the worker
+     * @param deadline   The time the search ends, as given by {@link System#nanoTime()}
+     * @return The visits then the values of every candidate
+     */
+    private double[] searchWorker(GameState live, int candidates, Decision decision, long[] keys,
+                                  SplittableRandom random, long deadline) {
+        long start = System.nanoTime();
+        GameState root = live.fork();
+        GameState state = live.fork();
+        Rollout rollout = new Rollout(random);
+        double[] found = new double[2 * candidates];
+        double[] known = (keys == null) ? found : new double[2 * candidates];
+        int played = 0;
+        do {
+            if (keys != null) {
+                System.arraycopy(found, 0, known, 0, known.length);
+                shared(known, candidates, keys);
+            }
+            int candidate = select(known, candidates);
+            state.copyFrom(root);
+            double value = decision.simulate(state, candidate, rollout);
+            found[candidate]++;
+            found[candidates + candidate] += value;
+            if (keys != null) table.update(keys[candidate], value);
+            played++;
+        } while ((rolloutLimit <= 0 || played < rolloutLimit) && (rolloutLimit > 0 || System.nanoTime() < deadline));
+        rollouts.add(played);
+        workerNanos.add(System.nanoTime() - start);
+        return found;
+    }
+
+    /**
+     * Picks the candidate to try next with the UCB1 rule, trying every candidate once first.
+     *
+     * @param found      The visits then the values of every candidate
+     * @param candidates The number of candidates
+     * @return The index of the candidate
+     */
+    private static int select(double[] found, int candidates) {
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        double played = 0;
+        for (int candidate = 0; candidate < candidates; candidate++) {
+            played += found[candidate];
+        }
+        double logPlayed = Math.log(Math.max(1, played));
+        for (int candidate = 0; candidate < candidates; candidate++) {
+            double visits = found[candidate];
+            if (visits == 0) return candidate;
+            double score = found[candidates + candidate] / visits + EXPLORATION * Math.sqrt(logPlayed / visits);
+            if (score > bestScore) {
+                bestScore = score;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
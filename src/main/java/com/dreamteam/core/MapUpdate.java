@@ -0,0 +1,145 @@
+package com.dreamteam.core;
+
+import java.util.BitSet;
+
+/**
+ * The contents of an {@link com.dreamteam.view.RiskEventType#UPDATE_MAP} event: the territories whose owner
+ * or units changed since the previous update, with their new owner and units, and the territories the map
+ * highlights (those a player may select), if they changed.
+ * <p>
+ * The changes are kept as parallel arrays of ids, seats and units, so an update after a battle is a few ints
+ * however large the world is. An update never changes once created, since it may be delivered to several views.
+ */
+public final class MapUpdate {
+
+    /**
+     * The ids of the changed territories.
+     */
+    private final int[] territories;
+    /**
+     * The seat of the new owner of each changed territory.
+     */
+    private final int[] owners;
+    /**
+     * The new units of each changed territory.
+     */
+    private final int[] units;
+    /**
+     * The ids of the highlighted territories, null if they did not change.
+     */
+    private final BitSet highlight;
+
+    /**
+     * Constructor for instances of MapUpdate.
+     *
+     * @param territories The ids of the changed territories
+     * @param owners      The seat of the new owner of each changed territory
+     * @param units       The new units of each changed territory
+     * @param highlight   The ids of the highlighted territories, null if they did not change
+     */
+    public MapUpdate(int[] territories, int[] owners, int[] units, BitSet highlight) {
+        this.territories = territories;
+        this.owners = owners;
+        this.units = units;
+        this.highlight = highlight;
+    }
+
+    /**
+     * Creates the update of some territories of a state.
+     *
+     * @param state       The state
+     * @param territories The ids of the changed territories
+     * @param highlight   The ids of the highlighted territories, null if they did not change
+     * @return The update
+     */
+    public static MapUpdate of(GameState state, int[] territories, BitSet highlight) {
+        int[] owners = new int[territories.length];
+        int[] units = new int[territories.length];
+        for (int i = 0; i < territories.length; i++) {
+            owners[i] = state.getOwner(territories[i]);
+            units[i] = state.getUnits(territories[i]);
+        }
+        return new MapUpdate(territories, owners, units, highlight);
+    }
+
+    /**
+     * Combines this update with an older one it follows, as if both had been delivered in order.
+     *
+     * @param older The older update
+     * @return The combined update
+     */
+    public MapUpdate merge(MapUpdate older) {
+        BitSet newer = new BitSet();
+        for (int t : territories) {
+            newer.set(t);
+        }
+        int count = territories.length;
+        for (int t : older.territories) {
+            if (!newer.get(t)) count++;
+        }
+        int[] mergedTerritories = new int[count];
+        int[] mergedOwners = new int[count];
+        int[] mergedUnits = new int[count];
+        System.arraycopy(territories, 0, mergedTerritories, 0, territories.length);
+        System.arraycopy(owners, 0, mergedOwners, 0, territories.length);
+        System.arraycopy(units, 0, mergedUnits, 0, territories.length);
+        int at = territories.length;
+        for (int i = 0; i < older.territories.length; i++) {
+            if (newer.get(older.territories[i])) continue;
+            mergedTerritories[at] = older.territories[i];
+            mergedOwners[at] = older.owners[i];
+            mergedUnits[at] = older.units[i];
+            at++;
+        }
+        return new MapUpdate(mergedTerritories, mergedOwners, mergedUnits,
+                (highlight != null) ? highlight : older.highlight);
+    }
+
+    /**
+     * Retrieves the number of changed territories.
+     *
+     * @return The number of territories
+     */
+    public int getCount() {
+        return territories.length;
+    }
+
+    /**
+     * Retrieves the id of a changed territory.
+     *
+     * @param i The index of the change
+     * @return The id of the territory
+     */
+    public int getTerritory(int i) {
+        return territories[i];
+    }
+
+    /**
+     * Retrieves the seat of the new owner of a changed territory.
+     *
+     * @param i The index of the change
+     * @return The seat of the owner
+     */
+    public int getOwner(int i) {
+        return owners[i];
+    }
+
+    /**
+     * Retrieves the new units of a changed territory.
+     *
+     * @param i The index of the change
+     * @return The units
+     */
+    public int getUnits(int i) {
+        return units[i];
+    }
+
+    /**
+     * Retrieves the highlighted territories.
+     *
+     * @return The ids of the highlighted territories (not to be modified), null if they did not change
+     */
+    public BitSet getHighlight() {
+        return highlight;
+    }
+}
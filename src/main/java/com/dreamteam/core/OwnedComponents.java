@@ -0,0 +1,263 @@
+package com.dreamteam.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The connected components of the territories of every seat of a {@link GameState}: two territories
+ * of a seat are in the same component when units can be moved from one to the other through
+ * territories of the same seat.
+ * <p>
+ * The components of a seat are found with a union-find over the borders between its territories,
+ * and are kept until the seat gains or loses a territory (see {@link GameState#getOwnershipVersion(int)}).
+ * Only the seats whose territories changed are rebuilt, on the first question about them. Once built,
+ * whether two territories are connected is a constant time lookup, and the members of a component are
+ * listed in order of id like the compiled topology: the members of component {@code c} of a seat are
+ * {@code getMembers(seat)[getOffsets(seat)[c] .. getOffsets(seat)[c + 1] - 1]}.
+ * <p>
+ * The borders of the world are taken to go both ways, as they do in every valid world.
+ */
+public final class OwnedComponents {
+
+    /**
+     * Marks a seat whose components were never built.
+     */
+    private static final int NOT_BUILT = -1;
+
+    /**
+     * The state whose territories are grouped.
+     */
+    private final GameState state;
+    /**
+     * The topology of the world of the state.
+     */
+    private final WorldTopology topology;
+    /**
+     * The parent of each territory in the union-find of its seat, by id.
+     */
+    private final int[] parents;
+    /**
+     * The number of territories under each root in the union-find of its seat, by id.
+     */
+    private final int[] sizes;
+    /**
+     * The component of each territory within the components of its owner, by id.
+     */
+    private final int[] components;
+    /**
+     * The members of the components of each seat, grouped by component.
+     */
+    private int[][] members;
+    /**
+     * The start of each component in the members of each seat, by seat then component.
+     */
+    private int[][] offsets;
+    /**
+     * The number of components of each seat.
+     */
+    private int[] counts;
+    /**
+     * The ownership version of each seat that its components were built for.
+     */
+    private int[] versions;
+
+    /**
+     * Constructor for instances of OwnedComponents.
+     *
+     * @param state The state whose territories are grouped
+     */
+    public OwnedComponents(GameState state) {
+        this.state = state;
+        topology = state.getWorld().getTopology();
+        parents = new int[topology.size()];
+        sizes = new int[topology.size()];
+        components = new int[topology.size()];
+        members = new int[0][];
+        offsets = new int[0][];
+        counts = new int[0];
+        versions = new int[0];
+    }
+
+    /**
+     * Brings the components of a seat up to date, rebuilding them if the seat gained or lost
+     * a territory since they were built.
+     *
+     * @param seat The seat
+     */
+    private void ensureBuilt(int seat) {
+        if (seat >= versions.length) {
+            int oldLength = versions.length;
+            int count = seat + 1;
+            members = Arrays.copyOf(members, count);
+            offsets = Arrays.copyOf(offsets, count);
+            counts = Arrays.copyOf(counts, count);
+            versions = Arrays.copyOf(versions, count);
+            for (int s = oldLength; s < count; s++) {
+                members[s] = new int[topology.size()];
+                offsets[s] = new int[topology.size() + 1];
+                versions[s] = NOT_BUILT;
+            }
+        }
+        int version = state.getOwnershipVersion(seat);
+        if (versions[seat] == version) return;
+        build(seat);
+        versions[seat] = version;
+    }
+
+    /**
+     * Builds the components of a seat.
+     *
+     * @param seat The seat
+     */
+    private void build(int seat) {
+        BitSet owned = state.getOwned(seat);
+        int[] owners = state.getOwnerArray();
+        int[] topologyOffsets = topology.getOffsets();
+        int[] adjacency = topology.getAdjacency();
+        for (int t = owned.nextSetBit(0); t >= 0; t = owned.nextSetBit(t + 1)) {
+            parents[t] = t;
+            sizes[t] = 1;
+        }
+        for (int t = owned.nextSetBit(0); t >= 0; t = owned.nextSetBit(t + 1)) {
+            for (int i = topologyOffsets[t]; i < topologyOffsets[t + 1]; i++) {
+                int adj = adjacency[i];
+                if (adj > t && owners[adj] == seat) union(t, adj);
+            }
+        }
+
+        //number the components in order of their first territory, then group the members by component
+        int[] starts = offsets[seat];
+        int count = 0;
+        for (int t = owned.nextSetBit(0); t >= 0; t = owned.nextSetBit(t + 1)) {
+            components[t] = -1;
+        }
+        for (int t = owned.nextSetBit(0); t >= 0; t = owned.nextSetBit(t + 1)) {
+            int root = find(t);
+            if (components[root] < 0) {
+                starts[count + 1] = sizes[root];
+                components[root] = count++;
+            }
+            components[t] = components[root];
+        }
+        starts[0] = 0;
+        for (int c = 0; c < count; c++) {
+            starts[c + 1] += starts[c];
+        }
+        //starts[c] is used as the next free slot of component c, then shifted back
+        int[] grouped = members[seat];
+        for (int t = owned.nextSetBit(0); t >= 0; t = owned.nextSetBit(t + 1)) {
+            grouped[starts[components[t]]++] = t;
+        }
+        for (int c = count; c > 0; c--) {
+            starts[c] = starts[c - 1];
+        }
+        starts[0] = 0;
+        counts[seat] = count;
+    }
+
+    /**
+     * Finds the root of a territory in the union-find, halving the path on the way.
+     *
+     * @param territory The id of the territory
+     * @return The id of the root
+     */
+    private int find(int territory) {
+        while (parents[territory] != territory) {
+            parents[territory] = parents[parents[territory]];
+            territory = parents[territory];
+        }
+        return territory;
+    }
+
+    /**
+     * Joins the sets of two territories in the union-find, under the root of the larger set.
+     *
+     * @param a The id of the first territory
+     * @param b The id of the second territory
+     */
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return;
+        if (sizes[rootA] < sizes[rootB] || (sizes[rootA] == sizes[rootB] && rootB < rootA)) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parents[rootB] = rootA;
+        sizes[rootA] += sizes[rootB];
+    }
+
+    /**
+     * Retrieves the component of a territory within the components of its owner.
+     *
+     * @param territory The id of the territory
+     * @return The component, -1 if the territory has no owner
+     */
+    public int getComponent(int territory) {
+        int seat = state.getOwner(territory);
+        if (seat == GameState.NO_OWNER) return -1;
+        ensureBuilt(seat);
+        return components[territory];
+    }
+
+    /**
+     * Determines whether units can be moved between two territories through territories of their owner.
+     *
+     * @param a The id of the first territory
+     * @param b The id of the second territory
+     * @return true if both territories have the same owner and are in the same component
+     */
+    public boolean isConnected(int a, int b) {
+        int seat = state.getOwner(a);
+        if (seat == GameState.NO_OWNER || state.getOwner(b) != seat) return false;
+        ensureBuilt(seat);
+        return components[a] == components[b];
+    }
+
+    /**
+     * Retrieves the number of territories in the component of a territory.
+     *
+     * @param territory The id of the territory
+     * @return The number of territories, 0 if the territory has no owner
+     */
+    public int getComponentSize(int territory) {
+        int seat = state.getOwner(territory);
+        if (seat == GameState.NO_OWNER) return 0;
+        int component = getComponent(territory);
+        return offsets[seat][component + 1] - offsets[seat][component];
+    }
+
+    /**
+     * Retrieves the number of components of a seat.
+     *
+     * @param seat The seat
+     * @return The number of components
+     */
+    public int getComponentCount(int seat) {
+        ensureBuilt(seat);
+        return counts[seat];
+    }
+
+    /**
+     * Retrieves the territories of a seat grouped by component, in order of id within a component.
+     *
+     * @param seat The seat
+     * @return The members of the components (not to be modified)
+     */
+    public int[] getMembers(int seat) {
+        ensureBuilt(seat);
+        return members[seat];
+    }
+
+    /**
+     * Retrieves the start of each component of a seat in its members, followed by the number of members.
+     *
+     * @param seat The seat
+     * @return The offsets of the components (not to be modified)
+     */
+    public int[] getOffsets(int seat) {
+        ensureBuilt(seat);
+        return offsets[seat];
+    }
+}
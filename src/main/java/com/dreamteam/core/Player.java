@@ -10,11 +10,11 @@ import java.awt.*;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
- * Class Player represents the user within the {@link GameSingleton}.
+ * Class Player represents the user within the {@link GameSession}.
  *
  * @author Tony Zeidan
  * @author Ethan Chase
@@ -33,9 +33,17 @@ public class Player implements Jsonable {
      */
     private RiskColour colour;
     /**
-     * List of territories that the player owns.
+     * List of territories that the player owns, which do not belong to a compiled world.
      */
     private Set<Territory> owned;
+    /**
+     * The state of the game the player is seated in, which holds the territories the player owns.
+     */
+    private GameState state;
+    /**
+     * The seat of the player in the state of its game.
+     */
+    private int seat;
     /**
      * Contains whether the player is still active in the game.
      */
@@ -44,7 +52,9 @@ public class Player implements Jsonable {
      * Contains the user input for the amount of dice to use
      */
     private int diceRoll;
-
+    /**
+     * The image of the player's avatar, loaded the first time it is requested.
+     */
     private ImageIcon avatar;
 
     /**
@@ -56,7 +66,8 @@ public class Player implements Jsonable {
         this.name = name;
         this.colour = null;
         this.active = true;
-        owned = new HashSet<>();
+        owned = new LinkedHashSet<>();
+        seat = GameState.NO_OWNER;
     }
 
 
@@ -70,8 +81,8 @@ public class Player implements Jsonable {
         this.name = name;
         this.colour = colour;
         this.active = true;
-        owned = new HashSet<>();
-        setAvatar();
+        owned = new LinkedHashSet<>();
+        seat = GameState.NO_OWNER;
     }
 
     /**
@@ -99,34 +110,66 @@ public class Player implements Jsonable {
      */
     public void setColour(RiskColour colour) {
         this.colour = colour;
-        setAvatar();
+        avatar = null;
+    }
+
+    /**
+     * Seats the player in the state of a game.
+     *
+     * @param state The state of the game, null to leave the game
+     * @param seat  The seat of the player
+     */
+    void bind(GameState state, int seat) {
+        this.state = state;
+        this.seat = seat;
+    }
+
+    /**
+     * Retrieves the state of the game the player is seated in.
+     *
+     * @return The state, or null if the player is not seated in a game
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Retrieves the seat of the player in the state of its game.
+     *
+     * @return The seat, or {@link GameState#NO_OWNER} if the player is not seated in a game
+     */
+    public int getSeat() {
+        return seat;
     }
 
     /**
      * Add a territory to this players owned territories.
+     * Territories of a compiled world are owned through {@link Territory#setOwner(Player)} only.
      *
      * @param territory The new territory this player owns
      */
     public void addTerritory(Territory territory) {
-        owned.add(territory);
+        if (territory.getWorld() == null) owned.add(territory);
     }
 
     /**
      * Remove a territory from this players owned territories.
+     * Territories of a compiled world are owned through {@link Territory#setOwner(Player)} only.
      *
      * @param territory The territory this player lost
      */
     public void removeTerritory(Territory territory) {
-        owned.remove(territory);
+        if (territory.getWorld() == null) owned.remove(territory);
     }
 
     /**
      * Retrieves a list of all territories owned by the player.
+     * When the player is seated in a game, this is a read only view of its ownership mask.
      *
      * @return The list of owned territories
      */
     public Set<Territory> getOwnedTerritories() {
-        return owned;
+        return (state == null) ? owned : state.getTerritories(seat);
     }
 
     /**
@@ -164,7 +207,8 @@ public class Player implements Jsonable {
      * @return Whether the player owns the territory (t/f)
      */
     public boolean ownsTerritory(Territory territory) {
-        return owned.contains(territory);
+        if (territory.getWorld() == null) return owned.contains(territory);
+        return territory.getOwner() == this;
     }
 
     /**
@@ -185,15 +229,19 @@ public class Player implements Jsonable {
         return diceRoll;
     }
 
+    /**
+     * Loads the avatar image that matches the colour of this player.
+     * This is only done when the avatar is first requested, so that games
+     * without a GUI never load any images.
+     */
     private void setAvatar() {
+        if (colour == null) return;
         try {
             String path = "player_icons/" + colour.getName().toLowerCase()+".png";
-            System.out.println(path);
             InputStream stream = getClass().getClassLoader().getResourceAsStream(path);
             if (stream!=null) {
                 Image unscaled = ImageIO.read(stream);
                 avatar = new ImageIcon(unscaled.getScaledInstance(30,30,Image.SCALE_DEFAULT));
-                System.out.println("Avatar loaded.");
             } else {
                 avatar = null;
             }
@@ -208,6 +256,7 @@ public class Player implements Jsonable {
      * @return An image icon of the player's avatar.
      */
     public ImageIcon getAvatar() {
+        if (avatar == null) setAvatar();
         return avatar;
     }
 
@@ -225,7 +274,7 @@ public class Player implements Jsonable {
             json.put("isAI", "false");
         json.put("name", name);
         json.put("colour",colour.getName());
-        json.put("owned", owned);
+        json.put("owned", getOwnedTerritories());
         json.put("active",active);
         json.put("selectedDie",diceRoll+"");
         return json.toJson();
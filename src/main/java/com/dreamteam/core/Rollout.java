@@ -0,0 +1,289 @@
+package com.dreamteam.core;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * Plays a game on a fork of its state with the heuristics of {@link AIPlayer} for every seat,
+ * for a search to estimate how good a position is. Battles are blitzed with the dice of the
+ * {@link BattleKernel}, so a rollout of several turns takes microseconds.
+ * <p>
+ * The seats play the way an AI player plays a turn: the bonus units are placed by the placement
+ * heuristic, every attack with a positive utility is blitzed (best attack first) until the odds of
+ * conquering the territory drop to one half, and the units of the largest territory away from the
+ * frontier move to the territory of its component facing the most enemy units.
+ * Moves are packed into an int as the territory moved from (upper 16 bits) and to (lower 16 bits),
+ * so rollouts are only played on worlds of up to 65 536 territories.
+ * <p>
+ * A rollout is not thread safe, every thread of a search plays its rollouts with its own instance.
+ */
+final class Rollout {
+
+    /**
+     * The odds of conquering a territory below which an attack stops, as in an AI player's blitz.
+     */
+    private static final double MIN_WIN_PROBABILITY = 0.5;
+
+    /**
+     * The random variable acting as the dice.
+     */
+    private final SplittableRandom random;
+    /**
+     * The heap to rank the territories of a seat in when placing units, sized when first needed.
+     */
+    private IndexedMaxHeap placementHeap;
+
+    /**
+     * Constructor for instances of Rollout.
+     *
+     * @param random The random variable acting as the dice
+     */
+    Rollout(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Finishes the turn of a seat from the given phase, then lets the seats play the given number of
+     * rounds of turns, and evaluates the position for the seat.
+     *
+     * @param state  The fork to play on
+     * @param seat   The seat whose turn it is
+     * @param phase  The phase of the turn to continue from: {@link GamePhase#ATTACK}, {@link GamePhase#MOVE_UNITS},
+     *               or {@link GamePhase#BONUS_TROUPE} if the turn is over and the next seat is to place its units
+     * @param rounds The number of rounds every seat plays after the turn
+     * @return The value of the final position for the seat (see {@link #value(GameState, int)})
+     */
+    double finish(GameState state, int seat, GamePhase phase, int rounds) {
+        if (phase == GamePhase.ATTACK) attackPhase(state, seat);
+        if (phase == GamePhase.ATTACK || phase == GamePhase.MOVE_UNITS) fortify(state, seat);
+        int current = seat;
+        int turns = rounds * state.getNumSeats();
+        for (int turn = 0; turn < turns && !isOver(state); turn++) {
+            current = nextSeat(state, current);
+            playTurn(state, current);
+        }
+        return value(state, seat);
+    }
+
+    /**
+     * Plays a whole turn of a seat.
+     *
+     * @param state The fork to play on
+     * @param seat  The seat
+     */
+    void playTurn(GameState state, int seat) {
+        placeUnits(state, seat, bonusUnits(state, seat));
+        attackPhase(state, seat);
+        fortify(state, seat);
+    }
+
+    /**
+     * Computes the bonus units of a seat, as {@link GameSession#getBonusUnits(Player)} does.
+     *
+     * @param state The state of the game
+     * @param seat  The seat
+     * @return The bonus units
+     */
+    static int bonusUnits(GameState state, int seat) {
+        return Math.max(state.getOwnedCount(seat) / 3, 3) + state.getContinentBonus(seat);
+    }
+
+    /**
+     * Places units of a seat with the placement heuristic.
+     *
+     * @param state    The fork to play on
+     * @param seat     The seat
+     * @param numUnits The units to place
+     */
+    void placeUnits(GameState state, int seat, int numUnits) {
+        if (placementHeap == null) placementHeap = new IndexedMaxHeap(state.size());
+        int[] plan = AIPlayer.planPlacement(state, seat, numUnits, placementHeap);
+        for (int t = 0; t < plan.length; t++) {
+            if (plan[t] > 0) state.addUnits(t, plan[t]);
+        }
+    }
+
+    /**
+     * Blitzes the best attack of a seat until no attack has a positive utility.
+     *
+     * @param state The fork to play on
+     * @param seat  The seat
+     */
+    void attackPhase(GameState state, int seat) {
+        WorldTopology topology = state.getWorld().getTopology();
+        int[] offsets = topology.getOffsets();
+        int[] adjacency = topology.getAdjacency();
+        int[] owners = state.getOwnerArray();
+        int[] units = state.getUnitArray();
+        //every attack conquers a territory or brings the odds of an attack down, but a state could still cycle
+        for (int attack = 0; attack < 4 * state.size(); attack++) {
+            int attacking = -1;
+            int defending = -1;
+            double mostUtility = 0;
+            BitSet frontier = state.getFrontier(seat);
+            for (int t = frontier.nextSetBit(0); t >= 0; t = frontier.nextSetBit(t + 1)) {
+                if (units[t] < 2) continue;
+                for (int i = offsets[t]; i < offsets[t + 1]; i++) {
+                    int adj = adjacency[i];
+                    if (owners[adj] == seat) continue;
+                    double utility = attackUtility(units[t], units[adj]);
+                    if (utility > mostUtility) {
+                        mostUtility = utility;
+                        attacking = t;
+                        defending = adj;
+                    }
+                }
+            }
+            if (attacking < 0) return;
+            attack(state, attacking, defending);
+            if (isOver(state)) return;
+        }
+    }
+
+    /**
+     * Blitzes one territory from another until it is conquered or the odds of conquering it drop
+     * to one half, and moves every unit but one into the territory if it is conquered.
+     *
+     * @param state     The fork to play on
+     * @param attacking The id of the attacking territory
+     * @param defending The id of the defending territory
+     * @return true if the territory was conquered
+     */
+    boolean attack(GameState state, int attacking, int defending) {
+        int attackers = state.getUnits(attacking);
+        int defenders = state.getUnits(defending);
+        BattleOdds odds = BattleOdds.getDefault();
+        while (attackers > 1 && defenders > 0 && odds.winProbability(attackers, defenders) > MIN_WIN_PROBABILITY) {
+            int result = BattleKernel.roll(Math.min(3, attackers - 1), Math.min(2, defenders), random);
+            attackers -= BattleKernel.getAttackLost(result);
+            defenders -= BattleKernel.getDefendLost(result);
+        }
+        state.applyBattle(attacking, defending, state.getUnits(attacking) - attackers,
+                state.getUnits(defending) - defenders);
+        if (defenders > 0) return false;
+        state.capture(attacking, defending, attackers - 1);
+        return true;
+    }
+
+    /**
+     * Computes the utility of an attack as {@link AIPlayer#attackUtilityFunction(int, int)} does.
+     *
+     * @param attackers The units on the attacking territory
+     * @param defenders The units on the defending territory
+     * @return The expected utility of the attack, from -1 to 1
+     */
+    static double attackUtility(int attackers, int defenders) {
+        if (attackers < 2) return 0;
+        return 2 * BattleOdds.getDefault().winProbability(attackers, defenders) - 1;
+    }
+
+    /**
+     * Moves every unit but one from the largest territory of a seat away from the frontier to the
+     * territory of its component that faces the most enemy units, as an AI player ends its turn.
+     *
+     * @param state The fork to play on
+     * @param seat  The seat
+     */
+    void fortify(GameState state, int seat) {
+        int move = fortifyMove(state, seat);
+        if (move >= 0) {
+            int from = move >>> 16;
+            state.moveUnits(from, move & 0xFFFF, state.getUnits(from) - 1);
+        }
+    }
+
+    /**
+     * Finds the end of turn move of a seat: from the largest territory away from the frontier to the
+     * territory of its component that faces the most enemy units.
+     *
+     * @param state The state of the game
+     * @param seat  The seat
+     * @return The move packed as the territory moved from (upper 16 bits) and to (lower 16 bits), -1 for none
+     */
+    static int fortifyMove(GameState state, int seat) {
+        int from = AIPlayer.moveSource(state, seat);
+        if (from < 0) return -1;
+        int to = mostThreatened(state, from);
+        return (to == from) ? -1 : from << 16 | to;
+    }
+
+    /**
+     * Finds the territory in the component of a territory that faces the most enemy units.
+     *
+     * @param state     The state of the game
+     * @param territory The id of the territory
+     * @return The id of the territory facing the most enemy units, the territory itself if none faces any
+     */
+    static int mostThreatened(GameState state, int territory) {
+        OwnedComponents components = state.getComponents();
+        int seat = state.getOwner(territory);
+        int component = components.getComponent(territory);
+        int[] members = components.getMembers(seat);
+        int[] offsets = components.getOffsets(seat);
+        int best = territory;
+        int mostEnemyTroops = 0;
+        for (int i = offsets[component]; i < offsets[component + 1]; i++) {
+            int enemyTroops = state.getEnemyNeighbourUnits(members[i]);
+            if (enemyTroops > mostEnemyTroops) {
+                mostEnemyTroops = enemyTroops;
+                best = members[i];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the seat that plays after a seat, skipping the seats without territories.
+     *
+     * @param state The state of the game
+     * @param seat  The seat
+     * @return The next seat with territories
+     */
+    static int nextSeat(GameState state, int seat) {
+        int next = seat;
+        do {
+            next = (next + 1) % state.getNumSeats();
+        } while (state.getOwnedCount(next) == 0 && next != seat);
+        return next;
+    }
+
+    /**
+     * Determines whether a single seat owns every territory.
+     *
+     * @param state The state of the game
+     * @return true if the game is over
+     */
+    static boolean isOver(GameState state) {
+        int owner = state.getOwner(0);
+        return owner != GameState.NO_OWNER && state.getOwnedCount(owner) == state.size();
+    }
+
+    /**
+     * Evaluates a position for a seat: 1 if it won, 0 if it lost all of its territories, and otherwise
+     * a mix of its share of the bonus units of all seats (half), of the territories and of the units
+     * (a quarter each). The bonus units weigh most, as they decide who outgrows the others.
+     *
+     * @param state The state of the game
+     * @param seat  The seat
+     * @return The value of the position, from 0 to 1
+     */
+    static double value(GameState state, int seat) {
+        int owned = state.getOwnedCount(seat);
+        if (owned == 0) return 0;
+        if (owned == state.size()) return 1;
+        int[] owners = state.getOwnerArray();
+        int[] units = state.getUnitArray();
+        long ownUnits = 0;
+        long allUnits = 0;
+        for (int t = 0; t < units.length; t++) {
+            allUnits += units[t];
+            if (owners[t] == seat) ownUnits += units[t];
+        }
+        int allBonus = 0;
+        for (int other = 0; other < state.getNumSeats(); other++) {
+            if (state.getOwnedCount(other) > 0) allBonus += bonusUnits(state, other);
+        }
+        return 0.5 * bonusUnits(state, seat) / allBonus + 0.25 * owned / state.size()
+                + 0.25 * ownUnits / Math.max(1, allUnits);
+    }
+}
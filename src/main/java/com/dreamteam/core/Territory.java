@@ -7,7 +7,7 @@ import com.github.cliftonlabs.json_simple.Jsonable;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -28,17 +28,29 @@ public class Territory implements Jsonable {
      */
     private String name;
     /**
-     * The units that occupy this territory.
+     * The units that occupy this territory, when it does not belong to a compiled world.
      */
     private int units;
     /**
-     * The current Player that owns the Territory
+     * The current Player that owns the Territory, when it does not belong to a compiled world.
      */
     private Player owner;
     /**
      * The Neighbouring Territories of the Territory
      */
     private Set<Territory> neighbours;
+    /**
+     * The world that this territory belongs to, null if it does not belong to a compiled world.
+     */
+    private WorldMap world;
+    /**
+     * The state of the game on the world, which holds the owner and units of this territory.
+     */
+    private GameState state;
+    /**
+     * The id of this territory in the topology of its world, -1 if it does not belong to one.
+     */
+    private int id;
 
     /**
      * Constructor for the territory object that contains a name and current player.
@@ -48,7 +60,39 @@ public class Territory implements Jsonable {
     public Territory(String name) {
         this.name = name;
         units = 0;
-        neighbours = new HashSet<>();
+        neighbours = new LinkedHashSet<>();
+        id = -1;
+    }
+
+    /**
+     * Binds this territory to its id in the compiled topology of a world.
+     *
+     * @param world The world the territory belongs to
+     * @param id    The id of the territory in the world's topology
+     */
+    void attach(WorldMap world, int id) {
+        this.world = world;
+        this.id = id;
+        state = world.getState();
+    }
+
+    /**
+     * Retrieves the world that this territory belongs to.
+     *
+     * @return The world, or null if the territory does not belong to a compiled world
+     */
+    public WorldMap getWorld() {
+        return world;
+    }
+
+    /**
+     * Retrieves the id of this territory in the topology of its world.
+     *
+     * @return The id, or -1 if the territory does not belong to a compiled world
+     * @see WorldTopology
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -66,7 +110,7 @@ public class Territory implements Jsonable {
      * @return The number of territory units
      */
     public int getUnits() {
-        return units;
+        return (state == null) ? units : state.getUnits(id);
     }
 
     /**
@@ -75,7 +119,8 @@ public class Territory implements Jsonable {
      * @param units The units set on this territory
      */
     public void setUnits(int units) {
-        this.units = units;
+        if (state == null) this.units = units;
+        else state.setUnits(id, units);
     }
 
     /**
@@ -84,7 +129,8 @@ public class Territory implements Jsonable {
      * @param units The amount of units to add
      */
     public void addUnits(int units) {
-        this.units += units;
+        if (state == null) this.units += units;
+        else state.addUnits(id, units);
     }
 
     /**
@@ -93,7 +139,8 @@ public class Territory implements Jsonable {
      * @param units The amount of units to remove
      */
     public void removeUnits(int units) {
-        this.units -= units;
+        if (state == null) this.units -= units;
+        else state.addUnits(id, -units);
     }
 
     /**
@@ -102,7 +149,7 @@ public class Territory implements Jsonable {
      * @return The owner
      */
     public Player getOwner() {
-        return owner;
+        return (state == null) ? owner : state.getPlayer(state.getOwner(id));
     }
 
     /**
@@ -111,6 +158,10 @@ public class Territory implements Jsonable {
      * @param owner The owner
      */
     public void setOwner(Player owner) {
+        if (state != null) {
+            state.setOwner(id, state.seat(owner));
+            return;
+        }
         if (this.owner != null) {
             Player prevOwner = this.owner;
             prevOwner.removeTerritory(this);
@@ -147,7 +198,7 @@ public class Territory implements Jsonable {
      */
     @Override
     public String toString() {
-        return String.format("Territory of %s: \n\tunits: %s", name, units);
+        return String.format("Territory of %s: \n\tunits: %s", name, getUnits());
     }
 
     /**
@@ -159,7 +210,7 @@ public class Territory implements Jsonable {
     public String toJson() {
         JsonObject json = new JsonObject();
         json.put("name", name);
-        json.put("units", units+"");
+        json.put("units", getUnits()+"");
         return json.toJson();
     }
 
@@ -0,0 +1,323 @@
+package com.dreamteam.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plays a tournament of headless AI only games across all cores using a work-stealing
+ * (fork-join) pool. Every game is played in its own session, on its own copy of the world
+ * and with its own seed, so games never share any mutable state.
+ * <p>
+ * The result of every game is kept, and the results are aggregated while the games are
+ * played with lock-free accumulators.
+ */
+public class TournamentRunner {
+
+    /**
+     * The world that the games are played on, every game is played on a copy.
+     */
+    private final WorldMap template;
+    /**
+     * The number of AI players in each game.
+     */
+    private final int numPlayers;
+    /**
+     * The maximum amount of turns a game may last.
+     */
+    private final int maxTurns;
+    /**
+     * The number of games played in the last tournament.
+     */
+    private final LongAdder games;
+    /**
+     * The number of games that finished in the last tournament.
+     */
+    private final LongAdder finished;
+    /**
+     * The total number of turns played in the last tournament.
+     */
+    private final LongAdder turns;
+    /**
+     * The total number of battles fought in the last tournament.
+     */
+    private final LongAdder battles;
+    /**
+     * The sum of the wall time of every game in the last tournament, in nanoseconds.
+     */
+    private final LongAdder gameNanos;
+    /**
+     * The wall time of the longest game in the last tournament, in nanoseconds.
+     */
+    private final LongAccumulator longestGameNanos;
+    /**
+     * The number of games won by each player (by name) in the last tournament.
+     */
+    private final Map<String, LongAdder> wins;
+    /**
+     * The wall time of the whole last tournament, in nanoseconds.
+     */
+    private long elapsedNanos;
+
+    /**
+     * Constructor for instances of TournamentRunner.
+     *
+     * @param template   The world to play the games on
+     * @param numPlayers The number of AI players in each game
+     * @param maxTurns   The maximum amount of turns a game may last
+     */
+    public TournamentRunner(WorldMap template, int numPlayers, int maxTurns) {
+        this.template = template;
+        this.numPlayers = numPlayers;
+        this.maxTurns = maxTurns;
+        games = new LongAdder();
+        finished = new LongAdder();
+        turns = new LongAdder();
+        battles = new LongAdder();
+        gameNanos = new LongAdder();
+        longestGameNanos = new LongAccumulator(Math::max, 0);
+        wins = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Plays a tournament of the given number of games.
+     * The seed of every game is derived from the seed of the tournament, so a
+     * tournament can be reproduced regardless of the number of threads used.
+     *
+     * @param numGames    The number of games to play
+     * @param parallelism The number of threads to play the games on
+     * @param seed        The seed of the tournament
+     * @return The result of every game, in the order of their seeds
+     */
+    public GameResult[] run(int numGames, int parallelism, long seed) {
+        games.reset();
+        finished.reset();
+        turns.reset();
+        battles.reset();
+        gameNanos.reset();
+        longestGameNanos.reset();
+        wins.clear();
+
+        long[] seeds = new long[numGames];
+        SplittableRandom seedGenerator = new SplittableRandom(seed);
+        for (int i = 0; i < numGames; i++) {
+            seeds[i] = seedGenerator.nextLong();
+        }
+        GameResult[] results = new GameResult[numGames];
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            pool.invoke(new GameRange(seeds, results, 0, numGames));
+        } finally {
+            elapsedNanos = System.nanoTime() - start;
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    /**
+     * Records the result of a game in the aggregated results.
+     *
+     * @param result The result of the game
+     */
+    private void record(GameResult result) {
+        games.increment();
+        turns.add(result.getTurns());
+        battles.add(result.getBattles());
+        gameNanos.add(result.getWallNanos());
+        longestGameNanos.accumulate(result.getWallNanos());
+        if (result.isFinished()) {
+            finished.increment();
+            wins.computeIfAbsent(result.getWinner(), name -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * A range of games of the tournament, split in halves until a single game remains
+     * so that idle threads can steal the games of busy ones.
+     */
+    private class GameRange extends RecursiveAction {
+
+        /**
+         * The seeds of all games in the tournament.
+         */
+        private final long[] seeds;
+        /**
+         * The results of all games in the tournament.
+         */
+        private final GameResult[] results;
+        /**
+         * The first game in the range.
+         */
+        private final int from;
+        /**
+         * The game after the last game in the range.
+         */
+        private final int to;
+
+        /**
+         * Constructor for a range of games.
+         *
+         * @param seeds   The seeds of all games
+         * @param results The results of all games
+         * @param from    The first game in the range
+         * @param to      The game after the last game in the range
+         */
+        GameRange(long[] seeds, GameResult[] results, int from, int to) {
+            this.seeds = seeds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Plays the single game of the range, or splits the range in two.
+         */
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                GameResult result = GameSimulator.playGame(template, numPlayers, maxTurns, seeds[from]);
+                results[from] = result;
+                record(result);
+            } else if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GameRange(seeds, results, from, middle),
+                        new GameRange(seeds, results, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of games played in the last tournament.
+     *
+     * @return The number of games
+     */
+    public long getGames() {
+        return games.sum();
+    }
+
+    /**
+     * Retrieves the number of games that finished in the last tournament.
+     *
+     * @return The number of finished games
+     */
+    public long getFinished() {
+        return finished.sum();
+    }
+
+    /**
+     * Retrieves the total number of turns played in the last tournament.
+     *
+     * @return The number of turns
+     */
+    public long getTurns() {
+        return turns.sum();
+    }
+
+    /**
+     * Retrieves the total number of battles fought in the last tournament.
+     *
+     * @return The number of battles
+     */
+    public long getBattles() {
+        return battles.sum();
+    }
+
+    /**
+     * Retrieves the wall time of the longest game in the last tournament.
+     *
+     * @return The wall time in nanoseconds
+     */
+    public long getLongestGameNanos() {
+        return longestGameNanos.get();
+    }
+
+    /**
+     * Retrieves the average wall time of a game in the last tournament.
+     *
+     * @return The average wall time in nanoseconds
+     */
+    public double getAverageGameNanos() {
+        long played = games.sum();
+        return (played == 0) ? 0 : (double) gameNanos.sum() / played;
+    }
+
+    /**
+     * Retrieves the number of games won by each player in the last tournament.
+     *
+     * @return The number of wins by player name
+     */
+    public Map<String, Long> getWins() {
+        Map<String, Long> totals = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : wins.entrySet()) {
+            totals.put(entry.getKey(), entry.getValue().sum());
+        }
+        return totals;
+    }
+
+    /**
+     * Retrieves the wall time of the whole last tournament.
+     *
+     * @return The wall time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Retrieves the number of games played per second in the last tournament.
+     *
+     * @return The games per second
+     */
+    public double getGamesPerSecond() {
+        return (elapsedNanos == 0) ? 0 : games.sum() / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Plays tournaments on each world with 1 up to the given number of threads and
+     * prints a throughput and scaling report.
+     * Arguments: number of games, maximum number of threads, worlds to play on.
+     *
+     * @param args The command line arguments
+     * @throws IOException When a world file could not be read
+     */
+    public static void main(String[] args) throws IOException {
+        int numGames = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+        int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String[] worlds = (args.length > 2) ? Arrays.copyOfRange(args, 2, args.length)
+                : new String[]{"worlds/world_maps/default.world", "worlds/world_maps/sinnoh.world"};
+        long seed = 3110;
+
+        for (String world : worlds) {
+            TournamentRunner runner = new TournamentRunner(GameSimulator.readWorld(new File(world)),
+                    GameSimulator.DEFAULT_PLAYERS, GameSimulator.DEFAULT_MAX_TURNS);
+            //warm up the JVM before measuring
+            runner.run(Math.max(1, numGames / 10), maxThreads, seed);
+
+            System.out.println(world + " (" + numGames + " games, " + GameSimulator.DEFAULT_PLAYERS + " AIs)");
+            double baseline = 0;
+            for (int threads = 1; threads <= maxThreads; threads++) {
+                runner.run(numGames, threads, seed);
+                double gamesPerSecond = runner.getGamesPerSecond();
+                if (threads == 1) baseline = gamesPerSecond;
+                double speedup = gamesPerSecond / baseline;
+                System.out.println(String.format("  %2d threads: %8.1f games/s %10.0f turns/s %10.0f battles/s"
+                                + "  speedup %5.2fx  efficiency %5.1f%%",
+                        threads, gamesPerSecond, runner.getTurns() / (runner.getElapsedNanos() / 1e9),
+                        runner.getBattles() / (runner.getElapsedNanos() / 1e9), speedup, 100 * speedup / threads));
+            }
+            System.out.println(String.format("  finished %d/%d, avg game %.2f ms, longest %.2f ms, wins %s",
+                    runner.getFinished(), runner.getGames(), runner.getAverageGameNanos() / 1e6,
+                    runner.getLongestGameNanos() / 1e6, runner.getWins()));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.dreamteam.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size table of the evaluations of positions by a search, keyed by their Zobrist hash
+ * (see {@link Zobrist}), which any number of search threads share without locking.
+ * <p>
+ * Every entry holds the number of times a position was evaluated and the mean of its values.
+ * An entry is stored as two longs: its data, and its key exclusive or its data. A thread that reads
+ * an entry while another thread writes it sees a key that does not match, so a torn entry reads as
+ * a miss instead of the evaluation of another position. Two threads evaluating the same position at
+ * once may lose one of their updates, which only costs the search a sample.
+ * <p>
+ * Positions map to buckets of two entries. A position that is not in its bucket replaces an empty
+ * entry if there is one, then the entry that was written longest ago (by search generations, see
+ * {@link #newSearch()}), then the entry with the fewest evaluations, so that well searched positions
+ * of the current search stay in the table.
+ */
+public final class TranspositionTable {
+
+    /**
+     * The entry returned for a position that is not in the table.
+     */
+    public static final long MISS = 0;
+    /**
+     * The most evaluations an entry counts.
+     */
+    private static final int MAX_VISITS = (1 << 24) - 1;
+
+    /**
+     * The key exclusive or the data, then the data, of every entry.
+     */
+    private final AtomicLongArray entries;
+    /**
+     * The mask of the index of an entry.
+     */
+    private final int mask;
+    /**
+     * The generation of the current search, written to the entries it updates.
+     */
+    private volatile int generation;
+
+    /**
+     * Constructor for instances of TranspositionTable.
+     *
+     * @param capacity The number of entries, rounded up to a power of two (16 bytes each)
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity < 2 || capacity > 1 << 29) {
+            throw new IllegalArgumentException("A transposition table holds 2 to 2^29 entries.");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        entries = new AtomicLongArray(2 * size);
+        mask = size - 1;
+    }
+
+    /**
+     * Retrieves the number of entries of the table.
+     *
+     * @return The number of entries
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Starts a new search generation, making the entries of the previous searches the first to be replaced.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Looks up the evaluation of a position.
+     *
+     * @param key The hash of the position
+     * @return The entry of the position (see {@link #getVisits(long)} and {@link #getMean(long)}),
+     * or {@link #MISS} if it is not in the table
+     */
+    public long probe(long key) {
+        int slot = (int) key & mask & ~1;
+        for (int i = slot; i < slot + 2; i++) {
+            long data = entries.getAcquire(2 * i + 1);
+            if (data != MISS && (entries.getAcquire(2 * i) ^ data) == key) return data;
+        }
+        return MISS;
+    }
+
+    /**
+     * Adds an evaluation of a position to the table.
+     *
+     * @param key   The hash of the position
+     * @param value The value of the position
+     */
+    public void update(long key, double value) {
+        int slot = (int) key & mask & ~1;
+        int current = generation;
+        int victim = slot;
+        long victimRank = Long.MAX_VALUE;
+        for (int i = slot; i < slot + 2; i++) {
+            long data = entries.getAcquire(2 * i + 1);
+            if (data != MISS && (entries.getAcquire(2 * i) ^ data) == key) {
+                int visits = getVisits(data);
+                double mean = getMean(data);
+                if (visits < MAX_VISITS) visits++;
+                write(i, key, pack(mean + (value - mean) / visits, visits, current));
+                return;
+            }
+            long rank = rank(data, current);
+            if (rank < victimRank) {
+                victim = i;
+                victimRank = rank;
+            }
+        }
+        write(victim, key, pack(value, 1, current));
+    }
+
+    /**
+     * Ranks an entry for replacement, the lowest first: empty entries, then older generations, then fewer visits.
+     *
+     * @param data    The data of the entry
+     * @param current The current generation
+     * @return The rank of the entry
+     */
+    private static long rank(long data, int current) {
+        if (data == MISS) return -1;
+        return (getGeneration(data) == current ? 1L << 32 : 0) + getVisits(data);
+    }
+
+    /**
+     * Writes an entry.
+     *
+     * @param index The index of the entry
+     * @param key   The hash of the position
+     * @param data  The data of the entry
+     */
+    private void write(int index, long key, long data) {
+        entries.setRelease(2 * index, key ^ data);
+        entries.setRelease(2 * index + 1, data);
+    }
+
+    /**
+     * Packs the data of an entry: the mean value (as a float) in the lower 32 bits, then 24 bits of
+     * visits, then 8 bits of generation. The data of an entry is never {@link #MISS} since it has visits.
+     *
+     * @param mean       The mean value
+     * @param visits     The number of evaluations
+     * @param generation The generation of the search that wrote the entry
+     * @return The data
+     */
+    private static long pack(double mean, int visits, int generation) {
+        return (long) generation << 56 | (long) visits << 32 | (Float.floatToRawIntBits((float) mean) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Retrieves the number of evaluations of the position of an entry.
+     *
+     * @param entry The entry, as returned by {@link #probe(long)}
+     * @return The number of evaluations, 0 for {@link #MISS}
+     */
+    public static int getVisits(long entry) {
+        return (int) (entry >>> 32) & MAX_VISITS;
+    }
+
+    /**
+     * Retrieves the mean value of the position of an entry.
+     *
+     * @param entry The entry, as returned by {@link #probe(long)}
+     * @return The mean value
+     */
+    public static double getMean(long entry) {
+        return Float.intBitsToFloat((int) entry);
+    }
+
+    /**
+     * Retrieves the generation of the search that last wrote an entry.
+     *
+     * @param entry The entry
+     * @return The generation
+     */
+    private static int getGeneration(long entry) {
+        return (int) (entry >>> 56);
+    }
+}
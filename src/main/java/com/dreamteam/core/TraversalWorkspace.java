@@ -0,0 +1,130 @@
+package com.dreamteam.core;
+
+import java.util.Arrays;
+
+/**
+ * The queue and visited marks of a breadth first search over the territories of a world,
+ * kept between searches so that a search does not allocate.
+ * <p>
+ * Instead of clearing the visited marks before every search, each search gets a new epoch and a
+ * territory counts as visited when its mark holds the current epoch. The marks are only cleared
+ * when the epochs run out. A workspace is not thread safe: every thread gets its own from
+ * {@link WorldTopology#getWorkspace()}.
+ * <pre>
+ * TraversalWorkspace search = topology.getWorkspace();
+ * search.start(from);
+ * while (search.hasNext()) {
+ *     int t = search.next();
+ *     for (each neighbour n of t) if (...) search.visit(n);
+ * }
+ * </pre>
+ */
+public final class TraversalWorkspace {
+
+    /**
+     * The territories in the order they were visited; the territories from head to tail are still to be expanded.
+     */
+    private final int[] queue;
+    /**
+     * The epoch of the last search that visited each territory, by id.
+     */
+    private final int[] marks;
+    /**
+     * The epoch of the current search.
+     */
+    private int epoch;
+    /**
+     * The position in the queue of the next territory to expand.
+     */
+    private int head;
+    /**
+     * The number of territories visited by the current search.
+     */
+    private int tail;
+
+    /**
+     * Constructor for instances of TraversalWorkspace.
+     *
+     * @param size The number of territories of the world
+     */
+    public TraversalWorkspace(int size) {
+        queue = new int[size];
+        marks = new int[size];
+    }
+
+    /**
+     * Starts a new search from a territory, forgetting the territories visited by the previous search.
+     *
+     * @param from The id of the territory the search starts at
+     */
+    public void start(int from) {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            epoch = 0;
+        }
+        epoch++;
+        head = 0;
+        tail = 0;
+        visit(from);
+    }
+
+    /**
+     * Visits a territory, queueing it to be expanded if the current search has not visited it yet.
+     *
+     * @param territory The id of the territory
+     * @return true if the territory was not visited before
+     */
+    public boolean visit(int territory) {
+        if (marks[territory] == epoch) return false;
+        marks[territory] = epoch;
+        queue[tail++] = territory;
+        return true;
+    }
+
+    /**
+     * Determines whether the current search visited a territory.
+     *
+     * @param territory The id of the territory
+     * @return true if the territory was visited
+     */
+    public boolean isVisited(int territory) {
+        return marks[territory] == epoch;
+    }
+
+    /**
+     * Determines whether there are visited territories left to expand.
+     *
+     * @return true if there is a territory to expand
+     */
+    public boolean hasNext() {
+        return head < tail;
+    }
+
+    /**
+     * Takes the next territory to expand.
+     *
+     * @return The id of the territory
+     */
+    public int next() {
+        return queue[head++];
+    }
+
+    /**
+     * Retrieves the number of territories visited by the current search.
+     *
+     * @return The number of visited territories
+     */
+    public int getVisitedCount() {
+        return tail;
+    }
+
+    /**
+     * Retrieves the territories visited by the current search, in the order they were visited:
+     * the first {@link #getVisitedCount()} entries.
+     *
+     * @return The visited territories (not to be modified, overwritten by the next search)
+     */
+    public int[] getVisited() {
+        return queue;
+    }
+}
@@ -5,7 +5,6 @@ import com.github.cliftonlabs.json_simple.*;
 import java.awt.*;
 import java.io.*;
 import java.util.List;
-import java.util.Queue;
 import java.util.*;
 
 /**
@@ -38,10 +37,30 @@ public class WorldMap implements Jsonable {
      */
     private Map<String, Continent> continents;
 
+    /**
+     * The compiled topology of the world, null until a map has been read.
+     */
+    private WorldTopology topology;
+
+    /**
+     * The territories of the world, by their id in the topology.
+     */
+    private Territory[] territoriesById;
+
+    /**
+     * The continents of the world, by their id in the topology.
+     */
+    private Continent[] continentsById;
+
+    /**
+     * The owners and units of the territories in the current game.
+     */
+    private GameState state;
+
     /**
      * Random variable for assigning territories in setup.
      */
-    private static Random rand;
+    private SplittableRandom rand;
 
     /**
      * Default constructor for WorldMap.
@@ -49,10 +68,12 @@ public class WorldMap implements Jsonable {
      */
     public WorldMap() {
         name="";
-        rand=new Random();
+        rand=new SplittableRandom();
         allTerritories = new HashMap<>();
         allCoordinates = new HashMap<>();
         continents = new HashMap<>();
+        territoriesById = new Territory[0];
+        continentsById = new Continent[0];
     }
 
     /**
@@ -63,10 +84,57 @@ public class WorldMap implements Jsonable {
      */
     public WorldMap(String name) {
         this.name = name;
-        rand = new Random();
+        rand = new SplittableRandom();
         allTerritories = new HashMap<>();
         allCoordinates = new HashMap<>();
         continents = new HashMap<>();
+        territoriesById = new Territory[0];
+        continentsById = new Continent[0];
+    }
+
+    /**
+     * Copy constructor for WorldMap.
+     * Creates a new world with the same territories, neighbours, coordinates and continents
+     * as the given world, but without any owners or units, so that a new game can be
+     * played on it without reading the map again.
+     * The immutable topology of the template is shared rather than copied.
+     *
+     * @param template The world to copy
+     */
+    public WorldMap(WorldMap template) {
+        this(template.name);
+        topology = template.topology;
+        if (topology == null) return;
+        state = new GameState(this);
+        territoriesById = new Territory[topology.size()];
+        for (int t = 0; t < territoriesById.length; t++) {
+            Territory territory = new Territory(topology.getName(t));
+            territory.attach(this, t);
+            territoriesById[t] = territory;
+            allTerritories.put(territory.getName(), territory);
+            allCoordinates.put(territory, new Point(topology.getX(t), topology.getY(t)));
+        }
+        //the topology already holds both directions of every edge, in the order of the template
+        int[] offsets = topology.getOffsets();
+        int[] adjacency = topology.getAdjacency();
+        for (int t = 0; t < territoriesById.length; t++) {
+            Set<Territory> neighbours = territoriesById[t].getNeighbours();
+            for (int i = offsets[t]; i < offsets[t + 1]; i++) {
+                neighbours.add(territoriesById[adjacency[i]]);
+            }
+        }
+        int[] continentOffsets = topology.getContinentOffsets();
+        int[] continentMembers = topology.getContinentMembers();
+        continentsById = new Continent[topology.getContinentCount()];
+        for (int c = 0; c < continentsById.length; c++) {
+            Continent continent = new Continent(topology.getContinentName(c), topology.getContinentBonus(c));
+            for (int i = continentOffsets[c]; i < continentOffsets[c + 1]; i++) {
+                continent.addContinentTerritory(territoriesById[continentMembers[i]]);
+            }
+            continent.attach(state, c);
+            continentsById[c] = continent;
+            continents.put(continent.getContinentName(), continent);
+        }
     }
 
     /**
@@ -114,28 +182,65 @@ public class WorldMap implements Jsonable {
 
     /**
      * Determines whether the map currently loaded is a valid map.
-     * Algorithm:
+     * Algorithm: compiles the topology of the map, then checks that every territory
+     * can be reached from the first one with a breadth first search over the topology.
      *
      * @return Whether the current map is valid
      */
     private boolean validMap() {
-        int numVisited = 0;
-        Queue<Territory> territories = new LinkedList<>();
-        Set<Territory> visited = new HashSet<>();
-        Territory start = (new ArrayList<>(allTerritories.values())).get(0);
-        territories.add(start);
-        visited.add(start);
-        while (!territories.isEmpty()) {
-            Territory terr = territories.remove();
-            for (Territory adjTerr : terr.getNeighbours()) {
-                if (!visited.contains(adjTerr)) {
-                    territories.add(adjTerr);
-                    visited.add(adjTerr);
-                }
-            }
-            numVisited += 1;
+        for (Continent continent : continents.values()) {
+            if (continent.getTerritories().contains(null)) return false;
+        }
+        compileTopology();
+        return topology.isConnected();
+    }
+
+    /**
+     * Compiles the territories, neighbours, coordinates and continents that have been read
+     * into the topology of the world and numbers the territories with their ids.
+     */
+    private void compileTopology() {
+        List<Territory> ordered = new ArrayList<>(allTerritories.values());
+        topology = WorldTopology.compile(ordered, allCoordinates, continents.values());
+        state = new GameState(this);
+        territoriesById = ordered.toArray(new Territory[0]);
+        for (int t = 0; t < territoriesById.length; t++) {
+            territoriesById[t].attach(this, t);
+        }
+        //the continents are compiled in the order of the map's values
+        continentsById = continents.values().toArray(new Continent[0]);
+        for (int c = 0; c < continentsById.length; c++) {
+            continentsById[c].attach(state, c);
         }
-        return (numVisited == allTerritories.values().size());
+    }
+
+    /**
+     * Retrieves the compiled topology of the world.
+     *
+     * @return The topology, or null if no map has been read
+     */
+    public WorldTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Retrieves the state of the game on the world, which holds the owners and units
+     * of all territories.
+     *
+     * @return The state, or null if no map has been read
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Retrieves the territory with the given id in the topology.
+     *
+     * @param id The id of the territory
+     * @return The territory with this id
+     */
+    public Territory getTerritory(int id) {
+        return territoriesById[id];
     }
 
     private void readCountries(JsonArray territories) {
@@ -202,8 +307,12 @@ public class WorldMap implements Jsonable {
      */
     public Map<Territory, Point> getNeighbourNodesOwned(Player player, Territory territory) {
         HashMap<Territory, Point> neighbours = new HashMap<>();
-        for (Territory terr : territory.getNeighbours()) {
-            if (player.ownsTerritory(terr)) {
+        int[] offsets = topology.getOffsets();
+        int[] adjacency = topology.getAdjacency();
+        int id = territory.getId();
+        for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+            Territory terr = territoriesById[adjacency[i]];
+            if (terr.getOwner() == player) {
                 neighbours.put(terr, allCoordinates.get(terr));
             }
         }
@@ -220,17 +329,39 @@ public class WorldMap implements Jsonable {
     }
 
 
+    /**
+     * Sets the random variable used to assign the territories in setup,
+     * allowing the setup to be reproduced from a seed.
+     *
+     * @param rand The random variable to use
+     */
+    public void setRandom(SplittableRandom rand) {
+        this.rand = rand;
+    }
+
     /**
      * Sets up the map, by assigning territories and populating randomly territories.
      *
      * @param players the list of players in the game
      * @param mapData the inputstream for the info from the map
-     * @throws RiskGameException TODO: Not totally sure what to put here
+     * @throws RiskGameException Thrown when the map loaded is invalid
      */
     public void assignNewMap(List<Player> players, InputStream mapData) throws RiskGameException {
-
         readMap(mapData);
+        assignNewMap(players);
+    }
 
+    /**
+     * Sets up the map that has already been read, by assigning territories and
+     * populating randomly territories.
+     *
+     * @param players the list of players in the game
+     */
+    public void assignNewMap(List<Player> players) {
+        state.clear();
+        for (Player player : players) {
+            state.seat(player);
+        }
         assignTerritories(players);
         //place remaining troops on each of the territories
         int max = 50;
@@ -269,19 +400,18 @@ public class WorldMap implements Jsonable {
     private void placeTroops(List<Player> players, int max) {
         for (Player player : players) {
             //numOfTroops depends on how many territories each player got, as there can be a 1 difference
-            Set<Territory> playerTerritories = player.getOwnedTerritories();
-            int numOfTroops = playerTerritories.size();
-            while (numOfTroops != max) {
-                int territoryInd = rand.nextInt(playerTerritories.size());
-                int counter = 0;
+            //(on maps with more territories per player than units, every territory just keeps its unit)
+            BitSet playerTerritories = state.getOwned(player.getSeat());
+            int numOwned = state.getOwnedCount(player.getSeat());
+            int numOfTroops = numOwned;
+            while (numOfTroops < max) {
+                int territoryInd = rand.nextInt(numOwned);
                 //iterate to a randomly selected territory and add one unit to it
-                for (Territory terr : playerTerritories) {
-                    if (counter == territoryInd) {
-                        terr.addUnits(1);
-                        break;
-                    }
-                    counter++;
+                int terr = playerTerritories.nextSetBit(0);
+                for (int counter = 0; counter < territoryInd; counter++) {
+                    terr = playerTerritories.nextSetBit(terr + 1);
                 }
+                state.addUnits(terr, 1);
                 numOfTroops++;
             }
         }
@@ -295,16 +425,43 @@ public class WorldMap implements Jsonable {
      */
     public Set<Continent> getRuled(Player player) {
         Set<Continent> ruled = new HashSet<>();
-        for (Continent c : continents.values()) {
-            if (player == c.getRuler()) {
-                ruled.add(c);
-            }
+        int seat = state.getSeat(player);
+        if (seat == GameState.NO_OWNER) return ruled;
+        BitSet mask = state.getRuled(seat);
+        for (int c = mask.nextSetBit(0); c >= 0; c = mask.nextSetBit(c + 1)) {
+            ruled.add(continentsById[c]);
         }
         return ruled;
     }
 
     /**
-     * updates the owner of the continent
+     * Retrieves the sum of the bonus units of the continents ruled by the given player.
+     *
+     * @param player to determine the continent bonus of
+     * @return The bonus units of the ruled continents
+     */
+    public int getRuledBonus(Player player) {
+        int seat = state.getSeat(player);
+        return (seat == GameState.NO_OWNER) ? 0 : state.getContinentBonus(seat);
+    }
+
+    /**
+     * Retrieves the continent the given territory belongs to.
+     *
+     * @param territory The territory
+     * @return The continent, or null if the territory belongs to no continent of this world
+     */
+    public Continent getContinentOf(Territory territory) {
+        if (territory.getWorld() != this) return null;
+        int c = topology.getContinentOf(territory.getId());
+        return (c < 0) ? null : continentsById[c];
+    }
+
+    /**
+     * updates the owner of the continent.
+     * The rulers of the continents of a compiled world are kept up to date by its
+     * {@link GameState} whenever a territory changes hands, so this is only needed
+     * for continents that do not belong to one.
      */
     public void updateContinentRulers() {
         for (Continent c : continents.values()) c.updateRuler();
@@ -380,5 +537,9 @@ public class WorldMap implements Jsonable {
         allTerritories.clear();
         allCoordinates.clear();
         continents.clear();
+        topology = null;
+        state = null;
+        territoriesById = new Territory[0];
+        continentsById = new Continent[0];
     }
 }
\ No newline at end of file
@@ -0,0 +1,422 @@
+package com.dreamteam.core;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compiled, immutable topology of a world. Territories are numbered 0..n-1 and the
+ * graph is stored in compressed sparse row (CSR) form: the neighbours of territory t are
+ * {@code adjacency[offsets[t]]} up to (excluding) {@code adjacency[offsets[t + 1]]}.
+ * Continent membership and coordinates are stored in primitive arrays as well.
+ * <p>
+ * Every entry of the adjacency array is a directed edge, identified by its index in the array.
+ * The edges entering each territory are stored in CSR form as well, so that the territories
+ * affected by a change to a territory are found without a search.
+ * <p>
+ * A topology never changes once it is compiled, so it is shared by every copy of a world
+ * and may be read from many threads at once. The arrays returned by its getters are the
+ * arrays of the topology itself and must not be modified. Searches over the topology use
+ * the {@link TraversalWorkspace} of their thread, so that they do not allocate.
+ */
+public final class WorldTopology {
+
+    /**
+     * The name of each territory, by id.
+     */
+    private final String[] names;
+    /**
+     * The id of each territory, by name.
+     */
+    private final Map<String, Integer> ids;
+    /**
+     * The index in the adjacency array where the neighbours of each territory start,
+     * with one extra entry marking the end of the last territory's neighbours.
+     */
+    private final int[] offsets;
+    /**
+     * The ids of the neighbours of all territories, one territory after another.
+     */
+    private final int[] adjacency;
+    /**
+     * The territory that each edge starts at, by edge id.
+     */
+    private final int[] edgeSources;
+    /**
+     * The index in the incoming edge array where the edges entering each territory start,
+     * with one extra entry marking the end of the last territory's edges.
+     */
+    private final int[] incomingOffsets;
+    /**
+     * The ids of the edges entering all territories, one territory after another.
+     */
+    private final int[] incomingEdges;
+    /**
+     * The search workspace of each thread that searches the topology, created when first needed.
+     */
+    private final ThreadLocal<TraversalWorkspace> workspaces =
+            ThreadLocal.withInitial(() -> new TraversalWorkspace(size()));
+    /**
+     * The x coordinate of each territory, by id.
+     */
+    private final int[] xs;
+    /**
+     * The y coordinate of each territory, by id.
+     */
+    private final int[] ys;
+    /**
+     * The name of each continent, by continent id.
+     */
+    private final String[] continentNames;
+    /**
+     * The bonus units for ruling each continent, by continent id.
+     */
+    private final int[] continentBonus;
+    /**
+     * The index in the continent member array where the territories of each continent start,
+     * with one extra entry marking the end of the last continent's territories.
+     */
+    private final int[] continentOffsets;
+    /**
+     * The ids of the territories of all continents, one continent after another.
+     */
+    private final int[] continentMembers;
+    /**
+     * The id of the continent each territory belongs to, -1 if it belongs to none.
+     * Continents are expected not to overlap.
+     */
+    private final int[] continentOf;
+
+    /**
+     * Constructor for instances of WorldTopology.
+     * Compiles the given lists of neighbours and continent members into flat arrays.
+     *
+     * @param names            The name of each territory, by id
+     * @param neighbours       The ids of the neighbours of each territory, by id
+     * @param xs               The x coordinate of each territory, by id
+     * @param ys               The y coordinate of each territory, by id
+     * @param continentNames   The name of each continent, by continent id
+     * @param continentBonus   The bonus units of each continent, by continent id
+     * @param continentMembers The ids of the territories of each continent, by continent id
+     */
+    public WorldTopology(String[] names, int[][] neighbours, int[] xs, int[] ys,
+                         String[] continentNames, int[] continentBonus, int[][] continentMembers) {
+        int size = names.length;
+        this.names = names.clone();
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        ids = new HashMap<>();
+        for (int t = 0; t < size; t++) {
+            ids.put(names[t], t);
+        }
+        offsets = new int[size + 1];
+        for (int t = 0; t < size; t++) {
+            offsets[t + 1] = offsets[t] + neighbours[t].length;
+        }
+        adjacency = new int[offsets[size]];
+        for (int t = 0; t < size; t++) {
+            System.arraycopy(neighbours[t], 0, adjacency, offsets[t], neighbours[t].length);
+        }
+        edgeSources = new int[adjacency.length];
+        incomingOffsets = new int[size + 1];
+        for (int t = 0; t < size; t++) {
+            for (int i = offsets[t]; i < offsets[t + 1]; i++) {
+                edgeSources[i] = t;
+                incomingOffsets[adjacency[i] + 1]++;
+            }
+        }
+        for (int t = 0; t < size; t++) {
+            incomingOffsets[t + 1] += incomingOffsets[t];
+        }
+        incomingEdges = new int[adjacency.length];
+        int[] filled = new int[size];
+        for (int i = 0; i < adjacency.length; i++) {
+            int target = adjacency[i];
+            incomingEdges[incomingOffsets[target] + filled[target]++] = i;
+        }
+
+        this.continentNames = continentNames.clone();
+        this.continentBonus = continentBonus.clone();
+        continentOffsets = new int[continentNames.length + 1];
+        for (int c = 0; c < continentNames.length; c++) {
+            continentOffsets[c + 1] = continentOffsets[c] + continentMembers[c].length;
+        }
+        this.continentMembers = new int[continentOffsets[continentNames.length]];
+        continentOf = new int[size];
+        Arrays.fill(continentOf, -1);
+        for (int c = 0; c < continentNames.length; c++) {
+            System.arraycopy(continentMembers[c], 0, this.continentMembers, continentOffsets[c], continentMembers[c].length);
+            for (int t : continentMembers[c]) {
+                continentOf[t] = c;
+            }
+        }
+    }
+
+    /**
+     * Compiles the topology of the given territories, numbering them in the order given.
+     * The neighbours of each territory keep the order of {@link Territory#getNeighbours()}.
+     *
+     * @param territories The territories of the world, in the order of their ids
+     * @param coordinates The coordinates of the territories
+     * @param continents  The continents of the world
+     * @return The compiled topology
+     */
+    public static WorldTopology compile(List<Territory> territories, Map<Territory, Point> coordinates,
+                                        Collection<Continent> continents) {
+        int size = territories.size();
+        Map<Territory, Integer> index = new HashMap<>();
+        for (int t = 0; t < size; t++) {
+            index.put(territories.get(t), t);
+        }
+        String[] names = new String[size];
+        int[][] neighbours = new int[size][];
+        int[] xs = new int[size];
+        int[] ys = new int[size];
+        for (int t = 0; t < size; t++) {
+            Territory territory = territories.get(t);
+            names[t] = territory.getName();
+            neighbours[t] = new int[territory.getNeighbours().size()];
+            int i = 0;
+            for (Territory neighbour : territory.getNeighbours()) {
+                neighbours[t][i++] = index.get(neighbour);
+            }
+            Point point = coordinates.get(territory);
+            if (point != null) {
+                xs[t] = point.x;
+                ys[t] = point.y;
+            }
+        }
+
+        String[] continentNames = new String[continents.size()];
+        int[] continentBonus = new int[continents.size()];
+        int[][] continentMembers = new int[continents.size()][];
+        int c = 0;
+        for (Continent continent : continents) {
+            continentNames[c] = continent.getContinentName();
+            continentBonus[c] = continent.getBonusRulerAmount();
+            continentMembers[c] = new int[continent.getTerritories().size()];
+            int i = 0;
+            for (Territory territory : continent.getTerritories()) {
+                continentMembers[c][i++] = index.get(territory);
+            }
+            c++;
+        }
+        return new WorldTopology(names, neighbours, xs, ys, continentNames, continentBonus, continentMembers);
+    }
+
+    /**
+     * Retrieves the number of territories in the world.
+     *
+     * @return The number of territories
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Retrieves the name of a territory.
+     *
+     * @param territory The id of the territory
+     * @return The name of the territory
+     */
+    public String getName(int territory) {
+        return names[territory];
+    }
+
+    /**
+     * Retrieves the id of the territory with the given name.
+     *
+     * @param name The name of the territory
+     * @return The id of the territory, -1 if there is no territory with this name
+     */
+    public int getId(String name) {
+        Integer id = ids.get(name);
+        return (id == null) ? -1 : id;
+    }
+
+    /**
+     * Retrieves the number of neighbours of a territory.
+     *
+     * @param territory The id of the territory
+     * @return The number of neighbours
+     */
+    public int degree(int territory) {
+        return offsets[territory + 1] - offsets[territory];
+    }
+
+    /**
+     * Retrieves the CSR offsets of the graph, the neighbours of territory t are found in
+     * the adjacency array from {@code offsets[t]} up to {@code offsets[t + 1]}.
+     *
+     * @return The offsets array (not to be modified)
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Retrieves the ids of the neighbours of all territories, one territory after another.
+     *
+     * @return The adjacency array (not to be modified)
+     */
+    public int[] getAdjacency() {
+        return adjacency;
+    }
+
+    /**
+     * Retrieves the number of edges (one for each side a border is listed from).
+     *
+     * @return The number of edges
+     */
+    public int edgeCount() {
+        return adjacency.length;
+    }
+
+    /**
+     * Retrieves the territory that each edge starts at; an edge ends at {@code adjacency[edge]}.
+     *
+     * @return The edge sources array (not to be modified)
+     */
+    public int[] getEdgeSources() {
+        return edgeSources;
+    }
+
+    /**
+     * Retrieves the offsets of the incoming edges, the edges entering territory t are found in the
+     * incoming edge array from {@code incomingOffsets[t]} up to {@code incomingOffsets[t + 1]}.
+     *
+     * @return The incoming offsets array (not to be modified)
+     */
+    public int[] getIncomingOffsets() {
+        return incomingOffsets;
+    }
+
+    /**
+     * Retrieves the ids of the edges entering all territories, one territory after another,
+     * in increasing order of edge id.
+     *
+     * @return The incoming edge array (not to be modified)
+     */
+    public int[] getIncomingEdges() {
+        return incomingEdges;
+    }
+
+    /**
+     * Retrieves the x coordinate of a territory.
+     *
+     * @param territory The id of the territory
+     * @return The x coordinate
+     */
+    public int getX(int territory) {
+        return xs[territory];
+    }
+
+    /**
+     * Retrieves the y coordinate of a territory.
+     *
+     * @param territory The id of the territory
+     * @return The y coordinate
+     */
+    public int getY(int territory) {
+        return ys[territory];
+    }
+
+    /**
+     * Retrieves the number of continents in the world.
+     *
+     * @return The number of continents
+     */
+    public int getContinentCount() {
+        return continentNames.length;
+    }
+
+    /**
+     * Retrieves the name of a continent.
+     *
+     * @param continent The id of the continent
+     * @return The name of the continent
+     */
+    public String getContinentName(int continent) {
+        return continentNames[continent];
+    }
+
+    /**
+     * Retrieves the bonus units for ruling a continent.
+     *
+     * @param continent The id of the continent
+     * @return The bonus units of the continent
+     */
+    public int getContinentBonus(int continent) {
+        return continentBonus[continent];
+    }
+
+    /**
+     * Retrieves the number of territories in a continent.
+     *
+     * @param continent The id of the continent
+     * @return The number of territories
+     */
+    public int getContinentSize(int continent) {
+        return continentOffsets[continent + 1] - continentOffsets[continent];
+    }
+
+    /**
+     * Retrieves the offsets of the continent members, the territories of continent c are found in
+     * the continent member array from {@code continentOffsets[c]} up to {@code continentOffsets[c + 1]}.
+     *
+     * @return The continent offsets array (not to be modified)
+     */
+    public int[] getContinentOffsets() {
+        return continentOffsets;
+    }
+
+    /**
+     * Retrieves the ids of the territories of all continents, one continent after another.
+     *
+     * @return The continent member array (not to be modified)
+     */
+    public int[] getContinentMembers() {
+        return continentMembers;
+    }
+
+    /**
+     * Retrieves the continent that a territory belongs to.
+     *
+     * @param territory The id of the territory
+     * @return The id of the continent, -1 if the territory belongs to no continent
+     */
+    public int getContinentOf(int territory) {
+        return continentOf[territory];
+    }
+
+    /**
+     * Determines whether every territory can be reached from every other territory.
+     *
+     * @return true if the world is connected
+     */
+    public boolean isConnected() {
+        int size = names.length;
+        if (size == 0) return false;
+        TraversalWorkspace search = getWorkspace();
+        search.start(0);
+        while (search.hasNext()) {
+            int t = search.next();
+            for (int i = offsets[t]; i < offsets[t + 1]; i++) {
+                search.visit(adjacency[i]);
+            }
+        }
+        return search.getVisitedCount() == size;
+    }
+
+    /**
+     * Retrieves the search workspace of the calling thread, sized for this topology.
+     *
+     * @return The workspace, reused by every search of the thread
+     */
+    public TraversalWorkspace getWorkspace() {
+        return workspaces.get();
+    }
+}
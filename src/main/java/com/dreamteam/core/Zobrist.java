@@ -0,0 +1,124 @@
+package com.dreamteam.core;
+
+/**
+ * The Zobrist keys that identify positions of a game: the hash of a position is the exclusive or of
+ * the key of every territory (its id, its owner and its units) with the keys of the phase and of the
+ * seat whose turn it is. Changing one territory changes the hash by two exclusive ors, so a
+ * {@link GameState} keeps its hash up to date as it changes (see {@link GameState#getHash()}).
+ * <p>
+ * Units are bucketed: up to 7 units are told apart exactly, and larger armies by half powers of two
+ * (8-11, 12-15, 16-23, 24-31, ...), since a search would make the same moves for 20 or for 21 units.
+ * Positions that differ only within the buckets share their hash.
+ * <p>
+ * Rather than tables of random numbers, the keys are derived from what they stand for by the
+ * bijective finalizer of SplitMix64, so they are the same for every world, number of seats and run,
+ * and no two keys are alike.
+ */
+public final class Zobrist {
+
+    /**
+     * The number of unit counts that are told apart exactly.
+     */
+    private static final int EXACT_UNITS = 8;
+    /**
+     * The tag of the keys of territories.
+     */
+    private static final long TERRITORY_TAG = 1L << 56;
+    /**
+     * The tag of the keys of phases.
+     */
+    private static final long PHASE_TAG = 2L << 56;
+    /**
+     * The tag of the keys of the seat to play.
+     */
+    private static final long TURN_TAG = 3L << 56;
+    /**
+     * The tag of the keys of attacks about to be made.
+     */
+    private static final long ATTACK_TAG = 4L << 56;
+
+    /**
+     * The keys are only computed.
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * Retrieves the bucket of a number of units.
+     *
+     * @param units The units, 0 or more
+     * @return The bucket, from 0 to 63
+     */
+    public static int bucket(int units) {
+        if (units < EXACT_UNITS) return units;
+        int log = 31 - Integer.numberOfLeadingZeros(units);
+        return EXACT_UNITS + 2 * (log - 3) + ((units >>> (log - 1)) & 1);
+    }
+
+    /**
+     * Retrieves the key of a territory with an owner and units.
+     *
+     * @param territory The id of the territory
+     * @param owner     The seat of the owner, or {@link GameState#NO_OWNER}
+     * @param units     The units on the territory
+     * @return The key
+     */
+    public static long territory(int territory, int owner, int units) {
+        return territoryBucket(territory, owner, bucket(units));
+    }
+
+    /**
+     * Retrieves the key of a territory with an owner and a bucket of units.
+     *
+     * @param territory The id of the territory
+     * @param owner     The seat of the owner, or {@link GameState#NO_OWNER}
+     * @param bucket    The bucket of the units on the territory (see {@link #bucket(int)})
+     * @return The key
+     */
+    static long territoryBucket(int territory, int owner, int bucket) {
+        return mix(TERRITORY_TAG | (long) territory << 24 | (long) ((owner + 1) & 0xFFFF) << 8 | bucket);
+    }
+
+    /**
+     * Retrieves the key of a phase.
+     *
+     * @param phase The phase
+     * @return The key
+     */
+    public static long phase(GamePhase phase) {
+        return mix(PHASE_TAG | phase.ordinal());
+    }
+
+    /**
+     * Retrieves the key of the seat whose turn it is.
+     *
+     * @param seat The seat
+     * @return The key
+     */
+    public static long turn(int seat) {
+        return mix(TURN_TAG | (seat + 1));
+    }
+
+    /**
+     * Retrieves the key of an attack about to be made along an edge of the topology, which
+     * identifies the (random) outcome of the attack from a position as a position of its own.
+     *
+     * @param edge The index of the edge in the adjacency of the topology
+     * @return The key
+     */
+    public static long attack(int edge) {
+        return mix(ATTACK_TAG | edge);
+    }
+
+    /**
+     * Scrambles a value with the finalizer of SplitMix64, which maps distinct values to distinct keys.
+     *
+     * @param z The value
+     * @return The key
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
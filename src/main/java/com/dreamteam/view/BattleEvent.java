@@ -0,0 +1,181 @@
+package com.dreamteam.view;
+
+import com.dreamteam.core.Player;
+import com.dreamteam.core.Territory;
+
+/**
+ * An event about a battle between two territories: {@link RiskEventType#ATTACK_COMMENCED},
+ * {@link RiskEventType#ATTACK_COMPLETED}, {@link RiskEventType#TERRITORY_DEFENDED},
+ * {@link RiskEventType#TERRITORY_DOMINATED} or {@link RiskEventType#BLITZ_COMPLETED}.
+ * The losses are only known once the battle is over.
+ */
+public final class BattleEvent extends RiskEvent {
+
+    /**
+     * The player that attacked.
+     */
+    private Player attacker;
+    /**
+     * The player that defended.
+     */
+    private Player defender;
+    /**
+     * The territory that supplied the attacking units.
+     */
+    private Territory attacking;
+    /**
+     * The territory that was attacked.
+     */
+    private Territory defending;
+    /**
+     * The units lost by the attacker.
+     */
+    private int attackLost;
+    /**
+     * The units lost by the defender.
+     */
+    private int defendLost;
+    /**
+     * The number of rounds fought.
+     */
+    private int rounds;
+    /**
+     * Whether the attacker conquered the attacked territory.
+     */
+    private boolean conquered;
+
+    /**
+     * Constructor for instances of BattleEvent.
+     *
+     * @param source     The game the battle was fought in
+     * @param type       The type of event
+     * @param attacker   The player that attacked
+     * @param defender   The player that defended
+     * @param attacking  The territory that supplied the attacking units
+     * @param defending  The territory that was attacked
+     * @param attackLost The units lost by the attacker
+     * @param defendLost The units lost by the defender
+     * @param rounds     The number of rounds fought
+     * @param conquered  Whether the attacker conquered the attacked territory
+     */
+    public BattleEvent(Object source, RiskEventType type, Player attacker, Player defender, Territory attacking,
+                       Territory defending, int attackLost, int defendLost, int rounds, boolean conquered) {
+        super(source, type);
+        set(attacker, defender, attacking, defending, attackLost, defendLost, rounds, conquered);
+    }
+
+    /**
+     * Sets the data of this event.
+     *
+     * @param attacker   The player that attacked
+     * @param defender   The player that defended
+     * @param attacking  The territory that supplied the attacking units
+     * @param defending  The territory that was attacked
+     * @param attackLost The units lost by the attacker
+     * @param defendLost The units lost by the defender
+     * @param rounds     The number of rounds fought
+     * @param conquered  Whether the attacker conquered the attacked territory
+     */
+    void set(Player attacker, Player defender, Territory attacking, Territory defending,
+             int attackLost, int defendLost, int rounds, boolean conquered) {
+        this.attacker = attacker;
+        this.defender = defender;
+        this.attacking = attacking;
+        this.defending = defending;
+        this.attackLost = attackLost;
+        this.defendLost = defendLost;
+        this.rounds = rounds;
+        this.conquered = conquered;
+    }
+
+    /**
+     * Retrieves the player that attacked.
+     *
+     * @return The attacker
+     */
+    public Player getAttacker() {
+        return attacker;
+    }
+
+    /**
+     * Retrieves the player that defended.
+     *
+     * @return The defender
+     */
+    public Player getDefender() {
+        return defender;
+    }
+
+    /**
+     * Retrieves the territory that supplied the attacking units.
+     *
+     * @return The attacking territory
+     */
+    public Territory getAttacking() {
+        return attacking;
+    }
+
+    /**
+     * Retrieves the territory that was attacked.
+     *
+     * @return The defending territory
+     */
+    public Territory getDefending() {
+        return defending;
+    }
+
+    /**
+     * Retrieves the units lost by the attacker.
+     *
+     * @return The units lost
+     */
+    public int getAttackLost() {
+        return attackLost;
+    }
+
+    /**
+     * Retrieves the units lost by the defender.
+     *
+     * @return The units lost
+     */
+    public int getDefendLost() {
+        return defendLost;
+    }
+
+    /**
+     * Retrieves the number of rounds fought.
+     *
+     * @return The number of rounds
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Determines whether the attacker conquered the attacked territory.
+     *
+     * @return true if the territory was conquered
+     */
+    public boolean isConquered() {
+        return conquered;
+    }
+
+    /**
+     * Boxes the data of this event in the order the untyped event of its type held it.
+     *
+     * @return Object[]
+     */
+    @Override
+    public Object[] getEventInfo() {
+        switch (getType()) {
+            case ATTACK_COMPLETED:
+            case TERRITORY_DEFENDED:
+                return new Object[]{attacker, defender, new int[]{attackLost, defendLost}};
+            case BLITZ_COMPLETED:
+                return new Object[]{attacker, defender, attacking, defending, attackLost, defendLost, rounds,
+                        conquered};
+            default:
+                return new Object[]{attacker, defender};
+        }
+    }
+}
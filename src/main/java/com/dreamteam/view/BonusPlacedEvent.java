@@ -0,0 +1,115 @@
+package com.dreamteam.view;
+
+import com.dreamteam.core.GameSession;
+import com.dreamteam.core.Player;
+import com.dreamteam.core.Territory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link RiskEventType#BONUS_PLACED} event: the bonus units a player placed at the start of their turn,
+ * kept as the units placed on each territory by id.
+ */
+public final class BonusPlacedEvent extends RiskEvent {
+
+    /**
+     * The player that placed the units.
+     */
+    private Player player;
+    /**
+     * The units placed on each territory, by territory id.
+     */
+    private int[] plan;
+    /**
+     * The number of territories of the plan, which may be shorter than the array.
+     */
+    private int size;
+    /**
+     * The number of units placed.
+     */
+    private int placed;
+
+    /**
+     * Constructor for instances of BonusPlacedEvent.
+     *
+     * @param source The game the units were placed in
+     * @param player The player that placed the units
+     * @param plan   The units placed on each territory, by territory id, copied
+     * @param placed The number of units placed
+     */
+    public BonusPlacedEvent(Object source, Player player, int[] plan, int placed) {
+        super(source, RiskEventType.BONUS_PLACED);
+        set(player, plan, placed);
+    }
+
+    /**
+     * Sets the data of this event, reusing the array of the plan if it is large enough.
+     *
+     * @param player The player that placed the units
+     * @param plan   The units placed on each territory, by territory id, copied
+     * @param placed The number of units placed
+     */
+    void set(Player player, int[] plan, int placed) {
+        this.player = player;
+        if (this.plan == null || this.plan.length < plan.length) this.plan = new int[plan.length];
+        System.arraycopy(plan, 0, this.plan, 0, plan.length);
+        this.size = plan.length;
+        this.placed = placed;
+    }
+
+    /**
+     * Retrieves the player that placed the units.
+     *
+     * @return The player
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Retrieves the units placed on a territory.
+     *
+     * @param territory The id of the territory
+     * @return The units placed on it
+     */
+    public int getUnitsPlaced(int territory) {
+        return (territory < size) ? plan[territory] : 0;
+    }
+
+    /**
+     * Retrieves the number of territories units were placed on.
+     *
+     * @return The number of territories
+     */
+    public int getTerritoryCount() {
+        int count = 0;
+        for (int t = 0; t < size; t++) {
+            if (plan[t] > 0) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the number of units placed.
+     *
+     * @return The number of units
+     */
+    public int getPlaced() {
+        return placed;
+    }
+
+    /**
+     * Boxes the data of this event as the untyped event held it, with the units placed on each territory.
+     *
+     * @return Object[]
+     */
+    @Override
+    public Object[] getEventInfo() {
+        Map<Territory, Integer> placement = new LinkedHashMap<>();
+        for (int t = 0; t < size; t++) {
+            if (plan[t] > 0) placement.put(((GameSession) getSource()).getWorld().getTerritory(t), plan[t]);
+        }
+        return new Object[]{player, placement, placed};
+    }
+}
@@ -0,0 +1,88 @@
+package com.dreamteam.view;
+
+import com.dreamteam.core.BattleKernel;
+
+/**
+ * A {@link RiskEventType#DIE_ROLLED} event: the dice rolled by one side in a round of a battle.
+ * The dice are kept in the packed result of the round (see {@link BattleKernel}), not in an array.
+ */
+public final class DiceRolledEvent extends RiskEvent {
+
+    /**
+     * The packed result of the round.
+     */
+    private int result;
+    /**
+     * The number of dice rolled.
+     */
+    private int dice;
+    /**
+     * Whether the dice are those of the attacker.
+     */
+    private boolean attack;
+
+    /**
+     * Constructor for instances of DiceRolledEvent.
+     *
+     * @param source The game the dice were rolled in
+     * @param result The packed result of the round
+     * @param dice   The number of dice rolled
+     * @param attack Whether the dice are those of the attacker
+     */
+    public DiceRolledEvent(Object source, int result, int dice, boolean attack) {
+        super(source, RiskEventType.DIE_ROLLED);
+        set(result, dice, attack);
+    }
+
+    /**
+     * Sets the data of this event.
+     *
+     * @param result The packed result of the round
+     * @param dice   The number of dice rolled
+     * @param attack Whether the dice are those of the attacker
+     */
+    void set(int result, int dice, boolean attack) {
+        this.result = result;
+        this.dice = dice;
+        this.attack = attack;
+    }
+
+    /**
+     * Retrieves the number of dice rolled.
+     *
+     * @return The number of dice
+     */
+    public int getDieCount() {
+        return dice;
+    }
+
+    /**
+     * Retrieves a die rolled, the dice sorted from the highest.
+     *
+     * @param i The index of the die
+     * @return The value of the die
+     */
+    public int getDie(int i) {
+        return attack ? BattleKernel.getAttackDie(result, i) : BattleKernel.getDefendDie(result, i);
+    }
+
+    /**
+     * Determines whether the dice are those of the attacker.
+     *
+     * @return true for the dice of the attacker, false for those of the defender
+     */
+    public boolean isAttack() {
+        return attack;
+    }
+
+    /**
+     * Boxes the dice rolled as the untyped event held them.
+     *
+     * @return Object[]
+     */
+    @Override
+    public Object[] getEventInfo() {
+        return new Object[]{attack ? BattleKernel.getAttackRolls(result, dice)
+                : BattleKernel.getDefendRolls(result, dice)};
+    }
+}
@@ -5,6 +5,11 @@ import java.util.EventObject;
 /**
  * This class is used when handling the update of the model, specifying the type
  * of event that occurred and necessary information to process the event in each com.dreamteam.view.
+ * <p>
+ * The events the model sends most often are subclasses with typed, primitive fields ({@link BattleEvent},
+ * {@link DiceRolledEvent}, {@link UnitsMovedEvent}, {@link TurnEvent} and {@link BonusPlacedEvent}),
+ * which box their fields into {@link #getEventInfo()} only when it is asked for. Those events may be
+ * reused after they are delivered (see {@link RiskEventPool}).
  *
  * @author Kyler Verge
  * @author Ethan Chase
@@ -21,6 +26,10 @@ public class RiskEvent extends EventObject {
      * The data that is sent along with the event.
      */
     private Object[] eventInfo;
+    /**
+     * Whether this event came from a pool and is being delivered, so that the pool must not hand it out again.
+     */
+    boolean inUse;
 
     /**
      * Constructs a prototypical Event.
@@ -35,6 +44,27 @@ public class RiskEvent extends EventObject {
         this.type = type;
     }
 
+    /**
+     * Constructs an event whose data is held in the fields of a subclass.
+     *
+     * @param source the object on which the Event initially occurred
+     * @param type   The type of event
+     */
+    protected RiskEvent(Object source, RiskEventType type) {
+        this(source, type, (Object[]) null);
+    }
+
+    /**
+     * Reuses this event for another occurrence.
+     *
+     * @param source the object on which the Event occurred
+     * @param type   The type of event
+     */
+    void reset(Object source, RiskEventType type) {
+        this.source = source;
+        this.type = type;
+    }
+
     /**
      * getter for the type of event passed
      *
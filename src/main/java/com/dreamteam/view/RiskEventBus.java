@@ -0,0 +1,506 @@
+package com.dreamteam.view;
+
+import com.dreamteam.core.MapUpdate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers the events of a game to its handlers, each on the executor it subscribed with, so that the
+ * thread that changes the game never waits on the handlers (e.g. on a repaint of the map).
+ * <p>
+ * A handler subscribes to the types of events it handles (see {@link RiskGameHandler#getHandledTypes()}),
+ * and an event only reaches the handlers of its type: the handlers are looked up in a table indexed by
+ * the type of the event, which is rebuilt whenever a handler subscribes or unsubscribes.
+ * <p>
+ * Every handler that subscribed with an executor has its own bounded queue of events. The events are
+ * delivered in order, one batch at a time: publishing an event to an empty queue hands a delivery task
+ * to the executor, which delivers every event queued by the time it runs. For Swing handlers the executor
+ * is {@code SwingUtilities::invokeLater}, so a batch is what the game published since the last frame.
+ * <p>
+ * {@link RiskEventType#UPDATE_MAP} and {@link RiskEventType#PHASE_CHANGE} events describe the whole state of
+ * the map and the phase, so a newer one supersedes the one of the same type still waiting in a queue: the
+ * older event is dropped and the newer one is delivered in its own place. A map update only holds the
+ * territories that changed (see {@link MapUpdate}), so the one delivered instead holds the changes of both. A full queue applies the
+ * {@link Backpressure} policy of the bus.
+ * <p>
+ * Handlers that subscribed without an executor are called on the publishing thread, as the game always did.
+ * Events that need an answer from a handler before the game goes on are sent with {@link #publishNow(RiskEvent)}.
+ */
+public class RiskEventBus {
+
+    /**
+     * What publishing an event to a full queue does.
+     */
+    public enum Backpressure {
+        /**
+         * The publisher waits until the handler makes room. Not to be used when the publisher runs on the
+         * executor of the handler, which could then never deliver.
+         */
+        BLOCK,
+        /**
+         * The publisher delivers the queued events to the handler itself, on its own thread.
+         */
+        CALLER_RUNS,
+        /**
+         * The oldest queued event is dropped, unless it is a change of the map, which is merged with the
+         * next changes instead.
+         */
+        DROP_OLDEST
+    }
+
+    /**
+     * The default number of events a queue holds.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * The types of events that supersede the queued event of the same type.
+     */
+    private static final EnumSet<RiskEventType> COALESCED = EnumSet.of(RiskEventType.UPDATE_MAP,
+            RiskEventType.PHASE_CHANGE);
+
+    /**
+     * The number of events a queue holds.
+     */
+    private final int capacity;
+    /**
+     * What publishing an event to a full queue does.
+     */
+    private final Backpressure backpressure;
+    /**
+     * The subscriptions of the handlers, in the order they subscribed.
+     */
+    private final List<Subscription> subscriptions;
+    /**
+     * The subscriptions to each type of event, in the order they subscribed.
+     */
+    private volatile EnumMap<RiskEventType, Subscription[]> dispatch;
+    /**
+     * Whether every handler is called on the publishing thread, so that no event outlives its publishing.
+     */
+    private volatile boolean synchronous;
+    /**
+     * The number of events superseded by a newer event of the same type.
+     */
+    private final AtomicLong coalesced;
+    /**
+     * The number of events dropped from full queues.
+     */
+    private final AtomicLong dropped;
+
+    /**
+     * Constructor for instances of RiskEventBus with the default capacity, whose publishers deliver
+     * the events themselves when a queue is full.
+     */
+    public RiskEventBus() {
+        this(DEFAULT_CAPACITY, Backpressure.CALLER_RUNS);
+    }
+
+    /**
+     * Constructor for instances of RiskEventBus.
+     *
+     * @param capacity     The number of events the queue of each handler holds
+     * @param backpressure What publishing an event to a full queue does
+     */
+    public RiskEventBus(int capacity, Backpressure backpressure) {
+        if (capacity < 1) throw new IllegalArgumentException("An event queue holds at least one event.");
+        this.capacity = capacity;
+        this.backpressure = backpressure;
+        subscriptions = new CopyOnWriteArrayList<>();
+        coalesced = new AtomicLong();
+        dropped = new AtomicLong();
+        rebuildDispatch();
+    }
+
+    /**
+     * The subscription of a handler: its executor and the events waiting to be delivered to it.
+     */
+    private final class Subscription implements Runnable {
+        /**
+         * The handler.
+         */
+        private final RiskGameHandler handler;
+        /**
+         * The executor the events are delivered on, null to deliver them on the publishing thread.
+         */
+        private final Executor executor;
+        /**
+         * The types of events the handler handles.
+         */
+        private final EnumSet<RiskEventType> types;
+        /**
+         * The events waiting to be delivered, oldest first.
+         */
+        private final ArrayDeque<RiskEvent> queue;
+        /**
+         * The queued event of each coalesced type.
+         */
+        private final EnumMap<RiskEventType, RiskEvent> latest;
+        /**
+         * Held while events are delivered, so that they are delivered one at a time and in order.
+         */
+        private final ReentrantLock delivering;
+        /**
+         * Whether a delivery task was handed to the executor and has not emptied the queue yet.
+         */
+        private boolean scheduled;
+        /**
+         * Whether the handler is still subscribed.
+         */
+        private volatile boolean active;
+
+        /**
+         * Constructor for instances of Subscription.
+         *
+         * @param handler  The handler
+         * @param executor The executor the events are delivered on, null to deliver them on the publishing thread
+         * @param types    The types of events the handler handles
+         */
+        private Subscription(RiskGameHandler handler, Executor executor, Set<RiskEventType> types) {
+            this.handler = handler;
+            this.executor = executor;
+            this.types = EnumSet.noneOf(RiskEventType.class);
+            this.types.addAll(types);
+            queue = new ArrayDeque<>();
+            latest = new EnumMap<>(RiskEventType.class);
+            delivering = new ReentrantLock();
+            active = true;
+        }
+
+        /**
+         * Queues an event, or delivers it at once if the handler has no executor.
+         *
+         * @param e The event
+         */
+        private void post(RiskEvent e) {
+            if (executor == null) {
+                deliver(e);
+                return;
+            }
+            boolean runHere = false;
+            boolean submit = false;
+            synchronized (this) {
+                RiskEventType type = e.getType();
+                if (COALESCED.contains(type)) {
+                    RiskEvent superseded = latest.get(type);
+                    //the superseded event is usually among the last queued, so the queue is searched from its end
+                    if (superseded != null && queue.removeLastOccurrence(superseded)) {
+                        e = coalesce(superseded, e);
+                        coalesced.incrementAndGet();
+                    }
+                    latest.put(type, e);
+                }
+                if (queue.size() >= capacity) {
+                    switch (backpressure) {
+                        case BLOCK:
+                            awaitRoom();
+                            break;
+                        case CALLER_RUNS:
+                            runHere = true;
+                            break;
+                        case DROP_OLDEST:
+                            dropOldest();
+                            break;
+                    }
+                }
+                queue.addLast(e);
+                if (!scheduled && !runHere) {
+                    scheduled = true;
+                    submit = true;
+                }
+            }
+            if (runHere) {
+                run();
+            } else if (submit) {
+                executor.execute(this);
+            }
+        }
+
+        /**
+         * Combines a queued event with the newer event of the same type that supersedes it. The changes of the
+         * map sent by an older {@link RiskEventType#UPDATE_MAP} event are kept, since each only holds what changed.
+         *
+         * @param older The queued event
+         * @param newer The newer event
+         * @return The event delivered in place of both
+         */
+        private RiskEvent coalesce(RiskEvent older, RiskEvent newer) {
+            Object[] olderInfo = older.getEventInfo();
+            Object[] newerInfo = newer.getEventInfo();
+            if (olderInfo.length > 0 && newerInfo.length > 0
+                    && olderInfo[0] instanceof MapUpdate && newerInfo[0] instanceof MapUpdate) {
+                MapUpdate merged = ((MapUpdate) newerInfo[0]).merge((MapUpdate) olderInfo[0]);
+                return new RiskEvent(newer.getSource(), newer.getType(), merged);
+            }
+            return newer;
+        }
+
+        /**
+         * Drops the oldest queued event that is not a change of the map. A {@link RiskEventType#UPDATE_MAP} event
+         * only holds what changed and is the only one of its type in the queue, so it is never dropped: when it is
+         * the only event queued, the queue holds one more event than its capacity instead.
+         * Called with the lock of the subscription held.
+         */
+        private void dropOldest() {
+            for (Iterator<RiskEvent> it = queue.iterator(); it.hasNext(); ) {
+                RiskEvent e = it.next();
+                if (e.getType() != RiskEventType.UPDATE_MAP) {
+                    it.remove();
+                    forget(e);
+                    dropped.incrementAndGet();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Waits until the queue has room, or the waiting thread is interrupted.
+         * Called with the lock of the subscription held.
+         */
+        private void awaitRoom() {
+            while (queue.size() >= capacity) {
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Forgets an event that leaves the queue as the queued event of its type.
+         * Called with the lock of the subscription held.
+         *
+         * @param e The event
+         */
+        private void forget(RiskEvent e) {
+            if (latest.get(e.getType()) == e) latest.remove(e.getType());
+        }
+
+        /**
+         * Takes the next event to deliver off the queue.
+         *
+         * @return The event, null if the queue is empty
+         */
+        private synchronized RiskEvent next() {
+            RiskEvent e = queue.pollFirst();
+            if (e == null) {
+                scheduled = false;
+                return null;
+            }
+            forget(e);
+            notifyAll();
+            return e;
+        }
+
+        /**
+         * Delivers every queued event, on the executor or on a publisher that delivers them itself.
+         */
+        @Override
+        public void run() {
+            delivering.lock();
+            try {
+                RiskEvent e;
+                while ((e = next()) != null) {
+                    deliver(e);
+                }
+            } finally {
+                delivering.unlock();
+            }
+        }
+
+        /**
+         * Delivers the queued events, then an event, on the calling thread.
+         *
+         * @param e The event
+         */
+        private void send(RiskEvent e) {
+            delivering.lock();
+            try {
+                run();
+                deliver(e);
+            } finally {
+                delivering.unlock();
+            }
+        }
+
+        /**
+         * Delivers an event to the handler if it is still subscribed.
+         *
+         * @param e The event
+         */
+        private void deliver(RiskEvent e) {
+            if (active) handler.handleRiskUpdate(e);
+        }
+    }
+
+    /**
+     * Subscribes a handler that is called on the thread that publishes the events.
+     *
+     * @param handler The handler
+     */
+    public void subscribe(RiskGameHandler handler) {
+        subscribe(handler, null);
+    }
+
+    /**
+     * Subscribes a handler whose events are delivered on an executor, to the types of events it handles.
+     *
+     * @param handler  The handler
+     * @param executor The executor, e.g. {@code SwingUtilities::invokeLater}, null to call the handler on the
+     *                 thread that publishes the events
+     */
+    public void subscribe(RiskGameHandler handler, Executor executor) {
+        subscribe(handler, executor, handler.getHandledTypes());
+    }
+
+    /**
+     * Subscribes a handler whose events are delivered on an executor, to some types of events.
+     *
+     * @param handler  The handler
+     * @param executor The executor, null to call the handler on the thread that publishes the events
+     * @param types    The types of events the handler is delivered
+     */
+    public void subscribe(RiskGameHandler handler, Executor executor, Set<RiskEventType> types) {
+        subscriptions.add(new Subscription(handler, executor, types));
+        rebuildDispatch();
+    }
+
+    /**
+     * Unsubscribes a handler, which is not delivered the events still queued for it.
+     *
+     * @param handler The handler
+     */
+    public void unsubscribe(RiskGameHandler handler) {
+        for (Subscription s : subscriptions) {
+            if (s.handler == handler) {
+                s.active = false;
+                subscriptions.remove(s);
+                rebuildDispatch();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Unsubscribes every handler.
+     */
+    public void unsubscribeAll() {
+        for (Subscription s : subscriptions) {
+            s.active = false;
+        }
+        subscriptions.clear();
+        rebuildDispatch();
+    }
+
+    /**
+     * Rebuilds the table of the subscriptions to each type of event from the subscriptions.
+     */
+    private synchronized void rebuildDispatch() {
+        EnumMap<RiskEventType, Subscription[]> table = new EnumMap<>(RiskEventType.class);
+        boolean direct = true;
+        for (Subscription s : subscriptions) {
+            if (s.executor != null) direct = false;
+        }
+        List<Subscription> targets = new ArrayList<>();
+        for (RiskEventType type : RiskEventType.values()) {
+            targets.clear();
+            for (Subscription s : subscriptions) {
+                if (s.types.contains(type)) targets.add(s);
+            }
+            table.put(type, targets.toArray(new Subscription[0]));
+        }
+        dispatch = table;
+        synchronous = direct;
+    }
+
+    /**
+     * Determines whether any handler is subscribed, so that events nobody listens to need not be created.
+     *
+     * @return true if a handler is subscribed
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Determines whether any handler is subscribed to a type of event, so that events of that type need not
+     * be created if none is.
+     *
+     * @param type The type of event
+     * @return true if a handler is subscribed to the type
+     */
+    public boolean hasSubscribers(RiskEventType type) {
+        return dispatch.get(type).length > 0;
+    }
+
+    /**
+     * Determines whether every handler is called on the thread that publishes the events, in which case every
+     * event has been handled when {@link #publish(RiskEvent)} returns.
+     *
+     * @return true if no handler subscribed with an executor
+     */
+    public boolean isSynchronous() {
+        return synchronous;
+    }
+
+    /**
+     * Publishes an event to the handlers of its type.
+     *
+     * @param e The event
+     */
+    public void publish(RiskEvent e) {
+        for (Subscription s : dispatch.get(e.getType())) {
+            s.post(e);
+        }
+    }
+
+    /**
+     * Publishes an event that the handlers of its type must have handled when this returns, e.g. one that asks
+     * a player for a choice. The events queued before it are delivered first, all on the calling thread.
+     *
+     * @param e The event
+     */
+    public void publishNow(RiskEvent e) {
+        for (Subscription s : dispatch.get(e.getType())) {
+            s.send(e);
+        }
+    }
+
+    /**
+     * Delivers every queued event on the calling thread.
+     */
+    public void flush() {
+        for (Subscription s : subscriptions) {
+            s.run();
+        }
+    }
+
+    /**
+     * Retrieves the number of events that were superseded by a newer event of the same type before delivery.
+     *
+     * @return The number of events
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Retrieves the number of events that were dropped from full queues.
+     *
+     * @return The number of events
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
@@ -7,6 +7,8 @@ import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * This class is the JPanel that displays the event descriptions and is a part of the RiskFrame. RiskEventPane is
@@ -19,6 +21,14 @@ import java.awt.*;
  */
 public class RiskEventPane extends JPanel implements RiskGameHandler {
 
+    /**
+     * The types of events this pane logs or reacts to.
+     */
+    private static final Set<RiskEventType> HANDLED_TYPES = EnumSet.of(RiskEventType.GAME_BEGAN,
+            RiskEventType.TURN_BEGAN, RiskEventType.TURN_ENDED, RiskEventType.ATTACK_COMMENCED,
+            RiskEventType.ATTACK_COMPLETED, RiskEventType.DIE_ROLLED, RiskEventType.TERRITORY_DOMINATED,
+            RiskEventType.TERRITORY_DEFENDED, RiskEventType.BLITZ_COMPLETED, RiskEventType.UNITS_MOVED,
+            RiskEventType.BONUS_PLACED, RiskEventType.CONTINENT_RULER_CHANGED, RiskEventType.GAME_OVER);
     /**
      * The constant for how many events can be displayed at a given time.
      */
@@ -165,6 +175,16 @@ public class RiskEventPane extends JPanel implements RiskGameHandler {
         if (eventModel.getSize() > EVENT_HISTORY_CAPACITY) eventModel.clear();
     }
 
+    /**
+     * Retrieves the types of events this handler reacts to, the only ones the model delivers to it.
+     *
+     * @return The types of events
+     */
+    @Override
+    public Set<RiskEventType> getHandledTypes() {
+        return HANDLED_TYPES;
+    }
+
     /**
      * handles event updates from the model, when certain events are triggered.
      *
@@ -172,60 +192,85 @@ public class RiskEventPane extends JPanel implements RiskGameHandler {
      */
     @Override
     public void handleRiskUpdate(RiskEvent e) {
-        GameSingleton model = (GameSingleton) e.getSource();
+        GameSession model = (GameSession) e.getSource();
         RiskEventType type = e.getType();
-        Object[] info = e.getEventInfo();
 
         checkCapacityExceeded();
         switch (type) {
             case GAME_BEGAN:
-                addEvent("The game has began! Welcome to the world of " + info[0] + "!");
+                addEvent("The game has began! Welcome to the world of " + e.getEventInfo()[0] + "!");
                 break;
             case TURN_BEGAN:
-                Player beganPlayer = (Player) info[0];
+                Player beganPlayer = ((TurnEvent) e).getPlayer();
                 addEvent(String.format("%s's turn has began", beganPlayer.getName()));
                 setCurrentInstruction(beganPlayer.getName() + ", please select a territory or end your turn.");
                 break;
             case TURN_ENDED:
                 clearSelectedTerritoryDisplay();
-                Player endedPlayer = (Player) info[0];
+                Player endedPlayer = ((TurnEvent) e).getPlayer();
                 addEvent(String.format("%s's turn has ended", endedPlayer.getName()));
                 break;
             case ATTACK_COMMENCED:
-                Player attacker = (Player) info[0];
-                Player defender = (Player) info[1];
-                addEvent(String.format("A battle has broken out between %s and %s!", attacker.getName(), defender.getName()));
+                BattleEvent battle = (BattleEvent) e;
+                addEvent(String.format("A battle has broken out between %s and %s!", battle.getAttacker().getName(),
+                        battle.getDefender().getName()));
                 break;
             case ATTACK_COMPLETED:
-                attacker = (Player) info[0];
-                defender = (Player) info[1];
-                addEvent(String.format("The battle has ended between %s and %s!", attacker.getName(), defender.getName()));
-                setCurrentInstruction(attacker.getName() + ", please select a territory or end your turn.");
+                battle = (BattleEvent) e;
+                addEvent(String.format("The battle has ended between %s and %s!", battle.getAttacker().getName(),
+                        battle.getDefender().getName()));
+                setCurrentInstruction(battle.getAttacker().getName() + ", please select a territory or end your turn.");
                 System.out.println("Displayed");
                 break;
             case DIE_ROLLED:
-                int[] die = (int[]) info[0];
+                DiceRolledEvent dice = (DiceRolledEvent) e;
                 String rolled = "Rolled: ";
-                for (int roll : die) {
-                    rolled += roll + ",";
+                for (int i = 0; i < dice.getDieCount(); i++) {
+                    rolled += dice.getDie(i) + ",";
                 }
                 addEvent(rolled.substring(0, rolled.length() - 1));
                 break;
             case TERRITORY_DOMINATED:
-                attacker = (Player) info[0];
-                defender = (Player) info[1];
-                addEvent(String.format("%s dominated %s in battle!", attacker.getName(), defender.getName()));
+                battle = (BattleEvent) e;
+                addEvent(String.format("%s dominated %s in battle!", battle.getAttacker().getName(),
+                        battle.getDefender().getName()));
                 break;
             case TERRITORY_DEFENDED:
-                attacker = (Player) info[0];
-                defender = (Player) info[1];
-                addEvent(String.format("%s defended his territory against %s!", attacker.getName(), defender.getName()));
+                battle = (BattleEvent) e;
+                addEvent(String.format("%s defended his territory against %s!", battle.getAttacker().getName(),
+                        battle.getDefender().getName()));
+                break;
+            case BLITZ_COMPLETED:
+                battle = (BattleEvent) e;
+                Player attacker = battle.getAttacker();
+                Player defender = battle.getDefender();
+                addEvent(String.format("%s attacked %s from %s in %d rounds, losing %d units and destroying %d units of %s!",
+                        attacker.getName(), battle.getDefending().getName(), battle.getAttacking().getName(),
+                        battle.getRounds(), battle.getAttackLost(), battle.getDefendLost(), defender.getName()));
+                if (battle.isConquered()) {
+                    addEvent(String.format("%s dominated %s in battle!", attacker.getName(), defender.getName()));
+                }
                 break;
             case UNITS_MOVED:
-                Territory initialT = (Territory) info[0];
-                Territory finalT = (Territory) info[1];
-                int num = (int) info[2];
-                addEvent(String.format("%s units have been moved from %s to %s!", num, initialT.getName(), finalT.getName()));
+                UnitsMovedEvent moved = (UnitsMovedEvent) e;
+                addEvent(String.format("%s units have been moved from %s to %s!", moved.getUnits(),
+                        moved.getFrom().getName(), moved.getTo().getName()));
+                break;
+            case BONUS_PLACED:
+                BonusPlacedEvent bonus = (BonusPlacedEvent) e;
+                addEvent(String.format("%s placed %d bonus units on %d territories!", bonus.getPlayer().getName(),
+                        bonus.getPlaced(), bonus.getTerritoryCount()));
+                break;
+            case CONTINENT_RULER_CHANGED:
+                Object[] info = e.getEventInfo();
+                Continent continent = (Continent) info[0];
+                Player ruler = (Player) info[1];
+                Player previousRuler = (Player) info[2];
+                if (ruler != null) {
+                    addEvent(String.format("%s now rules %s!", ruler.getName(), continent.getContinentName()));
+                } else {
+                    addEvent(String.format("%s no longer rules %s!", previousRuler.getName(), continent.getContinentName()));
+                }
                 break;
             case GAME_OVER:
                 gameEventScroller.setEnabled(false);
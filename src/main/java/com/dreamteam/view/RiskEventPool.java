@@ -0,0 +1,194 @@
+package com.dreamteam.view;
+
+import com.dreamteam.core.Player;
+import com.dreamteam.core.Territory;
+
+/**
+ * Creates the typed events a game publishes most often. In pooled mode, meant for headless games that
+ * publish events at a high rate, it hands out one reused event of each class instead of a new one, so that
+ * publishing allocates nothing.
+ * <p>
+ * An event can only be reused once no handler can still see it, so the pool only reuses events while every
+ * handler of the bus is called on the publishing thread (see {@link RiskEventBus#isSynchronous()}), and the
+ * publisher gives each event back with {@link #release(RiskEvent)} once it is published. An event asked for
+ * while the reused one of its class is still being delivered (e.g. by a handler that plays on) is a new one.
+ * Handlers of a pooled game must not keep the events they are delivered.
+ */
+public class RiskEventPool {
+
+    /**
+     * The bus the events are published on.
+     */
+    private final RiskEventBus bus;
+    /**
+     * Whether the events are reused.
+     */
+    private boolean pooling;
+    /**
+     * The reused battle event.
+     */
+    private final BattleEvent battle;
+    /**
+     * The reused dice event.
+     */
+    private final DiceRolledEvent diceRolled;
+    /**
+     * The reused movement event.
+     */
+    private final UnitsMovedEvent unitsMoved;
+    /**
+     * The reused turn event.
+     */
+    private final TurnEvent turn;
+    /**
+     * The reused bonus event.
+     */
+    private final BonusPlacedEvent bonusPlaced;
+
+    /**
+     * Constructor for instances of RiskEventPool, which creates new events until pooling is enabled.
+     *
+     * @param bus The bus the events are published on
+     */
+    public RiskEventPool(RiskEventBus bus) {
+        this.bus = bus;
+        battle = new BattleEvent(bus, RiskEventType.ATTACK_COMMENCED, null, null, null, null, 0, 0, 0, false);
+        diceRolled = new DiceRolledEvent(bus, 0, 0, true);
+        unitsMoved = new UnitsMovedEvent(bus, null, null, 0);
+        turn = new TurnEvent(bus, RiskEventType.TURN_BEGAN, null, 0);
+        bonusPlaced = new BonusPlacedEvent(bus, null, new int[0], 0);
+    }
+
+    /**
+     * Sets whether the events are reused.
+     *
+     * @param pooling true to reuse the events while every handler is called on the publishing thread
+     */
+    public void setPooling(boolean pooling) {
+        this.pooling = pooling;
+    }
+
+    /**
+     * Determines whether the events are reused.
+     *
+     * @return true if the events are reused
+     */
+    public boolean isPooling() {
+        return pooling;
+    }
+
+    /**
+     * Determines whether a reused event can be handed out, and marks it as being delivered if so.
+     *
+     * @param e      The reused event
+     * @param source The object on which the event occurred
+     * @param type   The type of event
+     * @return true if the event can be handed out
+     */
+    private boolean take(RiskEvent e, Object source, RiskEventType type) {
+        if (!pooling || e.inUse || !bus.isSynchronous()) return false;
+        e.inUse = true;
+        e.reset(source, type);
+        return true;
+    }
+
+    /**
+     * Gives back an event once it has been published, so that it can be reused.
+     * Events that were not handed out by a pool are ignored.
+     *
+     * @param e The event
+     */
+    public void release(RiskEvent e) {
+        e.inUse = false;
+    }
+
+    /**
+     * Creates or reuses an event about a battle.
+     *
+     * @param source     The game the battle was fought in
+     * @param type       The type of event
+     * @param attacker   The player that attacked
+     * @param defender   The player that defended
+     * @param attacking  The territory that supplied the attacking units
+     * @param defending  The territory that was attacked
+     * @param attackLost The units lost by the attacker
+     * @param defendLost The units lost by the defender
+     * @param rounds     The number of rounds fought
+     * @param conquered  Whether the attacker conquered the attacked territory
+     * @return The event
+     */
+    public BattleEvent battle(Object source, RiskEventType type, Player attacker, Player defender,
+                              Territory attacking, Territory defending, int attackLost, int defendLost,
+                              int rounds, boolean conquered) {
+        if (!take(battle, source, type)) {
+            return new BattleEvent(source, type, attacker, defender, attacking, defending, attackLost, defendLost,
+                    rounds, conquered);
+        }
+        battle.set(attacker, defender, attacking, defending, attackLost, defendLost, rounds, conquered);
+        return battle;
+    }
+
+    /**
+     * Creates or reuses an event about the dice rolled by one side in a round of a battle.
+     *
+     * @param source The game the dice were rolled in
+     * @param result The packed result of the round
+     * @param dice   The number of dice rolled
+     * @param attack Whether the dice are those of the attacker
+     * @return The event
+     */
+    public DiceRolledEvent diceRolled(Object source, int result, int dice, boolean attack) {
+        if (!take(diceRolled, source, RiskEventType.DIE_ROLLED)) {
+            return new DiceRolledEvent(source, result, dice, attack);
+        }
+        diceRolled.set(result, dice, attack);
+        return diceRolled;
+    }
+
+    /**
+     * Creates or reuses an event about units moved from one territory to another.
+     *
+     * @param source The game the units were moved in
+     * @param from   The territory the units left
+     * @param to     The territory the units moved to
+     * @param units  The number of units moved
+     * @return The event
+     */
+    public UnitsMovedEvent unitsMoved(Object source, Territory from, Territory to, int units) {
+        if (!take(unitsMoved, source, RiskEventType.UNITS_MOVED)) return new UnitsMovedEvent(source, from, to, units);
+        unitsMoved.set(from, to, units);
+        return unitsMoved;
+    }
+
+    /**
+     * Creates or reuses an event about a turn that began or ended.
+     *
+     * @param source     The game of the turn
+     * @param type       The type of event
+     * @param player     The player whose turn began or ended
+     * @param bonusUnits The bonus units of the player for the turn that began, 0 when a turn ends
+     * @return The event
+     */
+    public TurnEvent turn(Object source, RiskEventType type, Player player, int bonusUnits) {
+        if (!take(turn, source, type)) return new TurnEvent(source, type, player, bonusUnits);
+        turn.set(player, bonusUnits);
+        return turn;
+    }
+
+    /**
+     * Creates or reuses an event about the bonus units a player placed.
+     *
+     * @param source The game the units were placed in
+     * @param player The player that placed the units
+     * @param plan   The units placed on each territory, by territory id, copied
+     * @param placed The number of units placed
+     * @return The event
+     */
+    public BonusPlacedEvent bonusPlaced(Object source, Player player, int[] plan, int placed) {
+        if (!take(bonusPlaced, source, RiskEventType.BONUS_PLACED)) {
+            return new BonusPlacedEvent(source, player, plan, placed);
+        }
+        bonusPlaced.set(player, plan, placed);
+        return bonusPlaced;
+    }
+}
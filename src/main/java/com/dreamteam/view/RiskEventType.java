@@ -10,7 +10,8 @@ package com.dreamteam.view;
  */
 public enum RiskEventType {
     /**
-     * Map update events are thrown to update displayable points on the map.
+     * Map update events are thrown to update displayable points on the map, with a {@link com.dreamteam.core.MapUpdate}
+     * of the territories that changed and the territories to display.
      */
     UPDATE_MAP,
     /**
@@ -61,10 +62,26 @@ public enum RiskEventType {
      * can no longer attack (1 unit) in the game.
      */
     TERRITORY_DEFENDED,
+    /**
+     * Each time a whole attack has been resolved at once (a blitz) in the game.
+     * Sent with the attacker, the defender, the attacking and defending territories,
+     * the units lost by each side, the number of rounds fought and whether the territory was conquered.
+     */
+    BLITZ_COMPLETED,
     /**
      * Each time units are moved in the game.
      */
     UNITS_MOVED,
+    /**
+     * Each time a player has placed all of their bonus units at once.
+     * Sent with the player, the units placed on each territory and the total units placed.
+     */
+    BONUS_PLACED,
+    /**
+     * Each time a continent gains or loses its ruler because a territory was taken over.
+     * Sent with the continent, its new ruler (null if none) and its previous ruler (null if none).
+     */
+    CONTINENT_RULER_CHANGED,
     /**
      * Each time a turn has been started in the game.
      */
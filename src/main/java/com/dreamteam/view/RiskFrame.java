@@ -11,8 +11,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -27,6 +29,13 @@ import java.util.zip.ZipFile;
  */
 public class RiskFrame extends JFrame implements RiskGameHandler {
 
+    /**
+     * The types of events this frame reacts to.
+     */
+    private static final Set<RiskEventType> HANDLED_TYPES = EnumSet.of(RiskEventType.GAME_OVER,
+            RiskEventType.GAME_BEGAN, RiskEventType.TURN_BEGAN, RiskEventType.UPDATE_ATTACKABLE,
+            RiskEventType.PHASE_CHANGE, RiskEventType.SELECT_ATTACK_DIE, RiskEventType.SELECT_DEFEND_DIE,
+            RiskEventType.INVALID_MAP_LOAD);
     /**
      * Stores whose turn it is on the panel.
      */
@@ -76,7 +85,7 @@ public class RiskFrame extends JFrame implements RiskGameHandler {
      * @param gs The model that the sub components of this frame are listening to
      * @param gameData The zipfile containing the map image (.save or .world)
      */
-    public RiskFrame(GameSingleton gs,ZipFile gameData) {
+    public RiskFrame(GameSession gs,ZipFile gameData) {
         super("Dream Team RISK!");
 
         //TODO: player selection should be in the home screen (maybe)
@@ -85,7 +94,7 @@ public class RiskFrame extends JFrame implements RiskGameHandler {
 
         importFrame(gs,gameData);
 
-        gs.addHandler(this);
+        gs.addHandler(this, SwingUtilities::invokeLater);
     }
 
     /**
@@ -93,7 +102,7 @@ public class RiskFrame extends JFrame implements RiskGameHandler {
      * @param gs The model that the sub components of this frame are listening to
      * @param zf The zipfile containing the map image (.save or .world)
      */
-    private void importFrame(GameSingleton gs, ZipFile zf) {
+    private void importFrame(GameSession gs, ZipFile zf) {
         if (zf!=null) {
             try {
                 ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -116,7 +125,7 @@ public class RiskFrame extends JFrame implements RiskGameHandler {
      * Generates and places all components on the frame, this should
      * generally only be called once per frame.
      */
-    private void composeFrame(GameSingleton gs, Image mapImage) {
+    private void composeFrame(GameSession gs, Image mapImage) {
 
         JMenuBar menuBar = new JMenuBar();
         JMenu menu = new JMenu("Options");
@@ -168,8 +177,9 @@ public class RiskFrame extends JFrame implements RiskGameHandler {
 
         mapPane = new RiskMapPane(mapImage,rc);
         eventPane = new RiskEventPane();
-        gs.addHandler(mapPane);
-        gs.addHandler(eventPane);
+        //the views are notified once per frame on the event thread, never while the model changes
+        gs.addHandler(mapPane, SwingUtilities::invokeLater);
+        gs.addHandler(eventPane, SwingUtilities::invokeLater);
 
         //add everything to the main content pane
         getContentPane().add(BorderLayout.CENTER, mapPane);
@@ -412,6 +422,16 @@ public class RiskFrame extends JFrame implements RiskGameHandler {
         return gamePhase;
     }
 
+    /**
+     * Retrieves the types of events this handler reacts to, the only ones the model delivers to it.
+     *
+     * @return The types of events
+     */
+    @Override
+    public Set<RiskEventType> getHandledTypes() {
+        return HANDLED_TYPES;
+    }
+
     /**
      * Handles any type of update made to the game.
      * Through either the game being over, a players turn
@@ -426,8 +446,7 @@ public class RiskFrame extends JFrame implements RiskGameHandler {
 
         switch (eventType) {
             case GAME_OVER:
-                JOptionPane alert = new JOptionPane();
-                alert.showMessageDialog(this, "GAME OVER " + info[0] + " has won!!!");
+                JOptionPane.showMessageDialog(this, "GAME OVER " + info[0] + " has won!!!");
                 setAttackable(false);
                 setEndable(false);
                 break;
@@ -437,8 +456,8 @@ public class RiskFrame extends JFrame implements RiskGameHandler {
                 break;
             case TURN_BEGAN:
                 restoreGUI();
-                Player beganPlayer = (Player) info[0];
-                int bonusUnits = (int) info[1];
+                Player beganPlayer = ((TurnEvent) e).getPlayer();
+                int bonusUnits = ((TurnEvent) e).getBonusUnits();
 
                 Color playerColour = beganPlayer.getColour().getValue();
                 setBonusUnits(bonusUnits);
@@ -468,10 +487,12 @@ public class RiskFrame extends JFrame implements RiskGameHandler {
                 Player currentPlayer = attacking.getOwner();
                 Territory defending = (Territory) info[1];
                 int maxAttack = (Integer) info[2];
+                double odds = BattleOdds.getDefault().winProbability(attacking.getUnits(), defending.getUnits());
                 int diceAmount = -1;
                 while (diceAmount<=0) {
                     diceAmount = JRiskOptionPane.showDieCountDialog(this, currentPlayer,
-                            1, maxAttack, "You are attacking " + defending.getName() + " from " + attacking.getName() + ".");
+                            1, maxAttack, "You are attacking " + defending.getName() + " from " + attacking.getName()
+                                    + String.format(" (%.0f%% chance to conquer it).", 100 * odds));
                 }
                 currentPlayer.setDiceRoll(diceAmount);
                 AudioPlayer.playSound("btnPress");
@@ -1,5 +1,8 @@
 package com.dreamteam.view;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * This class is an interface for the different views to update their GUI from the model.
  *
@@ -16,4 +19,14 @@ public interface RiskGameHandler {
      * @param e The event that was triggered
      */
     void handleRiskUpdate(RiskEvent e);
+
+    /**
+     * Retrieves the types of events this handler handles, the only types it is notified of
+     * (see {@link RiskEventBus}). Read once, when the handler is added to the model.
+     *
+     * @return The types of events, every type unless the handler says otherwise
+     */
+    default Set<RiskEventType> getHandledTypes() {
+        return EnumSet.allOf(RiskEventType.class);
+    }
 }
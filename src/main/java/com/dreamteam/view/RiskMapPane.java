@@ -1,20 +1,28 @@
 package com.dreamteam.view;
 
 import com.dreamteam.controller.RiskController;
-import com.dreamteam.core.Player;
-import com.dreamteam.core.RiskColour;
+import com.dreamteam.core.GameSession;
+import com.dreamteam.core.GameState;
+import com.dreamteam.core.MapUpdate;
 import com.dreamteam.core.Territory;
+import com.dreamteam.core.WorldMap;
 
 import javax.swing.*;
-import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import java.awt.*;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * This class is a part of RiskFrame and contains the Map with its points and labels. RiskMapPane is also a com.dreamteam.view
  * and handles the update of the Map GUI when certain events in the model happen.
+ * <p>
+ * The pane keeps the owner colour and units of every territory, and the territories it highlights, and the
+ * model only sends what changed (see {@link MapUpdate}): only the points and labels of the changed territories
+ * are updated and repainted, and the labels are created once per world.
  *
  * @author Kyler Verge
  * @author Ethan Chase
@@ -23,10 +31,62 @@ import java.util.Map;
  */
 public class RiskMapPane extends JPanel implements RiskGameHandler {
     /**
-     * Stores the points that will be painted on the map.
+     * The types of events this pane reacts to, only the updates of the displayed points.
+     */
+    private static final Set<RiskEventType> HANDLED_TYPES = EnumSet.of(RiskEventType.UPDATE_MAP);
+    /**
+     * The font of the names of the territories.
+     */
+    private static final Font NAME_FONT = new Font("Segoe UI", Font.BOLD, 9);
+    /**
+     * The font of the units of the territories.
+     */
+    private static final Font UNITS_FONT = new Font("Segoe UI", Font.BOLD, 11);
+    /**
+     * The world whose territories are painted, null before the first update.
+     */
+    private WorldMap world;
+    /**
+     * The territories of the world, by id.
+     */
+    private Territory[] territories;
+    /**
+     * The unscaled point of each territory, by id.
+     */
+    private Point[] points;
+    /**
+     * The colour of the owner of each territory, by id.
+     */
+    private Color[] colours;
+    /**
+     * The label with the name of each territory, by id.
+     */
+    private JLabel[] nameLabels;
+    /**
+     * The label with the units of each territory, by id.
+     */
+    private JLabel[] unitLabels;
+    /**
+     * The ids of the territories that are painted, those a player may select.
      * It is altered constantly depending on user inputs.
      */
-    private Map<Territory, Point> pointsToPaint;
+    private BitSet highlight;
+    /**
+     * The map image scaled to the size of the pane, null until it is first painted.
+     */
+    private Image scaledMapImage;
+    /**
+     * The size the map image was scaled to.
+     */
+    private Dimension scaledSize;
+    /**
+     * The scaling in the X direction the labels were placed with.
+     */
+    private double labelScalingX;
+    /**
+     * The scaling in the Y direction the labels were placed with.
+     */
+    private double labelScalingY;
     /**
      * The stretching of the JPane in the X direction
      */
@@ -83,23 +143,10 @@ public class RiskMapPane extends JPanel implements RiskGameHandler {
     public RiskMapPane(Image mapImage, RiskController rc) {
         this.addMouseListener(rc);
         this.setLayout(null);
-        pointsToPaint = null;
+        setBorder(BorderFactory.createEtchedBorder(EtchedBorder.RAISED));
+        highlight = new BitSet();
         scalingX = 1;
         scalingY = 1;
-        //attempt to read the map file
-        //BufferedImage mapImage = null;
-        //InputStream is = null;
-        /*
-        try {
-            is = new FileInputStream(mapFile);
-            mapImage = ImageIO.read(is);
-        } catch (FileNotFoundException e) {
-            System.out.println("Could not find map file");
-            return;
-        } catch (IOException e) {
-            System.out.println("There was an error while reading the map image");
-            return;
-        }*/
         finalMapImage = mapImage;
         firstTimeLoaded = true;
     }
@@ -117,103 +164,169 @@ public class RiskMapPane extends JPanel implements RiskGameHandler {
             firstTimeLoaded = false;
         }
         super.paintComponent(g);
-        this.removeAll();  //clears the labels off of the board
         Dimension current = getSize();
         scalingX = current.getWidth() / originalDim.getWidth();
         scalingY = current.getHeight() / originalDim.getHeight();
-        //draws the scaled version of the map image
-        g.drawImage(finalMapImage.getScaledInstance(getWidth(), getHeight(),
-                Image.SCALE_SMOOTH), 0, 0, null);
+        //the map image is only scaled again when the pane is resized
+        if (scaledMapImage == null || !current.equals(scaledSize)) {
+            scaledMapImage = finalMapImage.getScaledInstance(getWidth(), getHeight(), Image.SCALE_SMOOTH);
+            scaledSize = current;
+        }
+        g.drawImage(scaledMapImage, 0, 0, null);
         paintPoints(g);     //paint points representing territories
-        placePointLabels();     //paint the labels to go with the points
+        if (scalingX != labelScalingX || scalingY != labelScalingY) placePointLabels();
     }
 
 
     /**
-     * @param g Graphics draws the points of the territories with their colour
+     * @param g Graphics draws the points of the highlighted territories with their colour
      */
     private void paintPoints(Graphics g) {
-        if (pointsToPaint == null) return;
-
-        for (Territory t : pointsToPaint.keySet()) {
-            Point p = pointsToPaint.get(t);
-            g.setColor(Color.BLACK);
-            int x = (int) (p.getX() * scalingX);
-            int y = (int) (p.getY() * scalingY);
+        if (world == null) return;
 
-            int diff = OUTER_POINT_RADIUS - INNER_POINT_RADIUS;
+        int diff = OUTER_POINT_RADIUS - INNER_POINT_RADIUS;
+        int hitDiff = HIT_POINT_RADIUS - INNER_POINT_RADIUS;
+        for (int t = highlight.nextSetBit(0); t >= 0; t = highlight.nextSetBit(t + 1)) {
+            int x = (int) (points[t].getX() * scalingX);
+            int y = (int) (points[t].getY() * scalingY);
+            if (!g.hitClip(x - hitDiff, y - hitDiff, HIT_POINT_DIAMETER + 1, HIT_POINT_DIAMETER + 1)) continue;
 
+            g.setColor(Color.BLACK);
             g.fillOval(x - diff, y - diff, OUTER_POINT_DIAMETER, OUTER_POINT_DIAMETER);
-
-            Player player = t.getOwner();
-            g.setColor(player.getColour().getValue());
-
+            g.setColor(colours[t]);
             g.fillOval(x, y, INNER_POINT_DIAMETER, INNER_POINT_DIAMETER);
             g.setColor(Color.BLACK);
-
-            diff = HIT_POINT_RADIUS - INNER_POINT_RADIUS;
-
-            g.drawOval(x - diff, y - diff, HIT_POINT_DIAMETER, HIT_POINT_DIAMETER);
+            g.drawOval(x - hitDiff, y - hitDiff, HIT_POINT_DIAMETER, HIT_POINT_DIAMETER);
         }
     }
 
     /**
-     * draws the labels one with the name of the territory and a label with
-     * the number of units that are on that territory
+     * places the labels, one with the name of the territory and one with the number
+     * of units that are on that territory, at the scaled points of the territories
      */
     public void placePointLabels() {
-        if (pointsToPaint == null) return;
-
-        for (Territory t : pointsToPaint.keySet()) {
-            Point p = pointsToPaint.get(t);
-            int x = (int) (p.getX() * scalingX);
-            int y = (int) (p.getY() * scalingY);
-            JLabel lbl = new JLabel(t.getName());
-            JLabel lbl2 = new JLabel(String.valueOf(t.getUnits()));
+        if (world == null) return;
 
-            lbl.setFont(new Font("Segoe UI", Font.BOLD, 9));
-            lbl2.setFont(new Font("Segoe UI", Font.BOLD, 11));
-            Insets insets = this.getInsets();
-            Dimension lblSize = lbl.getPreferredSize();
-            Dimension lblSize2 = lbl2.getPreferredSize();
-            lbl.setBounds(25 + insets.left, 5 + insets.top, lblSize.width, lblSize.height);
-            lbl2.setBounds(30 + insets.left, 5 + insets.top, lblSize2.width, lblSize2.height);
+        labelScalingX = scalingX;
+        labelScalingY = scalingY;
+        for (int t = 0; t < territories.length; t++) {
+            placeLabels(t);
+        }
+    }
 
-            Border raisedEtched = BorderFactory.createEtchedBorder(EtchedBorder.RAISED);
-            setBorder(raisedEtched);
+    /**
+     * Places the labels of a territory at its scaled point.
+     *
+     * @param t The id of the territory
+     */
+    private void placeLabels(int t) {
+        int x = (int) (points[t].getX() * scalingX);
+        int y = (int) (points[t].getY() * scalingY);
+        JLabel name = nameLabels[t];
+        name.setSize(name.getPreferredSize());
+        name.setLocation(x - (name.getWidth() / 2) + 2, y - 15);
+        JLabel units = unitLabels[t];
+        units.setSize(units.getPreferredSize());
+        units.setLocation(x + 15, y);
+    }
 
-            lbl.setLocation(x - (lbl.getWidth() / 2) + 2, y - 15);
-            lbl2.setLocation(x + 15, y);
-            lbl.setForeground(Color.BLACK);
-            RiskColour playerColour = t.getOwner().getColour();
-            lbl2.setForeground(playerColour.getValue());
-            lbl.setBackground(Color.WHITE);
-            lbl2.setBackground(Color.WHITE);
-            //lbl.setBorder(raisedEtched);
-            //lbl2.setBorder(raisedEtched);
-            lbl.setOpaque(true);
-            lbl2.setOpaque(true);
-            this.add(lbl);
-            this.add(lbl2);
+    /**
+     * Creates the labels of the territories of a world, and reads the owners and units of all of its territories.
+     *
+     * @param world The world
+     */
+    private void loadWorld(WorldMap world) {
+        removeAll();
+        this.world = world;
+        GameState state = world.getState();
+        int size = state.size();
+        territories = new Territory[size];
+        points = new Point[size];
+        colours = new Color[size];
+        nameLabels = new JLabel[size];
+        unitLabels = new JLabel[size];
+        for (int t = 0; t < size; t++) {
+            territories[t] = world.getTerritory(t);
+            points[t] = world.getAllCoordinates().get(territories[t]);
+            nameLabels[t] = createLabel(territories[t].getName(), NAME_FONT);
+            unitLabels[t] = createLabel("", UNITS_FONT);
+            updateTerritory(t, state.getOwner(t), state.getUnits(t));
+            add(nameLabels[t]);
+            add(unitLabels[t]);
         }
+        highlight = new BitSet();
+        highlight.set(0, size);
+        labelScalingX = 0;
+        labelScalingY = 0;
+    }
+
+    /**
+     * Creates a label shown next to the point of a territory.
+     *
+     * @param text The text of the label
+     * @param font The font of the label
+     * @return The label
+     */
+    private static JLabel createLabel(String text, Font font) {
+        JLabel lbl = new JLabel(text);
+        lbl.setFont(font);
+        lbl.setForeground(Color.BLACK);
+        lbl.setBackground(Color.WHITE);
+        lbl.setOpaque(true);
+        return lbl;
     }
 
     /**
-     * sets the mapping of the territory to the point that should be painted, when repaint called.
+     * Updates the colour and units shown for a territory.
      *
-     * @param mapping is the mapping of the territory to the coordinate it should be at
+     * @param t     The id of the territory
+     * @param seat  The seat of its owner
+     * @param units Its units
      */
-    public void setPointsToPaint(Map<Territory, Point> mapping) {
-        pointsToPaint = mapping;
+    private void updateTerritory(int t, int seat, int units) {
+        Color colour = (seat == GameState.NO_OWNER) ? Color.LIGHT_GRAY
+                : world.getState().getPlayer(seat).getColour().getValue();
+        colours[t] = colour;
+        JLabel lbl = unitLabels[t];
+        lbl.setText(String.valueOf(units));
+        lbl.setForeground(colour);
+        lbl.setSize(lbl.getPreferredSize());
     }
 
     /**
-     * returns the mapping of the territory to its location/point.
+     * Repaints the point of a territory.
      *
-     * @return Map of the territory and where its is located.
+     * @param t The id of the territory
+     */
+    private void repaintPoint(int t) {
+        int hitDiff = HIT_POINT_RADIUS - INNER_POINT_RADIUS;
+        int x = (int) (points[t].getX() * scalingX);
+        int y = (int) (points[t].getY() * scalingY);
+        repaint(x - hitDiff, y - hitDiff, HIT_POINT_DIAMETER + 1, HIT_POINT_DIAMETER + 1);
+    }
+
+    /**
+     * Shows the labels of the highlighted territories only.
+     */
+    private void showHighlightedLabels() {
+        for (int t = 0; t < territories.length; t++) {
+            nameLabels[t].setVisible(highlight.get(t));
+            unitLabels[t].setVisible(highlight.get(t));
+        }
+    }
+
+    /**
+     * returns the mapping of the highlighted territories to their location/point.
+     *
+     * @return Map of the territory and where its is located
      */
     public Map<Territory, Point> getPointsToPaint() {
-        return pointsToPaint;
+        Map<Territory, Point> shown = new LinkedHashMap<>();
+        if (world == null) return shown;
+        for (int t = highlight.nextSetBit(0); t >= 0; t = highlight.nextSetBit(t + 1)) {
+            shown.put(territories[t], points[t]);
+        }
+        return shown;
     }
 
     /**
@@ -234,6 +347,16 @@ public class RiskMapPane extends JPanel implements RiskGameHandler {
         return scalingY;
     }
 
+    /**
+     * Retrieves the types of events this handler reacts to, the only ones the model delivers to it.
+     *
+     * @return The types of events
+     */
+    @Override
+    public Set<RiskEventType> getHandledTypes() {
+        return HANDLED_TYPES;
+    }
+
     /**
      * handles the event that the model provides, from actions done to the risk model.
      *
@@ -243,16 +366,29 @@ public class RiskMapPane extends JPanel implements RiskGameHandler {
     public void handleRiskUpdate(RiskEvent e) {
         RiskEventType eventType = e.getType();
         Object[] info = e.getEventInfo();
-        //if (eventDescriptions.getSize()==25) eventDescriptions.clear();
 
-        //System.out.println(eventType);
         switch (eventType) {
 
             case UPDATE_MAP:
-                //for selecting on our map we need a reference
-                setPointsToPaint((HashMap<Territory, Point>) info[0]);
-                repaint();
-                revalidate();
+                WorldMap current = ((GameSession) e.getSource()).getWorld();
+                if (current != world) {
+                    //a new game, every territory is read from the model
+                    loadWorld(current);
+                    placePointLabels();
+                    repaint();
+                }
+                MapUpdate update = (MapUpdate) info[0];
+                for (int i = 0; i < update.getCount(); i++) {
+                    int t = update.getTerritory(i);
+                    updateTerritory(t, update.getOwner(i), update.getUnits(i));
+                    if (highlight.get(t)) repaintPoint(t);
+                }
+                if (update.getHighlight() != null) {
+                    //for selecting on our map we need a reference
+                    highlight = update.getHighlight();
+                    showHighlightedLabels();
+                    repaint();
+                }
                 break;
         }
     }
@@ -0,0 +1,71 @@
+package com.dreamteam.view;
+
+import com.dreamteam.core.Player;
+
+/**
+ * A {@link RiskEventType#TURN_BEGAN} or {@link RiskEventType#TURN_ENDED} event.
+ */
+public final class TurnEvent extends RiskEvent {
+
+    /**
+     * The player whose turn began or ended.
+     */
+    private Player player;
+    /**
+     * The bonus units of the player for the turn that began, 0 when a turn ends.
+     */
+    private int bonusUnits;
+
+    /**
+     * Constructor for instances of TurnEvent.
+     *
+     * @param source     The game of the turn
+     * @param type       The type of event
+     * @param player     The player whose turn began or ended
+     * @param bonusUnits The bonus units of the player for the turn that began, 0 when a turn ends
+     */
+    public TurnEvent(Object source, RiskEventType type, Player player, int bonusUnits) {
+        super(source, type);
+        set(player, bonusUnits);
+    }
+
+    /**
+     * Sets the data of this event.
+     *
+     * @param player     The player whose turn began or ended
+     * @param bonusUnits The bonus units of the player for the turn that began, 0 when a turn ends
+     */
+    void set(Player player, int bonusUnits) {
+        this.player = player;
+        this.bonusUnits = bonusUnits;
+    }
+
+    /**
+     * Retrieves the player whose turn began or ended.
+     *
+     * @return The player
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Retrieves the bonus units of the player for the turn that began.
+     *
+     * @return The bonus units, 0 when a turn ends
+     */
+    public int getBonusUnits() {
+        return bonusUnits;
+    }
+
+    /**
+     * Boxes the data of this event in the order the untyped event of its type held it.
+     *
+     * @return Object[]
+     */
+    @Override
+    public Object[] getEventInfo() {
+        if (getType() == RiskEventType.TURN_ENDED) return new Object[]{player};
+        return new Object[]{player, bonusUnits};
+    }
+}
@@ -0,0 +1,85 @@
+package com.dreamteam.view;
+
+import com.dreamteam.core.Territory;
+
+/**
+ * A {@link RiskEventType#UNITS_MOVED} event: units moved from one territory to another.
+ */
+public final class UnitsMovedEvent extends RiskEvent {
+
+    /**
+     * The territory the units left.
+     */
+    private Territory from;
+    /**
+     * The territory the units moved to.
+     */
+    private Territory to;
+    /**
+     * The number of units moved.
+     */
+    private int units;
+
+    /**
+     * Constructor for instances of UnitsMovedEvent.
+     *
+     * @param source The game the units were moved in
+     * @param from   The territory the units left
+     * @param to     The territory the units moved to
+     * @param units  The number of units moved
+     */
+    public UnitsMovedEvent(Object source, Territory from, Territory to, int units) {
+        super(source, RiskEventType.UNITS_MOVED);
+        set(from, to, units);
+    }
+
+    /**
+     * Sets the data of this event.
+     *
+     * @param from  The territory the units left
+     * @param to    The territory the units moved to
+     * @param units The number of units moved
+     */
+    void set(Territory from, Territory to, int units) {
+        this.from = from;
+        this.to = to;
+        this.units = units;
+    }
+
+    /**
+     * Retrieves the territory the units left.
+     *
+     * @return The territory
+     */
+    public Territory getFrom() {
+        return from;
+    }
+
+    /**
+     * Retrieves the territory the units moved to.
+     *
+     * @return The territory
+     */
+    public Territory getTo() {
+        return to;
+    }
+
+    /**
+     * Retrieves the number of units moved.
+     *
+     * @return The number of units
+     */
+    public int getUnits() {
+        return units;
+    }
+
+    /**
+     * Boxes the data of this event in the order the untyped event held it.
+     *
+     * @return Object[]
+     */
+    @Override
+    public Object[] getEventInfo() {
+        return new Object[]{from, to, units};
+    }
+}
@@ -6,12 +6,15 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
 import java.util.zip.ZipFile;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
@@ -57,6 +60,14 @@ public class AIPlayerTest {
      * Territory to test with.
      */
     Territory t6;
+    /**
+     * Territory to test with, owned by the AI until a test gives it to the normal player.
+     */
+    Territory t7;
+    /**
+     * Territory to test with.
+     */
+    Territory t8;
 
     /**
      * Sets up the object for testing.
@@ -66,31 +77,53 @@ public class AIPlayerTest {
         guy = new Player("guy", RiskColour.RED);
         robo = new AIPlayer("Robo", RiskColour.GRAY);
 
-        t1 = new Territory("t1");
-        t2 = new Territory("t2");
-        t3 = new Territory("t3");
-        t4 = new Territory("t4");
-        t5 = new Territory("t5");
-        t6 = new Territory("t6");
-        t1.addNeighbour(t2);
-        t1.addNeighbour(t3);
-        t2.addNeighbour(t6);
-        t3.addNeighbour(t4);
-        t3.addNeighbour(t5);
-        t4.addNeighbour(t5);
-        t5.addNeighbour(t2);
+        String map = "{\"name\":\"test\",\"continents\":[],\"territories\":["
+                + territory("t1", "t2", "t3") + "," + territory("t2", "t6") + ","
+                + territory("t3", "t4", "t5") + "," + territory("t4", "t5", "t7") + ","
+                + territory("t5", "t2") + "," + territory("t6", "t8") + ","
+                + territory("t7") + "," + territory("t8") + "]}";
+        WorldMap world = new WorldMap();
+        world.readMap(new ByteArrayInputStream(map.getBytes(StandardCharsets.UTF_8)));
+        t1 = world.getTerritory("t1");
+        t2 = world.getTerritory("t2");
+        t3 = world.getTerritory("t3");
+        t4 = world.getTerritory("t4");
+        t5 = world.getTerritory("t5");
+        t6 = world.getTerritory("t6");
+        t7 = world.getTerritory("t7");
+        t8 = world.getTerritory("t8");
         t1.setOwner(robo);
         t2.setOwner(robo);
         t3.setOwner(robo);
         t4.setOwner(robo);
         t5.setOwner(guy);
         t6.setOwner(guy);
+        t7.setOwner(robo);
+        t8.setOwner(robo);
         t1.setUnits(2);
         t2.setUnits(1);
         t3.setUnits(3);
         t4.setUnits(2);
         t5.setUnits(1);
         t6.setUnits(3);
+        t7.setUnits(1);
+        t8.setUnits(1);
+    }
+
+    /**
+     * Writes a territory of the test map.
+     *
+     * @param name       The name of the territory
+     * @param neighbours The names of its neighbours
+     * @return The territory in the JSON format of the maps
+     */
+    private static String territory(String name, String... neighbours) {
+        StringBuilder json = new StringBuilder("{\"name\":\"" + name + "\",\"coordinates\":\"0,0\",\"neighbours\":[");
+        for (int i = 0; i < neighbours.length; i++) {
+            if (i > 0) json.append(",");
+            json.append("\"").append(neighbours[i]).append("\"");
+        }
+        return json.append("]}").toString();
     }
 
     /**
@@ -150,6 +183,72 @@ public class AIPlayerTest {
         assertNotEquals(terrUnits,terrUnitsAfter);
     }
 
+    /**
+     * Tests that the planned placement on a real map is the placement of
+     * placing the units one by one on the territory with the highest utility.
+     *
+     * @throws IOException When the test world could not be read
+     */
+    @Test
+    public void testPlanPlacement() throws IOException {
+        WorldMap world = GameSimulator.readWorld(new File("src/test/resources/test1.world"));
+        List<Player> players = new ArrayList<>();
+        players.add(robo);
+        players.add(guy);
+        world.assignNewMap(players);
+
+        int units = 25;
+        int[] plan = robo.planPlacement(units);
+        int[] expected = new int[plan.length];
+        for (int unit = 0; unit < units; unit++) {
+            Territory best = null;
+            double highestUtility = -1;
+            for (Territory territory : robo.getOwnedTerritories()) {
+                double utility = robo.placeUnitsUtilityFunction(territory);
+                if (utility > highestUtility) {
+                    highestUtility = utility;
+                    best = territory;
+                }
+            }
+            best.addUnits(1);
+            expected[best.getId()]++;
+        }
+        assertArrayEquals(expected, plan);
+    }
+
+    /**
+     * Tests that the attack index, updated only for the territories that change,
+     * always picks the same attack as scanning every border of the AI.
+     *
+     * @throws IOException When the test world could not be read
+     */
+    @Test
+    public void testAttackIndex() throws IOException {
+        WorldMap world = GameSimulator.readWorld(new File("src/test/resources/test1.world"));
+        List<Player> players = new ArrayList<>();
+        players.add(robo);
+        players.add(guy);
+        world.assignNewMap(players);
+
+        AttackIndex index = new AttackIndex(robo, world.getTopology());
+        index.rebuild();
+        SplittableRandom random = new SplittableRandom(9);
+        for (int step = 0; step < 500; step++) {
+            Territory[] expected = robo.territoryToAttack();
+            int edge = index.best();
+            if (expected[0] == null) {
+                assertEquals(-1, edge);
+            } else {
+                assertEquals(expected[0].getId(), index.getAttacking(edge));
+                assertEquals(expected[1].getId(), index.getDefending(edge));
+            }
+            Territory changed = world.getTerritory(random.nextInt(world.getTopology().size()));
+            if (random.nextInt(5) == 0) changed.setOwner(changed.getOwner() == robo ? guy : robo);
+            changed.setUnits(1 + random.nextInt(12));
+            index.update(changed.getId());
+        }
+    }
+
     /**
      * Test the AI's algorithm for moving units away from a specific territory.
      */
@@ -166,15 +265,11 @@ public class AIPlayerTest {
     public void testTerritoryMovingUnitsTo() {
         this.setup();
         assertEquals(t2, robo.territoryMovingUnitsTo(t1));
-        Territory t7 = new Territory("t7");
-        Territory t8 = new Territory("t8");
-        t7.addNeighbour(t4);
-        t8.addNeighbour(t6);
         t7.setOwner(guy);
-        t8.setOwner(robo);
         t7.setUnits(5);
-        t8.setUnits(1);
         assertEquals(t4, robo.territoryMovingUnitsTo(t1));
+        //the units of a territory of another player go nowhere
+        assertEquals(t5, robo.territoryMovingUnitsTo(t5));
     }
 
     /**
@@ -183,20 +278,14 @@ public class AIPlayerTest {
     @Test
     public void testMoveTroops() {
         this.setup();
-        robo.moveTroops();
+        robo.moveTroops(new GameSession());
         assertEquals(1, t1.getUnits());
         assertEquals(2, t2.getUnits());
-        Territory t7 = new Territory("t7");
-        Territory t8 = new Territory("t8");
 
         this.setup();
-        t7.addNeighbour(t4);
-        t8.addNeighbour(t6);
         t7.setOwner(guy);
-        t8.setOwner(robo);
         t7.setUnits(5);
-        t8.setUnits(1);
-        robo.moveTroops();
+        robo.moveTroops(new GameSession());
         assertEquals(1, t1.getUnits());
         assertEquals(3, t4.getUnits());
     }
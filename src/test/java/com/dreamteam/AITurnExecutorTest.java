@@ -0,0 +1,280 @@
+package com.dreamteam;
+
+import com.dreamteam.core.*;
+import com.dreamteam.view.BattleEvent;
+import com.dreamteam.view.RiskEventType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests AI turns that are planned on another thread and applied to the game in one step.
+ */
+public class AITurnExecutorTest {
+
+    /**
+     * The world the games are played on.
+     */
+    private WorldMap template;
+    /**
+     * The thread the AI turns are planned on.
+     */
+    private ExecutorService thinking;
+    /**
+     * The thread the game is played on, as the Swing event thread would.
+     */
+    private ExecutorService applying;
+
+    /**
+     * Reads the world and starts the threads.
+     *
+     * @throws IOException When the world could not be read
+     */
+    @Before
+    public void setUp() throws IOException {
+        template = GameSimulator.readWorld(new File("worlds/world_maps/default.world"));
+        thinking = Executors.newSingleThreadExecutor();
+        applying = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Stops the threads.
+     */
+    @After
+    public void tearDown() {
+        thinking.shutdownNow();
+        applying.shutdownNow();
+    }
+
+    /**
+     * Creates a game between AI players that blitz their attacks.
+     *
+     * @param numPlayers The number of AI players
+     * @return The game, not started yet
+     */
+    private GameSession newSession(int numPlayers) {
+        GameSession game = new GameSession();
+        game.setSeed(11);
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < numPlayers; i++) {
+            players.add(new AIPlayer("AI " + (i + 1)));
+        }
+        game.setPlayers(players);
+        game.setBlitzMode(true);
+        return game;
+    }
+
+    /**
+     * Tests that a turn planned on a fork with the same dice leads to the same position as the turn played live.
+     */
+    @Test
+    public void testPlanMatchesLiveTurn() {
+        GameSession live = newSession(3);
+        live.setAutoPlayAI(false);
+        live.newGame(new WorldMap(template));
+        GameSession planned = newSession(3);
+        planned.setAutoPlayAI(false);
+        planned.newGame(new WorldMap(template));
+        GameState state = planned.getWorld().getState();
+        int[] owners = state.getOwnerArray().clone();
+        int[] units = state.getUnitArray().clone();
+
+        live.setSeed(99);
+        for (int phase = 0; phase < 3; phase++) {
+            live.playAIPhase();
+        }
+        AIPlayer player = (AIPlayer) planned.getCurrentPlayer();
+        GameState fork = state.fork();
+        AITurn turn = player.planTurn(fork, GamePhase.BONUS_TROUPE, planned.getBonusUnits(player),
+                new SplittableRandom(99), System.nanoTime() + TimeUnit.MINUTES.toNanos(1), () -> false);
+
+        assertTrue(turn.getAttackCount() > 0);
+        assertFalse(turn.isTruncated());
+        assertArrayEquals(live.getWorld().getState().getOwnerArray(), fork.getOwnerArray());
+        assertArrayEquals(live.getWorld().getState().getUnitArray(), fork.getUnitArray());
+        int rounds = 0;
+        for (int i = 0; i < turn.getAttackCount(); i++) {
+            rounds += turn.getRounds(i);
+        }
+        assertEquals(live.getBattleCount(), rounds);
+        //planning never touches the live game
+        assertArrayEquals(owners, state.getOwnerArray());
+        assertArrayEquals(units, state.getUnitArray());
+    }
+
+    /**
+     * Tests that a turn planned past its deadline places and moves units but does not attack.
+     */
+    @Test
+    public void testDeadline() {
+        GameSession game = newSession(3);
+        game.setAutoPlayAI(false);
+        game.newGame(new WorldMap(template));
+        AIPlayer player = (AIPlayer) game.getCurrentPlayer();
+        int bonus = game.getBonusUnits(player);
+        AITurn turn = player.planTurn(game.getWorld().getState().fork(), GamePhase.BONUS_TROUPE, bonus,
+                new SplittableRandom(1), System.nanoTime() - 1, () -> false);
+        assertEquals(bonus, Arrays.stream(turn.getPlacement()).sum());
+        assertEquals(0, turn.getAttackCount());
+        assertTrue(turn.isTruncated());
+    }
+
+    /**
+     * Tests that a game between AI players is played to its end by planning the turns on one thread,
+     * while the game only ever changes and notifies its views on the other.
+     *
+     * @throws InterruptedException When the test was interrupted
+     */
+    @Test
+    public void testAsyncGame() throws InterruptedException {
+        GameSession game = newSession(2);
+        game.setAITurnExecutor(new AITurnExecutor(thinking, applying, 1000));
+        CountDownLatch over = new CountDownLatch(1);
+        AtomicBoolean wrongThread = new AtomicBoolean();
+        Thread[] gameThread = new Thread[1];
+        game.addHandler(e -> {
+            if (Thread.currentThread() != gameThread[0]) wrongThread.set(true);
+            if (e.getType() == RiskEventType.GAME_OVER) over.countDown();
+        });
+        applying.execute(() -> {
+            gameThread[0] = Thread.currentThread();
+            game.newGame(new WorldMap(template));
+        });
+        assertTrue(over.await(60, TimeUnit.SECONDS));
+        assertNotNull(game.getWinner());
+        assertFalse(wrongThread.get());
+        assertFalse(game.isAITurnPending());
+    }
+
+    /**
+     * Tests that a cancelled turn is never applied, and that no later turn is started.
+     *
+     * @throws Exception When a thread failed
+     */
+    @Test
+    public void testCancel() throws Exception {
+        GameSession game = newSession(2);
+        AITurnExecutor aiTurns = new AITurnExecutor(thinking, applying, 1000);
+        game.setAITurnExecutor(aiTurns);
+        //hold the thinking thread so that the first turn waits to be planned
+        CountDownLatch hold = new CountDownLatch(1);
+        thinking.submit(() -> {
+            hold.await();
+            return null;
+        });
+        applying.submit(() -> game.newGame(new WorldMap(template))).get();
+        assertTrue(game.isAITurnPending());
+        long position = game.getPositionHash();
+
+        applying.submit(aiTurns::cancel).get();
+        hold.countDown();
+        thinking.submit(() -> null).get();
+        applying.submit(() -> null).get();
+        assertFalse(game.isAITurnPending());
+        assertEquals(position, game.getPositionHash());
+        assertEquals(GamePhase.BONUS_TROUPE, game.getGamePhase());
+        assertEquals(0, game.getTurnCount());
+    }
+
+    /**
+     * Ends the phases of the turn of a human player, then waits for the AI turn that follows to be applied.
+     *
+     * @param game   The game, on the turn of the human player
+     * @param change Changes the game before the human player ends their turn
+     * @throws Exception When a thread failed
+     */
+    private void playHumanTurn(GameSession game, Runnable change) throws Exception {
+        applying.submit(game::nextPhase).get();
+        applying.submit(game::nextPhase).get();
+        applying.submit(change).get();
+        applying.submit(game::nextPlayer).get();
+        while (applying.submit(game::isAITurnPending).get()) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Tests that the turn of an AI player is planned ahead while a human player decides, and that it is applied
+     * if the human player leaves the position it was planned on, and discarded and planned again otherwise.
+     *
+     * @throws Exception When a thread failed
+     */
+    @Test
+    public void testSpeculation() throws Exception {
+        GameSession game = new GameSession();
+        game.setSeed(5);
+        Player human = new Player("Human");
+        game.setPlayers(new ArrayList<>(List.of(human, new AIPlayer("AI"))));
+        game.setBlitzMode(true);
+        AITurnExecutor aiTurns = new AITurnExecutor(thinking, applying, 1000);
+        game.setAITurnExecutor(aiTurns);
+        applying.submit(() -> game.newGame(new WorldMap(template))).get();
+        while (applying.submit(() -> game.getCurrentPlayer() != human || game.isAITurnPending()).get()) {
+            Thread.sleep(10);
+        }
+        int turns = game.getTurnCount();
+
+        playHumanTurn(game, () -> {
+        });
+        assertEquals(1, aiTurns.getSpeculationHits());
+        assertEquals(0, aiTurns.getSpeculationMisses());
+        assertEquals(turns + 2, game.getTurnCount());
+        assertSame(human, game.getCurrentPlayer());
+
+        playHumanTurn(game, () -> human.getOwnedTerritories().iterator().next().addUnits(1));
+        assertEquals(1, aiTurns.getSpeculationHits());
+        assertEquals(1, aiTurns.getSpeculationMisses());
+        assertEquals(turns + 4, game.getTurnCount());
+    }
+
+    /**
+     * Tests that out of blitz mode the attacks of AI players on a human player are fought round by round on the
+     * live game, asking the human player for the dice of their defence, rather than blitzed on a fork.
+     *
+     * @throws Exception When a thread failed
+     */
+    @Test
+    public void testAttackOnHumanIsLive() throws Exception {
+        GameSession game = new GameSession();
+        game.setSeed(5);
+        Player human = new Player("Human");
+        game.setPlayers(new ArrayList<>(List.of(human, new AIPlayer("AI 1"), new AIPlayer("AI 2"))));
+        game.setAITurnExecutor(new AITurnExecutor(thinking, applying, 1000));
+        AtomicInteger defences = new AtomicInteger();
+        AtomicBoolean blitzedHuman = new AtomicBoolean();
+        game.addHandler(e -> {
+            if (e.getType() == RiskEventType.SELECT_DEFEND_DIE) defences.incrementAndGet();
+            if (e.getType() == RiskEventType.BLITZ_COMPLETED && ((BattleEvent) e).getDefender() == human) {
+                blitzedHuman.set(true);
+            }
+        });
+        applying.submit(() -> game.newGame(new WorldMap(template))).get();
+        for (int turn = 0; turn < 20 && defences.get() == 0; turn++) {
+            while (applying.submit(() -> !game.isGameOver()
+                    && (game.getCurrentPlayer() != human || game.isAITurnPending())).get()) {
+                Thread.sleep(10);
+            }
+            if (applying.submit(game::isGameOver).get()) break;
+            applying.submit(game::nextPhase).get();
+            applying.submit(game::nextPhase).get();
+            applying.submit(game::nextPlayer).get();
+        }
+        assertTrue(defences.get() > 0);
+        assertFalse(blitzedHuman.get());
+    }
+}
@@ -0,0 +1,73 @@
+package com.dreamteam;
+
+import com.dreamteam.core.BattleKernel;
+import com.dreamteam.core.BattleOdds;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests the allocation free battle kernel
+ * against the rules of a round and the exact odds of a round.
+ */
+public class BattleKernelTest {
+
+    /**
+     * Every round must roll dice from 1 to 6, highest first, and lose exactly
+     * as many units in total as there are pairs of dice compared.
+     */
+    @Test
+    public void testRoundRules() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int attackDice = 1; attackDice <= 3; attackDice++) {
+            for (int defendDice = 1; defendDice <= 2; defendDice++) {
+                for (int i = 0; i < 1000; i++) {
+                    int result = BattleKernel.roll(attackDice, defendDice, random);
+                    int[] attack = BattleKernel.getAttackRolls(result, attackDice);
+                    int[] defend = BattleKernel.getDefendRolls(result, defendDice);
+                    for (int d = 0; d < attackDice; d++) {
+                        assertTrue(attack[d] >= 1 && attack[d] <= 6);
+                        if (d > 0) assertTrue(attack[d - 1] >= attack[d]);
+                    }
+                    for (int d = 0; d < defendDice; d++) {
+                        assertTrue(defend[d] >= 1 && defend[d] <= 6);
+                        if (d > 0) assertTrue(defend[d - 1] >= defend[d]);
+                    }
+                    int defendLost = 0;
+                    for (int d = 0; d < Math.min(attackDice, defendDice); d++) {
+                        if (attack[d] > defend[d]) defendLost++;
+                    }
+                    assertEquals(defendLost, BattleKernel.getDefendLost(result));
+                    assertEquals(Math.min(attackDice, defendDice),
+                            BattleKernel.getAttackLost(result) + BattleKernel.getDefendLost(result));
+                }
+            }
+        }
+        assertEquals(0, BattleKernel.roll(0, 2, random));
+    }
+
+    /**
+     * The same seed must give the same rounds, and the outcomes of many rounds
+     * must follow the exact odds of a round.
+     */
+    @Test
+    public void testSeededOdds() {
+        SplittableRandom first = new SplittableRandom(7);
+        SplittableRandom second = new SplittableRandom(7);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(BattleKernel.roll(3, 2, first), BattleKernel.roll(3, 2, second));
+        }
+
+        int rounds = 50000;
+        int[] counts = new int[3];
+        for (int i = 0; i < rounds; i++) {
+            counts[BattleKernel.getAttackLost(BattleKernel.roll(3, 2, first))]++;
+        }
+        double[] odds = BattleOdds.getRoundOdds(3, 2);
+        for (int lost = 0; lost <= 2; lost++) {
+            assertEquals(odds[lost], (double) counts[lost] / rounds, 0.01);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.dreamteam;
+
+import com.dreamteam.core.BattleOdds;
+import com.dreamteam.core.GameSession;
+import com.dreamteam.core.Territory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests the exact odds of battles.
+ */
+public class BattleOddsTest {
+
+    /**
+     * The tolerance of the comparisons of probabilities.
+     */
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Tests the odds of a single round against the well known odds of Risk dice.
+     */
+    @Test
+    public void testRoundOdds() {
+        assertEquals(21.0 / 36, BattleOdds.getRoundOdds(1, 1)[1], DELTA);
+        assertEquals(2890.0 / 7776, BattleOdds.getRoundOdds(3, 2)[0], DELTA);
+        assertEquals(2611.0 / 7776, BattleOdds.getRoundOdds(3, 2)[1], DELTA);
+        assertEquals(2275.0 / 7776, BattleOdds.getRoundOdds(3, 2)[2], DELTA);
+        assertEquals(1770.0 / 7776, BattleOdds.getRoundOdds(2, 2)[0], DELTA);
+        assertEquals(0.7454, BattleOdds.getRoundOdds(1, 2)[1], 1e-4);
+    }
+
+    /**
+     * Tests the odds of whole battles.
+     */
+    @Test
+    public void testBattleOdds() {
+        BattleOdds odds = new BattleOdds(100, 100);
+        assertEquals(0, odds.winProbability(1, 5), DELTA);
+        assertEquals(1, odds.winProbability(5, 0), DELTA);
+        assertEquals(15.0 / 36, odds.winProbability(2, 1), DELTA);
+        //win the first round with two dice, or lose it and win the second round with one die
+        double[] twoDice = BattleOdds.getRoundOdds(2, 1);
+        assertEquals(twoDice[0] + twoDice[1] * 15.0 / 36, odds.winProbability(3, 1), DELTA);
+        assertTrue(odds.winProbability(20, 5) > odds.winProbability(10, 5));
+        assertTrue(odds.winProbability(10, 10) < odds.winProbability(10, 5));
+        assertTrue(odds.expectedAttackersLeft(10, 3) >= 1 && odds.expectedAttackersLeft(10, 3) <= 10);
+        assertEquals(odds.winProbability(100, 100), odds.winProbability(100, 100), DELTA);
+        assertEquals(new BattleOdds(200, 200).winProbability(100, 80), odds.winProbability(100, 80), DELTA);
+        assertTrue(odds.isReady());
+    }
+
+    /**
+     * Tests that battles beyond the bounds of a table are scaled down to it rather than given a table of their own.
+     */
+    @Test
+    public void testLargeArmies() {
+        BattleOdds odds = new BattleOdds(100, 100);
+        //the same entries of the table answer the scaled battles, so no other table was computed for them
+        assertEquals(odds.winProbability(100, 95), odds.winProbability(1000, 950), 0);
+        assertEquals(odds.winProbability(50, 100), odds.winProbability(600, 1200), 0);
+        assertEquals(odds.winProbability(100, 1), odds.winProbability(5000, 1), 0);
+        assertEquals(10 * odds.expectedAttackersLeft(100, 40), odds.expectedAttackersLeft(1000, 400), 1e-9);
+        assertEquals(1, odds.winProbability(1000, 0), DELTA);
+        //the ratio of the armies is what matters
+        BattleOdds exact = new BattleOdds(1000, 1000);
+        assertEquals(exact.winProbability(1000, 950), odds.winProbability(1000, 950), 0.15);
+        assertEquals(exact.winProbability(600, 1200), odds.winProbability(600, 1200), 0.05);
+        assertEquals(exact.expectedDefendersLeft(600, 1200), odds.expectedDefendersLeft(600, 1200), 60);
+        assertEquals(exact.winProbability(501, 450), BattleOdds.getDefault().winProbability(501, 450), 0.05);
+    }
+
+    /**
+     * Tests the odds of a battle against many simulated battles.
+     */
+    @Test
+    public void testAgainstSimulation() {
+        GameSession session = new GameSession();
+        session.setSeed(3110);
+        int won = 0;
+        int battles = 20000;
+        for (int i = 0; i < battles; i++) {
+            Territory attacking = new Territory("A");
+            Territory defending = new Territory("D");
+            attacking.setUnits(6);
+            defending.setUnits(4);
+            while (attacking.getUnits() > 1 && defending.getUnits() > 0) {
+                int[] lost = session.attack(session.getMaxBattleDie(attacking.getUnits(), true),
+                        session.getMaxBattleDie(defending.getUnits(), false));
+                attacking.removeUnits(lost[0]);
+                defending.removeUnits(lost[1]);
+            }
+            if (defending.getUnits() == 0) won++;
+        }
+        assertEquals(BattleOdds.getDefault().winProbability(6, 4), (double) won / battles, 0.015);
+    }
+}
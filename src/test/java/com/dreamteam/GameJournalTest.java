@@ -0,0 +1,184 @@
+package com.dreamteam;
+
+import com.dreamteam.core.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests that the journal of a game rebuilds the positions of the game when replayed.
+ */
+public class GameJournalTest {
+
+    /**
+     * The world the games are played on.
+     */
+    private WorldMap template;
+    /**
+     * The journal file.
+     */
+    private File file;
+
+    /**
+     * Reads the world and creates the journal file.
+     *
+     * @throws IOException When the world could not be read or the file created
+     */
+    @Before
+    public void setUp() throws IOException {
+        template = GameSimulator.readWorld(new File("worlds/world_maps/default.world"));
+        file = File.createTempFile("game", ".journal");
+        file.delete();
+    }
+
+    /**
+     * Deletes the journal file.
+     */
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    /**
+     * Plays a game between AI players to its end, recording it to a journal.
+     *
+     * @param journal The journal
+     * @param seed    The seed of the game
+     * @param blitz   Whether the AI players blitz their attacks
+     * @return The session of the game
+     */
+    private GameSession playGame(GameJournal journal, long seed, boolean blitz) {
+        GameSession game = new GameSession();
+        game.setSeed(seed);
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            players.add(new AIPlayer("AI " + (i + 1)));
+        }
+        game.setPlayers(players);
+        game.setBlitzMode(blitz);
+        game.setAutoPlayAI(false);
+        game.setJournal(journal);
+        game.newGame(new WorldMap(template));
+        while (!game.isGameOver() && game.getTurnCount() < 1000) {
+            game.playAIPhase();
+        }
+        return game;
+    }
+
+    /**
+     * Creates an empty state of the world the games are played on.
+     *
+     * @return The state
+     */
+    private GameState newState() {
+        return new GameState(new WorldMap(template));
+    }
+
+    /**
+     * Tests that replaying the journal of whole games leads to the positions the games ended in.
+     *
+     * @throws IOException When the journal could not be written or read
+     */
+    @Test
+    public void testReplay() throws IOException {
+        GameSession first;
+        GameSession second;
+        try (GameJournal journal = new GameJournal(file)) {
+            first = playGame(journal, 3, false);
+            second = playGame(journal, 4, true);
+            assertTrue(journal.getRecordCount() > first.getBattleCount());
+        }
+        assertTrue(first.isGameOver());
+        GameState live = first.getWorld().getState();
+
+        JournalReplayer replayer = new JournalReplayer(file);
+        GameState state = newState();
+        assertTrue(replayer.replayGame(0, state));
+        assertArrayEquals(live.getOwnerArray(), state.getOwnerArray());
+        assertArrayEquals(live.getUnitArray(), state.getUnitArray());
+        assertEquals(live.getHash(), state.getHash());
+        assertEquals(live.getSeat(first.getWinner()), replayer.getWinner());
+        assertEquals(first.getTurnCount() + 1, replayer.getTurns());
+
+        //the whole journal ends in the position of the second game
+        replayer.rewind();
+        state = newState();
+        replayer.replay(state);
+        assertEquals(2, replayer.getGameCount());
+        assertEquals(second.getWorld().getState().getHash(), state.getHash());
+        assertEquals(second.getGamePhase(), replayer.getPhase());
+        assertFalse(replayer.replayGame(2, newState()));
+    }
+
+    /**
+     * Tests that a record torn by a crash is ignored, and that a journal opened again is appended to after its
+     * last complete record.
+     *
+     * @throws IOException When the journal could not be written or read
+     */
+    @Test
+    public void testTornRecord() throws IOException {
+        GameSession game;
+        long length;
+        try (GameJournal journal = new GameJournal(file)) {
+            game = playGame(journal, 7, true);
+            length = journal.getLength();
+        }
+        //half of a record written when the game crashed
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(length);
+            raw.write(new byte[]{6, 1, 0});
+        }
+        JournalReplayer replayer = new JournalReplayer(file);
+        GameState state = newState();
+        replayer.replay(state);
+        assertEquals(game.getWorld().getState().getHash(), state.getHash());
+
+        try (GameJournal journal = new GameJournal(file)) {
+            assertEquals(length, journal.getLength());
+            playGame(journal, 8, true);
+        }
+        replayer = new JournalReplayer(file);
+        assertTrue(replayer.replayGame(1, newState()));
+    }
+
+    /**
+     * Tests that a journal closed and opened again is appended to, game after game, and that territories
+     * that do not fit the records are refused.
+     *
+     * @throws IOException When the journal could not be written or read
+     */
+    @Test
+    public void testReopen() throws IOException {
+        long[] hashes = new long[3];
+        long length = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            try (GameJournal journal = new GameJournal(file)) {
+                if (i > 0) assertEquals(length, journal.getLength());
+                hashes[i] = playGame(journal, 20 + i, i % 2 == 0).getWorld().getState().getHash();
+                length = journal.getLength();
+                try {
+                    journal.place(Short.MAX_VALUE + 1, 1);
+                    fail("A territory beyond the records was journaled.");
+                } catch (IllegalArgumentException e) {
+                    assertEquals(length, journal.getLength());
+                }
+            }
+        }
+        JournalReplayer replayer = new JournalReplayer(file);
+        for (int i = 0; i < hashes.length; i++) {
+            GameState state = newState();
+            assertTrue(replayer.replayGame(i, state));
+            assertEquals(hashes[i], state.getHash());
+        }
+        assertFalse(replayer.replayGame(hashes.length, newState()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.dreamteam;
+
+import com.dreamteam.core.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests that many independent game sessions
+ * can be hosted and managed at once.
+ */
+public class GameSessionRegistryTest {
+
+    /**
+     * The registry of sessions being tested.
+     */
+    private GameSessionRegistry registry;
+
+    /**
+     * Sets up an empty registry.
+     */
+    @Before
+    public void setUp() {
+        registry = new GameSessionRegistry();
+    }
+
+    /**
+     * Starts a new game in the given session with two human players on the test world.
+     *
+     * @param session The session to start the game in
+     * @throws IOException When the test world could not be read
+     */
+    private void startGame(GameSession session) throws IOException {
+        List<Player> players = new ArrayList<>();
+        players.add(new Player("Ethan"));
+        players.add(new Player("Kyler"));
+        session.setPlayers(players);
+        session.newGame(new ZipFile(new File("src/test/resources/test1.world")));
+    }
+
+    /**
+     * Tests that the turn and phase of one session do not affect another.
+     *
+     * @throws IOException When the test world could not be read
+     */
+    @Test
+    public void testIndependentSessions() throws IOException {
+        GameSession first = registry.get(registry.create());
+        GameSession second = registry.get(registry.create());
+        startGame(first);
+        startGame(second);
+
+        Player secondPlayer = second.getCurrentPlayer();
+        first.nextPlayer();
+        first.nextPhase();
+
+        assertEquals(secondPlayer, second.getCurrentPlayer());
+        assertNotEquals(first.getWorld(), second.getWorld());
+        assertNotEquals(first.getWorld().getTerritory("Test1"), second.getWorld().getTerritory("Test1"));
+        assertEquals(2, registry.size());
+    }
+
+    /**
+     * Tests the creation, look up and eviction of many sessions from many threads.
+     *
+     * @throws InterruptedException When the test is interrupted
+     */
+    @Test
+    public void testConcurrentSessions() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 5000; i++) {
+            pool.execute(() -> {
+                long id = registry.create();
+                assertNotNull(registry.get(id));
+                if (id % 2 == 0) assertNotNull(registry.evict(id));
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(2500, registry.size());
+        assertEquals(2500, registry.evictIf(session -> true).size());
+        assertEquals(0, registry.size());
+    }
+
+    /**
+     * Tests that only sessions with a finished game are evicted, and that they are not cleaned by the registry.
+     * A session with only AI players plays the whole game as soon as it starts.
+     *
+     * @throws IOException When the test world could not be read
+     */
+    @Test
+    public void testEvictFinished() throws IOException {
+        GameSession playing = registry.get(registry.create());
+        startGame(playing);
+
+        GameSession finished = registry.get(registry.create());
+        List<Player> players = new ArrayList<>();
+        players.add(new AIPlayer("AI 1"));
+        players.add(new AIPlayer("AI 2"));
+        finished.setPlayers(players);
+        finished.newGame(new ZipFile(new File("src/test/resources/test1.world")));
+
+        assertTrue(finished.isGameOver());
+        assertFalse(playing.isGameOver());
+        assertEquals(List.of(finished), registry.evictFinished());
+        assertEquals(1, registry.size());
+        assertEquals(playing, registry.getSessions().iterator().next());
+        //the evicted session is left to its own thread to clean
+        assertNotNull(finished.getGamePhase());
+        assertNotNull(finished.getCurrentPlayer());
+        finished.clean();
+        assertNull(finished.getGamePhase());
+    }
+}
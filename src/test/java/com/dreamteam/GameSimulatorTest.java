@@ -0,0 +1,64 @@
+package com.dreamteam;
+
+import com.dreamteam.core.GameSimulator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests the headless simulation of AI only games.
+ */
+public class GameSimulatorTest {
+
+    /**
+     * The simulator playing games on the test world.
+     */
+    private GameSimulator simulator;
+
+    /**
+     * Sets up a simulator for two AI players on the test world.
+     *
+     * @throws IOException When the test world could not be read
+     */
+    @Before
+    public void setUp() throws IOException {
+        simulator = new GameSimulator(new File("src/test/resources/test1.world"), 2, 1000);
+    }
+
+    /**
+     * Tests that AI only games are played until one of the AIs has won.
+     */
+    @Test
+    public void testPlayGameToEnd() {
+        simulator.run(5);
+        assertEquals(5, simulator.getGamesPlayed());
+        assertEquals(5, simulator.getGamesFinished());
+        assertTrue(simulator.getTurnsPlayed() > 0);
+        assertTrue(simulator.getTurnsPerSecond() > 0);
+    }
+
+    /**
+     * Tests that a game which does not finish is abandoned after the maximum amount of turns.
+     *
+     * @throws IOException When the test world could not be read
+     */
+    @Test
+    public void testMaxTurns() throws IOException {
+        simulator = new GameSimulator(new File("src/test/resources/test1.world"), 2, 1);
+        assertTrue(simulator.playGame() <= 1);
+    }
+
+    /**
+     * Tests that a game needs at least two players.
+     *
+     * @throws IOException When the test world could not be read
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewPlayers() throws IOException {
+        new GameSimulator(new File("src/test/resources/test1.world"), 1, 10);
+    }
+}
@@ -252,6 +252,27 @@ public class GameSingletonTest {
         assertEquals(5, t2.getUnits());
     }
 
+    /**
+     * Test moveBonus() in GameSingleton class
+     * <p>
+     * A bonus unit is placed straight on the territory of the map, without
+     * changing its owner or any other territory.
+     */
+    @Test
+    public void testMoveBonus() {
+        Territory territory = gsm.getWorld().getTerritory(0);
+        Player owner = territory.getOwner();
+        int units = territory.getUnits();
+        int[] before = gsm.getWorld().getState().getUnitArray().clone();
+
+        gsm.moveBonus(territory);
+
+        assertEquals(units + 1, territory.getUnits());
+        assertEquals(owner, territory.getOwner());
+        before[0]++;
+        assertArrayEquals(before, gsm.getWorld().getState().getUnitArray());
+    }
+
     /**
      * Test attack() in GameSingleton class
      * <p>
@@ -314,20 +335,77 @@ public class GameSingletonTest {
         assertFalse("Error, can't lose negative defending units", lowDefendingLost > lost[1]);
     }
 
+    /**
+     * Test blitz() in GameSingleton class
+     * <p>
+     * A blitz to the end must leave either an empty defending territory or a single
+     * attacking unit, without ever losing more units than there were. A blitz whose odds
+     * are below the threshold must not fight at all, whatever the size of the armies. Over many
+     * blitzes the attacker must conquer the territory about as often as the exact odds predict.
+     */
+    @Test
+    public void testBlitz() {
+        Player ethan = players.get(0);
+        Player anthony = players.get(1);
+        gsm.setSeed(42);
+
+        Territory t1 = new Territory("Earth");
+        t1.setOwner(ethan);
+        Territory t2 = new Territory("Pluto");
+        t2.setOwner(anthony);
+
+        t1.setUnits(2);
+        t2.setUnits(10);
+        assertFalse(gsm.blitz(t1, t2, 0.5));
+        assertEquals(2, t1.getUnits());
+        assertEquals(10, t2.getUnits());
+
+        int battles = gsm.getBattleCount();
+        t1.setUnits(12);
+        t2.setUnits(8);
+        boolean won = gsm.blitz(t1, t2, 0);
+        assertTrue(gsm.getBattleCount() > battles);
+        assertEquals(won, t2.getUnits() == 0);
+        assertTrue(won || t1.getUnits() == 1);
+        assertTrue(t1.getUnits() >= 1 && t2.getUnits() >= 0);
+
+        int games = 4000;
+        int wins = 0;
+        for (int i = 0; i < games; i++) {
+            t1.setUnits(10);
+            t2.setUnits(7);
+            if (gsm.blitz(t1, t2, 0)) wins++;
+        }
+        assertEquals(BattleOdds.getDefault().winProbability(10, 7), (double) wins / games, 0.03);
+
+        //armies beyond the table stop once their odds, scaled down to the table, drop to the threshold
+        t1.setUnits(20000);
+        t2.setUnits(25000);
+        assertFalse(gsm.blitz(t1, t2, 0.5));
+        assertEquals(20000, t1.getUnits());
+        t2.setUnits(23000);
+        won = gsm.blitz(t1, t2, 0.5);
+        assertTrue(t1.getUnits() < 20000);
+        assertTrue(won || BattleOdds.getDefault().winProbability(t1.getUnits(), t2.getUnits()) <= 0.5);
+    }
+
     /**
      * Test rollDice() in GameSingleton class
      * <p>
      * Checks that when a set of dice are rolled, that the results
-     * are within and including 1 and 6.
+     * are within and including 1 and 6, and that they follow the seed of the game.
      */
     @Test
     public void testRollDie() {
+        gsm.setSeed(7);
         int[] theRolls = gsm.rollDice(3);
         assertEquals(3, theRolls.length);
         for (int i = 0; i < 3; i++) {
             assertTrue(theRolls[i] > 0);
             assertTrue(theRolls[i] < 7);
         }
+        gsm.setSeed(7);
+        assertArrayEquals(theRolls, gsm.rollDice(3));
     }
 
     /**
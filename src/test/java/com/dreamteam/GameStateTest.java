@@ -0,0 +1,357 @@
+package com.dreamteam;
+
+import com.dreamteam.core.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests that territories and players are views over the
+ * struct of arrays state of a game.
+ */
+public class GameStateTest {
+
+    /**
+     * The world the game is played on.
+     */
+    private WorldMap world;
+    /**
+     * The players of the game.
+     */
+    private List<Player> players;
+
+    /**
+     * Sets up a world on the test map with two players.
+     *
+     * @throws IOException When the test world could not be read
+     */
+    @Before
+    public void setUp() throws IOException {
+        world = GameSimulator.readWorld(new File("src/test/resources/test1.world"));
+        players = new ArrayList<>();
+        players.add(new Player("Ethan"));
+        players.add(new Player("Kyler"));
+        world.assignNewMap(players);
+    }
+
+    /**
+     * Tests that the territories and players read and write the arrays of the state.
+     */
+    @Test
+    public void testViews() {
+        GameState state = world.getState();
+        Territory territory = world.getTerritory(0);
+        Player owner = territory.getOwner();
+        Player other = (owner == players.get(0)) ? players.get(1) : players.get(0);
+
+        assertEquals(state.getSeat(owner), state.getOwner(0));
+        assertTrue(owner.ownsTerritory(territory));
+        assertTrue(state.getOwned(owner.getSeat()).get(0));
+
+        int owned = owner.getOwnedTerritories().size();
+        territory.setOwner(other);
+        territory.setUnits(7);
+        assertEquals(other, territory.getOwner());
+        assertEquals(7, state.getUnits(0));
+        assertEquals(owned - 1, owner.getOwnedTerritories().size());
+        assertFalse(owner.getOwnedTerritories().contains(territory));
+        assertTrue(other.getOwnedTerritories().contains(territory));
+        assertEquals(state.size(), owner.getOwnedTerritories().size() + other.getOwnedTerritories().size());
+    }
+
+    /**
+     * Tests that a copied state is independent of the original and can be restored into it.
+     */
+    @Test
+    public void testCopy() {
+        GameState state = world.getState();
+        GameState copy = new GameState(state);
+        Territory territory = world.getTerritory(0);
+        int units = territory.getUnits();
+        int owner = state.getOwner(0);
+
+        copy.setOwner(0, 1 - owner);
+        copy.addUnits(0, 5);
+        assertEquals(owner, state.getOwner(0));
+        assertEquals(units, territory.getUnits());
+
+        state.copyFrom(copy);
+        assertEquals(1 - owner, state.getOwner(0));
+        assertEquals(units + 5, territory.getUnits());
+        assertEquals(players.get(1 - owner), territory.getOwner());
+        assertEquals(copy.getOwnedCount(owner), state.getOwnedCount(owner));
+    }
+
+    /**
+     * Tests that the rulers of the continents are kept up to date as territories change hands,
+     * by comparing them against a full scan of every continent after every change.
+     *
+     * @throws IOException When the world could not be read
+     */
+    @Test
+    public void testContinentRulers() throws IOException {
+        world = GameSimulator.readWorld(new File("worlds/world_maps/default.world"));
+        world.assignNewMap(players);
+        WorldTopology topology = world.getTopology();
+        GameState state = world.getState();
+        SplittableRandom random = new SplittableRandom(3110);
+        for (int change = 0; change < 2000; change++) {
+            //bias the changes toward one player so that continents are ruled now and then
+            Player owner = players.get(random.nextInt(4) == 0 ? 1 : 0);
+            world.getTerritory(random.nextInt(topology.size())).setOwner(owner);
+            for (Player player : players) {
+                int bonus = 0;
+                for (int c = 0; c < topology.getContinentCount(); c++) {
+                    boolean rules = true;
+                    for (int i = topology.getContinentOffsets()[c]; i < topology.getContinentOffsets()[c + 1]; i++) {
+                        rules &= world.getTerritory(topology.getContinentMembers()[i]).getOwner() == player;
+                    }
+                    assertEquals(rules, state.getRuled(player.getSeat()).get(c));
+                    if (rules) bonus += topology.getContinentBonus(c);
+                }
+                assertEquals(bonus, world.getRuledBonus(player));
+                assertEquals(state.getRuled(player.getSeat()).cardinality(), world.getRuled(player).size());
+            }
+        }
+    }
+
+    /**
+     * Tests that the border counts and the frontiers are kept up to date as territories change
+     * hands and units, by comparing them against a scan of the neighbours after every change.
+     *
+     * @throws IOException When the world could not be read
+     */
+    @Test
+    public void testBorders() throws IOException {
+        world = GameSimulator.readWorld(new File("worlds/world_maps/default.world"));
+        world.assignNewMap(players);
+        WorldTopology topology = world.getTopology();
+        GameState state = world.getState();
+        SplittableRandom random = new SplittableRandom(3110);
+        for (int change = 0; change < 2000; change++) {
+            int changed = random.nextInt(topology.size());
+            if (random.nextBoolean()) state.setOwner(changed, random.nextInt(players.size()));
+            else if (random.nextBoolean()) state.setUnits(changed, 1 + random.nextInt(20));
+            else state.addUnits(changed, random.nextInt(5) - 2);
+            for (int t = 0; t < topology.size(); t++) {
+                int friendly = 0;
+                int enemy = 0;
+                for (int i = topology.getOffsets()[t]; i < topology.getOffsets()[t + 1]; i++) {
+                    int adj = topology.getAdjacency()[i];
+                    if (state.getOwner(adj) == state.getOwner(t)) friendly++;
+                    else enemy += state.getUnits(adj);
+                }
+                assertEquals(friendly, state.getFriendlyNeighbours(t));
+                assertEquals(enemy, state.getEnemyNeighbourUnits(t));
+                for (Player player : players) {
+                    boolean frontier = state.getOwner(t) == player.getSeat() && friendly < topology.degree(t);
+                    assertEquals(frontier, state.getFrontier(player.getSeat()).get(t));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the connected components of every seat follow the territories changing hands,
+     * by comparing them against a breadth first search after every change.
+     *
+     * @throws IOException When the world could not be read
+     */
+    @Test
+    public void testComponents() throws IOException {
+        world = GameSimulator.readWorld(new File("worlds/world_maps/default.world"));
+        world.assignNewMap(players);
+        WorldTopology topology = world.getTopology();
+        GameState state = world.getState();
+        OwnedComponents components = state.getComponents();
+        SplittableRandom random = new SplittableRandom(3110);
+        for (int change = 0; change < 500; change++) {
+            state.setOwner(random.nextInt(topology.size()), random.nextInt(players.size()));
+            int from = random.nextInt(topology.size());
+            boolean[] reached = new boolean[topology.size()];
+            int[] queue = new int[topology.size()];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = from;
+            reached[from] = true;
+            while (head < tail) {
+                int current = queue[head++];
+                for (int i = topology.getOffsets()[current]; i < topology.getOffsets()[current + 1]; i++) {
+                    int adj = topology.getAdjacency()[i];
+                    if (!reached[adj] && state.getOwner(adj) == state.getOwner(from)) {
+                        reached[adj] = true;
+                        queue[tail++] = adj;
+                    }
+                }
+            }
+            for (int t = 0; t < topology.size(); t++) {
+                assertEquals(reached[t], components.isConnected(from, t));
+            }
+            assertEquals(tail, components.getComponentSize(from));
+            int seat = state.getOwner(from);
+            int component = components.getComponent(from);
+            int[] offsets = components.getOffsets(seat);
+            assertEquals(state.getOwnedCount(seat), offsets[components.getComponentCount(seat)]);
+            for (int i = offsets[component]; i < offsets[component + 1]; i++) {
+                assertTrue(reached[components.getMembers(seat)[i]]);
+            }
+        }
+    }
+
+    /**
+     * Tests that forks of a state can be changed by many threads at once without touching
+     * the state they were forked from or each other.
+     *
+     * @throws Exception When a thread failed
+     */
+    @Test
+    public void testFork() throws Exception {
+        world = GameSimulator.readWorld(new File("worlds/world_maps/default.world"));
+        world.assignNewMap(players);
+        GameState state = world.getState();
+        GameState before = new GameState(state);
+        WorldTopology topology = world.getTopology();
+        int size = state.size();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                long seed = thread;
+                results.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    boolean consistent = true;
+                    for (int fork = 0; fork < 50; fork++) {
+                        GameState lookahead = state.fork();
+                        int expected = 0;
+                        for (int t = 0; t < size; t++) {
+                            expected += lookahead.getUnits(t);
+                        }
+                        for (int move = 0; move < 20; move++) {
+                            int from = random.nextInt(size);
+                            int to = random.nextInt(size);
+                            if (from == to) continue;
+                            if (random.nextBoolean()) {
+                                expected -= lookahead.getUnits(to);
+                                lookahead.capture(from, to, 1);
+                            } else {
+                                lookahead.moveUnits(from, to, 1);
+                            }
+                        }
+                        int units = 0;
+                        for (int t = 0; t < size; t++) {
+                            units += lookahead.getUnits(t);
+                            int friendly = 0;
+                            for (int i = topology.getOffsets()[t]; i < topology.getOffsets()[t + 1]; i++) {
+                                if (lookahead.getOwner(topology.getAdjacency()[i]) == lookahead.getOwner(t)) friendly++;
+                            }
+                            consistent &= friendly == lookahead.getFriendlyNeighbours(t);
+                        }
+                        consistent &= units == expected;
+                        consistent &= lookahead.getOwnedCount(0) + lookahead.getOwnedCount(1) == size;
+                    }
+                    return consistent;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        for (int t = 0; t < size; t++) {
+            assertEquals(before.getOwner(t), state.getOwner(t));
+            assertEquals(before.getUnits(t), state.getUnits(t));
+        }
+    }
+
+    /**
+     * Tests that the hash of the territories is kept up to date, and is the same for the same position
+     * however it was reached.
+     *
+     * @throws IOException When the world could not be read
+     */
+    @Test
+    public void testHash() throws IOException {
+        world = GameSimulator.readWorld(new File("worlds/world_maps/default.world"));
+        world.assignNewMap(players);
+        GameState state = world.getState();
+        long start = state.getHash();
+        int size = state.size();
+        SplittableRandom random = new SplittableRandom(5);
+        for (int move = 0; move < 500; move++) {
+            int from = random.nextInt(size);
+            int to = random.nextInt(size);
+            if (from == to || state.getUnits(from) < 2) continue;
+            if (random.nextBoolean()) {
+                state.capture(from, to, 1);
+            } else {
+                state.moveUnits(from, to, random.nextInt(state.getUnits(from)));
+            }
+        }
+        long hash = 0;
+        for (int t = 0; t < size; t++) {
+            hash ^= Zobrist.territory(t, state.getOwner(t), state.getUnits(t));
+        }
+        assertEquals(hash, state.getHash());
+        assertNotEquals(start, state.getHash());
+
+        //the same position reached in another order
+        GameState lookahead = state.fork();
+        lookahead.addUnits(0, 3);
+        lookahead.addUnits(1, 2);
+        GameState other = state.fork();
+        other.addUnits(1, 2);
+        other.addUnits(0, 3);
+        assertEquals(lookahead.getHash(), other.getHash());
+        lookahead.addUnits(0, -3);
+        lookahead.addUnits(1, -2);
+        assertEquals(state.getHash(), lookahead.getHash());
+
+        //units are bucketed, phases and turns are told apart
+        assertEquals(Zobrist.bucket(20), Zobrist.bucket(21));
+        assertNotEquals(Zobrist.bucket(7), Zobrist.bucket(8));
+        lookahead.setUnits(2, 20);
+        other.copyFrom(lookahead);
+        other.setUnits(2, 21);
+        assertEquals(lookahead.getHash(), other.getHash());
+        assertNotEquals(state.getHash(GamePhase.ATTACK, 0), state.getHash(GamePhase.MOVE_UNITS, 0));
+        assertNotEquals(state.getHash(GamePhase.ATTACK, 0), state.getHash(GamePhase.ATTACK, 1));
+        state.clear();
+        assertEquals(new GameState(world).getHash(), state.getHash());
+    }
+
+    /**
+     * Tests that a state that tracks its changes reports every territory first, then only the territories
+     * whose owner or units changed.
+     */
+    @Test
+    public void testChanges() {
+        GameState state = world.getState();
+        state.addUnits(0, 1);
+        assertFalse(state.isTrackingChanges());
+        assertEquals(0, state.takeChanges().length);
+
+        state.trackChanges();
+        assertEquals(state.size(), state.takeChanges().length);
+        assertEquals(0, state.takeChanges().length);
+        state.addUnits(2, 3);
+        state.addUnits(0, 1);
+        state.setOwner(2, state.getOwner(0));
+        assertArrayEquals(new int[]{0, 2}, state.takeChanges());
+        //forks do not track the changes of a lookahead
+        GameState fork = state.fork();
+        fork.addUnits(1, 1);
+        assertFalse(fork.isTrackingChanges());
+        assertEquals(0, state.takeChanges().length);
+    }
+}
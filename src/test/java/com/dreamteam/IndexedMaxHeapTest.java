@@ -0,0 +1,53 @@
+package com.dreamteam;
+
+import com.dreamteam.core.IndexedMaxHeap;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests the indexed max-heap against a plain array of priorities.
+ */
+public class IndexedMaxHeapTest {
+
+    /**
+     * Inserts, updates and removes random keys and checks after every operation that the
+     * top of the heap is the key with the highest priority (the smallest key on a tie).
+     */
+    @Test
+    public void testAgainstArray() {
+        int capacity = 64;
+        IndexedMaxHeap heap = new IndexedMaxHeap(capacity);
+        double[] priorities = new double[capacity];
+        boolean[] present = new boolean[capacity];
+        SplittableRandom random = new SplittableRandom(3);
+        for (int op = 0; op < 20000; op++) {
+            int key = random.nextInt(capacity);
+            if (random.nextInt(4) == 0) {
+                heap.remove(key);
+                present[key] = false;
+            } else {
+                //few distinct priorities, so that ties are common
+                double priority = random.nextInt(10);
+                heap.set(key, priority);
+                priorities[key] = priority;
+                present[key] = true;
+            }
+            int expected = -1;
+            int size = 0;
+            for (int k = 0; k < capacity; k++) {
+                if (!present[k]) continue;
+                size++;
+                if (expected < 0 || priorities[k] > priorities[expected]) expected = k;
+            }
+            assertEquals(size, heap.size());
+            assertEquals(expected, heap.peek());
+            assertEquals(present[key], heap.contains(key));
+        }
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertEquals(-1, heap.poll());
+    }
+}
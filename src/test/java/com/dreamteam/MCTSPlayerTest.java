@@ -0,0 +1,88 @@
+package com.dreamteam;
+
+import com.dreamteam.core.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests games played by the Monte Carlo tree search player.
+ */
+public class MCTSPlayerTest {
+
+    /**
+     * The world the games are played on.
+     */
+    private WorldMap template;
+    /**
+     * The threads the search runs on.
+     */
+    private ExecutorService pool;
+
+    /**
+     * Reads the test world and starts two search threads.
+     *
+     * @throws IOException When the test world could not be read
+     */
+    @Before
+    public void setUp() throws IOException {
+        template = GameSimulator.readWorld(new File("src/test/resources/test1.world"));
+        pool = Executors.newFixedThreadPool(2);
+    }
+
+    /**
+     * Stops the search threads.
+     */
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Plays a game between a search player and an AI player.
+     *
+     * @param search The search player
+     * @return The result of the game
+     */
+    private GameResult play(MCTSPlayer search) {
+        search.setSeed(42);
+        search.setRolloutLimit(20);
+        List<Player> players = new ArrayList<>();
+        players.add(search);
+        players.add(new AIPlayer("AI"));
+        return GameSimulator.playGame(template, players, 1000, 7);
+    }
+
+    /**
+     * Tests that a search player plays a game to its end, searching its decisions with rollouts.
+     */
+    @Test
+    public void testPlayGameToEnd() {
+        MCTSPlayer search = new MCTSPlayer("MCTS", pool, 2, 1000);
+        GameResult result = play(search);
+        assertTrue(result.isFinished());
+        assertTrue(search.getRollouts() > 0);
+        assertTrue(search.getRolloutsPerSecondPerCore() > 0);
+    }
+
+    /**
+     * Tests that a search limited to a number of rollouts plays the same game whatever the order
+     * its threads run in.
+     */
+    @Test
+    public void testDeterministic() {
+        GameResult first = play(new MCTSPlayer("MCTS", pool, 2, 1000));
+        GameResult second = play(new MCTSPlayer("MCTS", pool, 2, 1000));
+        assertEquals(first.getWinner(), second.getWinner());
+        assertEquals(first.getTurns(), second.getTurns());
+    }
+}
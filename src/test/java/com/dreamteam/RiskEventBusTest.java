@@ -0,0 +1,316 @@
+package com.dreamteam;
+
+import com.dreamteam.core.BattleKernel;
+import com.dreamteam.core.MapUpdate;
+import com.dreamteam.view.BattleEvent;
+import com.dreamteam.view.DiceRolledEvent;
+import com.dreamteam.view.RiskEvent;
+import com.dreamteam.view.RiskEventBus;
+import com.dreamteam.view.RiskEventPool;
+import com.dreamteam.view.RiskEventType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests the delivery of game events to handlers on their executors.
+ */
+public class RiskEventBusTest {
+
+    /**
+     * The delivery tasks handed to the executor, run when the test decides, as a frame of the event thread would.
+     */
+    private ArrayDeque<Runnable> frame;
+    /**
+     * The events delivered to the handler, in order.
+     */
+    private List<RiskEvent> delivered;
+
+    /**
+     * Clears the tasks and the events.
+     */
+    @Before
+    public void setUp() {
+        frame = new ArrayDeque<>();
+        delivered = new ArrayList<>();
+    }
+
+    /**
+     * Creates an event.
+     *
+     * @param type The type of the event
+     * @param info The data of the event
+     * @return The event
+     */
+    private RiskEvent event(RiskEventType type, Object... info) {
+        return new RiskEvent(this, type, info);
+    }
+
+    /**
+     * Runs the delivery tasks handed to the executor.
+     */
+    private void runFrame() {
+        while (!frame.isEmpty()) {
+            frame.poll().run();
+        }
+    }
+
+    /**
+     * Tests that the events of a frame are delivered in one task, in order, and that map and phase updates
+     * are superseded by newer ones.
+     */
+    @Test
+    public void testCoalescing() {
+        RiskEventBus bus = new RiskEventBus();
+        bus.subscribe(delivered::add, frame::add);
+        RiskEvent began = event(RiskEventType.TURN_BEGAN);
+        RiskEvent map = event(RiskEventType.UPDATE_MAP, 2);
+        RiskEvent phase = event(RiskEventType.PHASE_CHANGE, 2);
+        bus.publish(event(RiskEventType.UPDATE_MAP, 1));
+        bus.publish(event(RiskEventType.PHASE_CHANGE, 1));
+        bus.publish(began);
+        bus.publish(map);
+        bus.publish(phase);
+        assertTrue(delivered.isEmpty());
+        assertEquals(1, frame.size());
+
+        runFrame();
+        assertEquals(List.of(began, map, phase), delivered);
+        assertEquals(2, bus.getCoalescedCount());
+
+        //a new frame starts a new batch
+        bus.publish(began);
+        assertEquals(1, frame.size());
+        runFrame();
+        assertEquals(4, delivered.size());
+    }
+
+    /**
+     * Tests that a map update superseded in a queue is merged into the newer one, so that no change is lost.
+     */
+    @Test
+    public void testMapUpdateMerge() {
+        RiskEventBus bus = new RiskEventBus();
+        bus.subscribe(delivered::add, frame::add);
+        BitSet highlight = new BitSet();
+        highlight.set(1);
+        bus.publish(event(RiskEventType.UPDATE_MAP, new MapUpdate(new int[]{1, 2}, new int[]{0, 0},
+                new int[]{3, 4}, highlight)));
+        bus.publish(event(RiskEventType.UPDATE_MAP, new MapUpdate(new int[]{2, 5}, new int[]{1, 1},
+                new int[]{1, 2}, null)));
+        runFrame();
+        assertEquals(1, delivered.size());
+        MapUpdate update = (MapUpdate) delivered.get(0).getEventInfo()[0];
+        assertEquals(3, update.getCount());
+        int[] units = new int[6];
+        int[] owners = new int[6];
+        for (int i = 0; i < update.getCount(); i++) {
+            units[update.getTerritory(i)] = update.getUnits(i);
+            owners[update.getTerritory(i)] = update.getOwner(i);
+        }
+        assertArrayEquals(new int[]{0, 3, 1, 0, 0, 2}, units);
+        assertArrayEquals(new int[]{0, 0, 1, 0, 0, 1}, owners);
+        assertSame(highlight, update.getHighlight());
+    }
+
+    /**
+     * Tests that handlers without an executor are called at once, and that events published now are delivered
+     * after the events queued before them, on the calling thread.
+     */
+    @Test
+    public void testPublishNow() {
+        RiskEventBus bus = new RiskEventBus();
+        List<RiskEvent> direct = new ArrayList<>();
+        bus.subscribe(direct::add);
+        bus.subscribe(delivered::add, frame::add);
+        RiskEvent began = event(RiskEventType.TURN_BEGAN);
+        RiskEvent select = event(RiskEventType.SELECT_ATTACK_DIE);
+        bus.publish(began);
+        assertEquals(List.of(began), direct);
+        bus.publishNow(select);
+        assertEquals(List.of(began, select), direct);
+        assertEquals(List.of(began, select), delivered);
+        runFrame();
+        assertEquals(2, delivered.size());
+    }
+
+    /**
+     * Tests that events only reach the handlers subscribed to their type.
+     */
+    @Test
+    public void testTypeFilter() {
+        RiskEventBus bus = new RiskEventBus();
+        List<RiskEvent> all = new ArrayList<>();
+        bus.subscribe(all::add);
+        bus.subscribe(delivered::add, null, EnumSet.of(RiskEventType.UPDATE_MAP));
+        assertTrue(bus.hasSubscribers(RiskEventType.UPDATE_MAP));
+        assertTrue(bus.hasSubscribers(RiskEventType.TURN_BEGAN));
+        RiskEvent began = event(RiskEventType.TURN_BEGAN);
+        RiskEvent map = event(RiskEventType.UPDATE_MAP);
+        bus.publish(began);
+        bus.publish(map);
+        assertEquals(List.of(began, map), all);
+        assertEquals(List.of(map), delivered);
+
+        bus.unsubscribeAll();
+        assertFalse(bus.hasSubscribers(RiskEventType.UPDATE_MAP));
+        bus.publish(map);
+        assertEquals(1, delivered.size());
+    }
+
+    /**
+     * Tests that a pool reuses its events only while every handler is called on the publishing thread and the
+     * event was given back, and that typed events still box their data as the untyped events did.
+     */
+    @Test
+    public void testPooledEvents() {
+        RiskEventBus bus = new RiskEventBus();
+        bus.subscribe(delivered::add);
+        RiskEventPool pool = new RiskEventPool(bus);
+        BattleEvent fresh = pool.battle(this, RiskEventType.ATTACK_COMMENCED, null, null, null, null, 0, 0, 0, false);
+        assertNotSame(fresh, pool.battle(this, RiskEventType.ATTACK_COMMENCED, null, null, null, null, 0, 0, 0, false));
+
+        pool.setPooling(true);
+        BattleEvent pooled = pool.battle(this, RiskEventType.ATTACK_COMPLETED, null, null, null, null, 2, 1, 1, false);
+        //a battle published while the first one is being delivered
+        BattleEvent nested = pool.battle(this, RiskEventType.ATTACK_COMPLETED, null, null, null, null, 0, 2, 1, true);
+        assertNotSame(pooled, nested);
+        assertArrayEquals(new int[]{2, 1}, (int[]) pooled.getEventInfo()[2]);
+        pool.release(pooled);
+        BattleEvent blitz = pool.battle(this, RiskEventType.BLITZ_COMPLETED, null, null, null, null, 4, 3, 3, true);
+        assertSame(pooled, blitz);
+        assertEquals(RiskEventType.BLITZ_COMPLETED, blitz.getType());
+        assertEquals(3, blitz.getRounds());
+        assertTrue(blitz.isConquered());
+        pool.release(blitz);
+
+        int result = BattleKernel.roll(3, 2, new SplittableRandom(1));
+        DiceRolledEvent dice = pool.diceRolled(this, result, 3, true);
+        assertArrayEquals(BattleKernel.getAttackRolls(result, 3), (int[]) dice.getEventInfo()[0]);
+        assertEquals(BattleKernel.getAttackDie(result, 2), dice.getDie(2));
+        pool.release(dice);
+
+        //handlers on another thread may still see an event after it is published
+        bus.subscribe(delivered::add, frame::add);
+        assertNotSame(pooled, pool.battle(this, RiskEventType.ATTACK_COMMENCED, null, null, null, null, 0, 0, 0,
+                false));
+    }
+
+    /**
+     * Tests the policies of full queues that drop events or have the publisher deliver them.
+     */
+    @Test
+    public void testBackpressure() {
+        RiskEventBus dropping = new RiskEventBus(2, RiskEventBus.Backpressure.DROP_OLDEST);
+        dropping.subscribe(delivered::add, frame::add);
+        RiskEvent[] events = new RiskEvent[3];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = event(RiskEventType.DIE_ROLLED, i);
+            dropping.publish(events[i]);
+        }
+        runFrame();
+        assertEquals(List.of(events[1], events[2]), delivered);
+        assertEquals(1, dropping.getDroppedCount());
+
+        delivered.clear();
+        RiskEventBus callerRuns = new RiskEventBus(2, RiskEventBus.Backpressure.CALLER_RUNS);
+        callerRuns.subscribe(delivered::add, frame::add);
+        for (RiskEvent e : events) {
+            callerRuns.publish(e);
+        }
+        assertEquals(List.of(events), delivered);
+        runFrame();
+        assertEquals(3, delivered.size());
+        assertEquals(0, callerRuns.getDroppedCount());
+    }
+
+    /**
+     * Tests that a full queue that drops events never drops the changes of the map, which are merged instead.
+     */
+    @Test
+    public void testDropKeepsMapUpdates() {
+        RiskEventBus bus = new RiskEventBus(2, RiskEventBus.Backpressure.DROP_OLDEST);
+        bus.subscribe(delivered::add, frame::add);
+        bus.publish(event(RiskEventType.UPDATE_MAP, new MapUpdate(new int[]{1}, new int[]{0}, new int[]{3}, null)));
+        for (int i = 0; i < 3; i++) {
+            bus.publish(event(RiskEventType.DIE_ROLLED, i));
+        }
+        bus.publish(event(RiskEventType.UPDATE_MAP, new MapUpdate(new int[]{2}, new int[]{1}, new int[]{4}, null)));
+        bus.publish(event(RiskEventType.DIE_ROLLED, 3));
+        runFrame();
+        assertEquals(3, bus.getDroppedCount());
+        int[] units = new int[3];
+        int[] owners = new int[3];
+        int updates = 0;
+        for (RiskEvent e : delivered) {
+            if (e.getType() != RiskEventType.UPDATE_MAP) continue;
+            updates++;
+            MapUpdate update = (MapUpdate) e.getEventInfo()[0];
+            for (int i = 0; i < update.getCount(); i++) {
+                units[update.getTerritory(i)] = update.getUnits(i);
+                owners[update.getTerritory(i)] = update.getOwner(i);
+            }
+        }
+        assertEquals(1, updates);
+        assertArrayEquals(new int[]{0, 3, 4}, units);
+        assertArrayEquals(new int[]{0, 0, 1}, owners);
+    }
+
+    /**
+     * Tests that a publisher waits for room in a full queue while the handler is busy on its own thread.
+     *
+     * @throws Exception When a thread failed
+     */
+    @Test
+    public void testBlock() throws Exception {
+        ExecutorService handlerThread = Executors.newSingleThreadExecutor();
+        ExecutorService publisherThread = Executors.newSingleThreadExecutor();
+        try {
+            RiskEventBus bus = new RiskEventBus(1, RiskEventBus.Backpressure.BLOCK);
+            CountDownLatch busy = new CountDownLatch(1);
+            List<RiskEvent> received = new ArrayList<>();
+            bus.subscribe(e -> {
+                try {
+                    busy.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (received) {
+                    received.add(e);
+                }
+            }, handlerThread);
+            Future<?> publishing = publisherThread.submit(() -> {
+                for (int i = 0; i < 5; i++) {
+                    bus.publish(event(RiskEventType.DIE_ROLLED, i));
+                }
+            });
+            Thread.sleep(50);
+            assertFalse(publishing.isDone());
+            busy.countDown();
+            publishing.get(10, TimeUnit.SECONDS);
+            handlerThread.submit(() -> null).get(10, TimeUnit.SECONDS);
+            synchronized (received) {
+                assertEquals(5, received.size());
+                for (int i = 0; i < 5; i++) {
+                    assertEquals(i, received.get(i).getEventInfo()[0]);
+                }
+            }
+        } finally {
+            handlerThread.shutdownNow();
+            publisherThread.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.dreamteam;
+
+import com.dreamteam.core.GameResult;
+import com.dreamteam.core.GameSimulator;
+import com.dreamteam.core.TournamentRunner;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests tournaments of AI only games played on many threads.
+ */
+public class TournamentRunnerTest {
+
+    /**
+     * The runner playing tournaments on the test world.
+     */
+    private TournamentRunner runner;
+
+    /**
+     * Sets up a runner for two AI players on the test world.
+     *
+     * @throws IOException When the test world could not be read
+     */
+    @Before
+    public void setUp() throws IOException {
+        runner = new TournamentRunner(GameSimulator.readWorld(new File("src/test/resources/test1.world")), 2, 1000);
+    }
+
+    /**
+     * Tests that every game of a tournament is played and aggregated.
+     */
+    @Test
+    public void testRun() {
+        GameResult[] results = runner.run(40, 4, 3110);
+        assertEquals(40, results.length);
+        for (GameResult result : results) {
+            assertNotNull(result);
+        }
+        assertEquals(40, runner.getGames());
+        assertEquals(40, runner.getFinished());
+        long wins = 0;
+        for (long count : runner.getWins().values()) {
+            wins += count;
+        }
+        assertEquals(40, wins);
+        assertTrue(runner.getLongestGameNanos() >= runner.getAverageGameNanos());
+    }
+
+    /**
+     * Tests that a tournament plays the same games regardless of the number of threads.
+     */
+    @Test
+    public void testReproducible() {
+        GameResult[] single = runner.run(20, 1, 42);
+        long turns = runner.getTurns();
+        GameResult[] parallel = runner.run(20, 4, 42);
+        assertEquals(turns, runner.getTurns());
+        for (int i = 0; i < single.length; i++) {
+            assertEquals(single[i].getSeed(), parallel[i].getSeed());
+            assertEquals(single[i].getWinner(), parallel[i].getWinner());
+            assertEquals(single[i].getTurns(), parallel[i].getTurns());
+            assertEquals(single[i].getBattles(), parallel[i].getBattles());
+        }
+    }
+}
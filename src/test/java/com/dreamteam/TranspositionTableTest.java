@@ -0,0 +1,92 @@
+package com.dreamteam;
+
+import com.dreamteam.core.TranspositionTable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests the table that search threads share the evaluations of positions in.
+ */
+public class TranspositionTableTest {
+
+    /**
+     * Tests that the evaluations of a position are counted and averaged.
+     */
+    @Test
+    public void testUpdate() {
+        TranspositionTable table = new TranspositionTable(1000);
+        assertEquals(1024, table.capacity());
+        assertEquals(TranspositionTable.MISS, table.probe(42));
+        table.update(42, 0.25);
+        table.update(42, 0.75);
+        long entry = table.probe(42);
+        assertEquals(2, TranspositionTable.getVisits(entry));
+        assertEquals(0.5, TranspositionTable.getMean(entry), 1e-6);
+        assertEquals(TranspositionTable.MISS, table.probe(43));
+    }
+
+    /**
+     * Tests that a bucket keeps the positions of the current search that were evaluated the most.
+     */
+    @Test
+    public void testReplacement() {
+        TranspositionTable table = new TranspositionTable(2);
+        //all three keys map to the single bucket
+        table.update(2, 0.5);
+        table.update(2, 0.5);
+        table.update(4, 0.5);
+        table.update(6, 0.5);
+        assertEquals(2, TranspositionTable.getVisits(table.probe(2)));
+        assertEquals(TranspositionTable.MISS, table.probe(4));
+        assertEquals(1, TranspositionTable.getVisits(table.probe(6)));
+
+        //positions of an earlier search are replaced first, however often they were evaluated
+        table.newSearch();
+        table.update(6, 0.5);
+        table.update(8, 0.5);
+        assertEquals(TranspositionTable.MISS, table.probe(2));
+        assertEquals(2, TranspositionTable.getVisits(table.probe(6)));
+        assertEquals(1, TranspositionTable.getVisits(table.probe(8)));
+    }
+
+    /**
+     * Tests that threads updating the table at once never read the evaluation of another position.
+     *
+     * @throws Exception When a thread failed
+     */
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        TranspositionTable table = new TranspositionTable(64);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                results.add(executor.submit(() -> {
+                    boolean consistent = true;
+                    for (int i = 0; i < 100_000; i++) {
+                        //every position has its own value, so a torn entry would show up as a wrong mean
+                        long key = i % 512;
+                        table.update(key, key / 512.0);
+                        long entry = table.probe(key);
+                        if (entry != TranspositionTable.MISS) {
+                            consistent &= Math.abs(TranspositionTable.getMean(entry) - key / 512.0) < 1e-6;
+                        }
+                    }
+                    return consistent;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.dreamteam;
+
+import com.dreamteam.core.GameSimulator;
+import com.dreamteam.core.Territory;
+import com.dreamteam.core.TraversalWorkspace;
+import com.dreamteam.core.WorldMap;
+import com.dreamteam.core.WorldTopology;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * JUnit Testing class, tests the compiled topology of a world.
+ */
+public class WorldTopologyTest {
+
+    /**
+     * The world read from the default world file.
+     */
+    private WorldMap world;
+
+    /**
+     * Reads the default world.
+     *
+     * @throws IOException When the world could not be read
+     */
+    @Before
+    public void setUp() throws IOException {
+        world = GameSimulator.readWorld(new File("worlds/world_maps/default.world"));
+    }
+
+    /**
+     * Tests that the compiled neighbours match the neighbours of every territory.
+     */
+    @Test
+    public void testNeighbours() {
+        WorldTopology topology = world.getTopology();
+        int[] offsets = topology.getOffsets();
+        int[] adjacency = topology.getAdjacency();
+        for (int t = 0; t < topology.size(); t++) {
+            Territory territory = world.getTerritory(t);
+            assertEquals(t, territory.getId());
+            assertEquals(territory, world.getTerritory(topology.getName(t)));
+            assertEquals(territory.getNeighbours().size(), topology.degree(t));
+            int i = offsets[t];
+            for (Territory neighbour : territory.getNeighbours()) {
+                assertEquals(neighbour.getId(), adjacency[i++]);
+            }
+        }
+        assertTrue(topology.isConnected());
+    }
+
+    /**
+     * Tests that a copy of a world shares the topology but not the territories.
+     */
+    @Test
+    public void testCopy() {
+        WorldMap copy = new WorldMap(world);
+        assertSame(world.getTopology(), copy.getTopology());
+        for (int t = 0; t < world.getTopology().size(); t++) {
+            Territory original = world.getTerritory(t);
+            Territory copied = copy.getTerritory(t);
+            assertNotSame(original, copied);
+            assertEquals(original.getName(), copied.getName());
+            assertEquals(copy, copied.getWorld());
+            assertEquals(original.getNeighbours().size(), copied.getNeighbours().size());
+        }
+    }
+
+    /**
+     * Tests that a disconnected map is detected.
+     */
+    @Test
+    public void testDisconnected() {
+        WorldTopology topology = new WorldTopology(new String[]{"a", "b", "c"},
+                new int[][]{{1}, {0}, {}}, new int[3], new int[3],
+                new String[]{"all"}, new int[]{2}, new int[][]{{0, 1, 2}});
+        assertFalse(topology.isConnected());
+        assertEquals(0, topology.getContinentOf(2));
+        assertEquals(-1, topology.getId("d"));
+    }
+
+    /**
+     * Tests that the search workspace forgets the territories of the previous search.
+     */
+    @Test
+    public void testWorkspace() {
+        WorldTopology topology = world.getTopology();
+        TraversalWorkspace search = topology.getWorkspace();
+        assertSame(search, topology.getWorkspace());
+        search.start(0);
+        assertFalse(search.visit(0));
+        assertTrue(search.isVisited(0));
+        search.start(1);
+        assertFalse(search.isVisited(0));
+        assertTrue(search.visit(0));
+        assertEquals(2, search.getVisitedCount());
+        assertEquals(1, search.next());
+        assertEquals(0, search.next());
+        assertFalse(search.hasNext());
+        assertTrue(topology.isConnected());
+        assertTrue(topology.isConnected());
+    }
+}